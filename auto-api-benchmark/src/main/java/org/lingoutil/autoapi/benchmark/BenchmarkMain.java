@@ -0,0 +1,32 @@
+package org.lingoutil.autoapi.benchmark;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * 基准测试入口，参数与 JMH 命令行相同，如 {@code -prof gc -p shape=DIAMOND GenerationBenchmark.render}。
+ * 没有指定 profiler 时默认加上 GC profiler，输出每次操作的分配量。
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean hasProfiler = false;
+        for (String arg : args) {
+            if ("-prof".equals(arg) || "-lprof".equals(arg) || "-h".equals(arg) || "-l".equals(arg)) {
+                hasProfiler = true;
+                break;
+            }
+        }
+        if (hasProfiler) {
+            Main.main(args);
+            return;
+        }
+        String[] withProfiler = new String[args.length + 2];
+        withProfiler[0] = "-prof";
+        withProfiler[1] = "gc";
+        System.arraycopy(args, 0, withProfiler, 2, args.length);
+        Main.main(withProfiler);
+    }
+}
@@ -0,0 +1,93 @@
+package org.lingoutil.autoapi.benchmark;
+
+import org.lingoutil.autoapi.emitter.SchemaCommentWriter;
+import org.lingoutil.autoapi.generator.ApiFileWriter;
+import org.lingoutil.autoapi.generator.TypeSchemaResolver;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成流程各阶段的基准测试，从完整流程到单个阶段：
+ * <ul>
+ *     <li>{@link #initialize}：查找 Controller 并生成，即启动时的完整开销</li>
+ *     <li>{@link #generateApiCode}：对已知的 Controller 构建、渲染并写出</li>
+ *     <li>{@link #buildModules}：反射读取接口并解析 DTO 的类型结构</li>
+ *     <li>{@link #writeDataComment}：展开 DTO 字段的注释，对应原先的 writeObjectFields</li>
+ *     <li>{@link #render}：按配置的输出器渲染并编码为 UTF-8</li>
+ *     <li>{@link #writeFiles}：暂存并原子发布预先渲染好的文件</li>
+ * </ul>
+ * 配合 {@code -prof gc} 可以得到每个阶段的分配量。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+    @Benchmark
+    public void initialize(GenerationState state) {
+        state.apiInitializer.initialize();
+    }
+
+    @Benchmark
+    public void generateApiCode(GenerationState state) {
+        state.apiGenerator.generateApiCode(state.controllerClasses);
+    }
+
+    @Benchmark
+    public void buildModules(GenerationState state, Blackhole blackhole) {
+        // 与一次生成相同，所有 Controller 共享一个类型结构缓存
+        TypeSchemaResolver resolver = new TypeSchemaResolver();
+        for (Class<?> controllerClass : state.controllerClasses) {
+            blackhole.consume(state.apiMethodBuilder.buildModule(controllerClass, resolver));
+        }
+    }
+
+    @Benchmark
+    public void writeDataComment(GenerationState state, Blackhole blackhole) {
+        StringBuilder out = new StringBuilder();
+        for (ApiModule module : state.modules) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                out.setLength(0);
+                SchemaCommentWriter.writeDataComment(endpoint.getParameters(), out, endpoint.getHttpMethod(),
+                        state.renderOptions);
+                blackhole.consume(out.length());
+            }
+        }
+    }
+
+    @Benchmark
+    public void render(GenerationState state, Blackhole blackhole) {
+        for (ApiModule module : state.modules) {
+            blackhole.consume(state.apiMethodBuilder.render(module, state.renderOptions));
+        }
+        blackhole.consume(state.apiMethodBuilder.renderShared(state.modules, state.renderOptions));
+    }
+
+    @Benchmark
+    public void writeFiles(GenerationState state) throws IOException {
+        ApiFileWriter.Batch batch = state.apiFileWriter.begin();
+        try {
+            for (int i = 0; i < state.modules.size(); i++) {
+                // 写出会移动缓冲区的位置，每次使用副本
+                batch.stage(state.fileNames.get(i), state.contents.get(i).duplicate());
+            }
+            batch.publish();
+        }
+        finally {
+            batch.discard();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.lingoutil.autoapi.benchmark;
+
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiFileWriter;
+import org.lingoutil.autoapi.generator.ApiGenerator;
+import org.lingoutil.autoapi.generator.ApiInitializer;
+import org.lingoutil.autoapi.generator.ApiMethodBuilder;
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.generator.TypeSchemaResolver;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试共享的状态：编译合成的 Controller，启动只包含 auto-api 组件的 Spring 容器，
+ * 并预先构建和渲染好各阶段的输入，使每个基准方法只测量一个阶段。
+ */
+@State(Scope.Benchmark)
+public class GenerationState {
+
+    @Param({"10", "100"})
+    public int controllers;
+
+    @Param({"10"})
+    public int methodsPerController;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"TREE", "DIAMOND", "RECURSIVE"})
+    public SyntheticSources.Shape shape;
+
+    @Param({"request"})
+    public String emitter;
+
+    Path workDir;
+
+    AnnotationConfigApplicationContext context;
+
+    ApiInitializer apiInitializer;
+
+    ApiGenerator apiGenerator;
+
+    ApiMethodBuilder apiMethodBuilder;
+
+    ApiFileWriter apiFileWriter;
+
+    ApiConfiguration apiConfiguration;
+
+    List<Class<?>> controllerClasses;
+
+    List<ApiModule> modules;
+
+    /**
+     * 根据全部模块补充后的渲染选项，与一次生成相同
+     */
+    ApiRenderOptions renderOptions;
+
+    List<String> fileNames;
+
+    List<ByteBuffer> contents;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("auto-api-benchmark-");
+        Map<String, String> sources = SyntheticSources.generate(controllers, methodsPerController, depth, fanOut, shape);
+        controllerClasses = SyntheticSources.compile(sources, workDir);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.output-path", workDir.resolve("api").toString());
+        // 在当前线程同步生成，且每次都完整生成，不因内容未变而跳过
+        properties.put("lingo-util.auto-api.async", "false");
+        properties.put("lingo-util.auto-api.incremental", "false");
+        properties.put("lingo-util.auto-api.emitter", emitter);
+
+        context = new AnnotationConfigApplicationContext();
+        context.setClassLoader(controllerClasses.get(0).getClassLoader());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.scan("org.lingoutil.autoapi");
+        for (Class<?> controllerClass : controllerClasses) {
+            context.registerBean(controllerClass);
+        }
+        context.refresh();
+
+        apiInitializer = context.getBean(ApiInitializer.class);
+        apiGenerator = context.getBean(ApiGenerator.class);
+        apiMethodBuilder = context.getBean(ApiMethodBuilder.class);
+        apiFileWriter = context.getBean(ApiFileWriter.class);
+        apiConfiguration = context.getBean(ApiConfiguration.class);
+
+        TypeSchemaResolver resolver = new TypeSchemaResolver();
+        modules = new ArrayList<>();
+        fileNames = new ArrayList<>();
+        contents = new ArrayList<>();
+        for (Class<?> controllerClass : controllerClasses) {
+            modules.add(apiMethodBuilder.buildModule(controllerClass, resolver));
+        }
+        renderOptions = ApiModuleRenderer.prepare(modules, apiConfiguration.getRenderOptions());
+        for (ApiModule module : modules) {
+            fileNames.add(apiMethodBuilder.fileName(module));
+            contents.add(apiMethodBuilder.render(module, renderOptions));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+}
@@ -0,0 +1,205 @@
+package org.lingoutil.autoapi.benchmark;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成并编译合成的 Controller 和 DTO，用于在不同规模和结构下测量生成耗时。
+ * <p>
+ * 所有 Controller 共享 {@link #FAMILIES} 组 DTO，第 j 个方法交替生成 GET（普通参数）和 POST（请求体为第 j 组 DTO 的根类型）接口。
+ * 每组 DTO 的结构由 {@link Shape} 决定：
+ * <ul>
+ *     <li>{@link Shape#TREE}：每个类型有 fanOut 个不同类型的子字段，共 depth 层，类型数量随深度指数增长</li>
+ *     <li>{@link Shape#DIAMOND}：每层 fanOut 个类型，每个类型引用下一层的全部类型，类型数量线性增长，展开次数指数增长</li>
+ *     <li>{@link Shape#RECURSIVE}：与 TREE 相同，每个类型额外引用根类型和自身的列表，用于测量递归检测</li>
+ * </ul>
+ */
+public final class SyntheticSources {
+
+    public static final String PACKAGE = "synthetic";
+
+    /**
+     * DTO 的组数，所有 Controller 共享
+     */
+    public static final int FAMILIES = 4;
+
+    public enum Shape {
+        TREE, DIAMOND, RECURSIVE
+    }
+
+    private SyntheticSources() {
+    }
+
+    /**
+     * 生成源码。
+     *
+     * @param controllers          Controller 数量
+     * @param methodsPerController 每个 Controller 的接口方法数量
+     * @param depth                DTO 的嵌套深度
+     * @param fanOut               每个 DTO 的自定义对象字段数量
+     * @param shape                DTO 的结构
+     * @return 全限定类名到源码
+     */
+    public static Map<String, String> generate(int controllers, int methodsPerController, int depth, int fanOut, Shape shape) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int family = 0; family < FAMILIES; family++) {
+            if (shape == Shape.DIAMOND) {
+                generateDiamond(sources, family, depth, fanOut);
+            }
+            else {
+                generateTree(sources, family, "", 0, depth, fanOut, shape == Shape.RECURSIVE);
+            }
+        }
+        for (int controller = 0; controller < controllers; controller++) {
+            generateController(sources, controller, methodsPerController);
+        }
+        return sources;
+    }
+
+    /**
+     * 编译源码并加载全部 Controller 类。
+     *
+     * @param sources   全限定类名到源码
+     * @param outputDir class 文件的输出目录
+     * @return Controller 类，按编号排序
+     * @throws IOException 编译失败
+     */
+    public static List<Class<?>> compile(Map<String, String> sources, Path outputDir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Benchmarks must run on a JDK, not a JRE");
+        }
+
+        Path sourceDir = Files.createDirectories(outputDir.resolve("src"));
+        Path classDir = Files.createDirectories(outputDir.resolve("classes"));
+        List<File> sourceFiles = new ArrayList<>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            Path sourceFile = sourceDir.resolve(entry.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(sourceFile.getParent());
+            Files.write(sourceFile, entry.getValue().getBytes(StandardCharsets.UTF_8));
+            sourceFiles.add(sourceFile.toFile());
+        }
+
+        StringWriter diagnostics = new StringWriter();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sourceFiles);
+            List<String> options = Arrays.asList(
+                    "-parameters", "-proc:none", "-encoding", "UTF-8",
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classDir.toString());
+            if (!compiler.getTask(diagnostics, fileManager, null, options, null, units).call()) {
+                throw new IOException("Failed to compile synthetic sources: " + diagnostics);
+            }
+        }
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{classDir.toUri().toURL()}, SyntheticSources.class.getClassLoader());
+        List<Class<?>> controllerClasses = new ArrayList<>();
+        for (String className : sources.keySet()) {
+            if (className.endsWith("Controller")) {
+                try {
+                    controllerClasses.add(Class.forName(className, false, classLoader));
+                }
+                catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+        return controllerClasses;
+    }
+
+    private static void generateController(Map<String, String> sources, int controller, int methods) {
+        String className = "Synthetic" + controller + "Controller";
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE).append(";\n\n")
+                .append("import org.lingoutil.autoapi.annotation.AutoApi;\n")
+                .append("import org.lingoutil.autoapi.annotation.GenerateApi;\n")
+                .append("import org.springframework.web.bind.annotation.RequestBody;\n")
+                .append("import org.springframework.web.bind.annotation.RequestMapping;\n")
+                .append("import org.springframework.web.bind.annotation.RestController;\n\n")
+                .append("@RestController\n")
+                .append("@RequestMapping(\"/synthetic").append(controller).append("\")\n")
+                .append("@GenerateApi\n")
+                .append("public class ").append(className).append(" {\n");
+        for (int method = 0; method < methods; method++) {
+            source.append("\n    @AutoApi(description = \"synthetic method ").append(method).append("\")\n")
+                    .append("    @RequestMapping(\"/m").append(method).append("\")\n");
+            if (method % 2 == 0) {
+                source.append("    public String m").append(method).append("(Long id, String name, Integer page) {\n");
+            }
+            else {
+                source.append("    public String m").append(method).append("(@RequestBody ")
+                        .append(rootName(method % FAMILIES)).append(" body) {\n");
+            }
+            source.append("        return null;\n    }\n");
+        }
+        source.append("}\n");
+        sources.put(PACKAGE + "." + className, source.toString());
+    }
+
+    private static void generateTree(Map<String, String> sources, int family, String path, int level,
+                                     int depth, int fanOut, boolean recursive) {
+        String className = path.isEmpty() ? rootName(family) : "F" + family + "Node" + path;
+        List<String> childFields = new ArrayList<>();
+        if (level < depth) {
+            for (int child = 0; child < fanOut; child++) {
+                String childPath = path + "_" + child;
+                generateTree(sources, family, childPath, level + 1, depth, fanOut, recursive);
+                childFields.add("F" + family + "Node" + childPath + " child" + child);
+            }
+        }
+        if (recursive) {
+            childFields.add(rootName(family) + " root");
+            childFields.add("java.util.List<" + className + "> siblings");
+        }
+        sources.put(PACKAGE + "." + className, dto(className, childFields));
+    }
+
+    private static void generateDiamond(Map<String, String> sources, int family, int depth, int fanOut) {
+        for (int level = 0; level <= depth; level++) {
+            int types = level == 0 ? 1 : fanOut;
+            for (int index = 0; index < types; index++) {
+                String className = level == 0 ? rootName(family) : "F" + family + "Level" + level + "_" + index;
+                List<String> childFields = new ArrayList<>();
+                if (level < depth) {
+                    for (int child = 0; child < fanOut; child++) {
+                        childFields.add("F" + family + "Level" + (level + 1) + "_" + child + " child" + child);
+                    }
+                }
+                sources.put(PACKAGE + "." + className, dto(className, childFields));
+            }
+        }
+    }
+
+    private static String rootName(int family) {
+        return "F" + family + "Root";
+    }
+
+    private static String dto(String className, List<String> childFields) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE).append(";\n\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    private Long id;\n")
+                .append("    private String name;\n")
+                .append("    private java.time.LocalDateTime updatedAt;\n");
+        for (String childField : childFields) {
+            source.append("    private ").append(childField).append(";\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+}
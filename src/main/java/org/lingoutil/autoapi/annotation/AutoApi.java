@@ -13,4 +13,38 @@ public @interface AutoApi {
     String method() default "";
 
     String description() default "";
+
+    /**
+     * GET 接口在前端缓存结果的时间，单位毫秒，0 表示不缓存。
+     * 相同参数的并发调用共用一个请求，过期后携带 ETag 重新验证，同一 Controller 中的其他请求方法完成后清除缓存
+     */
+    long cacheTtlMs() default 0;
+
+    /**
+     * 前端等待响应的最长时间，单位毫秒，0 表示不限制。超时后中止请求，返回的 Promise 以 TimeoutError 失败
+     */
+    long timeoutMs() default 0;
+
+    /**
+     * GET 接口超过该时间（毫秒）仍未响应时再发送一个相同的请求，先返回的响应胜出，另一个请求被中止。
+     * 0 表示不发送，非 GET 的接口不会发送
+     */
+    long hedgeAfterMs() default 0;
+
+    /**
+     * 以 multipart 表单上传的文件超过分片大小时分片上传，失败的分片自动重试，再次调用时从已上传的位置继续。
+     * 服务端需要使用 {@code ApiChunkAssembler} 组装分片，只对有 MultipartFile 参数的接口生效
+     */
+    boolean chunkedUpload() default false;
+
+    /**
+     * 前端以 gzip 压缩 JSON 请求体并带上 {@code Content-Encoding: gzip}，适合数据量大的导入接口。
+     * 服务端需要开启 {@code lingo-util.auto-api.decompress-request} 由 {@code ApiDecompressionFilter} 解压，只对 GET 以外、不是文件上传的接口生效
+     */
+    boolean compressRequest() default false;
+
+    /**
+     * 压缩请求体的最小字节数，JSON 文本小于该大小时不压缩，压缩小请求体得不偿失
+     */
+    int compressMinBytes() default 1024;
 }
@@ -11,4 +11,9 @@ public @interface GenerateApi {
     boolean enabled() default true;
 
     String description() default "";
+
+    /**
+     * 是否合并同一时间窗口内的 GET 调用，以一个批量请求发送，服务端由 {@code ApiBatchFilter} 分发
+     */
+    boolean batching() default false;
 }
@@ -1,18 +1,242 @@
 package org.lingoutil.autoapi.config;
 
+import org.lingoutil.autoapi.emitter.ApiEmitters;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.generator.ApiRuntimeOptions;
 import org.lingoutil.autoapi.util.FileUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class ApiConfiguration {
 
+    public static final String OUTPUT_MODE_PLAIN = "plain";
+    public static final String OUTPUT_MODE_HASHED = "hashed";
+
+    public static final String DISCOVERY_METADATA = "metadata";
+    public static final String DISCOVERY_BEAN = "bean";
+
+    public static final String LOCK_MODE_NONE = "none";
+    public static final String LOCK_MODE_SKIP = "skip";
+    public static final String LOCK_MODE_WAIT = "wait";
+
     @Value("${lingo-util.auto-api.output-path:./}")
     private String outputPath;
 
-    @Value("${lingoutil.auto-api.enable:true}")
+    /**
+     * 是否在运行时生成，兼容旧的 lingoutil.auto-api.enable 配置
+     */
+    @Value("${lingo-util.auto-api.enable:${lingoutil.auto-api.enable:true}}")
     private Boolean enable;
 
+    /**
+     * 是否在后台线程中生成，关闭后在容器刷新时同步生成
+     */
+    @Value("${lingo-util.auto-api.async:true}")
+    private Boolean async;
+
+    /**
+     * 并行生成的线程数，1 表示逐个生成，小于 1 表示使用 CPU 核数
+     */
+    @Value("${lingo-util.auto-api.parallelism:1}")
+    private Integer parallelism;
+
+    /**
+     * 并行生成时是否优先使用虚拟线程
+     */
+    @Value("${lingo-util.auto-api.virtual-threads:false}")
+    private Boolean virtualThreads;
+
+    /**
+     * 是否增量生成，开启后只重新生成指纹发生变化的文件，并删除已移除的 Controller 对应的文件
+     */
+    @Value("${lingo-util.auto-api.incremental:true}")
+    private Boolean incremental;
+
+    /**
+     * 同一个模块文件中重复出现的 DTO 是否只展开一次，之后以引用表示
+     */
+    @Value("${lingo-util.auto-api.schema-references:false}")
+    private Boolean schemaReferences;
+
+    /**
+     * DTO 嵌套字段的最大展开深度，小于 1 表示不限制
+     */
+    @Value("${lingo-util.auto-api.max-depth:0}")
+    private Integer maxDepth;
+
+    /**
+     * 输出方式：plain 输出固定文件名，hashed 输出带内容哈希的文件名、gzip 预压缩文件和清单
+     */
+    @Value("${lingo-util.auto-api.output-mode:plain}")
+    private String outputMode;
+
+    /**
+     * Controller 的查找方式：metadata 只读取 Bean 定义和类元数据，bean 获取 Bean 实例后读取注解
+     */
+    @Value("${lingo-util.auto-api.discovery:metadata}")
+    private String discovery;
+
+    /**
+     * 是否将生成的文件写入输出目录，只读文件系统中可以关闭，仅从内存提供
+     */
+    @Value("${lingo-util.auto-api.write-files:true}")
+    private Boolean writeFiles;
+
+    /**
+     * 是否通过 Servlet 过滤器从内存直接提供生成的文件
+     */
+    @Value("${lingo-util.auto-api.serve:false}")
+    private Boolean serve;
+
+    /**
+     * 从内存提供文件时的访问路径前缀
+     */
+    @Value("${lingo-util.auto-api.serve-path:/auto-api}")
+    private String servePath;
+
+    /**
+     * 输出器名称，内置 request 和 fetch，也可以是通过 SPI 登记的自定义输出器
+     */
+    @Value("${lingo-util.auto-api.emitter:request}")
+    private String emitter;
+
+    /**
+     * 是否监视编译输出目录，类文件变化后只重新生成受影响的 Controller，用于开发环境
+     */
+    @Value("${lingo-util.auto-api.watch:false}")
+    private Boolean watch;
+
+    /**
+     * 监视模式下合并连续变化的等待时间，单位毫秒
+     */
+    @Value("${lingo-util.auto-api.watch-debounce:300}")
+    private Long watchDebounce;
+
+    /**
+     * 监视的类文件目录，多个以逗号分隔，未配置时使用 Controller 所在的目录和类路径中的全部目录
+     */
+    @Value("${lingo-util.auto-api.watch-paths:}")
+    private String watchPaths;
+
+    /**
+     * 合并请求的地址，前端的批量请求和服务端的分发过滤器共用
+     */
+    @Value("${lingo-util.auto-api.batch-path:/auto-api-batch}")
+    private String batchPath;
+
+    /**
+     * 前端合并调用的时间窗口，单位毫秒，0 表示只合并同一个微任务中的调用
+     */
+    @Value("${lingo-util.auto-api.batch-window:10}")
+    private Integer batchWindow;
+
+    /**
+     * 单个批量请求最多包含的调用数，前端达到后立即发送，服务端拒绝超出的请求
+     */
+    @Value("${lingo-util.auto-api.batch-max-size:20}")
+    private Integer batchMaxSize;
+
+    /**
+     * 服务端处理单个批量请求的最长时间，单位毫秒，超时未完成的子请求被取消并返回 504，小于 1 表示不限制
+     */
+    @Value("${lingo-util.auto-api.batch-timeout:30000}")
+    private Integer batchTimeout;
+
+    /**
+     * 前端缓存 GET 结果的最大条目数，超出后淘汰最久未使用的条目
+     */
+    @Value("${lingo-util.auto-api.cache-max-entries:200}")
+    private Integer cacheMaxEntries;
+
+    /**
+     * 是否在生成的接口方法中记录调用耗时，按接口标识批量上报
+     */
+    @Value("${lingo-util.auto-api.telemetry:false}")
+    private Boolean telemetry;
+
+    /**
+     * 耗时记录的上报地址，可以是其他域名下的完整地址
+     */
+    @Value("${lingo-util.auto-api.telemetry-path:/auto-api-telemetry}")
+    private String telemetryPath;
+
+    /**
+     * 记录耗时的采样比例，0 到 1 之间
+     */
+    @Value("${lingo-util.auto-api.telemetry-sample-rate:1.0}")
+    private Double telemetrySampleRate;
+
+    /**
+     * 分片上传的分片大小（字节），超过该大小的单个文件分片上传，支持断点续传
+     */
+    @Value("${lingo-util.auto-api.upload-chunk-size:8388608}")
+    private Integer uploadChunkSize;
+
+    /**
+     * ApiChunkAssembler 保存未完成的分片上传的目录，默认为临时目录下的 auto-api-uploads
+     */
+    @Value("${lingo-util.auto-api.upload-path:}")
+    private String uploadPath;
+
+    /**
+     * 分片上传的临时文件和组装好但未移走的文件闲置多久（毫秒）后被清理
+     */
+    @Value("${lingo-util.auto-api.upload-expire:86400000}")
+    private Long uploadExpire;
+
+    /**
+     * 分片上传允许的最大文件大小（字节），按请求头 X-Upload-Length 检查，超过时返回 413，小于 1 表示不限制
+     */
+    @Value("${lingo-util.auto-api.upload-max-size:1073741824}")
+    private Long uploadMaxSize;
+
+    /**
+     * 是否由 ApiDecompressionFilter 解压 Content-Encoding 为 gzip 的请求体，使用 compressRequest 的接口需要开启
+     */
+    @Value("${lingo-util.auto-api.decompress-request:false}")
+    private Boolean decompressRequest;
+
+    /**
+     * 解压后与压缩前字节数的最大比例，超过时中止读取，防止压缩炸弹
+     */
+    @Value("${lingo-util.auto-api.decompress-max-ratio:100}")
+    private Integer decompressMaxRatio;
+
+    /**
+     * 解压后请求体的最大字节数
+     */
+    @Value("${lingo-util.auto-api.decompress-max-size:104857600}")
+    private Long decompressMaxSize;
+
+    /**
+     * 压测驱动 AutoApiLoadDriver.java 的源码目录，如 src/test/java，为空时不生成
+     */
+    @Value("${lingo-util.auto-api.load-driver-path:}")
+    private String loadDriverPath;
+
+    /**
+     * 压测驱动所在的包，为空时不声明包
+     */
+    @Value("${lingo-util.auto-api.load-driver-package:}")
+    private String loadDriverPackage;
+
+    /**
+     * 多个实例共享输出目录时的协调方式：none 不加锁，skip 锁被占用时不写文件，wait 等待锁释放后再判断是否需要生成
+     */
+    @Value("${lingo-util.auto-api.lock-mode:none}")
+    private String lockMode;
+
+    /**
+     * wait 方式下等待锁的最长时间（毫秒），超时后不写文件
+     */
+    @Value("${lingo-util.auto-api.lock-timeout:30000}")
+    private Long lockTimeout;
+
     public String getOutputPath() {
         return FileUtils.guaranteeEndWithSlash(outputPath);
     }
@@ -23,4 +247,248 @@ public class ApiConfiguration {
         }
         return enable;
     }
+
+    public Boolean getAsync() {
+        if (async == null) {
+            return true;
+        }
+        return async;
+    }
+
+    public int getParallelism() {
+        if (parallelism == null) {
+            return 1;
+        }
+        if (parallelism < 1) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return parallelism;
+    }
+
+    public Boolean getVirtualThreads() {
+        if (virtualThreads == null) {
+            return false;
+        }
+        return virtualThreads;
+    }
+
+    public Boolean getIncremental() {
+        if (incremental == null) {
+            return true;
+        }
+        return incremental;
+    }
+
+    public ApiRenderOptions getRenderOptions() {
+        boolean references = schemaReferences != null && schemaReferences;
+        int depth = maxDepth == null ? 0 : maxDepth;
+        String emitterName = emitter == null || emitter.trim().isEmpty() ? ApiEmitters.DEFAULT : emitter.trim();
+        ApiRuntimeOptions runtime = new ApiRuntimeOptions(getBatchPath(), getBatchWindow(), getBatchMaxSize(),
+                getCacheMaxEntries(), getTelemetryPath(), getTelemetrySampleRate(), getUploadChunkSize());
+        return new ApiRenderOptions(references, depth, emitterName, runtime);
+    }
+
+    public String getOutputMode() {
+        if (outputMode == null || outputMode.trim().isEmpty()) {
+            return OUTPUT_MODE_PLAIN;
+        }
+        return outputMode.trim().toLowerCase();
+    }
+
+    public boolean isHashedOutput() {
+        return OUTPUT_MODE_HASHED.equals(getOutputMode());
+    }
+
+    public String getDiscovery() {
+        if (discovery == null || discovery.trim().isEmpty()) {
+            return DISCOVERY_METADATA;
+        }
+        return discovery.trim().toLowerCase();
+    }
+
+    public Boolean getWriteFiles() {
+        if (writeFiles == null) {
+            return true;
+        }
+        return writeFiles;
+    }
+
+    public Boolean getServe() {
+        if (serve == null) {
+            return false;
+        }
+        return serve;
+    }
+
+    public String getServePath() {
+        if (servePath == null || servePath.trim().isEmpty()) {
+            return "/auto-api";
+        }
+        String path = FileUtils.guaranteeStartWithSlash(servePath.trim());
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    public Boolean getWatch() {
+        if (watch == null) {
+            return false;
+        }
+        return watch;
+    }
+
+    public long getWatchDebounce() {
+        if (watchDebounce == null || watchDebounce < 0) {
+            return 300;
+        }
+        return watchDebounce;
+    }
+
+    public List<String> getWatchPaths() {
+        List<String> paths = new ArrayList<>();
+        if (watchPaths == null) {
+            return paths;
+        }
+        for (String path : watchPaths.split(",")) {
+            if (!path.trim().isEmpty()) {
+                paths.add(path.trim());
+            }
+        }
+        return paths;
+    }
+
+    public String getBatchPath() {
+        if (batchPath == null || batchPath.trim().isEmpty()) {
+            return ApiRuntimeOptions.DEFAULT_BATCH_PATH;
+        }
+        String path = FileUtils.guaranteeStartWithSlash(batchPath.trim());
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    public int getBatchWindow() {
+        if (batchWindow == null || batchWindow < 0) {
+            return ApiRuntimeOptions.DEFAULT_BATCH_WINDOW;
+        }
+        return batchWindow;
+    }
+
+    public int getBatchMaxSize() {
+        if (batchMaxSize == null || batchMaxSize < 1) {
+            return ApiRuntimeOptions.DEFAULT_BATCH_MAX_SIZE;
+        }
+        return batchMaxSize;
+    }
+
+    public int getBatchTimeout() {
+        if (batchTimeout == null) {
+            return 30000;
+        }
+        return batchTimeout;
+    }
+
+    public int getCacheMaxEntries() {
+        if (cacheMaxEntries == null || cacheMaxEntries < 1) {
+            return ApiRuntimeOptions.DEFAULT_CACHE_MAX_ENTRIES;
+        }
+        return cacheMaxEntries;
+    }
+
+    public Boolean getTelemetry() {
+        if (telemetry == null) {
+            return false;
+        }
+        return telemetry;
+    }
+
+    public String getTelemetryPath() {
+        if (telemetryPath == null || telemetryPath.trim().isEmpty()) {
+            return ApiRuntimeOptions.DEFAULT_TELEMETRY_PATH;
+        }
+        return telemetryPath.trim();
+    }
+
+    public double getTelemetrySampleRate() {
+        if (telemetrySampleRate == null || telemetrySampleRate.isNaN()) {
+            return ApiRuntimeOptions.DEFAULT_TELEMETRY_SAMPLE_RATE;
+        }
+        return Math.max(0, Math.min(1, telemetrySampleRate));
+    }
+
+    public int getUploadChunkSize() {
+        if (uploadChunkSize == null || uploadChunkSize < 1) {
+            return ApiRuntimeOptions.DEFAULT_UPLOAD_CHUNK_SIZE;
+        }
+        return uploadChunkSize;
+    }
+
+    public String getUploadPath() {
+        if (uploadPath == null || uploadPath.trim().isEmpty()) {
+            return System.getProperty("java.io.tmpdir") + File.separator + "auto-api-uploads";
+        }
+        return uploadPath.trim();
+    }
+
+    public long getUploadExpire() {
+        if (uploadExpire == null || uploadExpire < 0) {
+            return 86400000;
+        }
+        return uploadExpire;
+    }
+
+    public long getUploadMaxSize() {
+        if (uploadMaxSize == null) {
+            return 1073741824;
+        }
+        return uploadMaxSize;
+    }
+
+    public Boolean getDecompressRequest() {
+        if (decompressRequest == null) {
+            return false;
+        }
+        return decompressRequest;
+    }
+
+    public int getDecompressMaxRatio() {
+        if (decompressMaxRatio == null || decompressMaxRatio < 1) {
+            return 100;
+        }
+        return decompressMaxRatio;
+    }
+
+    public long getDecompressMaxSize() {
+        if (decompressMaxSize == null || decompressMaxSize < 1) {
+            return 104857600;
+        }
+        return decompressMaxSize;
+    }
+
+    public String getLoadDriverPath() {
+        return loadDriverPath == null ? "" : loadDriverPath.trim();
+    }
+
+    public String getLoadDriverPackage() {
+        return loadDriverPackage == null ? "" : loadDriverPackage.trim();
+    }
+
+    public String getLockMode() {
+        if (lockMode == null || lockMode.trim().isEmpty()) {
+            return LOCK_MODE_NONE;
+        }
+        return lockMode.trim().toLowerCase();
+    }
+
+    public long getLockTimeout() {
+        if (lockTimeout == null || lockTimeout < 0) {
+            return 30000;
+        }
+        return lockTimeout;
+    }
+
+    /**
+     * 影响生成结果的全部配置，计入增量生成的指纹，任一项变化时全部重新生成
+     *
+     * @param renderOptions 本次生成实际使用的渲染选项，包含根据全部模块确定的类型名
+     */
+    public String getFingerprintSettings(ApiRenderOptions renderOptions) {
+        return renderOptions + " output-mode=" + getOutputMode();
+    }
 }
@@ -0,0 +1,106 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+import java.util.List;
+
+/**
+ * 将 API 模块输出为某种前端代码风格的输出器。
+ * <p>
+ * 内置 {@code request}（默认，基于项目中的 {@code @/utils/request}）、{@code fetch}（浏览器原生 fetch，无需依赖）
+ * 和 {@code typescript}（带共享类型声明的 TypeScript）三种输出器，
+ * 通过 {@code lingo-util.auto-api.emitter} 或编译参数 {@code -Aautoapi.emitter} 选择。
+ * 自定义输出器实现该接口，并在 {@code META-INF/services/org.lingoutil.autoapi.emitter.ApiEmitter} 中登记即可，
+ * 运行时和注解处理器都会加载。
+ * <p>
+ * 实现必须是无状态的：同一个实例会被多个线程同时用于渲染不同的模块。
+ * 输出器应当使用 {@link ApiTemplate} 等预编译的方式输出，避免在每次调用时解析格式。
+ */
+public interface ApiEmitter {
+
+    /**
+     * 输出器名称，用于配置中选择输出器。
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 生成文件的扩展名。
+     *
+     * @return 扩展名，包含开头的点
+     */
+    default String getFileExtension() {
+        return ".js";
+    }
+
+    /**
+     * 渲染前根据本次生成的全部模块补充渲染选项，如为简单类名相同的 DTO 分配不同的类型名。
+     * 模块文件和共享文件都使用返回的选项渲染，返回的选项也计入增量生成的指纹。
+     *
+     * @param modules 本次生成的全部模块
+     * @param options 渲染选项
+     * @return 补充后的渲染选项，不需要补充时返回传入的选项
+     */
+    default ApiRenderOptions prepare(List<ApiModule> modules, ApiRenderOptions options) {
+        return options;
+    }
+
+    /**
+     * 所有模块共享的文件名，如 TypeScript 的类型声明文件。
+     *
+     * @return 文件名，没有共享文件时返回 null
+     */
+    default String getSharedFileName() {
+        return null;
+    }
+
+    /**
+     * 输出所有模块共享的文件，{@link #getSharedFileName()} 不为 null 时才会调用。
+     * 内容应当只与模块本身有关，与模块的顺序无关。
+     *
+     * @param modules 本次生成的全部模块
+     * @param out     输出缓冲区
+     * @param options 渲染选项
+     */
+    default void emitShared(List<ApiModule> modules, StringBuilder out, ApiRenderOptions options) {
+    }
+
+    /**
+     * 运行时模块的文件名，见 {@link ApiRuntime}。
+     *
+     * @return 文件名，输出器不支持合并请求等调用方式时返回 null
+     */
+    default String getRuntimeFileName() {
+        return null;
+    }
+
+    /**
+     * 输出运行时模块，{@link #getRuntimeFileName()} 不为 null 且有接口方法的调用方式不是默认值时才会调用。
+     *
+     * @param out     输出缓冲区
+     * @param options 渲染选项
+     */
+    default void emitRuntime(StringBuilder out, ApiRenderOptions options) {
+    }
+
+    /**
+     * 输出文件开头的内容，如 import 语句。
+     *
+     * @param module  API 模块
+     * @param out     输出缓冲区
+     * @param options 渲染选项
+     */
+    void emitHeader(ApiModule module, StringBuilder out, ApiRenderOptions options);
+
+    /**
+     * 输出一个接口方法。
+     *
+     * @param endpoint 接口方法
+     * @param out      输出缓冲区
+     * @param options  渲染选项
+     */
+    void emitEndpoint(ApiEndpoint endpoint, StringBuilder out, ApiRenderOptions options);
+}
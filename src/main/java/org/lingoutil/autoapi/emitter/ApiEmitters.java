@@ -0,0 +1,76 @@
+package org.lingoutil.autoapi.emitter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * 可用输出器的注册表，包含内置输出器和通过 {@link ServiceLoader} 登记的自定义输出器。
+ */
+public final class ApiEmitters {
+
+    public static final String DEFAULT = RequestApiEmitter.NAME;
+
+    private static volatile Map<String, ApiEmitter> emitters;
+
+    private ApiEmitters() {
+    }
+
+    /**
+     * 按名称获取输出器。
+     *
+     * @param name 输出器名称
+     * @return 输出器
+     * @throws IllegalArgumentException 没有该名称的输出器
+     */
+    public static ApiEmitter get(String name) {
+        ApiEmitter emitter = emitters().get(name);
+        if (emitter == null) {
+            throw new IllegalArgumentException("Unknown autoAPI emitter '" + name + "', available: " + names());
+        }
+        return emitter;
+    }
+
+    /**
+     * 获取全部输出器名称。
+     *
+     * @return 输出器名称
+     */
+    public static Set<String> names() {
+        return emitters().keySet();
+    }
+
+    private static Map<String, ApiEmitter> emitters() {
+        if (emitters == null) {
+            synchronized (ApiEmitters.class) {
+                if (emitters == null) {
+                    emitters = load();
+                }
+            }
+        }
+        return emitters;
+    }
+
+    private static Map<String, ApiEmitter> load() {
+        Map<String, ApiEmitter> loaded = new LinkedHashMap<>();
+        register(loaded, new RequestApiEmitter());
+        register(loaded, new FetchApiEmitter());
+        register(loaded, new TypeScriptApiEmitter());
+        // 与本类使用同一个类加载器，注解处理器中从处理器路径加载
+        for (ApiEmitter emitter : ServiceLoader.load(ApiEmitter.class, ApiEmitter.class.getClassLoader())) {
+            register(loaded, emitter);
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * 登记输出器，名称重复时保留先登记的，内置输出器不会被覆盖。
+     */
+    private static void register(Map<String, ApiEmitter> emitters, ApiEmitter emitter) {
+        if (!emitters.containsKey(emitter.getName())) {
+            emitters.put(emitter.getName(), emitter);
+        }
+    }
+}
@@ -0,0 +1,946 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.generator.ApiRuntimeOptions;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成的运行时模块 {@code auto-api-runtime}，内置输出器共用。
+ * <p>
+ * 运行时模块导出 {@code call(send, config, policy)}，接口方法的调用方式不是默认值时，
+ * 生成的代码通过它发起请求，{@code send} 是输出器原本使用的请求函数，{@code policy} 由 {@link #policy} 生成。
+ * 这样的接口方法还接受第二个参数 {@code signal}（AbortSignal），随请求配置传给 {@code call}，用于中止请求；
+ * 文件上传和下载的接口方法的第二个参数则是 {@code options}，其中的 signal、进度回调等合并到请求配置中。
+ * 流式响应的接口方法通过导出的 {@code stream(send, config, policy)} 发起请求，返回逐条产出 SSE 事件或 NDJSON 对象的异步迭代器。
+ * 运行时模块还导出 {@code invalidate(group)} 和 {@code clearCache()}，用于手动清除缓存的 GET 结果，
+ * 以及 {@code flushTelemetry()}，用于立即发送等待中的耗时记录。
+ * 只有存在这样的接口方法时才会生成运行时模块，未使用这些功能时输出与之前完全一致。
+ */
+public final class ApiRuntime {
+
+    /**
+     * 运行时模块名，不含扩展名
+     */
+    public static final String MODULE = "auto-api-runtime";
+
+    private static final ApiTemplate IMPORT = ApiTemplate.compile("import { ${names} } from './${module}'\n", "names", "module");
+
+    /**
+     * 发起普通请求的导出函数名
+     */
+    static final String CALL = "call";
+
+    /**
+     * 读取流式响应的导出函数名
+     */
+    static final String STREAM = "stream";
+
+    private static final ApiTemplate RUNTIME = ApiTemplate.compile(
+            "// 由 autoAPI 生成的运行时模块，请勿修改\n" +
+            "const BATCH_PATH = '${batchPath}'\n" +
+            "const BATCH_WINDOW = ${batchWindow}\n" +
+            "const BATCH_MAX_SIZE = ${batchMaxSize}\n" +
+            "const CACHE_MAX_ENTRIES = ${cacheMaxEntries}\n" +
+            "const TELEMETRY_PATH = '${telemetryPath}'\n" +
+            "const TELEMETRY_SAMPLE_RATE = ${telemetrySampleRate}\n" +
+            "const TELEMETRY_BATCH_SIZE = 50\n" +
+            "const TELEMETRY_FLUSH_INTERVAL = 5000\n" +
+            "const UPLOAD_CHUNK_SIZE = ${uploadChunkSize}\n" +
+            "const UPLOAD_RETRIES = 3\n" +
+            "\n" +
+            "const settings = {\n" +
+            "\t// 将批量响应中的单个结果转换为调用结果，默认 2xx 返回响应体，其余抛出异常\n" +
+            "\tresolveBatchResult: (result, config) => {\n" +
+            "\t\tif (result && result.status >= 200 && result.status < 300) {\n" +
+            "\t\t\treturn result.body\n" +
+            "\t\t}\n" +
+            "\t\tconst status = result ? result.status : undefined\n" +
+            "\t\tconst error = new Error(config.method.toUpperCase() + ' ' + config.url + ' failed with status ' + status)\n" +
+            "\t\terror.status = status\n" +
+            "\t\terror.body = result ? result.body : undefined\n" +
+            "\t\tthrow error\n" +
+            "\t},\n" +
+            "\t// 决定是否记录一次调用的耗时，默认按 TELEMETRY_SAMPLE_RATE 随机采样\n" +
+            "\tsampler: (endpoint) => Math.random() < TELEMETRY_SAMPLE_RATE,\n" +
+            "\t// 发送一批耗时记录，默认通过 navigator.sendBeacon 以 JSON 文本发送到 TELEMETRY_PATH，不可用时使用 fetch\n" +
+            "\treporter: (records) => {\n" +
+            "\t\tconst body = JSON.stringify(records)\n" +
+            "\t\tif (typeof navigator !== 'undefined' && typeof navigator.sendBeacon === 'function' && navigator.sendBeacon(TELEMETRY_PATH, body)) {\n" +
+            "\t\t\treturn\n" +
+            "\t\t}\n" +
+            "\t\tif (typeof fetch === 'function') {\n" +
+            "\t\t\tfetch(TELEMETRY_PATH, { method: 'POST', body, keepalive: true }).catch(() => {})\n" +
+            "\t\t}\n" +
+            "\t},\n" +
+            "\t// 请求函数不能流式读取响应（没有 send.raw，如 axios）时，流式接口直接通过 fetch 请求，地址加上该前缀\n" +
+            "\tstreamBaseURL: '',\n" +
+            "\t// 发起流式请求并返回响应体的 ReadableStream，默认使用 send.raw 的 responseType: 'stream'，没有时使用 fetch\n" +
+            "\topenStream: (send, config) => {\n" +
+            "\t\tif (typeof send.raw === 'function') {\n" +
+            "\t\t\treturn send.raw(Object.assign({}, config, { responseType: 'stream' })).then((response) => toStream(response.data))\n" +
+            "\t\t}\n" +
+            "\t\treturn fetchStream(config)\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "// 修改运行时设置，如 configure({ resolveBatchResult, sampler, reporter })\n" +
+            "export const configure = (options) => Object.assign(settings, options)\n" +
+            "\n" +
+            "// 发起单个请求，记录耗时时通过 send.raw 获取响应的状态码\n" +
+            "const transport = (send, config, trace) => {\n" +
+            "\tif (!trace || typeof send.raw !== 'function') {\n" +
+            "\t\treturn send(config)\n" +
+            "\t}\n" +
+            "\treturn send.raw(config).then((response) => {\n" +
+            "\t\ttrace.status = response.status\n" +
+            "\t\treturn response.data\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "let queue = []\n" +
+            "let timer = null\n" +
+            "\n" +
+            "const sendBatch = (send, calls) => {\n" +
+            "\tif (calls.length === 1) {\n" +
+            "\t\ttransport(send, calls[0].config, calls[0].trace).then(calls[0].resolve, calls[0].reject)\n" +
+            "\t\treturn\n" +
+            "\t}\n" +
+            "\tconst data = calls.map(({ config }) => ({ method: config.method, url: config.url, params: config.params }))\n" +
+            "\tsend({ url: BATCH_PATH, method: 'post', data }).then((results) => {\n" +
+            "\t\tcalls.forEach((item, index) => {\n" +
+            "\t\t\tconst result = results ? results[index] : undefined\n" +
+            "\t\t\tif (item.trace && result) {\n" +
+            "\t\t\t\titem.trace.status = result.status\n" +
+            "\t\t\t}\n" +
+            "\t\t\ttry {\n" +
+            "\t\t\t\titem.resolve(settings.resolveBatchResult(result, item.config))\n" +
+            "\t\t\t} catch (error) {\n" +
+            "\t\t\t\titem.reject(error)\n" +
+            "\t\t\t}\n" +
+            "\t\t})\n" +
+            "\t}, (error) => calls.forEach((item) => item.reject(error)))\n" +
+            "}\n" +
+            "\n" +
+            "// 发送等待中的调用，使用不同请求函数的调用分别发送\n" +
+            "const flush = () => {\n" +
+            "\tif (timer !== null) {\n" +
+            "\t\tclearTimeout(timer)\n" +
+            "\t\ttimer = null\n" +
+            "\t}\n" +
+            "\tconst groups = new Map()\n" +
+            "\tqueue.forEach((item) => {\n" +
+            "\t\tif (!groups.has(item.send)) {\n" +
+            "\t\t\tgroups.set(item.send, [])\n" +
+            "\t\t}\n" +
+            "\t\tgroups.get(item.send).push(item)\n" +
+            "\t})\n" +
+            "\tqueue = []\n" +
+            "\tgroups.forEach((calls, send) => sendBatch(send, calls))\n" +
+            "}\n" +
+            "\n" +
+            "const enqueue = (send, config, trace) => new Promise((resolve, reject) => {\n" +
+            "\tqueue.push({ send, config, trace, resolve, reject })\n" +
+            "\tif (queue.length >= BATCH_MAX_SIZE) {\n" +
+            "\t\tflush()\n" +
+            "\t}\n" +
+            "\telse if (queue.length === 1) {\n" +
+            "\t\tif (BATCH_WINDOW > 0) {\n" +
+            "\t\t\ttimer = setTimeout(flush, BATCH_WINDOW)\n" +
+            "\t\t} else {\n" +
+            "\t\t\tPromise.resolve().then(flush)\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "})\n" +
+            "\n" +
+            "// 缓存的 GET 结果，按最近使用的顺序排列\n" +
+            "const cache = new Map()\n" +
+            "// 进行中的缓存请求，相同的并发调用共享同一个 Promise\n" +
+            "const pending = new Map()\n" +
+            "// 缓存分组的版本，分组失效后进行中的请求结果不再写入缓存\n" +
+            "const versions = new Map()\n" +
+            "let epoch = 0\n" +
+            "\n" +
+            "const versionOf = (group) => epoch + '.' + (versions.get(group) || 0)\n" +
+            "\n" +
+            "// 按键排序的 JSON，参数顺序不同的相同调用使用同一个缓存键\n" +
+            "const stableStringify = (value) => {\n" +
+            "\tif (Array.isArray(value)) {\n" +
+            "\t\treturn '[' + value.map(stableStringify).join(',') + ']'\n" +
+            "\t}\n" +
+            "\tif (value && typeof value === 'object') {\n" +
+            "\t\treturn '{' + Object.keys(value).sort()\n" +
+            "\t\t\t.filter((key) => value[key] !== undefined)\n" +
+            "\t\t\t.map((key) => JSON.stringify(key) + ':' + stableStringify(value[key]))\n" +
+            "\t\t\t.join(',') + '}'\n" +
+            "\t}\n" +
+            "\treturn value === undefined ? 'null' : JSON.stringify(value)\n" +
+            "}\n" +
+            "\n" +
+            "const remember = (key, entry) => {\n" +
+            "\tcache.delete(key)\n" +
+            "\tcache.set(key, entry)\n" +
+            "\twhile (cache.size > CACHE_MAX_ENTRIES) {\n" +
+            "\t\tcache.delete(cache.keys().next().value)\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "const readHeader = (headers, name) => {\n" +
+            "\tif (!headers) {\n" +
+            "\t\treturn undefined\n" +
+            "\t}\n" +
+            "\treturn (typeof headers.get === 'function' ? headers.get(name) : headers[name]) || undefined\n" +
+            "}\n" +
+            "\n" +
+            "// 请求最新的结果，请求函数提供 send.raw 且过期的结果带有 ETag 时使用 If-None-Match 重新验证\n" +
+            "const revalidate = (send, config, stale) => {\n" +
+            "\tif (typeof send.raw !== 'function') {\n" +
+            "\t\treturn send(config).then((data) => ({ data }))\n" +
+            "\t}\n" +
+            "\tconst headers = stale ? Object.assign({}, config.headers, { 'If-None-Match': stale.etag }) : config.headers\n" +
+            "\treturn send.raw(Object.assign({}, config, { headers })).then((response) => {\n" +
+            "\t\tif (stale && response.status === 304) {\n" +
+            "\t\t\treturn { data: stale.data, etag: stale.etag, status: response.status }\n" +
+            "\t\t}\n" +
+            "\t\treturn { data: response.data, etag: readHeader(response.headers, 'etag'), status: response.status }\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "const abortError = (signal) => {\n" +
+            "\tif (signal && signal.reason !== undefined) {\n" +
+            "\t\treturn signal.reason\n" +
+            "\t}\n" +
+            "\tconst error = new Error('The operation was aborted')\n" +
+            "\terror.name = 'AbortError'\n" +
+            "\treturn error\n" +
+            "}\n" +
+            "\n" +
+            "const timeoutError = (config, timeoutMs) => {\n" +
+            "\tconst error = new Error(config.method.toUpperCase() + ' ' + config.url + ' timed out after ' + timeoutMs + ' ms')\n" +
+            "\terror.name = 'TimeoutError'\n" +
+            "\treturn error\n" +
+            "}\n" +
+            "\n" +
+            "const withoutSignal = (config) => (config.signal ? Object.assign({}, config, { signal: undefined }) : config)\n" +
+            "\n" +
+            "// 等待共享的结果，超时或调用方中止时提前结束等待，不会中止共享的请求\n" +
+            "const bounded = (promise, config, timeoutMs) => {\n" +
+            "\tconst signal = config.signal\n" +
+            "\tif (!timeoutMs && !signal) {\n" +
+            "\t\treturn promise\n" +
+            "\t}\n" +
+            "\treturn new Promise((resolve, reject) => {\n" +
+            "\t\tlet timer = null\n" +
+            "\t\tconst onAbort = () => finish(reject, abortError(signal))\n" +
+            "\t\tconst finish = (callback, value) => {\n" +
+            "\t\t\tclearTimeout(timer)\n" +
+            "\t\t\tif (signal) {\n" +
+            "\t\t\t\tsignal.removeEventListener('abort', onAbort)\n" +
+            "\t\t\t}\n" +
+            "\t\t\tcallback(value)\n" +
+            "\t\t}\n" +
+            "\t\tif (signal) {\n" +
+            "\t\t\tif (signal.aborted) {\n" +
+            "\t\t\t\tonAbort()\n" +
+            "\t\t\t\treturn\n" +
+            "\t\t\t}\n" +
+            "\t\t\tsignal.addEventListener('abort', onAbort)\n" +
+            "\t\t}\n" +
+            "\t\tif (timeoutMs) {\n" +
+            "\t\t\ttimer = setTimeout(() => finish(reject, timeoutError(config, timeoutMs)), timeoutMs)\n" +
+            "\t\t}\n" +
+            "\t\tpromise.then((value) => finish(resolve, value), (error) => finish(reject, error))\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "// 发起独占的请求，超时或调用方中止时中止请求。\n" +
+            "// GET 超过对冲延迟仍未响应时再发送一个相同的请求，先成功的响应胜出，其余请求被中止；全部失败时以最后一个错误失败\n" +
+            "const attempt = (run, config, policy, trace) => {\n" +
+            "\tconst timeoutMs = policy.timeoutMs || 0\n" +
+            "\tconst hedgeAfterMs = config.method === 'get' ? policy.hedgeAfterMs || 0 : 0\n" +
+            "\tif (!timeoutMs && !hedgeAfterMs) {\n" +
+            "\t\treturn run(config)\n" +
+            "\t}\n" +
+            "\tconst signal = config.signal\n" +
+            "\treturn new Promise((resolve, reject) => {\n" +
+            "\t\tconst controllers = []\n" +
+            "\t\tlet hedgeTimer = null\n" +
+            "\t\tlet timeoutTimer = null\n" +
+            "\t\tlet settled = false\n" +
+            "\t\tconst onAbort = () => finish(reject, abortError(signal))\n" +
+            "\t\tconst finish = (callback, value) => {\n" +
+            "\t\t\tif (settled) {\n" +
+            "\t\t\t\treturn\n" +
+            "\t\t\t}\n" +
+            "\t\t\tsettled = true\n" +
+            "\t\t\tclearTimeout(hedgeTimer)\n" +
+            "\t\t\tclearTimeout(timeoutTimer)\n" +
+            "\t\t\tif (signal) {\n" +
+            "\t\t\t\tsignal.removeEventListener('abort', onAbort)\n" +
+            "\t\t\t}\n" +
+            "\t\t\tcontrollers.forEach((controller) => controller.abort())\n" +
+            "\t\t\tcallback(value)\n" +
+            "\t\t}\n" +
+            "\t\tconst launch = () => {\n" +
+            "\t\t\tconst controller = new AbortController()\n" +
+            "\t\t\tcontrollers.push(controller)\n" +
+            "\t\t\tconst done = () => controllers.splice(controllers.indexOf(controller), 1)\n" +
+            "\t\t\trun(Object.assign({}, config, { signal: controller.signal })).then((data) => {\n" +
+            "\t\t\t\tdone()\n" +
+            "\t\t\t\tfinish(resolve, data)\n" +
+            "\t\t\t}, (error) => {\n" +
+            "\t\t\t\tdone()\n" +
+            "\t\t\t\tif (!controllers.length) {\n" +
+            "\t\t\t\t\tfinish(reject, error)\n" +
+            "\t\t\t\t}\n" +
+            "\t\t\t})\n" +
+            "\t\t}\n" +
+            "\t\tif (signal) {\n" +
+            "\t\t\tif (signal.aborted) {\n" +
+            "\t\t\t\tonAbort()\n" +
+            "\t\t\t\treturn\n" +
+            "\t\t\t}\n" +
+            "\t\t\tsignal.addEventListener('abort', onAbort)\n" +
+            "\t\t}\n" +
+            "\t\tif (timeoutMs) {\n" +
+            "\t\t\ttimeoutTimer = setTimeout(() => finish(reject, timeoutError(config, timeoutMs)), timeoutMs)\n" +
+            "\t\t}\n" +
+            "\t\tif (hedgeAfterMs) {\n" +
+            "\t\t\thedgeTimer = setTimeout(() => {\n" +
+            "\t\t\t\tif (trace) {\n" +
+            "\t\t\t\t\ttrace.hedged = true\n" +
+            "\t\t\t\t}\n" +
+            "\t\t\t\tlaunch()\n" +
+            "\t\t\t}, hedgeAfterMs)\n" +
+            "\t\t}\n" +
+            "\t\tlaunch()\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "const cached = (send, config, policy, trace) => {\n" +
+            "\tconst group = policy.cacheGroup\n" +
+            "\tconst key = group + ' ' + config.url + ' ' + stableStringify(config.params)\n" +
+            "\tconst entry = cache.get(key)\n" +
+            "\tif (entry && entry.expires > Date.now()) {\n" +
+            "\t\tremember(key, entry)\n" +
+            "\t\tif (trace) {\n" +
+            "\t\t\ttrace.cached = true\n" +
+            "\t\t\ttrace.status = entry.status\n" +
+            "\t\t}\n" +
+            "\t\treturn Promise.resolve(entry.data)\n" +
+            "\t}\n" +
+            "\tconst joined = pending.get(key)\n" +
+            "\tif (joined) {\n" +
+            "\t\tif (!trace) {\n" +
+            "\t\t\treturn bounded(joined.promise, config, 0)\n" +
+            "\t\t}\n" +
+            "\t\ttrace.cached = true\n" +
+            "\t\treturn bounded(joined.promise.then((data) => {\n" +
+            "\t\t\ttrace.status = joined.status\n" +
+            "\t\t\treturn data\n" +
+            "\t\t}), config, 0)\n" +
+            "\t}\n" +
+            "\t// 共享的请求不受单个调用方中止的影响，调用方中止时只是不再等待\n" +
+            "\tconst version = versionOf(group)\n" +
+            "\tconst stale = entry && entry.etag ? entry : undefined\n" +
+            "\tconst shared = withoutSignal(config)\n" +
+            "\tconst fetching = policy.batch\n" +
+            "\t\t? bounded(enqueue(send, shared, trace), shared, policy.timeoutMs).then((data) => ({ data, status: trace ? trace.status : undefined }))\n" +
+            "\t\t: attempt((current) => revalidate(send, current, stale), shared, policy, trace)\n" +
+            "\tconst item = { group, promise: null, status: undefined }\n" +
+            "\titem.promise = fetching.then((result) => {\n" +
+            "\t\titem.status = result.status\n" +
+            "\t\tif (trace) {\n" +
+            "\t\t\ttrace.status = result.status\n" +
+            "\t\t}\n" +
+            "\t\tif (versionOf(group) === version) {\n" +
+            "\t\t\tremember(key, { group, data: result.data, etag: result.etag, status: result.status, expires: Date.now() + policy.cacheTtlMs })\n" +
+            "\t\t}\n" +
+            "\t\treturn result.data\n" +
+            "\t})\n" +
+            "\tconst settle = () => {\n" +
+            "\t\tif (pending.get(key) === item) {\n" +
+            "\t\t\tpending.delete(key)\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "\titem.promise.then(settle, settle)\n" +
+            "\tpending.set(key, item)\n" +
+            "\treturn bounded(item.promise, config, 0)\n" +
+            "}\n" +
+            "\n" +
+            "// 清除分组（生成的 API 文件名，如 UserApi）的缓存结果，进行中的请求结果也不再写入缓存\n" +
+            "export const invalidate = (group) => {\n" +
+            "\tversions.set(group, (versions.get(group) || 0) + 1)\n" +
+            "\tcache.forEach((entry, key) => {\n" +
+            "\t\tif (entry.group === group) {\n" +
+            "\t\t\tcache.delete(key)\n" +
+            "\t\t}\n" +
+            "\t})\n" +
+            "\tpending.forEach((item, key) => {\n" +
+            "\t\tif (item.group === group) {\n" +
+            "\t\t\tpending.delete(key)\n" +
+            "\t\t}\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "// 清除全部缓存结果，如切换登录用户时\n" +
+            "export const clearCache = () => {\n" +
+            "\tepoch++\n" +
+            "\tcache.clear()\n" +
+            "\tpending.clear()\n" +
+            "}\n" +
+            "\n" +
+            "let records = []\n" +
+            "let reportTimer = null\n" +
+            "let listening = false\n" +
+            "\n" +
+            "// 立即发送等待中的耗时记录\n" +
+            "export const flushTelemetry = () => {\n" +
+            "\tif (reportTimer !== null) {\n" +
+            "\t\tclearTimeout(reportTimer)\n" +
+            "\t\treportTimer = null\n" +
+            "\t}\n" +
+            "\tif (records.length === 0) {\n" +
+            "\t\treturn\n" +
+            "\t}\n" +
+            "\tconst batch = records\n" +
+            "\trecords = []\n" +
+            "\tsettings.reporter(batch)\n" +
+            "}\n" +
+            "\n" +
+            "// 页面隐藏或关闭前发送剩余的记录\n" +
+            "const listen = () => {\n" +
+            "\tlistening = true\n" +
+            "\tif (typeof document !== 'undefined' && typeof document.addEventListener === 'function') {\n" +
+            "\t\tdocument.addEventListener('visibilitychange', () => {\n" +
+            "\t\t\tif (document.visibilityState === 'hidden') {\n" +
+            "\t\t\t\tflushTelemetry()\n" +
+            "\t\t\t}\n" +
+            "\t\t})\n" +
+            "\t}\n" +
+            "\tif (typeof window !== 'undefined' && typeof window.addEventListener === 'function') {\n" +
+            "\t\twindow.addEventListener('pagehide', flushTelemetry)\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "const now = () => (typeof performance !== 'undefined' ? performance.now() : Date.now())\n" +
+            "\n" +
+            "const errorStatus = (error) => {\n" +
+            "\tif (error && error.status) {\n" +
+            "\t\treturn error.status\n" +
+            "\t}\n" +
+            "\treturn error && error.response ? error.response.status : undefined\n" +
+            "}\n" +
+            "\n" +
+            "const record = (endpoint, start, trace, ok, error) => {\n" +
+            "\tif (!listening) {\n" +
+            "\t\tlisten()\n" +
+            "\t}\n" +
+            "\trecords.push({\n" +
+            "\t\tendpoint,\n" +
+            "\t\tstatus: ok ? trace.status : errorStatus(error) || trace.status,\n" +
+            "\t\tok,\n" +
+            "\t\tcached: trace.cached === true,\n" +
+            "\t\thedged: trace.hedged === true,\n" +
+            "\t\tduration: Math.round((now() - start) * 10) / 10,\n" +
+            "\t\ttime: Date.now()\n" +
+            "\t})\n" +
+            "\tif (records.length >= TELEMETRY_BATCH_SIZE) {\n" +
+            "\t\tflushTelemetry()\n" +
+            "\t}\n" +
+            "\telse if (reportTimer === null) {\n" +
+            "\t\treportTimer = setTimeout(flushTelemetry, TELEMETRY_FLUSH_INTERVAL)\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "const isBlob = (value) => typeof Blob !== 'undefined' && value instanceof Blob\n" +
+            "\n" +
+            "// 将参数转换为 multipart 表单：文件作为文件部分，对象以 JSON 部分提交（对应 @RequestPart），数组逐项追加\n" +
+            "const toFormData = (data) => {\n" +
+            "\tif (typeof FormData !== 'undefined' && data instanceof FormData) {\n" +
+            "\t\treturn data\n" +
+            "\t}\n" +
+            "\tconst form = new FormData()\n" +
+            "\tconst append = (key, value) => {\n" +
+            "\t\tif (value === undefined || value === null) {\n" +
+            "\t\t\treturn\n" +
+            "\t\t}\n" +
+            "\t\tif (isBlob(value)) {\n" +
+            "\t\t\tform.append(key, value)\n" +
+            "\t\t}\n" +
+            "\t\telse if (typeof value === 'object') {\n" +
+            "\t\t\tform.append(key, new Blob([JSON.stringify(value)], { type: 'application/json' }))\n" +
+            "\t\t}\n" +
+            "\t\telse {\n" +
+            "\t\t\tform.append(key, String(value))\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "\tObject.keys(data || {}).forEach((key) => [].concat(data[key]).forEach((value) => append(key, value)))\n" +
+            "\treturn form\n" +
+            "}\n" +
+            "\n" +
+            "// 需要分片上传的文件：参数中只有一个文件且超过分片大小\n" +
+            "const largeFile = (data) => {\n" +
+            "\tif (!data || typeof data !== 'object' || isBlob(data)) {\n" +
+            "\t\treturn null\n" +
+            "\t}\n" +
+            "\tconst files = []\n" +
+            "\tObject.keys(data).forEach((key) => [].concat(data[key]).forEach((value) => {\n" +
+            "\t\tif (isBlob(value)) {\n" +
+            "\t\t\tfiles.push({ key, blob: value })\n" +
+            "\t\t}\n" +
+            "\t}))\n" +
+            "\treturn files.length === 1 && files[0].blob.size > UPLOAD_CHUNK_SIZE ? files[0] : null\n" +
+            "}\n" +
+            "\n" +
+            "// 未完成的分片上传，同一文件再次上传时沿用上传标识，从服务端已收到的位置继续\n" +
+            "const uploads = new Map()\n" +
+            "\n" +
+            "const randomId = () => {\n" +
+            "\tif (typeof crypto !== 'undefined' && typeof crypto.randomUUID === 'function') {\n" +
+            "\t\treturn crypto.randomUUID()\n" +
+            "\t}\n" +
+            "\treturn Date.now().toString(36) + '-' + Math.random().toString(36).slice(2) + '-' + Math.random().toString(36).slice(2)\n" +
+            "}\n" +
+            "\n" +
+            "const uploadKey = (config, file) => {\n" +
+            "\tconst blob = file.blob\n" +
+            "\tif (!blob.name) {\n" +
+            "\t\treturn null\n" +
+            "\t}\n" +
+            "\treturn config.url + ' ' + file.key + ' ' + blob.name + ' ' + blob.size + ' ' + blob.lastModified\n" +
+            "}\n" +
+            "\n" +
+            "const delay = (ms) => new Promise((resolve) => setTimeout(resolve, ms))\n" +
+            "\n" +
+            "// 服务端拒绝的请求和调用方中止的请求不重试\n" +
+            "const retryable = (error, signal) => {\n" +
+            "\tif (signal && signal.aborted) {\n" +
+            "\t\treturn false\n" +
+            "\t}\n" +
+            "\tconst status = errorStatus(error)\n" +
+            "\treturn !(status >= 400 && status < 500)\n" +
+            "}\n" +
+            "\n" +
+            "// 上传一个分片，表单中的文件替换为该分片，请求头携带上传标识、分片位置和文件大小\n" +
+            "const sendChunk = (send, config, file, id, offset, chunk, useRaw) => {\n" +
+            "\tconst name = file.blob.name || 'blob'\n" +
+            "\tconst part = typeof File !== 'undefined' ? new File([chunk], name, { type: file.blob.type }) : chunk\n" +
+            "\tconst data = Object.assign({}, config.data, { [file.key]: part })\n" +
+            "\tconst onUploadProgress = config.onUploadProgress\n" +
+            "\tconst current = Object.assign({}, config, {\n" +
+            "\t\tdata: toFormData(data),\n" +
+            "\t\theaders: Object.assign({}, config.headers, {\n" +
+            "\t\t\t'X-Upload-Id': id,\n" +
+            "\t\t\t'X-Upload-Offset': String(offset),\n" +
+            "\t\t\t'X-Upload-Length': String(file.blob.size)\n" +
+            "\t\t}),\n" +
+            "\t\tonUploadProgress: onUploadProgress && ((event) => onUploadProgress({\n" +
+            "\t\t\tloaded: Math.min(offset + (event.loaded || 0), offset + chunk.size),\n" +
+            "\t\t\ttotal: file.blob.size\n" +
+            "\t\t}))\n" +
+            "\t})\n" +
+            "\treturn useRaw ? send.raw(current) : send(current).then((data) => ({ data }))\n" +
+            "}\n" +
+            "\n" +
+            "// 分片上传单个大文件。请求函数提供 send.raw 时先询问服务端已收到的位置，从该位置继续上传；\n" +
+            "// 每个分片失败时按指数退避重试，服务端返回的最后一个响应作为调用结果\n" +
+            "const chunked = async (send, config, file, trace) => {\n" +
+            "\tconst key = uploadKey(config, file)\n" +
+            "\tconst id = (key && uploads.get(key)) || randomId()\n" +
+            "\tif (key) {\n" +
+            "\t\tuploads.set(key, id)\n" +
+            "\t}\n" +
+            "\tconst size = file.blob.size\n" +
+            "\tconst useRaw = typeof send.raw === 'function'\n" +
+            "\tlet offset = 0\n" +
+            "\tif (useRaw) {\n" +
+            "\t\tconst probe = await sendChunk(send, config, file, id, 0, file.blob.slice(0, 0), true)\n" +
+            "\t\toffset = Number(readHeader(probe.headers, 'x-upload-offset')) || 0\n" +
+            "\t\tif (offset >= size) {\n" +
+            "\t\t\toffset = 0\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "\tlet response = null\n" +
+            "\twhile (offset < size) {\n" +
+            "\t\tconst chunk = file.blob.slice(offset, offset + UPLOAD_CHUNK_SIZE)\n" +
+            "\t\tfor (let retry = 0; ; retry++) {\n" +
+            "\t\t\ttry {\n" +
+            "\t\t\t\tresponse = await sendChunk(send, config, file, id, offset, chunk, useRaw)\n" +
+            "\t\t\t\tbreak\n" +
+            "\t\t\t} catch (error) {\n" +
+            "\t\t\t\tif (retry >= UPLOAD_RETRIES || !retryable(error, config.signal)) {\n" +
+            "\t\t\t\t\tthrow error\n" +
+            "\t\t\t\t}\n" +
+            "\t\t\t\tawait delay(500 * Math.pow(2, retry))\n" +
+            "\t\t\t}\n" +
+            "\t\t}\n" +
+            "\t\tconst received = useRaw ? Number(readHeader(response.headers, 'x-upload-offset')) : NaN\n" +
+            "\t\tconst next = isNaN(received) ? offset + chunk.size : received\n" +
+            "\t\tif (next <= offset) {\n" +
+            "\t\t\tthrow new Error(config.method.toUpperCase() + ' ' + config.url + ' did not accept the chunk at offset ' + offset)\n" +
+            "\t\t}\n" +
+            "\t\toffset = next\n" +
+            "\t\tif (config.onUploadProgress) {\n" +
+            "\t\t\tconfig.onUploadProgress({ loaded: Math.min(offset, size), total: size })\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "\tif (key) {\n" +
+            "\t\tuploads.delete(key)\n" +
+            "\t}\n" +
+            "\tif (trace) {\n" +
+            "\t\ttrace.status = response.status\n" +
+            "\t}\n" +
+            "\treturn response.data\n" +
+            "}\n" +
+            "\n" +
+            "// 上传文件：multipart 以表单提交，大文件按需分片；binary 以指定参数作为请求体，其余参数作为查询参数\n" +
+            "const upload = (send, config, policy, trace) => {\n" +
+            "\tif (policy.upload === 'binary') {\n" +
+            "\t\tconst data = Object.assign({}, config.data)\n" +
+            "\t\tconst body = data[policy.uploadField]\n" +
+            "\t\tdelete data[policy.uploadField]\n" +
+            "\t\tconst type = isBlob(body) && body.type ? body.type : 'application/octet-stream'\n" +
+            "\t\treturn transport(send, Object.assign({}, config, {\n" +
+            "\t\t\tparams: Object.assign({}, config.params, data),\n" +
+            "\t\t\tdata: body,\n" +
+            "\t\t\theaders: Object.assign({ 'Content-Type': type }, config.headers)\n" +
+            "\t\t}), trace)\n" +
+            "\t}\n" +
+            "\tconst file = policy.upload === 'chunked' ? largeFile(config.data) : null\n" +
+            "\tif (file) {\n" +
+            "\t\treturn chunked(send, config, file, trace)\n" +
+            "\t}\n" +
+            "\treturn transport(send, Object.assign({}, config, { data: toFormData(config.data) }), trace)\n" +
+            "}\n" +
+            "\n" +
+            "const isRawBody = (data) => (typeof FormData !== 'undefined' && data instanceof FormData)\n" +
+            "\t|| isBlob(data) || data instanceof ArrayBuffer || ArrayBuffer.isView(data)\n" +
+            "\n" +
+            "// 以 gzip 压缩 JSON 请求体，文本小于最小字节数、已经是二进制或浏览器不支持 CompressionStream 时原样发送\n" +
+            "const compressBody = async (config, minBytes) => {\n" +
+            "\tif (config.data === undefined || isRawBody(config.data) || typeof CompressionStream === 'undefined') {\n" +
+            "\t\treturn config\n" +
+            "\t}\n" +
+            "\tconst json = new TextEncoder().encode(JSON.stringify(config.data))\n" +
+            "\tif (json.length < minBytes) {\n" +
+            "\t\treturn config\n" +
+            "\t}\n" +
+            "\tconst stream = new Blob([json]).stream().pipeThrough(new CompressionStream('gzip'))\n" +
+            "\tconst data = await new Response(stream).blob()\n" +
+            "\treturn Object.assign({}, config, {\n" +
+            "\t\tdata,\n" +
+            "\t\theaders: Object.assign({ 'Content-Type': 'application/json', 'Content-Encoding': 'gzip' }, config.headers)\n" +
+            "\t})\n" +
+            "}\n" +
+            "\n" +
+            "const dispatch = (send, config, policy, trace) => {\n" +
+            "\tif (policy.download && !config.responseType) {\n" +
+            "\t\tconfig = Object.assign({}, config, { responseType: 'blob' })\n" +
+            "\t}\n" +
+            "\tif (policy.upload) {\n" +
+            "\t\tconst promise = attempt((current) => upload(send, current, policy, trace), config, policy, trace)\n" +
+            "\t\tif (policy.invalidate) {\n" +
+            "\t\t\tconst done = () => invalidate(policy.invalidate)\n" +
+            "\t\t\tpromise.then(done, done)\n" +
+            "\t\t}\n" +
+            "\t\treturn promise\n" +
+            "\t}\n" +
+            "\tconst run = policy.compress === undefined\n" +
+            "\t\t? (current) => transport(send, current, trace)\n" +
+            "\t\t: (current) => compressBody(current, policy.compress).then((compressed) => transport(send, compressed, trace))\n" +
+            "\tif (policy.invalidate) {\n" +
+            "\t\tconst promise = attempt(run, config, policy, trace)\n" +
+            "\t\tconst done = () => invalidate(policy.invalidate)\n" +
+            "\t\tpromise.then(done, done)\n" +
+            "\t\treturn promise\n" +
+            "\t}\n" +
+            "\tif (policy.cacheTtlMs > 0) {\n" +
+            "\t\treturn cached(send, config, policy, trace)\n" +
+            "\t}\n" +
+            "\tif (policy.batch) {\n" +
+            "\t\treturn bounded(enqueue(send, withoutSignal(config), trace), config, policy.timeoutMs)\n" +
+            "\t}\n" +
+            "\treturn attempt(run, config, policy, trace)\n" +
+            "}\n" +
+            "\n" +
+            "// 按调用策略发起请求：\n" +
+            "// policy.invalidate 为分组名时，请求结束后清除该分组的缓存\n" +
+            "// policy.cacheTtlMs 大于 0 时，相同的并发调用共享一个请求，结果缓存指定的毫秒数\n" +
+            "// policy.batch 为 true 时与同一时间窗口内的其他调用合并为一个批量请求\n" +
+            "// policy.timeoutMs、policy.hedgeAfterMs 为超时和对冲请求的延迟，config.signal 用于调用方中止请求\n" +
+            "// policy.upload 为上传方式时以 multipart 表单（chunked 时大文件分片上传）或原始请求体上传文件，\n" +
+            "// config.onUploadProgress 接收 { loaded, total } 形式的上传进度\n" +
+            "// policy.compress 为最小字节数时，JSON 请求体不小于该大小则以 gzip 压缩发送\n" +
+            "// policy.download 为 true 时响应默认以 Blob 读取，可以通过 config.responseType 改为其他方式\n" +
+            "// policy.endpoint 为接口标识时，按采样记录调用的耗时和状态码，批量交给 reporter 发送\n" +
+            "export const call = (send, config, policy = {}) => {\n" +
+            "\tif (!policy.endpoint || !settings.sampler(policy.endpoint)) {\n" +
+            "\t\treturn dispatch(send, config, policy, null)\n" +
+            "\t}\n" +
+            "\tconst trace = {}\n" +
+            "\tconst start = now()\n" +
+            "\tconst promise = dispatch(send, config, policy, trace)\n" +
+            "\tpromise.then(() => record(policy.endpoint, start, trace, true), (error) => record(policy.endpoint, start, trace, false, error))\n" +
+            "\treturn promise\n" +
+            "}\n" +
+            "\n" +
+            "// 请求函数不支持 responseType: 'stream' 时，已读取的响应体按一次性到达的流处理\n" +
+            "const toStream = (data) => {\n" +
+            "\tif (data && typeof data.getReader === 'function') {\n" +
+            "\t\treturn data\n" +
+            "\t}\n" +
+            "\treturn new Blob([typeof data === 'string' ? data : JSON.stringify(data)]).stream()\n" +
+            "}\n" +
+            "\n" +
+            "const fetchStream = async (config) => {\n" +
+            "\tconst search = new URLSearchParams()\n" +
+            "\tObject.keys(config.params || {}).forEach((key) => {\n" +
+            "\t\tconst value = config.params[key]\n" +
+            "\t\tif (value !== undefined && value !== null) {\n" +
+            "\t\t\t[].concat(value).forEach((item) => search.append(key, item))\n" +
+            "\t\t}\n" +
+            "\t})\n" +
+            "\tconst query = search.toString()\n" +
+            "\tconst json = config.data !== undefined\n" +
+            "\tconst response = await fetch(settings.streamBaseURL + config.url + (query ? '?' + query : ''), {\n" +
+            "\t\tmethod: config.method.toUpperCase(),\n" +
+            "\t\theaders: Object.assign(json ? { 'Content-Type': 'application/json' } : {}, config.headers),\n" +
+            "\t\tbody: json ? JSON.stringify(config.data) : undefined,\n" +
+            "\t\tsignal: config.signal,\n" +
+            "\t\tcredentials: 'same-origin'\n" +
+            "\t})\n" +
+            "\tif (!response.ok) {\n" +
+            "\t\tconst error = new Error(config.method.toUpperCase() + ' ' + config.url + ' failed with status ' + response.status)\n" +
+            "\t\terror.status = response.status\n" +
+            "\t\tthrow error\n" +
+            "\t}\n" +
+            "\treturn response.body\n" +
+            "}\n" +
+            "\n" +
+            "// 逐行读取响应体，调用方取下一项时才继续读取，提前结束迭代时取消读取并中止请求\n" +
+            "const readLines = async function* (body) {\n" +
+            "\tconst reader = body.getReader()\n" +
+            "\tconst decoder = new TextDecoder()\n" +
+            "\tlet buffer = ''\n" +
+            "\ttry {\n" +
+            "\t\tfor (;;) {\n" +
+            "\t\t\tconst { done, value } = await reader.read()\n" +
+            "\t\t\tif (done) {\n" +
+            "\t\t\t\tbreak\n" +
+            "\t\t\t}\n" +
+            "\t\t\tbuffer += decoder.decode(value, { stream: true })\n" +
+            "\t\t\tlet index\n" +
+            "\t\t\twhile ((index = buffer.indexOf('\\n')) >= 0) {\n" +
+            "\t\t\t\tconst line = buffer.slice(0, index)\n" +
+            "\t\t\t\tbuffer = buffer.slice(index + 1)\n" +
+            "\t\t\t\tyield line.endsWith('\\r') ? line.slice(0, -1) : line\n" +
+            "\t\t\t}\n" +
+            "\t\t}\n" +
+            "\t\tbuffer += decoder.decode()\n" +
+            "\t\tif (buffer) {\n" +
+            "\t\t\tyield buffer\n" +
+            "\t\t}\n" +
+            "\t} finally {\n" +
+            "\t\treader.cancel().catch(() => {})\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "const parseData = (data) => {\n" +
+            "\ttry {\n" +
+            "\t\treturn JSON.parse(data)\n" +
+            "\t} catch (error) {\n" +
+            "\t\treturn data\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "// 按 Server-Sent Events 的格式组装事件，data 是 JSON 时解析为对象\n" +
+            "const readEvents = async function* (lines) {\n" +
+            "\tlet event = { event: 'message', data: [] }\n" +
+            "\tlet lastId\n" +
+            "\tfor await (const line of lines) {\n" +
+            "\t\tif (line === '') {\n" +
+            "\t\t\tif (event.data.length) {\n" +
+            "\t\t\t\tyield { event: event.event, id: lastId, data: parseData(event.data.join('\\n')) }\n" +
+            "\t\t\t}\n" +
+            "\t\t\tevent = { event: 'message', data: [] }\n" +
+            "\t\t\tcontinue\n" +
+            "\t\t}\n" +
+            "\t\tif (line.startsWith(':')) {\n" +
+            "\t\t\tcontinue\n" +
+            "\t\t}\n" +
+            "\t\tconst colon = line.indexOf(':')\n" +
+            "\t\tconst field = colon < 0 ? line : line.slice(0, colon)\n" +
+            "\t\tconst value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '')\n" +
+            "\t\tif (field === 'data') {\n" +
+            "\t\t\tevent.data.push(value)\n" +
+            "\t\t}\n" +
+            "\t\telse if (field === 'event') {\n" +
+            "\t\t\tevent.event = value\n" +
+            "\t\t}\n" +
+            "\t\telse if (field === 'id') {\n" +
+            "\t\t\tlastId = value\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "\tif (event.data.length) {\n" +
+            "\t\tyield { event: event.event, id: lastId, data: parseData(event.data.join('\\n')) }\n" +
+            "\t}\n" +
+            "}\n" +
+            "\n" +
+            "// 读取流式响应，返回异步迭代器：policy.stream 为 sse 时逐个产出 { event, id, data }，为 ndjson 时逐个产出每行的 JSON。\n" +
+            "// 开始迭代时才发起请求，config.signal 或提前结束迭代（break）会中止请求\n" +
+            "export const stream = (send, config, policy = {}) => (async function* () {\n" +
+            "\tconst accept = policy.stream === 'sse' ? 'text/event-stream' : 'application/x-ndjson'\n" +
+            "\tconst body = await settings.openStream(send, Object.assign({}, config, { headers: Object.assign({ Accept: accept }, config.headers) }))\n" +
+            "\tif (!body) {\n" +
+            "\t\treturn\n" +
+            "\t}\n" +
+            "\tconst lines = readLines(body)\n" +
+            "\tif (policy.stream === 'sse') {\n" +
+            "\t\tyield* readEvents(lines)\n" +
+            "\t\treturn\n" +
+            "\t}\n" +
+            "\tfor await (const line of lines) {\n" +
+            "\t\tif (line.trim()) {\n" +
+            "\t\t\tyield JSON.parse(line)\n" +
+            "\t\t}\n" +
+            "\t}\n" +
+            "})()\n",
+            "batchPath", "batchWindow", "batchMaxSize", "cacheMaxEntries", "telemetryPath", "telemetrySampleRate", "uploadChunkSize");
+
+    private ApiRuntime() {
+    }
+
+    /**
+     * 判断模块中是否有接口方法需要运行时模块。
+     *
+     * @param module API 模块
+     * @return 需要时返回 true
+     */
+    public static boolean isRequired(ApiModule module) {
+        for (ApiEndpoint endpoint : module.getEndpoints()) {
+            if (!endpoint.getCallOptions().isDefault()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断是否有任一模块需要运行时模块。
+     *
+     * @param modules 全部 API 模块
+     * @return 需要时返回 true
+     */
+    public static boolean isRequired(List<ApiModule> modules) {
+        for (ApiModule module : modules) {
+            if (isRequired(module)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取接口方法通过运行时模块调用时使用的导出函数名。
+     *
+     * @param callOptions 调用方式
+     * @return 流式响应为 {@code stream}，其他为 {@code call}
+     */
+    static String invoker(ApiCallOptions callOptions) {
+        return callOptions.getStream() != null ? STREAM : CALL;
+    }
+
+    /**
+     * 模块需要运行时模块时，输出导入 {@code call}、{@code stream} 中用到的函数的语句。
+     *
+     * @param module    API 模块
+     * @param specifier 运行时模块的导入路径，如 {@code auto-api-runtime.js}
+     * @param out       输出缓冲区
+     */
+    static void renderImport(ApiModule module, String specifier, StringBuilder out) {
+        boolean call = false;
+        boolean stream = false;
+        for (ApiEndpoint endpoint : module.getEndpoints()) {
+            if (!endpoint.getCallOptions().isDefault()) {
+                call |= endpoint.getCallOptions().getStream() == null;
+                stream |= endpoint.getCallOptions().getStream() != null;
+            }
+        }
+        if (call || stream) {
+            IMPORT.render(out, call && stream ? CALL + ", " + STREAM : call ? CALL : STREAM, specifier);
+        }
+    }
+
+    /**
+     * 输出运行时模块。
+     *
+     * @param out        输出缓冲区
+     * @param options    渲染选项
+     * @param typescript 是否输出为 TypeScript 文件，运行时模块本身不做类型检查
+     */
+    static void render(StringBuilder out, ApiRenderOptions options, boolean typescript) {
+        if (typescript) {
+            out.append("// @ts-nocheck").append(ApiModuleRenderer.NEW_LINE);
+        }
+        ApiRuntimeOptions runtime = options.getRuntime();
+        RUNTIME.render(out, runtime.getBatchPath().replace("'", "\\'"),
+                String.valueOf(runtime.getBatchWindow()), String.valueOf(runtime.getBatchMaxSize()),
+                String.valueOf(runtime.getCacheMaxEntries()), runtime.getTelemetryPath().replace("'", "\\'"),
+                String.valueOf(runtime.getTelemetrySampleRate()), String.valueOf(runtime.getUploadChunkSize()));
+    }
+
+    /**
+     * 获取接口方法的调用策略，即 {@code call} 的第三个参数。
+     *
+     * @param callOptions 调用方式
+     * @return JavaScript 对象字面量
+     */
+    static String policy(ApiCallOptions callOptions) {
+        List<String> fields = new ArrayList<>();
+        if (callOptions.isBatched()) {
+            fields.add("batch: true");
+        }
+        if (callOptions.isCached()) {
+            fields.add("cacheTtlMs: " + callOptions.getCacheTtlMs());
+            fields.add("cacheGroup: " + quote(callOptions.getCacheGroup()));
+        }
+        if (callOptions.getInvalidatedGroup() != null) {
+            fields.add("invalidate: " + quote(callOptions.getInvalidatedGroup()));
+        }
+        if (callOptions.getTimeoutMs() > 0) {
+            fields.add("timeoutMs: " + callOptions.getTimeoutMs());
+        }
+        if (callOptions.getHedgeAfterMs() > 0) {
+            fields.add("hedgeAfterMs: " + callOptions.getHedgeAfterMs());
+        }
+        if (callOptions.getStream() != null) {
+            fields.add("stream: " + quote(callOptions.getStream()));
+        }
+        if (callOptions.isCompressRequest()) {
+            fields.add("compress: " + callOptions.getCompressMinBytes());
+        }
+        if (callOptions.getUpload() != null) {
+            fields.add("upload: " + quote(callOptions.getUpload()));
+        }
+        if (callOptions.getUploadField() != null) {
+            fields.add("uploadField: " + quote(callOptions.getUploadField()));
+        }
+        if (callOptions.isDownload()) {
+            fields.add("download: true");
+        }
+        if (callOptions.getEndpointId() != null) {
+            fields.add("endpoint: " + quote(callOptions.getEndpointId()));
+        }
+        return "{ " + String.join(", ", fields) + " }";
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
@@ -0,0 +1,87 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 预编译的代码模板。
+ * <p>
+ * 模板中的 {@code ${name}} 为占位符，{@code \n} 会被替换为 {@link ApiModuleRenderer#NEW_LINE}。
+ * 模板在创建时解析一次，拆分为固定文本和占位符两类片段，渲染时只按顺序追加片段，不再解析格式。
+ * 模板实例不可变，可以被多个线程共享。
+ */
+public final class ApiTemplate {
+
+    /**
+     * 固定文本片段，与占位符交替出现：literals[i] 之后是 variables[i] 对应的值
+     */
+    private final String[] literals;
+
+    /**
+     * 每个片段之后的占位符在渲染参数中的下标，最后一个片段之后没有占位符
+     */
+    private final int[] variables;
+
+    private ApiTemplate(String[] literals, int[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * 编译模板。
+     *
+     * @param template      模板文本
+     * @param variableNames 占位符名称，渲染时按相同顺序传入值
+     * @return 编译后的模板
+     * @throws IllegalArgumentException 模板中出现未声明的占位符或占位符未闭合
+     */
+    public static ApiTemplate compile(String template, String... variableNames) {
+        List<String> names = Arrays.asList(variableNames);
+        List<String> literals = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+
+        int start = 0;
+        int open;
+        while ((open = template.indexOf("${", start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + template);
+            }
+            String name = template.substring(open + 2, close);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Undeclared placeholder '" + name + "' in template: " + template);
+            }
+            literals.add(newLines(template.substring(start, open)));
+            variables.add(index);
+            start = close + 1;
+        }
+        literals.add(newLines(template.substring(start)));
+
+        int[] variableIndexes = new int[variables.size()];
+        for (int i = 0; i < variableIndexes.length; i++) {
+            variableIndexes[i] = variables.get(i);
+        }
+        return new ApiTemplate(literals.toArray(new String[0]), variableIndexes);
+    }
+
+    /**
+     * 渲染模板。
+     *
+     * @param out    输出缓冲区
+     * @param values 占位符的值，顺序与编译时声明的名称一致
+     */
+    public void render(StringBuilder out, String... values) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]).append(values[variables[i]]);
+        }
+        out.append(literals[variables.length]);
+    }
+
+    private static String newLines(String literal) {
+        return literal.replace("\n", ApiModuleRenderer.NEW_LINE);
+    }
+}
@@ -0,0 +1,219 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+/**
+ * 基于浏览器原生 fetch 的输出器，生成的文件不依赖任何第三方库，是标准的 ES Module。
+ * 请求体以 JSON 发送，FormData、Blob 等请求体原样发送，响应按 JSON 解析，非 2xx 的响应抛出异常。
+ * 文件下载按 responseType 以 Blob 或流读取，需要上传进度时改用 XMLHttpRequest 发送。
+ * 请求函数通过 {@code request.raw} 提供完整的响应，运行时模块据此使用 ETag 重新验证缓存的结果。
+ */
+public class FetchApiEmitter implements ApiEmitter {
+
+    public static final String NAME = "fetch";
+
+    private static final ApiTemplate HEADER = ApiTemplate.compile(
+            "const BASE_URL = ''\n" +
+            "\n" +
+            "const failed = (method, url, status) => {\n" +
+            "\tconst error = new Error(method.toUpperCase() + ' ' + url + ' failed with status ' + status)\n" +
+            "\terror.status = status\n" +
+            "\treturn error\n" +
+            "}\n" +
+            "\n" +
+            "// FormData、Blob 等请求体原样发送，由浏览器设置 Content-Type\n" +
+            "const isRawBody = (data) => (typeof FormData !== 'undefined' && data instanceof FormData)\n" +
+            "\t|| (typeof Blob !== 'undefined' && data instanceof Blob)\n" +
+            "\t|| data instanceof ArrayBuffer || ArrayBuffer.isView(data)\n" +
+            "\n" +
+            "// fetch 不能报告上传进度，需要上传进度时使用 XMLHttpRequest\n" +
+            "const sendXhr = (href, init, responseType, onUploadProgress, onDownloadProgress) => new Promise((resolve, reject) => {\n" +
+            "\tconst xhr = new XMLHttpRequest()\n" +
+            "\txhr.open(init.method, href)\n" +
+            "\tObject.keys(init.headers).forEach((key) => xhr.setRequestHeader(key, init.headers[key]))\n" +
+            "\txhr.responseType = responseType === 'blob' || responseType === 'arraybuffer' ? responseType : 'text'\n" +
+            "\txhr.upload.onprogress = (event) => onUploadProgress({ loaded: event.loaded, total: event.total })\n" +
+            "\tif (onDownloadProgress) {\n" +
+            "\t\txhr.onprogress = (event) => onDownloadProgress({ loaded: event.loaded, total: event.lengthComputable ? event.total : undefined })\n" +
+            "\t}\n" +
+            "\txhr.onload = () => {\n" +
+            "\t\tconst headers = new Headers()\n" +
+            "\t\txhr.getAllResponseHeaders().trim().split(/[\\r\\n]+/).forEach((line) => {\n" +
+            "\t\t\tconst index = line.indexOf(':')\n" +
+            "\t\t\tif (index > 0) {\n" +
+            "\t\t\t\theaders.append(line.slice(0, index).trim(), line.slice(index + 1).trim())\n" +
+            "\t\t\t}\n" +
+            "\t\t})\n" +
+            "\t\tresolve({ status: xhr.status, headers, body: xhr.response })\n" +
+            "\t}\n" +
+            "\txhr.onerror = () => reject(new TypeError('Network request failed'))\n" +
+            "\tconst signal = init.signal\n" +
+            "\tif (signal) {\n" +
+            "\t\tconst onAbort = () => xhr.abort()\n" +
+            "\t\txhr.onabort = () => reject(signal.reason !== undefined ? signal.reason : new DOMException('The operation was aborted', 'AbortError'))\n" +
+            "\t\txhr.onloadend = () => signal.removeEventListener('abort', onAbort)\n" +
+            "\t\tif (signal.aborted) {\n" +
+            "\t\t\tonAbort()\n" +
+            "\t\t\treturn\n" +
+            "\t\t}\n" +
+            "\t\tsignal.addEventListener('abort', onAbort)\n" +
+            "\t}\n" +
+            "\txhr.send(init.body)\n" +
+            "})\n" +
+            "\n" +
+            "// 逐块读取响应体并报告下载进度，读完后组装为 Blob\n" +
+            "const readBlob = async (response, onDownloadProgress) => {\n" +
+            "\tif (!onDownloadProgress || !response.body) {\n" +
+            "\t\treturn response.blob()\n" +
+            "\t}\n" +
+            "\tconst total = Number(response.headers.get('content-length')) || undefined\n" +
+            "\tconst reader = response.body.getReader()\n" +
+            "\tconst chunks = []\n" +
+            "\tlet loaded = 0\n" +
+            "\tfor (;;) {\n" +
+            "\t\tconst { done, value } = await reader.read()\n" +
+            "\t\tif (done) {\n" +
+            "\t\t\tbreak\n" +
+            "\t\t}\n" +
+            "\t\tchunks.push(value)\n" +
+            "\t\tloaded += value.length\n" +
+            "\t\tonDownloadProgress({ loaded, total })\n" +
+            "\t}\n" +
+            "\treturn new Blob(chunks, { type: response.headers.get('content-type') || '' })\n" +
+            "}\n" +
+            "\n" +
+            "// 发起请求并返回 { status, headers, data }，304 响应不会抛出异常，用于 ETag 重新验证。\n" +
+            "// responseType 为 blob、arraybuffer 时以二进制读取响应，为 stream 时返回未读取的 ReadableStream\n" +
+            "const send = async ({ url, method, params, data, headers, signal, responseType, onUploadProgress, onDownloadProgress }) => {\n" +
+            "\tconst search = new URLSearchParams()\n" +
+            "\tObject.keys(params || {}).forEach((key) => {\n" +
+            "\t\tconst value = params[key]\n" +
+            "\t\tif (value === undefined || value === null) {\n" +
+            "\t\t\treturn\n" +
+            "\t\t}\n" +
+            "\t\t[].concat(value).forEach((item) => search.append(key, item))\n" +
+            "\t})\n" +
+            "\tconst query = search.toString()\n" +
+            "\tconst href = BASE_URL + url + (query ? '?' + query : '')\n" +
+            "\tconst json = data !== undefined && !isRawBody(data)\n" +
+            "\tconst init = {\n" +
+            "\t\tmethod: method.toUpperCase(),\n" +
+            "\t\theaders: Object.assign(json ? { 'Content-Type': 'application/json' } : {}, headers),\n" +
+            "\t\tbody: json ? JSON.stringify(data) : data,\n" +
+            "\t\tsignal\n" +
+            "\t}\n" +
+            "\tif (onUploadProgress && typeof XMLHttpRequest !== 'undefined') {\n" +
+            "\t\tconst response = await sendXhr(href, init, responseType, onUploadProgress, onDownloadProgress)\n" +
+            "\t\tif ((response.status < 200 || response.status >= 300) && response.status !== 304) {\n" +
+            "\t\t\tthrow failed(method, url, response.status)\n" +
+            "\t\t}\n" +
+            "\t\tconst binary = responseType === 'blob' || responseType === 'arraybuffer'\n" +
+            "\t\tconst body = binary || response.status === 304 ? response.body : response.body && JSON.parse(response.body)\n" +
+            "\t\treturn { status: response.status, headers: response.headers, data: body || undefined }\n" +
+            "\t}\n" +
+            "\tconst response = await fetch(href, init)\n" +
+            "\tif (!response.ok && response.status !== 304) {\n" +
+            "\t\tthrow failed(method, url, response.status)\n" +
+            "\t}\n" +
+            "\tif (responseType === 'stream') {\n" +
+            "\t\treturn { status: response.status, headers: response.headers, data: response.body }\n" +
+            "\t}\n" +
+            "\tif (responseType === 'blob' || responseType === 'arraybuffer') {\n" +
+            "\t\tconst blob = await readBlob(response, onDownloadProgress)\n" +
+            "\t\treturn { status: response.status, headers: response.headers, data: responseType === 'blob' ? blob : await blob.arrayBuffer() }\n" +
+            "\t}\n" +
+            "\tconst text = response.status === 304 ? '' : await response.text()\n" +
+            "\treturn { status: response.status, headers: response.headers, data: text ? JSON.parse(text) : undefined }\n" +
+            "}\n" +
+            "\n" +
+            "const request = async (config) => (await send(config)).data\n" +
+            "request.raw = send\n");
+
+    private static final ApiTemplate GET_START = ApiTemplate.compile("export const ${name}Api = (query) => {\n", "name");
+
+    private static final ApiTemplate GET_END = ApiTemplate.compile(
+            "\treturn request({ url: '${path}', method: '${method}', params: query })\n}\n\n", "path", "method");
+
+    private static final ApiTemplate DATA_START = ApiTemplate.compile("export const ${name}Api = (data) => {\n", "name");
+
+    private static final ApiTemplate DATA_END = ApiTemplate.compile(
+            "\treturn request({ url: '${path}', method: '${method}', data })\n}\n\n", "path", "method");
+
+    private static final ApiTemplate GET_CALL_START = ApiTemplate.compile("export const ${name}Api = (query, signal) => {\n", "name");
+
+    private static final ApiTemplate GET_CALL_END = ApiTemplate.compile(
+            "\treturn call(request, { url: '${path}', method: '${method}', params: query, signal }, ${policy})\n}\n\n",
+            "path", "method", "policy");
+
+    private static final ApiTemplate DATA_CALL_START = ApiTemplate.compile("export const ${name}Api = (data, signal) => {\n", "name");
+
+    private static final ApiTemplate DATA_CALL_END = ApiTemplate.compile(
+            "\treturn call(request, { url: '${path}', method: '${method}', data, signal }, ${policy})\n}\n\n",
+            "path", "method", "policy");
+
+    private static final ApiTemplate GET_TRANSFER_START = ApiTemplate.compile("export const ${name}Api = (query, options) => {\n", "name");
+
+    private static final ApiTemplate GET_TRANSFER_END = ApiTemplate.compile(
+            "\treturn ${invoke}(request, Object.assign({ url: '${path}', method: '${method}', params: query }, options), ${policy})\n}\n\n",
+            "invoke", "path", "method", "policy");
+
+    private static final ApiTemplate DATA_TRANSFER_START = ApiTemplate.compile("export const ${name}Api = (data, options) => {\n", "name");
+
+    private static final ApiTemplate DATA_TRANSFER_END = ApiTemplate.compile(
+            "\treturn ${invoke}(request, Object.assign({ url: '${path}', method: '${method}', data }, options), ${policy})\n}\n\n",
+            "invoke", "path", "method", "policy");
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getRuntimeFileName() {
+        return ApiRuntime.MODULE + getFileExtension();
+    }
+
+    @Override
+    public void emitRuntime(StringBuilder out, ApiRenderOptions options) {
+        ApiRuntime.render(out, options, false);
+    }
+
+    @Override
+    public void emitHeader(ApiModule module, StringBuilder out, ApiRenderOptions options) {
+        // 浏览器中的 ES Module 需要完整的文件名
+        if (ApiRuntime.isRequired(module)) {
+            ApiRuntime.renderImport(module, getRuntimeFileName(), out);
+            out.append(ApiModuleRenderer.NEW_LINE);
+        }
+        HEADER.render(out);
+        out.append(ApiModuleRenderer.NEW_LINE);
+    }
+
+    @Override
+    public void emitEndpoint(ApiEndpoint endpoint, StringBuilder out, ApiRenderOptions options) {
+        SchemaCommentWriter.writeMethodComment(endpoint.getDescription(), out);
+
+        boolean get = ApiModuleRenderer.GET.equals(endpoint.getHttpMethod());
+        boolean called = !endpoint.getCallOptions().isDefault();
+        // 文件上传、下载和流式响应的第二个参数是 options，可以传入 signal、进度回调和 responseType
+        if (endpoint.getCallOptions().isTransfer()) {
+            (get ? GET_TRANSFER_START : DATA_TRANSFER_START).render(out, endpoint.getName());
+            SchemaCommentWriter.writeDataComment(endpoint.getParameters(), out, endpoint.getHttpMethod(), options);
+            (get ? GET_TRANSFER_END : DATA_TRANSFER_END).render(out, ApiRuntime.invoker(endpoint.getCallOptions()),
+                    endpoint.getPath(), endpoint.getHttpMethod(), ApiRuntime.policy(endpoint.getCallOptions()));
+            return;
+        }
+        (called ? (get ? GET_CALL_START : DATA_CALL_START) : (get ? GET_START : DATA_START)).render(out, endpoint.getName());
+        SchemaCommentWriter.writeDataComment(endpoint.getParameters(), out, endpoint.getHttpMethod(), options);
+        if (called) {
+            (get ? GET_CALL_END : DATA_CALL_END).render(out, endpoint.getPath(), endpoint.getHttpMethod(),
+                    ApiRuntime.policy(endpoint.getCallOptions()));
+        }
+        else {
+            (get ? GET_END : DATA_END).render(out, endpoint.getPath(), endpoint.getHttpMethod());
+        }
+    }
+}
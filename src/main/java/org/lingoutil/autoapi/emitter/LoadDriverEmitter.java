@@ -0,0 +1,529 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 根据全部 API 模块生成可直接运行的 Java 压测驱动 {@code AutoApiLoadDriver.java}，与前端代码使用同一份接口模型。
+ * <p>
+ * 驱动是不依赖第三方库的单个源文件，使用 JDK 的 HttpClient 以开环的固定速率发送请求，JDK 21 及以上使用虚拟线程，
+ * 查询参数和 JSON 请求体由 {@link SyntheticPayloads} 按参数和 DTO 的字段结构合成，
+ * 结束后输出各接口的请求数、错误率和 HdrHistogram 方式统计的延迟分位数。
+ * 驱动需要 JDK 11 及以上编译运行，与本项目兼容的 JDK 版本无关。
+ */
+public final class LoadDriverEmitter {
+
+    /**
+     * 驱动的类名
+     */
+    public static final String CLASS_NAME = "AutoApiLoadDriver";
+
+    public static final String FILE_NAME = CLASS_NAME + ".java";
+
+    private static final ApiTemplate PACKAGE = ApiTemplate.compile("package ${name};\n\n", "name");
+
+    private static final ApiTemplate ENDPOINT = ApiTemplate.compile(
+            "            new Endpoint(${name}, ${method}, ${path}, ${query}, ${body}, ${weight}),\n",
+            "name", "method", "path", "query", "body", "weight");
+
+    private static final ApiTemplate DRIVER = ApiTemplate.compile(
+            "${package}import java.io.IOException;\n" +
+            "import java.lang.reflect.Method;\n" +
+            "import java.net.URI;\n" +
+            "import java.net.http.HttpClient;\n" +
+            "import java.net.http.HttpRequest;\n" +
+            "import java.net.http.HttpResponse;\n" +
+            "import java.net.http.HttpTimeoutException;\n" +
+            "import java.time.Duration;\n" +
+            "import java.util.ArrayList;\n" +
+            "import java.util.HashMap;\n" +
+            "import java.util.LinkedHashMap;\n" +
+            "import java.util.List;\n" +
+            "import java.util.Locale;\n" +
+            "import java.util.Map;\n" +
+            "import java.util.concurrent.ConcurrentHashMap;\n" +
+            "import java.util.concurrent.ExecutorService;\n" +
+            "import java.util.concurrent.Executors;\n" +
+            "import java.util.concurrent.ThreadLocalRandom;\n" +
+            "import java.util.concurrent.TimeUnit;\n" +
+            "import java.util.concurrent.atomic.AtomicInteger;\n" +
+            "import java.util.concurrent.atomic.AtomicLongArray;\n" +
+            "import java.util.concurrent.atomic.LongAccumulator;\n" +
+            "import java.util.concurrent.atomic.LongAdder;\n" +
+            "import java.util.concurrent.locks.LockSupport;\n" +
+            "\n" +
+            "/**\n" +
+            " * 由 autoAPI 根据 @AutoApi 接口生成的压测驱动，请勿修改。\n" +
+            " * <p>\n" +
+            " * 按权重随机选择接口，以固定的目标速率发送请求，不等待之前的请求完成。查询参数和请求体按参数和 DTO 的字段结构合成，\n" +
+            " * 其中的 {{n}} 替换为请求序号。结束后按接口输出请求数、错误率和延迟分位数，延迟从计划的发送时间算起，\n" +
+            " * 服务端变慢导致请求积压时，排队的时间也计入延迟。\n" +
+            " * 需要 JDK 11 及以上，JDK 21 及以上时每个请求使用一个虚拟线程。\n" +
+            " * <pre>\n" +
+            " * java AutoApiLoadDriver.java --base-url=http://localhost:8080 --rps=200 --duration=30 --weight=UserApi.list=5\n" +
+            " * </pre>\n" +
+            " * 参数：\n" +
+            " * <ul>\n" +
+            " *     <li>--base-url 服务地址，默认 http://localhost:8080</li>\n" +
+            " *     <li>--rps 目标每秒请求数，默认 50</li>\n" +
+            " *     <li>--duration 统计的持续时间（秒），默认 30</li>\n" +
+            " *     <li>--warmup 预热时间（秒），预热期间的请求不计入结果，默认 5</li>\n" +
+            " *     <li>--timeout 单个请求的超时时间（毫秒），默认 10000</li>\n" +
+            " *     <li>--max-in-flight 最多同时进行的请求数，超过时放弃发送并计为错误，默认 10000</li>\n" +
+            " *     <li>--weight=接口=权重 覆盖接口的权重，接口为 模块.方法 或 模块，权重为 0 时不发送，可以重复</li>\n" +
+            " *     <li>--header=名称:值 每个请求都带上的请求头，如登录凭证，可以重复</li>\n" +
+            " * </ul>\n" +
+            " * 文件上传和流式响应的接口默认权重为 0。\n" +
+            " */\n" +
+            "public final class AutoApiLoadDriver {\n" +
+            "\n" +
+            "    private static final String SEQUENCE = \"{{n}}\";\n" +
+            "\n" +
+            "    private static final Endpoint[] ENDPOINTS = {\n" +
+            "${endpoints}    };\n" +
+            "\n" +
+            "    private AutoApiLoadDriver() {\n" +
+            "    }\n" +
+            "\n" +
+            "    public static void main(String[] args) throws Exception {\n" +
+            "        Options options = Options.parse(args);\n" +
+            "        List<Endpoint> endpoints = new ArrayList<>();\n" +
+            "        int totalWeight = 0;\n" +
+            "        for (Endpoint endpoint : ENDPOINTS) {\n" +
+            "            int weight = options.weightOf(endpoint);\n" +
+            "            if (weight > 0) {\n" +
+            "                totalWeight += weight;\n" +
+            "                endpoint.cumulativeWeight = totalWeight;\n" +
+            "                endpoints.add(endpoint);\n" +
+            "            }\n" +
+            "        }\n" +
+            "        if (endpoints.isEmpty()) {\n" +
+            "            System.err.println(\"No endpoint to send, check --weight\");\n" +
+            "            System.exit(2);\n" +
+            "        }\n" +
+            "\n" +
+            "        ExecutorService executor = newExecutor();\n" +
+            "        HttpClient client = HttpClient.newBuilder()\n" +
+            "                .version(HttpClient.Version.HTTP_1_1)\n" +
+            "                .connectTimeout(Duration.ofMillis(options.timeout))\n" +
+            "                .build();\n" +
+            "        System.out.printf(Locale.ROOT, \"Sending %.1f req/s to %d endpoints of %s for %d s after %d s warmup%n\",\n" +
+            "                options.rps, endpoints.size(), options.baseUrl, options.duration, options.warmup);\n" +
+            "\n" +
+            "        // 按计划时间发送，计划时间只由序号决定，某次发送晚了不会推迟之后的请求\n" +
+            "        AtomicInteger inFlight = new AtomicInteger();\n" +
+            "        long start = System.nanoTime();\n" +
+            "        long measureStart = start + TimeUnit.SECONDS.toNanos(options.warmup);\n" +
+            "        long end = measureStart + TimeUnit.SECONDS.toNanos(options.duration);\n" +
+            "        double interval = TimeUnit.SECONDS.toNanos(1) / options.rps;\n" +
+            "        for (long sequence = 0; ; sequence++) {\n" +
+            "            long scheduled = start + (long) (sequence * interval);\n" +
+            "            if (scheduled - end >= 0) {\n" +
+            "                break;\n" +
+            "            }\n" +
+            "            long delay = scheduled - System.nanoTime();\n" +
+            "            if (delay > 0) {\n" +
+            "                LockSupport.parkNanos(delay);\n" +
+            "            }\n" +
+            "            Endpoint endpoint = pick(endpoints, totalWeight);\n" +
+            "            boolean measured = scheduled - measureStart >= 0;\n" +
+            "            if (inFlight.get() >= options.maxInFlight) {\n" +
+            "                if (measured) {\n" +
+            "                    endpoint.stats.record(System.nanoTime() - scheduled, \"dropped (max in-flight)\");\n" +
+            "                }\n" +
+            "                continue;\n" +
+            "            }\n" +
+            "            inFlight.incrementAndGet();\n" +
+            "            String n = Long.toString(sequence + 1);\n" +
+            "            executor.execute(() -> {\n" +
+            "                try {\n" +
+            "                    send(client, options, endpoint, n, scheduled, measured);\n" +
+            "                }\n" +
+            "                finally {\n" +
+            "                    inFlight.decrementAndGet();\n" +
+            "                }\n" +
+            "            });\n" +
+            "        }\n" +
+            "\n" +
+            "        executor.shutdown();\n" +
+            "        if (!executor.awaitTermination(options.timeout + 5000, TimeUnit.MILLISECONDS)) {\n" +
+            "            executor.shutdownNow();\n" +
+            "        }\n" +
+            "        report(endpoints, options);\n" +
+            "    }\n" +
+            "\n" +
+            "    private static Endpoint pick(List<Endpoint> endpoints, int totalWeight) {\n" +
+            "        int target = ThreadLocalRandom.current().nextInt(totalWeight);\n" +
+            "        for (Endpoint endpoint : endpoints) {\n" +
+            "            if (target < endpoint.cumulativeWeight) {\n" +
+            "                return endpoint;\n" +
+            "            }\n" +
+            "        }\n" +
+            "        return endpoints.get(endpoints.size() - 1);\n" +
+            "    }\n" +
+            "\n" +
+            "    private static void send(HttpClient client, Options options, Endpoint endpoint, String n, long scheduled, boolean measured) {\n" +
+            "        String error = null;\n" +
+            "        try {\n" +
+            "            String uri = options.baseUrl + endpoint.path.replace(SEQUENCE, n)\n" +
+            "                    + (endpoint.query.isEmpty() ? \"\" : \"?\" + endpoint.query.replace(SEQUENCE, n));\n" +
+            "            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))\n" +
+            "                    .timeout(Duration.ofMillis(options.timeout));\n" +
+            "            for (Map.Entry<String, String> header : options.headers.entrySet()) {\n" +
+            "                request.header(header.getKey(), header.getValue());\n" +
+            "            }\n" +
+            "            if (endpoint.body == null) {\n" +
+            "                request.method(endpoint.method, HttpRequest.BodyPublishers.noBody());\n" +
+            "            }\n" +
+            "            else {\n" +
+            "                request.header(\"Content-Type\", \"application/json\")\n" +
+            "                        .method(endpoint.method, HttpRequest.BodyPublishers.ofString(endpoint.body.replace(SEQUENCE, n)));\n" +
+            "            }\n" +
+            "            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());\n" +
+            "            if (response.statusCode() >= 400) {\n" +
+            "                error = \"HTTP \" + response.statusCode();\n" +
+            "            }\n" +
+            "        }\n" +
+            "        catch (HttpTimeoutException e) {\n" +
+            "            error = \"timeout\";\n" +
+            "        }\n" +
+            "        catch (IOException | RuntimeException e) {\n" +
+            "            error = e.getClass().getSimpleName();\n" +
+            "        }\n" +
+            "        catch (InterruptedException e) {\n" +
+            "            Thread.currentThread().interrupt();\n" +
+            "            error = \"interrupted\";\n" +
+            "        }\n" +
+            "        if (measured) {\n" +
+            "            endpoint.stats.record(System.nanoTime() - scheduled, error);\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    private static void report(List<Endpoint> endpoints, Options options) {\n" +
+            "        double seconds = options.duration;\n" +
+            "        Stats total = new Stats();\n" +
+            "        String format = \"%-40s %9s %8s %7s %9s %9s %9s %9s %9s %9s%n\";\n" +
+            "        System.out.printf(Locale.ROOT, format, \"endpoint\", \"requests\", \"errors\", \"error%\", \"req/s\",\n" +
+            "                \"p50 ms\", \"p90 ms\", \"p99 ms\", \"p99.9 ms\", \"max ms\");\n" +
+            "        for (Endpoint endpoint : endpoints) {\n" +
+            "            print(format, endpoint.name, endpoint.stats, seconds);\n" +
+            "            total.add(endpoint.stats);\n" +
+            "        }\n" +
+            "        print(format, \"total\", total, seconds);\n" +
+            "        System.out.printf(Locale.ROOT, \"Target %.1f req/s, achieved %.1f req/s%n\", options.rps, total.requests.sum() / seconds);\n" +
+            "        for (Endpoint endpoint : endpoints) {\n" +
+            "            for (Map.Entry<String, LongAdder> error : endpoint.stats.errorKinds.entrySet()) {\n" +
+            "                System.out.printf(Locale.ROOT, \"  %s: %s x %d%n\", endpoint.name, error.getKey(), error.getValue().sum());\n" +
+            "            }\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    private static void print(String format, String name, Stats stats, double seconds) {\n" +
+            "        long requests = stats.requests.sum();\n" +
+            "        long errors = stats.errors.sum();\n" +
+            "        System.out.printf(Locale.ROOT, format, name, requests, errors,\n" +
+            "                String.format(Locale.ROOT, \"%.2f\", requests == 0 ? 0 : errors * 100.0 / requests),\n" +
+            "                String.format(Locale.ROOT, \"%.1f\", requests / seconds),\n" +
+            "                millis(stats.latency.percentile(50)), millis(stats.latency.percentile(90)),\n" +
+            "                millis(stats.latency.percentile(99)), millis(stats.latency.percentile(99.9)),\n" +
+            "                millis(stats.latency.max()));\n" +
+            "    }\n" +
+            "\n" +
+            "    private static String millis(long micros) {\n" +
+            "        return String.format(Locale.ROOT, \"%.2f\", micros / 1000.0);\n" +
+            "    }\n" +
+            "\n" +
+            "    /**\n" +
+            "     * JDK 21 及以上使用虚拟线程执行器，否则使用守护线程池\n" +
+            "     */\n" +
+            "    private static ExecutorService newExecutor() {\n" +
+            "        try {\n" +
+            "            Method method = Executors.class.getMethod(\"newVirtualThreadPerTaskExecutor\");\n" +
+            "            return (ExecutorService) method.invoke(null);\n" +
+            "        }\n" +
+            "        catch (ReflectiveOperationException | UnsupportedOperationException e) {\n" +
+            "            AtomicInteger threadNumber = new AtomicInteger(1);\n" +
+            "            return Executors.newCachedThreadPool(runnable -> {\n" +
+            "                Thread thread = new Thread(runnable, \"auto-api-load-\" + threadNumber.getAndIncrement());\n" +
+            "                thread.setDaemon(true);\n" +
+            "                return thread;\n" +
+            "            });\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    /**\n" +
+            "     * 一个接口，path、query 和 body 中的 {{n}} 在发送时替换为请求序号\n" +
+            "     */\n" +
+            "    private static final class Endpoint {\n" +
+            "\n" +
+            "        private final String name;\n" +
+            "\n" +
+            "        private final String method;\n" +
+            "\n" +
+            "        private final String path;\n" +
+            "\n" +
+            "        private final String query;\n" +
+            "\n" +
+            "        private final String body;\n" +
+            "\n" +
+            "        private final int weight;\n" +
+            "\n" +
+            "        private final Stats stats = new Stats();\n" +
+            "\n" +
+            "        private int cumulativeWeight;\n" +
+            "\n" +
+            "        private Endpoint(String name, String method, String path, String query, String body, int weight) {\n" +
+            "            this.name = name;\n" +
+            "            this.method = method;\n" +
+            "            this.path = path;\n" +
+            "            this.query = query;\n" +
+            "            this.body = body;\n" +
+            "            this.weight = weight;\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    private static final class Stats {\n" +
+            "\n" +
+            "        private final LongAdder requests = new LongAdder();\n" +
+            "\n" +
+            "        private final LongAdder errors = new LongAdder();\n" +
+            "\n" +
+            "        private final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();\n" +
+            "\n" +
+            "        private final Histogram latency = new Histogram();\n" +
+            "\n" +
+            "        void record(long nanos, String error) {\n" +
+            "            requests.increment();\n" +
+            "            latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));\n" +
+            "            if (error != null) {\n" +
+            "                errors.increment();\n" +
+            "                errorKinds.computeIfAbsent(error, key -> new LongAdder()).increment();\n" +
+            "            }\n" +
+            "        }\n" +
+            "\n" +
+            "        void add(Stats other) {\n" +
+            "            requests.add(other.requests.sum());\n" +
+            "            errors.add(other.errors.sum());\n" +
+            "            latency.add(other.latency);\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    /**\n" +
+            "     * 与 HdrHistogram 相同的对数线性分桶：每个 2 的幂区间分为 64 个桶，记录的值相对误差不超过 1/64，\n" +
+            "     * 占用的内存与记录的次数无关，可以被多个线程同时记录\n" +
+            "     */\n" +
+            "    private static final class Histogram {\n" +
+            "\n" +
+            "        private static final int SUB_BUCKET_BITS = 7;\n" +
+            "\n" +
+            "        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;\n" +
+            "\n" +
+            "        private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;\n" +
+            "\n" +
+            "        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * HALF_COUNT + HALF_COUNT);\n" +
+            "\n" +
+            "        private final LongAccumulator max = new LongAccumulator(Math::max, 0);\n" +
+            "\n" +
+            "        void record(long value) {\n" +
+            "            long clamped = Math.max(0, value);\n" +
+            "            counts.incrementAndGet(indexOf(clamped));\n" +
+            "            max.accumulate(clamped);\n" +
+            "        }\n" +
+            "\n" +
+            "        void add(Histogram other) {\n" +
+            "            for (int i = 0; i < counts.length(); i++) {\n" +
+            "                counts.addAndGet(i, other.counts.get(i));\n" +
+            "            }\n" +
+            "            max.accumulate(other.max());\n" +
+            "        }\n" +
+            "\n" +
+            "        long max() {\n" +
+            "            return max.get();\n" +
+            "        }\n" +
+            "\n" +
+            "        /**\n" +
+            "         * 分位数，返回所在桶中的最大值，不超过记录到的最大值\n" +
+            "         */\n" +
+            "        long percentile(double percentile) {\n" +
+            "            long total = 0;\n" +
+            "            for (int i = 0; i < counts.length(); i++) {\n" +
+            "                total += counts.get(i);\n" +
+            "            }\n" +
+            "            if (total == 0) {\n" +
+            "                return 0;\n" +
+            "            }\n" +
+            "            long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));\n" +
+            "            long seen = 0;\n" +
+            "            for (int i = 0; i < counts.length(); i++) {\n" +
+            "                seen += counts.get(i);\n" +
+            "                if (seen >= target) {\n" +
+            "                    return Math.min(highestValueOf(i), max());\n" +
+            "                }\n" +
+            "            }\n" +
+            "            return max();\n" +
+            "        }\n" +
+            "\n" +
+            "        private static int indexOf(long value) {\n" +
+            "            if (value < SUB_BUCKET_COUNT) {\n" +
+            "                return (int) value;\n" +
+            "            }\n" +
+            "            int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;\n" +
+            "            return shift * HALF_COUNT + (int) (value >>> shift);\n" +
+            "        }\n" +
+            "\n" +
+            "        private static long highestValueOf(int index) {\n" +
+            "            if (index < SUB_BUCKET_COUNT) {\n" +
+            "                return index;\n" +
+            "            }\n" +
+            "            int shift = (index - HALF_COUNT) / HALF_COUNT;\n" +
+            "            long subBucket = index - (long) shift * HALF_COUNT;\n" +
+            "            return ((subBucket + 1) << shift) - 1;\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    private static final class Options {\n" +
+            "\n" +
+            "        private String baseUrl = \"http://localhost:8080\";\n" +
+            "\n" +
+            "        private double rps = 50;\n" +
+            "\n" +
+            "        private long duration = 30;\n" +
+            "\n" +
+            "        private long warmup = 5;\n" +
+            "\n" +
+            "        private long timeout = 10000;\n" +
+            "\n" +
+            "        private int maxInFlight = 10000;\n" +
+            "\n" +
+            "        private final Map<String, Integer> weights = new HashMap<>();\n" +
+            "\n" +
+            "        private final Map<String, String> headers = new LinkedHashMap<>();\n" +
+            "\n" +
+            "        static Options parse(String[] args) {\n" +
+            "            Options options = new Options();\n" +
+            "            for (String arg : args) {\n" +
+            "                int separator = arg.indexOf('=');\n" +
+            "                if (!arg.startsWith(\"--\") || separator < 0) {\n" +
+            "                    throw new IllegalArgumentException(\"Unknown argument: \" + arg);\n" +
+            "                }\n" +
+            "                String name = arg.substring(2, separator);\n" +
+            "                String value = arg.substring(separator + 1);\n" +
+            "                switch (name) {\n" +
+            "                    case \"base-url\":\n" +
+            "                        options.baseUrl = value.endsWith(\"/\") ? value.substring(0, value.length() - 1) : value;\n" +
+            "                        break;\n" +
+            "                    case \"rps\":\n" +
+            "                        options.rps = Double.parseDouble(value);\n" +
+            "                        break;\n" +
+            "                    case \"duration\":\n" +
+            "                        options.duration = Long.parseLong(value);\n" +
+            "                        break;\n" +
+            "                    case \"warmup\":\n" +
+            "                        options.warmup = Long.parseLong(value);\n" +
+            "                        break;\n" +
+            "                    case \"timeout\":\n" +
+            "                        options.timeout = Long.parseLong(value);\n" +
+            "                        break;\n" +
+            "                    case \"max-in-flight\":\n" +
+            "                        options.maxInFlight = Integer.parseInt(value);\n" +
+            "                        break;\n" +
+            "                    case \"weight\":\n" +
+            "                        int weight = value.lastIndexOf('=');\n" +
+            "                        options.weights.put(value.substring(0, weight), Integer.parseInt(value.substring(weight + 1)));\n" +
+            "                        break;\n" +
+            "                    case \"header\":\n" +
+            "                        int colon = value.indexOf(':');\n" +
+            "                        options.headers.put(value.substring(0, colon).trim(), value.substring(colon + 1).trim());\n" +
+            "                        break;\n" +
+            "                    default:\n" +
+            "                        throw new IllegalArgumentException(\"Unknown argument: \" + arg);\n" +
+            "                }\n" +
+            "            }\n" +
+            "            if (options.rps <= 0 || options.duration <= 0) {\n" +
+            "                throw new IllegalArgumentException(\"--rps and --duration must be positive\");\n" +
+            "            }\n" +
+            "            return options;\n" +
+            "        }\n" +
+            "\n" +
+            "        /**\n" +
+            "         * 按 模块.方法、模块 的顺序查找覆盖的权重，没有覆盖时使用生成的默认权重\n" +
+            "         */\n" +
+            "        int weightOf(Endpoint endpoint) {\n" +
+            "            Integer weight = weights.get(endpoint.name);\n" +
+            "            if (weight == null) {\n" +
+            "                weight = weights.get(endpoint.name.substring(0, endpoint.name.indexOf('.')));\n" +
+            "            }\n" +
+            "            return weight != null ? weight : endpoint.weight;\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n",
+            "package", "endpoints");
+
+    private LoadDriverEmitter() {
+    }
+
+    /**
+     * 输出压测驱动的源码。
+     *
+     * @param modules     全部 API 模块
+     * @param packageName 驱动所在的包，为空时不声明包
+     * @param out         输出缓冲区
+     */
+    public static void render(List<ApiModule> modules, String packageName, StringBuilder out) {
+        StringBuilder packageDeclaration = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            PACKAGE.render(packageDeclaration, packageName);
+        }
+        StringBuilder endpoints = new StringBuilder();
+        for (ApiModule module : modules) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                renderEndpoint(module, endpoint, endpoints);
+            }
+        }
+        DRIVER.render(out, packageDeclaration.toString(), endpoints.toString());
+    }
+
+    /**
+     * 输出一个接口。GET 的参数全部作为查询参数，其他请求方法的对象参数作为 JSON 请求体，普通参数作为查询参数。
+     * 文件上传和流式响应的接口默认权重为 0，不参与压测。
+     */
+    private static void renderEndpoint(ApiModule module, ApiEndpoint endpoint, StringBuilder out) {
+        boolean get = ApiModuleRenderer.GET.equals(endpoint.getHttpMethod());
+        ApiCallOptions callOptions = endpoint.getCallOptions();
+        boolean excluded = callOptions.getUpload() != null || callOptions.getStream() != null;
+        String body = get || callOptions.getUpload() != null ? null : SyntheticPayloads.body(endpoint.getParameters());
+        ENDPOINT.render(out,
+                quote(module.getName() + '.' + endpoint.getName()),
+                quote(endpoint.getHttpMethod().toUpperCase(Locale.ROOT)),
+                // 路径变量同样取请求序号
+                quote(endpoint.getPath().replaceAll("\\{[^}]*}", SyntheticPayloads.SEQUENCE)),
+                quote(SyntheticPayloads.query(endpoint.getParameters(), get)),
+                body == null ? "null" : quote(body),
+                excluded ? "0" : "1");
+    }
+
+    /**
+     * 转换为 Java 字符串字面量
+     */
+    private static String quote(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                literal.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,98 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+/**
+ * 默认输出器，基于项目中的 {@code @/utils/request}（通常是封装过的 axios 实例）发起请求。
+ */
+public class RequestApiEmitter implements ApiEmitter {
+
+    public static final String NAME = "request";
+
+    private static final ApiTemplate HEADER = ApiTemplate.compile("import request from '@/utils/request'\n");
+
+    private static final ApiTemplate GET_START = ApiTemplate.compile("export const ${name}Api = (query) => {\n", "name");
+
+    private static final ApiTemplate GET_END = ApiTemplate.compile(
+            "\treturn request({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tparams: query\n\t})\n}\n\n", "path", "method");
+
+    private static final ApiTemplate DATA_START = ApiTemplate.compile("export const ${name}Api = (data) => {\n", "name");
+
+    private static final ApiTemplate DATA_END = ApiTemplate.compile(
+            "\treturn request({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tdata\n\t})\n}\n\n", "path", "method");
+
+    private static final ApiTemplate GET_CALL_START = ApiTemplate.compile("export const ${name}Api = (query, signal) => {\n", "name");
+
+    private static final ApiTemplate GET_CALL_END = ApiTemplate.compile(
+            "\treturn call(request, {\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tparams: query,\n\t\tsignal\n\t}, ${policy})\n}\n\n",
+            "path", "method", "policy");
+
+    private static final ApiTemplate DATA_CALL_START = ApiTemplate.compile("export const ${name}Api = (data, signal) => {\n", "name");
+
+    private static final ApiTemplate DATA_CALL_END = ApiTemplate.compile(
+            "\treturn call(request, {\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tdata,\n\t\tsignal\n\t}, ${policy})\n}\n\n",
+            "path", "method", "policy");
+
+    private static final ApiTemplate GET_TRANSFER_START = ApiTemplate.compile("export const ${name}Api = (query, options) => {\n", "name");
+
+    private static final ApiTemplate GET_TRANSFER_END = ApiTemplate.compile(
+            "\treturn ${invoke}(request, Object.assign({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tparams: query\n\t}, options), ${policy})\n}\n\n",
+            "invoke", "path", "method", "policy");
+
+    private static final ApiTemplate DATA_TRANSFER_START = ApiTemplate.compile("export const ${name}Api = (data, options) => {\n", "name");
+
+    private static final ApiTemplate DATA_TRANSFER_END = ApiTemplate.compile(
+            "\treturn ${invoke}(request, Object.assign({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n\t\tdata\n\t}, options), ${policy})\n}\n\n",
+            "invoke", "path", "method", "policy");
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getRuntimeFileName() {
+        return ApiRuntime.MODULE + getFileExtension();
+    }
+
+    @Override
+    public void emitRuntime(StringBuilder out, ApiRenderOptions options) {
+        ApiRuntime.render(out, options, false);
+    }
+
+    @Override
+    public void emitHeader(ApiModule module, StringBuilder out, ApiRenderOptions options) {
+        HEADER.render(out);
+        ApiRuntime.renderImport(module, ApiRuntime.MODULE, out);
+        out.append(ApiModuleRenderer.NEW_LINE);
+    }
+
+    @Override
+    public void emitEndpoint(ApiEndpoint endpoint, StringBuilder out, ApiRenderOptions options) {
+        SchemaCommentWriter.writeMethodComment(endpoint.getDescription(), out);
+
+        // GET 的参数作为查询参数，其他请求方法作为请求体
+        boolean get = ApiModuleRenderer.GET.equals(endpoint.getHttpMethod());
+        boolean called = !endpoint.getCallOptions().isDefault();
+        // 文件上传、下载和流式响应的第二个参数是 options，可以传入 signal、进度回调和 responseType
+        if (endpoint.getCallOptions().isTransfer()) {
+            (get ? GET_TRANSFER_START : DATA_TRANSFER_START).render(out, endpoint.getName());
+            SchemaCommentWriter.writeDataComment(endpoint.getParameters(), out, endpoint.getHttpMethod(), options);
+            (get ? GET_TRANSFER_END : DATA_TRANSFER_END).render(out, ApiRuntime.invoker(endpoint.getCallOptions()),
+                    endpoint.getPath(), endpoint.getHttpMethod(), ApiRuntime.policy(endpoint.getCallOptions()));
+            return;
+        }
+        (called ? (get ? GET_CALL_START : DATA_CALL_START) : (get ? GET_START : DATA_START)).render(out, endpoint.getName());
+        SchemaCommentWriter.writeDataComment(endpoint.getParameters(), out, endpoint.getHttpMethod(), options);
+        if (called) {
+            (get ? GET_CALL_END : DATA_CALL_END).render(out, endpoint.getPath(), endpoint.getHttpMethod(),
+                    ApiRuntime.policy(endpoint.getCallOptions()));
+        }
+        else {
+            (get ? GET_END : DATA_END).render(out, endpoint.getPath(), endpoint.getHttpMethod());
+        }
+    }
+}
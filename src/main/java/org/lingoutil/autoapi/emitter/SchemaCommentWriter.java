@@ -0,0 +1,151 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 输出方法描述注释和请求参数结构注释，供 JavaScript 输出器共用。
+ */
+public final class SchemaCommentWriter {
+
+    private static final String NEW_LINE = ApiModuleRenderer.NEW_LINE;
+
+    private static final ApiTemplate METHOD_COMMENT = ApiTemplate.compile("/**\n * ${comment}\n */\n", "comment");
+
+    private SchemaCommentWriter() {
+    }
+
+    /**
+     * 输出方法的描述注释，描述为空时不输出。
+     *
+     * @param description 描述
+     * @param out         输出缓冲区
+     */
+    public static void writeMethodComment(String description, StringBuilder out) {
+        if (description != null && !description.isEmpty()) {
+            METHOD_COMMENT.render(out, description);
+        }
+    }
+
+    /**
+     * 输出请求参数的 JSON 格式的数据注释，没有参数时不输出。
+     *
+     * @param parameters 方法参数
+     * @param out        输出缓冲区
+     * @param httpMethod HTTP 请求方法，GET 的参数输出为 query，其他为 data
+     * @param options    渲染选项
+     */
+    public static void writeDataComment(List<ApiParameter> parameters, StringBuilder out, String httpMethod, ApiRenderOptions options) {
+        if (parameters.isEmpty()) {
+            return;
+        }
+
+        out.append("\t/*").append(NEW_LINE);
+        out.append(ApiModuleRenderer.GET.equals(httpMethod) ? "\t\tquery: {" : "\t\tdata: {").append(NEW_LINE);
+
+        // 已展开过的 DTO，开启引用时重复出现的 DTO 不再展开；渲染模块时在整个文件中共用，否则只在本注释中
+        Set<TypeSchema> expandedSchemas = options.getExpandedSchemas() != null
+                ? options.getExpandedSchemas()
+                : new HashSet<TypeSchema>();
+
+        for (int i = 0; i < parameters.size(); i++) {
+            ApiParameter parameter = parameters.get(i);
+
+            // 跳过 Response, Session, Request 类型的参数
+            if (parameter.isIgnored()) {
+                continue;
+            }
+
+            if (parameter.getSchema() != null && isReference(parameter.getSchema(), options, expandedSchemas)) {
+                // 已在上文的接口方法中展开过，以引用表示
+                out.append("\t\t\t\" 结构同上文 ").append(parameter.getSchema().getSimpleName()).append(" \"").append(NEW_LINE);
+                out.append("\t\t}").append(NEW_LINE);
+            }
+            else if (parameter.getSchema() != null) {
+                // 处理 @RequestBody 参数
+                writeObjectFields(out, parameter.getSchema(), "\t\t\t", 1, options, new HashSet<TypeSchema>(), expandedSchemas);
+                out.append("\t\t}").append(NEW_LINE);
+            }
+            else {
+                // 处理普通参数
+                out.append("\t\t\t").append(parameter.getName()).append(": ").append(parameter.getTypeName()).append(',').append(NEW_LINE);
+                if (i == parameters.size() - 1) {
+                    out.append("\t\t}").append(NEW_LINE);
+                }
+            }
+        }
+
+        out.append("\t*/").append(NEW_LINE);
+    }
+
+    /**
+     * 递归写入对象字段的 JSON 格式数据注释。
+     *
+     * @param out             输出缓冲区
+     * @param schema          对象类型结构
+     * @param indent          缩进字符
+     * @param depth           当前展开深度
+     * @param options         渲染选项
+     * @param visitedSchemas  当前展开路径上的类型结构，用于检测递归
+     * @param expandedSchemas 已展开过的类型结构
+     */
+    private static void writeObjectFields(StringBuilder out, TypeSchema schema, String indent, int depth,
+                                          ApiRenderOptions options, Set<TypeSchema> visitedSchemas, Set<TypeSchema> expandedSchemas) {
+        // 如果该类是枚举，直接跳过
+        if (schema.isEnumType()) {
+            out.append(indent).append("\" 枚举类已跳过 \"").append(NEW_LINE);
+            return;
+        }
+
+        // 如果该类已经处理过，直接返回，防止无限递归
+        if (visitedSchemas.contains(schema)) {
+            out.append(indent).append("\" 检测到递归 \"").append(NEW_LINE);
+            return;
+        }
+
+        visitedSchemas.add(schema);
+        expandedSchemas.add(schema);
+
+        for (FieldSchema field : schema.getFields()) {
+            TypeSchema fieldSchema = field.getSchema();
+            out.append(indent).append(field.getName()).append(": ");
+            if (fieldSchema != null && options.getMaxDepth() > 0 && depth >= options.getMaxDepth()) {
+                // 超出最大展开深度，只写入类型名
+                out.append("\" 超出展开深度 ").append(fieldSchema.getSimpleName()).append(" \",");
+            }
+            else if (fieldSchema != null && !visitedSchemas.contains(fieldSchema)
+                    && isReference(fieldSchema, options, expandedSchemas)) {
+                // 已在上文展开过，以引用表示
+                out.append("\" 结构同上文 ").append(fieldSchema.getSimpleName()).append(" \",");
+            }
+            else if (fieldSchema != null) {
+                // 如果是自定义对象则递归调用解析写入
+                out.append('{').append(NEW_LINE);
+                writeObjectFields(out, fieldSchema, indent + "\t", depth + 1, options, visitedSchemas, expandedSchemas);
+                out.append(indent).append("},");
+            }
+            else {
+                // 如果是非自定义对象，则直接写入
+                out.append(field.getTypeName()).append(',');
+            }
+            out.append(NEW_LINE);
+        }
+
+        // 递归处理完当前类后，从已处理集合中移除
+        visitedSchemas.remove(schema);
+    }
+
+    /**
+     * 开启引用时，已展开过的非枚举 DTO 以引用表示。
+     */
+    private static boolean isReference(TypeSchema schema, ApiRenderOptions options, Set<TypeSchema> expandedSchemas) {
+        return options.isSchemaReferences() && !schema.isEnumType() && expandedSchemas.contains(schema);
+    }
+}
@@ -0,0 +1,363 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按参数和 DTO 的字段结构合成压测请求的查询参数和 JSON 请求体，见 {@link LoadDriverEmitter}。
+ * <p>
+ * 字符串取 {@code 名称-{{n}}}，整数取 {@code {{n}}}，{@code {{n}}} 在发送时替换为请求序号，使每个请求的数据不同；
+ * 其余类型取固定的示例值。集合、数组和 Map 包含一个元素，递归的类型再次出现时取 null（集合和 Map 为空），无法合成的类型也取 null。
+ */
+final class SyntheticPayloads {
+
+    /**
+     * 发送时替换为请求序号的占位符
+     */
+    static final String SEQUENCE = "{{n}}";
+
+    /**
+     * 简单类名到示例值（JSON），对应没有类型结构的基本类型、包装类、字符串和日期类，以及 JDK 中的类型结构，
+     * 字符串类型为 null，按名称生成
+     */
+    private static final Map<String, String> SCALARS = new HashMap<>();
+
+    static {
+        for (String type : new String[]{"int", "long", "Integer", "Long", "BigInteger"}) {
+            SCALARS.put(type, SEQUENCE);
+        }
+        for (String type : new String[]{"byte", "short", "Byte", "Short"}) {
+            SCALARS.put(type, "1");
+        }
+        for (String type : new String[]{"float", "double", "Float", "Double", "BigDecimal", "Number"}) {
+            SCALARS.put(type, "1.5");
+        }
+        SCALARS.put("boolean", "true");
+        SCALARS.put("Boolean", "true");
+        SCALARS.put("char", "\"a\"");
+        SCALARS.put("Character", "\"a\"");
+        SCALARS.put("String", null);
+        SCALARS.put("CharSequence", null);
+        SCALARS.put("Date", "\"2024-01-01T00:00:00.000+00:00\"");
+        SCALARS.put("LocalDate", "\"2024-01-01\"");
+        SCALARS.put("LocalDateTime", "\"2024-01-01T00:00:00\"");
+        SCALARS.put("LocalTime", "\"00:00:00\"");
+        SCALARS.put("ZonedDateTime", "\"2024-01-01T00:00:00Z\"");
+        SCALARS.put("OffsetDateTime", "\"2024-01-01T00:00:00Z\"");
+        SCALARS.put("Instant", "\"2024-01-01T00:00:00Z\"");
+        SCALARS.put("OffsetTime", "\"00:00:00Z\"");
+        SCALARS.put("Duration", "\"PT1S\"");
+        SCALARS.put("YearMonth", "\"2024-01\"");
+        SCALARS.put("UUID", "\"00000000-0000-0000-0000-000000000001\"");
+        // 与 Jackson 一致，字节数组为 Base64 字符串
+        SCALARS.put("byte[]", "\"AAAA\"");
+    }
+
+    private SyntheticPayloads() {
+    }
+
+    /**
+     * 合成查询参数。普通参数以参数名传递，包括 GET 请求中的自定义对象在内，对象参数展开为其字段，
+     * 只包含可以表示为单个值的参数和字段，数组和集合传递一个元素。
+     *
+     * @param parameters 方法参数
+     * @param objects    是否展开自定义对象参数，请求体发送的对象参数不展开
+     * @return 已编码的查询字符串，不含开头的问号，其中的 {{n}} 保持原样
+     */
+    static String query(List<ApiParameter> parameters, boolean objects) {
+        StringBuilder query = new StringBuilder();
+        for (ApiParameter parameter : parameters) {
+            if (parameter.isIgnored() || parameter.getType() == null) {
+                continue;
+            }
+            if (parameter.getSchema() == null) {
+                appendQuery(query, parameter.getName(), scalarOf(parameter.getType(), parameter.getName()));
+                continue;
+            }
+            if (!objects || !isObject(parameter.getSchema())) {
+                continue;
+            }
+            Map<String, Bound> bindings = bind(parameter.getSchema(), parameter.getType(), Collections.<String, Bound>emptyMap());
+            for (FieldSchema field : parameter.getSchema().getFields()) {
+                Bound bound = resolve(field.getType(), bindings);
+                if (bound != null) {
+                    appendQuery(query, field.getName(), scalarOf(bound.type, field.getName()));
+                }
+            }
+        }
+        return query.toString();
+    }
+
+    /**
+     * 合成 JSON 请求体。只有一个对象参数（如 @RequestBody）时为该参数的值，
+     * 有多个时与前端的 data 一致，合并为一个对象：自定义对象展开为其字段，其余以参数名为键。
+     *
+     * @param parameters 方法参数
+     * @return JSON 请求体，没有对象参数时返回 null
+     */
+    static String body(List<ApiParameter> parameters) {
+        List<ApiParameter> objects = new ArrayList<>();
+        for (ApiParameter parameter : parameters) {
+            if (!parameter.isIgnored() && parameter.getSchema() != null && parameter.getType() != null) {
+                objects.add(parameter);
+            }
+        }
+        if (objects.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder();
+        Set<TypeSchema> visiting = Collections.newSetFromMap(new IdentityHashMap<TypeSchema, Boolean>());
+        Map<String, Bound> noBindings = Collections.emptyMap();
+        if (objects.size() == 1) {
+            ApiParameter parameter = objects.get(0);
+            writeValue(parameter.getType(), parameter.getName(), noBindings, visiting, out);
+            return out.toString();
+        }
+        out.append('{');
+        boolean first = true;
+        for (ApiParameter parameter : objects) {
+            TypeSchema schema = parameter.getSchema();
+            if (!isObject(schema)) {
+                first = writeKey(parameter.getName(), first, out);
+                writeValue(parameter.getType(), parameter.getName(), noBindings, visiting, out);
+                continue;
+            }
+            Map<String, Bound> bindings = bind(schema, parameter.getType(), noBindings);
+            visiting.add(schema);
+            for (FieldSchema field : schema.getFields()) {
+                first = writeKey(field.getName(), first, out);
+                writeBound(resolve(field.getType(), bindings), field.getName(), visiting, out);
+            }
+            visiting.remove(schema);
+        }
+        return out.append('}').toString();
+    }
+
+    /**
+     * 写入类型的示例值。
+     *
+     * @param type     类型引用
+     * @param name     字段或参数名，用于生成字符串
+     * @param bindings 当前对象的类型参数到类型实参的绑定
+     * @param visiting 当前展开路径上的类型结构，用于检测递归
+     * @param out      输出缓冲区
+     */
+    private static void writeValue(TypeRef type, String name, Map<String, Bound> bindings, Set<TypeSchema> visiting,
+                                   StringBuilder out) {
+        if (type.isTypeVariable()) {
+            writeBound(bindings.get(type.getTypeName()), name, visiting, out);
+            return;
+        }
+        String scalar = scalarValue(type, name);
+        if (scalar != null) {
+            out.append(scalar);
+            return;
+        }
+
+        List<TypeRef> typeArguments = type.getTypeArguments();
+        TypeSchema schema = type.getSchema();
+        if (type.isArray() || schema != null && TypeScriptTypes.COLLECTION_TYPES.contains(schema.getQualifiedName())) {
+            out.append('[');
+            if (!typeArguments.isEmpty() && !isRecursive(typeArguments.get(0), bindings, visiting)) {
+                writeValue(typeArguments.get(0), name, bindings, visiting, out);
+            }
+            out.append(']');
+            return;
+        }
+        if (schema == null) {
+            out.append("null");
+            return;
+        }
+        String qualifiedName = schema.getQualifiedName();
+        if (TypeScriptTypes.MAP_TYPES.contains(qualifiedName)) {
+            out.append('{');
+            if (typeArguments.size() == 2 && !isRecursive(typeArguments.get(1), bindings, visiting)) {
+                writeKey("key", true, out);
+                writeValue(typeArguments.get(1), name, bindings, visiting, out);
+            }
+            out.append('}');
+            return;
+        }
+        if ("java.util.Optional".equals(qualifiedName)) {
+            if (typeArguments.isEmpty()) {
+                out.append("null");
+            }
+            else {
+                writeValue(typeArguments.get(0), name, bindings, visiting, out);
+            }
+            return;
+        }
+        if (schema.isEnumType()) {
+            out.append(schema.getEnumConstants().isEmpty() ? "null" : quote(schema.getEnumConstants().get(0)));
+            return;
+        }
+        if (!isObject(schema) || visiting.contains(schema)) {
+            out.append("null");
+            return;
+        }
+
+        Map<String, Bound> fieldBindings = bind(schema, type, bindings);
+        visiting.add(schema);
+        out.append('{');
+        boolean first = true;
+        for (FieldSchema field : schema.getFields()) {
+            first = writeKey(field.getName(), first, out);
+            writeBound(resolve(field.getType(), fieldBindings), field.getName(), visiting, out);
+        }
+        out.append('}');
+        visiting.remove(schema);
+    }
+
+    private static void writeBound(Bound bound, String name, Set<TypeSchema> visiting, StringBuilder out) {
+        if (bound == null) {
+            out.append("null");
+        }
+        else {
+            writeValue(bound.type, name, bound.bindings, visiting, out);
+        }
+    }
+
+    private static boolean writeKey(String key, boolean first, StringBuilder out) {
+        if (!first) {
+            out.append(',');
+        }
+        out.append(quote(key)).append(':');
+        return false;
+    }
+
+    /**
+     * 获取可以表示为单个值的类型的示例值（JSON），数组和集合取元素的值。
+     *
+     * @return 示例值，不是单个值时返回 null
+     */
+    private static String scalarOf(TypeRef type, String name) {
+        if (type.isTypeVariable()) {
+            return null;
+        }
+        String scalar = scalarValue(type, name);
+        if (scalar != null) {
+            return scalar;
+        }
+        TypeSchema schema = type.getSchema();
+        boolean collection = type.isArray() || schema != null && TypeScriptTypes.COLLECTION_TYPES.contains(schema.getQualifiedName());
+        if (collection && !type.getTypeArguments().isEmpty()) {
+            return scalarOf(type.getTypeArguments().get(0), name);
+        }
+        if (schema != null && schema.isEnumType() && !schema.getEnumConstants().isEmpty()) {
+            return quote(schema.getEnumConstants().get(0));
+        }
+        return null;
+    }
+
+    /**
+     * 获取基本类型、字符串、日期等 JDK 类型的示例值（JSON）。
+     *
+     * @return 示例值，不是这些类型时返回 null
+     */
+    private static String scalarValue(TypeRef type, String name) {
+        TypeSchema schema = type.getSchema();
+        if (schema != null && (schema.isEnumType() || TypeScriptTypes.isDeclared(schema))) {
+            return null;
+        }
+        String simpleName = schema == null ? type.getTypeName() : schema.getSimpleName();
+        if (type.isArray() && !"byte[]".equals(simpleName) || !SCALARS.containsKey(simpleName)) {
+            return null;
+        }
+        String scalar = SCALARS.get(simpleName);
+        return scalar != null ? scalar : quote(name + '-' + SEQUENCE);
+    }
+
+    /**
+     * 判断元素是否为正在展开的对象，这样的集合和 Map 为空，而不是包含一个 null
+     */
+    private static boolean isRecursive(TypeRef type, Map<String, Bound> bindings, Set<TypeSchema> visiting) {
+        Bound bound = resolve(type, bindings);
+        return bound != null && bound.type.getSchema() != null && visiting.contains(bound.type.getSchema());
+    }
+
+    private static boolean isObject(TypeSchema schema) {
+        return !schema.isEnumType() && TypeScriptTypes.isDeclared(schema);
+    }
+
+    /**
+     * 将泛型对象的类型参数绑定到本次使用的类型实参，类型实参按外层的绑定解析。
+     */
+    private static Map<String, Bound> bind(TypeSchema schema, TypeRef type, Map<String, Bound> bindings) {
+        List<String> typeParameters = schema.getTypeParameters();
+        List<TypeRef> typeArguments = type.getTypeArguments();
+        if (typeParameters.isEmpty() || typeArguments.size() != typeParameters.size()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Bound> bound = new HashMap<>();
+        for (int i = 0; i < typeParameters.size(); i++) {
+            bound.put(typeParameters.get(i), resolve(typeArguments.get(i), bindings));
+        }
+        return bound;
+    }
+
+    /**
+     * 解析类型变量，不是类型变量时与当前的绑定一起返回。
+     *
+     * @return 解析后的类型，类型变量未绑定时返回 null
+     */
+    private static Bound resolve(TypeRef type, Map<String, Bound> bindings) {
+        return type.isTypeVariable() ? bindings.get(type.getTypeName()) : new Bound(type, bindings);
+    }
+
+    private static void appendQuery(StringBuilder query, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        if (query.length() > 0) {
+            query.append('&');
+        }
+        String text = value.startsWith("\"") ? value.substring(1, value.length() - 1) : value;
+        query.append(encode(name)).append('=');
+        // 占位符保持原样，发送时替换为数字
+        String[] parts = text.split("\\{\\{n}}", -1);
+        for (int i = 0; i < parts.length; i++) {
+            query.append(i == 0 ? "" : SEQUENCE).append(encode(parts[i]));
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * 已解析的类型和解析其中类型变量所用的绑定
+     */
+    private static class Bound {
+
+        private final TypeRef type;
+
+        private final Map<String, Bound> bindings;
+
+        private Bound(TypeRef type, Map<String, Bound> bindings) {
+            this.type = type;
+            this.bindings = bindings;
+        }
+    }
+}
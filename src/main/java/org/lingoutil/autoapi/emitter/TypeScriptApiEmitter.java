@@ -0,0 +1,264 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 输出 TypeScript 代码的输出器。
+ * <p>
+ * 每个 DTO 只在共享的 {@code types.ts} 中声明一次 interface，枚举声明为字符串字面量的联合类型，
+ * 泛型、集合和递归类型都按 TypeScript 的写法表示。各模块通过 {@code import type} 引用这些类型，
+ * 生成的代码总量只与不同类型的数量有关。请求方式与 {@link RequestApiEmitter} 相同。
+ * <p>
+ * 所有 DTO 共用一个命名空间，简单类名相同的 DTO 以所在的包名作为前缀区分（如 {@code AUserDto} 和 {@code BUserDto}），
+ * 类型名在 {@link #prepare} 中根据全部模块确定，模块文件和共享类型模块使用相同的名称。
+ */
+public class TypeScriptApiEmitter implements ApiEmitter {
+
+    public static final String NAME = "typescript";
+
+    public static final String TYPES_MODULE = "types";
+
+    /**
+     * 文件上传和下载接口方法的 options 参数类型，声明在共享类型模块中
+     */
+    public static final String TRANSFER_OPTIONS = "ApiTransferOptions";
+
+    private static final String NEW_LINE = ApiModuleRenderer.NEW_LINE;
+
+    private static final ApiTemplate HEADER = ApiTemplate.compile("import request from '@/utils/request'\n");
+
+    private static final ApiTemplate TYPE_IMPORT = ApiTemplate.compile("import type { ${names} } from './${module}'\n", "names", "module");
+
+    private static final ApiTemplate START = ApiTemplate.compile("export const ${name}Api = (${parameter}) => {\n", "name", "parameter");
+
+    private static final ApiTemplate REQUEST = ApiTemplate.compile(
+            "\treturn request({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n${payload}\t})\n}\n\n", "path", "method", "payload");
+
+    private static final ApiTemplate CALL = ApiTemplate.compile(
+            "\treturn call(request, {\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n${payload}\t}, ${policy})\n}\n\n",
+            "path", "method", "payload", "policy");
+
+    private static final ApiTemplate TRANSFER_CALL = ApiTemplate.compile(
+            "\treturn ${invoke}(request, Object.assign({\n\t\turl: '${path}',\n\t\tmethod: '${method}',\n${payload}\t}, options), ${policy})\n}\n\n",
+            "invoke", "path", "method", "payload", "policy");
+
+    private static final ApiTemplate TRANSFER_OPTIONS_DECLARATION = ApiTemplate.compile(
+            "export interface ${name} {\n" +
+            "\tsignal?: AbortSignal\n" +
+            "\theaders?: Record<string, string>\n" +
+            "\tresponseType?: 'blob' | 'arraybuffer' | 'stream'\n" +
+            "\tonUploadProgress?: (event: { loaded: number; total?: number }) => void\n" +
+            "\tonDownloadProgress?: (event: { loaded: number; total?: number }) => void\n" +
+            "}\n\n", "name");
+
+    private static final ApiTemplate INTERFACE_START = ApiTemplate.compile("export interface ${name} {\n", "name");
+
+    private static final ApiTemplate INTERFACE_FIELD = ApiTemplate.compile("\t${name}?: ${type}\n", "name", "type");
+
+    private static final ApiTemplate ENUM = ApiTemplate.compile("export type ${name} = ${values}\n\n", "name", "values");
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 为简单类名相同的 DTO 分配不同的类型名。
+     */
+    @Override
+    public ApiRenderOptions prepare(List<ApiModule> modules, ApiRenderOptions options) {
+        Map<String, String> typeNames = TypeScriptTypes.typeNames(TypeScriptTypes.declaredSchemas(modules).values());
+        return typeNames.equals(options.getTypeNames()) ? options : options.withTypeNames(typeNames);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".ts";
+    }
+
+    @Override
+    public String getSharedFileName() {
+        return TYPES_MODULE + getFileExtension();
+    }
+
+    @Override
+    public String getRuntimeFileName() {
+        return ApiRuntime.MODULE + getFileExtension();
+    }
+
+    @Override
+    public void emitRuntime(StringBuilder out, ApiRenderOptions options) {
+        ApiRuntime.render(out, options, true);
+    }
+
+    @Override
+    public void emitHeader(ApiModule module, StringBuilder out, ApiRenderOptions options) {
+        HEADER.render(out);
+        ApiRuntime.renderImport(module, ApiRuntime.MODULE, out);
+
+        // 只导入接口签名中直接用到的类型
+        Set<String> names = new TreeSet<>();
+        for (ApiEndpoint endpoint : module.getEndpoints()) {
+            if (endpoint.getCallOptions().isTransfer()) {
+                names.add(TRANSFER_OPTIONS);
+            }
+            for (ApiParameter parameter : endpoint.getParameters()) {
+                if (!parameter.isIgnored()) {
+                    collectNames(parameter.getType(), names, options);
+                }
+            }
+        }
+        if (!names.isEmpty()) {
+            TYPE_IMPORT.render(out, String.join(", ", names), TYPES_MODULE);
+        }
+        out.append(NEW_LINE);
+    }
+
+    @Override
+    public void emitEndpoint(ApiEndpoint endpoint, StringBuilder out, ApiRenderOptions options) {
+        SchemaCommentWriter.writeMethodComment(endpoint.getDescription(), out);
+
+        boolean get = ApiModuleRenderer.GET.equals(endpoint.getHttpMethod());
+        String variable = get ? "query" : "data";
+        String parameterType = parameterType(endpoint, get, options);
+        boolean called = !endpoint.getCallOptions().isDefault();
+        boolean transfer = endpoint.getCallOptions().isTransfer();
+        // 通过运行时模块调用的接口方法额外接受 AbortSignal，文件上传、下载和流式响应接受包含 signal 和进度回调的 options
+        List<String> parameters = new ArrayList<>();
+        List<String> payload = new ArrayList<>();
+        if (parameterType != null) {
+            parameters.add(variable + ": " + parameterType);
+            payload.add(get ? "\t\tparams: query" : "\t\tdata");
+        }
+        if (transfer) {
+            parameters.add("options?: " + TRANSFER_OPTIONS);
+        }
+        else if (called) {
+            parameters.add("signal?: AbortSignal");
+            payload.add("\t\tsignal");
+        }
+        START.render(out, endpoint.getName(), String.join(", ", parameters));
+        String payloadLines = payload.isEmpty() ? "" : String.join("," + NEW_LINE, payload) + NEW_LINE;
+
+        if (transfer) {
+            TRANSFER_CALL.render(out, ApiRuntime.invoker(endpoint.getCallOptions()), endpoint.getPath(), endpoint.getHttpMethod(), payloadLines, ApiRuntime.policy(endpoint.getCallOptions()));
+        }
+        else if (called) {
+            CALL.render(out, endpoint.getPath(), endpoint.getHttpMethod(), payloadLines, ApiRuntime.policy(endpoint.getCallOptions()));
+        }
+        else {
+            REQUEST.render(out, endpoint.getPath(), endpoint.getHttpMethod(), payloadLines);
+        }
+    }
+
+    /**
+     * 输出共享的类型声明，每个 DTO 只声明一次。
+     */
+    @Override
+    public void emitShared(List<ApiModule> modules, StringBuilder out, ApiRenderOptions options) {
+        boolean transfer = false;
+        for (ApiModule module : modules) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                transfer |= endpoint.getCallOptions().isTransfer();
+            }
+        }
+        Map<String, TypeSchema> schemas = TypeScriptTypes.declaredSchemas(modules);
+
+        if (transfer) {
+            TRANSFER_OPTIONS_DECLARATION.render(out, TRANSFER_OPTIONS);
+        }
+        if (schemas.isEmpty()) {
+            if (!transfer) {
+                // 保证文件始终是一个模块
+                out.append("export {}").append(NEW_LINE);
+            }
+            return;
+        }
+
+        for (TypeSchema schema : schemas.values()) {
+            writeDeclaration(schema, out, options);
+        }
+    }
+
+    private static void writeDeclaration(TypeSchema schema, StringBuilder out, ApiRenderOptions options) {
+        String name = TypeScriptTypes.nameOf(schema, options);
+        if (schema.isEnumType()) {
+            List<String> values = new ArrayList<>();
+            for (String constant : schema.getEnumConstants()) {
+                values.add("'" + constant + "'");
+            }
+            ENUM.render(out, name, values.isEmpty() ? "never" : String.join(" | ", values));
+            return;
+        }
+
+        if (!schema.getTypeParameters().isEmpty()) {
+            name += "<" + String.join(", ", schema.getTypeParameters()) + ">";
+        }
+        INTERFACE_START.render(out, name);
+        for (FieldSchema field : schema.getFields()) {
+            INTERFACE_FIELD.render(out, field.getName(), TypeScriptTypes.of(field.getType(), options));
+        }
+        out.append('}').append(NEW_LINE).append(NEW_LINE);
+    }
+
+    /**
+     * 获取接口方法参数的类型，没有需要传递的参数时返回 null。
+     * 唯一的请求体参数直接使用其类型，其余情况下 DTO 参数与普通参数组成交叉类型。
+     */
+    private static String parameterType(ApiEndpoint endpoint, boolean get, ApiRenderOptions options) {
+        List<ApiParameter> parameters = new ArrayList<>();
+        for (ApiParameter parameter : endpoint.getParameters()) {
+            if (!parameter.isIgnored()) {
+                parameters.add(parameter);
+            }
+        }
+        if (parameters.isEmpty()) {
+            return null;
+        }
+        if (!get && parameters.size() == 1 && parameters.get(0).getSchema() != null) {
+            return TypeScriptTypes.of(parameters.get(0).getType(), options);
+        }
+
+        List<String> parts = new ArrayList<>();
+        StringBuilder fields = new StringBuilder();
+        for (ApiParameter parameter : parameters) {
+            TypeSchema schema = parameter.getSchema();
+            if (schema != null && !schema.isEnumType() && TypeScriptTypes.isDeclared(schema)) {
+                parts.add(TypeScriptTypes.of(parameter.getType(), options));
+            }
+            else {
+                fields.append(fields.length() == 0 ? "{ " : "; ")
+                        .append(parameter.getName()).append("?: ").append(TypeScriptTypes.of(parameter.getType(), options));
+            }
+        }
+        if (fields.length() > 0) {
+            parts.add(fields.append(" }").toString());
+        }
+        return String.join(" & ", parts);
+    }
+
+    /**
+     * 收集类型引用中用到的需要声明的类型名。
+     */
+    private static void collectNames(TypeRef type, Set<String> names, ApiRenderOptions options) {
+        if (type.getSchema() != null && TypeScriptTypes.isDeclared(type.getSchema())) {
+            names.add(TypeScriptTypes.nameOf(type.getSchema(), options));
+        }
+        for (TypeRef typeArgument : type.getTypeArguments()) {
+            collectNames(typeArgument, names, options);
+        }
+    }
+}
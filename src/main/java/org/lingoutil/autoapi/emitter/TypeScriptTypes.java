@@ -0,0 +1,292 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Java 类型到 TypeScript 类型的映射。
+ * JDK 自带的类型映射为对应的基础类型、数组或 Record，其余的自定义对象映射为共享类型模块中的同名接口，
+ * 简单类名相同的自定义对象以所在的包名区分，见 {@link #typeNames}。
+ */
+final class TypeScriptTypes {
+
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * 简单类名到 TypeScript 类型，对应没有类型结构的基本类型、包装类、字符串和日期类
+     */
+    private static final Map<String, String> SIMPLE_TYPES = new HashMap<>();
+
+    /**
+     * JDK 中按全限定名映射的类型
+     */
+    private static final Map<String, String> JDK_TYPES = new HashMap<>();
+
+    /**
+     * JDK 类型的包名前缀，这些类型不声明为接口
+     */
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    static final Set<String> COLLECTION_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.Iterable",
+            "java.util.Collection",
+            "java.util.List",
+            "java.util.ArrayList",
+            "java.util.LinkedList",
+            "java.util.Set",
+            "java.util.HashSet",
+            "java.util.LinkedHashSet",
+            "java.util.SortedSet",
+            "java.util.NavigableSet",
+            "java.util.TreeSet",
+            "java.util.Queue",
+            "java.util.Deque",
+            "java.util.ArrayDeque"
+    ));
+
+    static final Set<String> MAP_TYPES = new HashSet<>(Arrays.asList(
+            "java.util.Map",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.SortedMap",
+            "java.util.NavigableMap",
+            "java.util.TreeMap",
+            "java.util.concurrent.ConcurrentMap",
+            "java.util.concurrent.ConcurrentHashMap"
+    ));
+
+    static {
+        for (String type : new String[]{"byte", "short", "int", "long", "float", "double",
+                "Byte", "Short", "Integer", "Long", "Float", "Double"}) {
+            SIMPLE_TYPES.put(type, "number");
+        }
+        for (String type : new String[]{"char", "Character", "String",
+                "Date", "LocalDate", "LocalDateTime", "LocalTime", "ZonedDateTime"}) {
+            SIMPLE_TYPES.put(type, "string");
+        }
+        SIMPLE_TYPES.put("boolean", "boolean");
+        SIMPLE_TYPES.put("Boolean", "boolean");
+        SIMPLE_TYPES.put("void", "void");
+        // 与 Jackson 一致，字节数组序列化为 Base64 字符串
+        SIMPLE_TYPES.put("byte[]", "string");
+        // 上传的文件和请求体以 Blob（File 也是 Blob）传入
+        for (String type : new String[]{"MultipartFile", "Part", "InputStream", "Resource"}) {
+            SIMPLE_TYPES.put(type, "Blob");
+        }
+
+        JDK_TYPES.put("java.lang.Object", UNKNOWN);
+        JDK_TYPES.put("java.lang.Number", "number");
+        JDK_TYPES.put("java.lang.CharSequence", "string");
+        JDK_TYPES.put("java.math.BigDecimal", "number");
+        JDK_TYPES.put("java.math.BigInteger", "number");
+        JDK_TYPES.put("java.util.UUID", "string");
+        JDK_TYPES.put("java.time.Instant", "string");
+        JDK_TYPES.put("java.time.OffsetDateTime", "string");
+        JDK_TYPES.put("java.time.OffsetTime", "string");
+        JDK_TYPES.put("java.time.Duration", "string");
+        JDK_TYPES.put("java.time.YearMonth", "string");
+    }
+
+    private TypeScriptTypes() {
+    }
+
+    /**
+     * 判断类型结构是否需要在共享类型模块中声明，即不属于 JDK 的自定义对象或枚举。
+     * 基本类型和数组作为请求体时的类型结构没有包名，也不声明。
+     */
+    static boolean isDeclared(TypeSchema schema) {
+        String qualifiedName = schema.getQualifiedName();
+        for (String jdkPackage : JDK_PACKAGES) {
+            if (qualifiedName.startsWith(jdkPackage)) {
+                return false;
+            }
+        }
+        return qualifiedName.indexOf('.') >= 0;
+    }
+
+    /**
+     * 收集模块中需要在共享类型模块中声明的类型结构。
+     *
+     * @param modules 全部模块
+     * @return 全限定名到类型结构，按全限定名排序，与模块的生成顺序无关
+     */
+    static Map<String, TypeSchema> declaredSchemas(List<ApiModule> modules) {
+        Map<String, TypeSchema> schemas = new TreeMap<>();
+        Deque<TypeRef> pending = new ArrayDeque<>();
+        for (ApiModule module : modules) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                for (ApiParameter parameter : endpoint.getParameters()) {
+                    if (!parameter.isIgnored()) {
+                        pending.add(parameter.getType());
+                    }
+                }
+            }
+        }
+        Set<TypeSchema> visitedSchemas = new HashSet<>();
+        while (!pending.isEmpty()) {
+            TypeRef type = pending.poll();
+            pending.addAll(type.getTypeArguments());
+            TypeSchema schema = type.getSchema();
+            // JDK 类型映射为内置类型，不展开其字段
+            if (schema == null || !isDeclared(schema) || !visitedSchemas.add(schema)) {
+                continue;
+            }
+            schemas.put(schema.getQualifiedName(), schema);
+            for (FieldSchema field : schema.getFields()) {
+                pending.add(field.getType());
+            }
+        }
+        return schemas;
+    }
+
+    /**
+     * 为简单类名相同的类型分配不同的类型名：从近到远依次加上所在的包名或外部类名作为前缀，直到互不相同且不与其他类型重名，
+     * 如 {@code com.a.UserDto} 和 {@code com.b.UserDto} 分别命名为 {@code AUserDto} 和 {@code BUserDto}。
+     *
+     * @param schemas 需要声明的全部类型结构
+     * @return 全限定名到类型名，简单类名唯一的类型不包含在内，仍使用简单类名
+     */
+    static Map<String, String> typeNames(Collection<TypeSchema> schemas) {
+        Map<String, List<String>> qualifiedNames = new TreeMap<>();
+        for (TypeSchema schema : schemas) {
+            qualifiedNames.computeIfAbsent(schema.getSimpleName(), name -> new ArrayList<>()).add(schema.getQualifiedName());
+        }
+        Set<String> usedNames = new HashSet<>(qualifiedNames.keySet());
+        Map<String, String> typeNames = new TreeMap<>();
+        for (List<String> clashing : qualifiedNames.values()) {
+            if (clashing.size() < 2) {
+                continue;
+            }
+            for (int depth = 1; ; depth++) {
+                Map<String, String> candidates = new LinkedHashMap<>();
+                boolean exhausted = true;
+                for (String qualifiedName : clashing) {
+                    String[] segments = qualifiedName.split("[.$]");
+                    exhausted &= depth >= segments.length - 1;
+                    candidates.put(qualifiedName, prefixedName(segments, depth));
+                }
+                Set<String> names = new HashSet<>(candidates.values());
+                if (names.size() == candidates.size() && Collections.disjoint(names, usedNames) || exhausted) {
+                    int index = 0;
+                    for (Map.Entry<String, String> candidate : candidates.entrySet()) {
+                        String name = candidate.getValue();
+                        // 连完整的包名都相同（如 a.b$C 和 a.b.C）时按顺序编号
+                        while (!usedNames.add(name)) {
+                            name = candidate.getValue() + (++index);
+                        }
+                        typeNames.put(candidate.getKey(), name);
+                    }
+                    break;
+                }
+            }
+        }
+        return typeNames;
+    }
+
+    private static String prefixedName(String[] segments, int depth) {
+        StringBuilder name = new StringBuilder();
+        for (int i = Math.max(0, segments.length - 1 - depth); i < segments.length - 1; i++) {
+            String segment = segments[i];
+            if (!segment.isEmpty()) {
+                name.append(Character.toUpperCase(segment.charAt(0))).append(segment, 1, segment.length());
+            }
+        }
+        return name.append(segments[segments.length - 1]).toString();
+    }
+
+    /**
+     * 获取需要声明的类型在共享类型模块中的名称。
+     *
+     * @param schema  类型结构
+     * @param options 渲染选项
+     * @return 类型名
+     */
+    static String nameOf(TypeSchema schema, ApiRenderOptions options) {
+        String typeName = options.getTypeNames().get(schema.getQualifiedName());
+        return typeName != null ? typeName : schema.getSimpleName();
+    }
+
+    /**
+     * 获取类型的一次使用对应的 TypeScript 类型。
+     *
+     * @param type    类型引用
+     * @param options 渲染选项
+     * @return TypeScript 类型
+     */
+    static String of(TypeRef type, ApiRenderOptions options) {
+        if (type.isTypeVariable()) {
+            return type.getTypeName();
+        }
+        if (type.isArray()) {
+            String simpleType = SIMPLE_TYPES.get(type.getTypeName());
+            return simpleType != null ? simpleType : arrayOf(of(type.getTypeArguments().get(0), options));
+        }
+
+        TypeSchema schema = type.getSchema();
+        if (schema == null) {
+            String simpleType = SIMPLE_TYPES.get(type.getTypeName());
+            return simpleType != null ? simpleType : UNKNOWN;
+        }
+
+        List<TypeRef> typeArguments = type.getTypeArguments();
+        String qualifiedName = schema.getQualifiedName();
+        if (COLLECTION_TYPES.contains(qualifiedName)) {
+            return arrayOf(typeArguments.isEmpty() ? UNKNOWN : of(typeArguments.get(0), options));
+        }
+        if (MAP_TYPES.contains(qualifiedName)) {
+            String keyType = typeArguments.size() < 2 ? "string" : of(typeArguments.get(0), options);
+            String valueType = typeArguments.size() < 2 ? UNKNOWN : of(typeArguments.get(1), options);
+            // JSON 对象的键只能是字符串或数字
+            return "Record<" + ("number".equals(keyType) ? "number" : "string") + ", " + valueType + ">";
+        }
+        if ("java.util.Optional".equals(qualifiedName)) {
+            return (typeArguments.isEmpty() ? UNKNOWN : of(typeArguments.get(0), options)) + " | null";
+        }
+        if (!isDeclared(schema)) {
+            String jdkType = JDK_TYPES.get(qualifiedName);
+            return jdkType != null ? jdkType : UNKNOWN;
+        }
+
+        StringBuilder builder = new StringBuilder(nameOf(schema, options));
+        if (!typeArguments.isEmpty()) {
+            builder.append('<');
+            for (int i = 0; i < typeArguments.size(); i++) {
+                builder.append(i == 0 ? "" : ", ").append(of(typeArguments.get(i), options));
+            }
+            builder.append('>');
+        }
+        else if (!schema.getTypeParameters().isEmpty()) {
+            // 原始类型的泛型参数按 unknown 处理
+            builder.append('<');
+            for (int i = 0; i < schema.getTypeParameters().size(); i++) {
+                builder.append(i == 0 ? "" : ", ").append(UNKNOWN);
+            }
+            builder.append('>');
+        }
+        return builder.toString();
+    }
+
+    private static String arrayOf(String elementType) {
+        // 联合类型需要加括号，否则 A | null[] 的含义不同
+        return elementType.indexOf(' ') >= 0 ? "(" + elementType + ")[]" : elementType + "[]";
+    }
+}
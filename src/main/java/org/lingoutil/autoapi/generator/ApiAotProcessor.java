@@ -0,0 +1,91 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 在 Spring AOT 构建时生成 API 代码，通过 {@code META-INF/spring/aot.factories} 注册。
+ * <p>
+ * AOT 构建时容器只注册了 Bean 定义，没有创建 Bean，也没有注册 BeanPostProcessor，
+ * 因此在使用同一个 Environment 的独立容器中创建生成相关的组件，按 Bean 定义查找 Controller 并同步生成，
+ * 配置项与运行时一致。开启合并请求的接口路径写入资源文件 {@link #BATCHED_PATHS_RESOURCE}，
+ * 供原生镜像中的 {@link org.lingoutil.autoapi.web.ApiBatchFilter} 读取，运行时不再需要反射。
+ * <p>
+ * 生成失败只记录日志，不中断 AOT 构建，与运行时的行为一致。
+ */
+public class ApiAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiAotProcessor.class);
+
+    /**
+     * 开启合并请求的接口路径，每行一个
+     */
+    public static final String BATCHED_PATHS_RESOURCE = "META-INF/auto-api/batched-paths";
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        if (beanFactory.getBeanNamesForType(ApiInitializer.class, false, false).length == 0
+                || !beanFactory.containsBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME)) {
+            return null;
+        }
+        ConfigurableEnvironment environment = beanFactory.getBean(
+                ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, ConfigurableEnvironment.class);
+
+        Set<String> batchedPaths;
+        try (AnnotationConfigApplicationContext generationContext = new AnnotationConfigApplicationContext()) {
+            generationContext.setEnvironment(environment);
+            generationContext.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class,
+                    ApiFileWriter.class, ApiModuleCache.class, ApiGenerationMetrics.class);
+            generationContext.refresh();
+
+            if (!generationContext.getBean(ApiConfiguration.class).getEnable()) {
+                return null;
+            }
+            ApiGenerator apiGenerator = generationContext.getBean(ApiGenerator.class);
+            long startNanos = System.nanoTime();
+            List<Class<?>> controllerClasses = ApiInitializer.findControllers(beanFactory);
+            generationContext.getBean(ApiGenerationMetrics.class).recordDiscovery(System.nanoTime() - startNanos);
+            logger.info("autoAPI generating {} controllers at AOT build time", controllerClasses.size());
+            try {
+                apiGenerator.generateApiCode(controllerClasses);
+            }
+            catch (RuntimeException e) {
+                logger.error("autoAPI failed to generate api files at AOT build time", e);
+                return null;
+            }
+            batchedPaths = batchedPaths(apiGenerator);
+        }
+
+        return (generationContext, beanFactoryInitializationCode) -> {
+            generationContext.getGeneratedFiles().addResourceFile(BATCHED_PATHS_RESOURCE,
+                    String.join("\n", batchedPaths) + "\n");
+            generationContext.getRuntimeHints().resources().registerPattern(BATCHED_PATHS_RESOURCE);
+        };
+    }
+
+    private static Set<String> batchedPaths(ApiGenerator apiGenerator) {
+        Set<String> paths = new TreeSet<>();
+        for (ApiModule module : apiGenerator.getModules().values()) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                if (endpoint.getCallOptions().isBatched()) {
+                    paths.add(endpoint.getPath());
+                }
+            }
+        }
+        return paths;
+    }
+}
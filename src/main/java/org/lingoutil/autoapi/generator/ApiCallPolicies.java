@@ -0,0 +1,112 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据注解确定接口方法在前端的调用方式，运行时反射和注解处理器共用，保证两条路径的输出一致。
+ */
+public final class ApiCallPolicies {
+
+    private ApiCallPolicies() {
+    }
+
+    /**
+     * 确定单个接口方法的调用方式。超时对所有请求方法生效；合并请求、缓存和对冲请求只对 GET 生效，
+     * 其他请求方法不是幂等的，不能重复发送。缓存以模块名分组。压缩请求体只对有请求体的非 GET 请求生效。
+     *
+     * @param moduleName 模块名
+     * @param httpMethod 已解析的请求方法
+     * @param batching   Controller 是否开启了合并请求
+     * @param autoApi    接口方法上的注解
+     * @return 调用方式
+     */
+    public static ApiCallOptions of(String moduleName, String httpMethod, boolean batching, AutoApi autoApi) {
+        ApiCallOptions callOptions = ApiCallOptions.DEFAULT.withTimeout(Math.max(0, autoApi.timeoutMs()));
+        if (!ApiModuleRenderer.GET.equals(httpMethod)) {
+            return callOptions.withCompressRequest(autoApi.compressRequest(), Math.max(0, autoApi.compressMinBytes()));
+        }
+        callOptions = callOptions.withBatched(batching).withHedgeAfter(Math.max(0, autoApi.hedgeAfterMs()));
+        return autoApi.cacheTtlMs() > 0 ? callOptions.withCache(autoApi.cacheTtlMs(), moduleName) : callOptions;
+    }
+
+    /**
+     * 设置文件上传和下载。上传只对 GET 以外的请求方法生效：参数中有 multipart 文件时以表单上传，
+     * 开启分片时超过分片大小的文件分片上传；否则有原始请求体参数时以该参数作为请求体上传。
+     * 上传和下载都不合并请求，批量请求的响应只能是 JSON；上传的文件通常已经压缩过，不再压缩请求体。
+     * 流式响应由运行时模块的 {@code stream} 逐条读取，不使用合并请求、缓存、超时等其他调用方式。
+     *
+     * @param callOptions 调用方式
+     * @param httpMethod  已解析的请求方法
+     * @param multipart   参数中是否有 multipart 文件
+     * @param chunked     multipart 文件是否分片上传
+     * @param bodyField   作为原始请求体的参数名，没有时为 null
+     * @param download    返回值是否以文件下载
+     * @param stream      流式响应的读取方式，不是流式响应时为 null
+     * @return 调用方式
+     */
+    public static ApiCallOptions transfer(ApiCallOptions callOptions, String httpMethod, boolean multipart, boolean chunked,
+                                          String bodyField, boolean download, String stream) {
+        if (stream != null) {
+            return ApiCallOptions.DEFAULT.withStream(stream);
+        }
+        if (!ApiModuleRenderer.GET.equals(httpMethod)) {
+            if (multipart) {
+                callOptions = callOptions.withUpload(chunked ? ApiCallOptions.UPLOAD_CHUNKED : ApiCallOptions.UPLOAD_MULTIPART, null);
+            }
+            else if (bodyField != null) {
+                callOptions = callOptions.withUpload(ApiCallOptions.UPLOAD_BINARY, bodyField);
+            }
+        }
+        if (callOptions.getUpload() != null) {
+            callOptions = callOptions.withCompressRequest(false, 0);
+        }
+        callOptions = callOptions.withDownload(download);
+        return callOptions.isTransfer() ? callOptions.withBatched(false) : callOptions;
+    }
+
+    /**
+     * 生成记录耗时使用的接口标识，如 {@code UserController#get GET /user/get}，可以与后端的处理器一一对应。
+     *
+     * @param controllerName Controller 的类名，不含包名
+     * @param methodName     方法名
+     * @param httpMethod     已解析的请求方法
+     * @param path           接口路径
+     * @return 接口标识
+     */
+    public static String endpointId(String controllerName, String methodName, String httpMethod, String path) {
+        return controllerName + '#' + methodName + ' ' + httpMethod.toUpperCase() + ' ' + path;
+    }
+
+    /**
+     * 模块中有缓存的 GET 接口时，其余请求方法的接口（流式响应除外）完成后清除该模块的缓存。
+     *
+     * @param moduleName 模块名
+     * @param endpoints  模块的全部接口方法
+     * @return 设置了缓存清除的接口方法，没有缓存的接口时原样返回
+     */
+    public static List<ApiEndpoint> linkInvalidation(String moduleName, List<ApiEndpoint> endpoints) {
+        boolean cached = false;
+        for (ApiEndpoint endpoint : endpoints) {
+            cached |= endpoint.getCallOptions().isCached();
+        }
+        if (!cached) {
+            return endpoints;
+        }
+
+        List<ApiEndpoint> linked = new ArrayList<>(endpoints.size());
+        for (ApiEndpoint endpoint : endpoints) {
+            if (ApiModuleRenderer.GET.equals(endpoint.getHttpMethod()) || endpoint.getCallOptions().getStream() != null) {
+                linked.add(endpoint);
+                continue;
+            }
+            linked.add(new ApiEndpoint(endpoint.getName(), endpoint.getPath(), endpoint.getHttpMethod(), endpoint.getDescription(),
+                    endpoint.getParameters(), endpoint.getCallOptions().withInvalidatedGroup(moduleName)));
+        }
+        return linked;
+    }
+}
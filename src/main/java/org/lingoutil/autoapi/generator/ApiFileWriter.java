@@ -0,0 +1,282 @@
+package org.lingoutil.autoapi.generator;
+
+import jakarta.annotation.Resource;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiFlightRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 以崩溃安全的方式写出生成的文件。
+ * <p>
+ * 文件先完整写入输出目录下的暂存目录，全部写完后再通过原子重命名发布，读取方不会看到写了一半的文件，
+ * 生成失败的文件也不会覆盖已有的文件。如果输出路径是一个符号链接，则会生成一个完整的新目录，
+ * 再原子地切换符号链接，整套文件同时可见。
+ */
+@Component
+public class ApiFileWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiFileWriter.class);
+
+    private static final String STAGING_PREFIX = ".auto-api-staging-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 超过该时长未修改的暂存目录视为崩溃或被强制结束的进程遗留，开始新批次时删除。
+     * 不直接删除全部暂存目录，避免误删共享输出目录的其他进程正在使用的目录
+     */
+    private static final long STALE_STAGING_MILLIS = 10 * 60 * 1000L;
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    /**
+     * 开始一批文件的写出。
+     *
+     * @return 写出批次
+     * @throws IOException 文件操作异常
+     */
+    public Batch begin() throws IOException {
+        Path outputFolder = Paths.get(apiConfiguration.getOutputPath());
+        if (Files.isSymbolicLink(outputFolder)) {
+            // 新目录与链接目标位于同一目录下，保证可以原子切换
+            Path currentTarget = outputFolder.toRealPath();
+            deleteStaleFolders(currentTarget.getParent(), generationPrefix(outputFolder), currentTarget);
+            Path generationFolder = Files.createTempDirectory(currentTarget.getParent(), generationPrefix(outputFolder));
+            // 临时目录默认只有所有者可读，沿用旧目录的权限，保证 nginx 等读取方仍可访问
+            PosixFileAttributeView attributeView = Files.getFileAttributeView(currentTarget, PosixFileAttributeView.class);
+            if (attributeView != null) {
+                Files.setPosixFilePermissions(generationFolder, attributeView.readAttributes().permissions());
+            }
+            return new Batch(outputFolder, generationFolder, currentTarget);
+        }
+
+        Files.createDirectories(outputFolder);
+        deleteStaleFolders(outputFolder, STAGING_PREFIX, null);
+        return new Batch(outputFolder, Files.createTempDirectory(outputFolder, STAGING_PREFIX), null);
+    }
+
+    /**
+     * 原子地写出单个文件。
+     *
+     * @param fileName 文件名
+     * @param content  文件内容
+     * @throws IOException 文件操作异常
+     */
+    public void write(String fileName, ByteBuffer content) throws IOException {
+        Batch batch = begin();
+        try {
+            batch.stage(fileName, content);
+            batch.publish();
+        }
+        finally {
+            batch.discard();
+        }
+    }
+
+    /**
+     * 符号链接模式下新目录的名称前缀，只有以此开头的旧目录才会在切换后被删除
+     */
+    private static String generationPrefix(Path outputFolder) {
+        return "." + outputFolder.getFileName() + "-";
+    }
+
+    /**
+     * 删除上次运行遗留的暂存目录。
+     *
+     * @param parent  暂存目录所在的目录
+     * @param prefix  暂存目录的名称前缀
+     * @param exclude 不能删除的目录，例如符号链接当前指向的目录，可以为 null
+     */
+    private static void deleteStaleFolders(Path parent, String prefix, Path exclude) throws IOException {
+        long threshold = System.currentTimeMillis() - STALE_STAGING_MILLIS;
+        try (DirectoryStream<Path> folders = Files.newDirectoryStream(parent, prefix + "*")) {
+            for (Path folder : folders) {
+                if (folder.equals(exclude) || !Files.isDirectory(folder, LinkOption.NOFOLLOW_LINKS)) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(folder, LinkOption.NOFOLLOW_LINKS).toMillis() < threshold) {
+                    logger.info("autoAPI removing stale staging folder: {}", folder);
+                    deleteRecursively(folder);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将内容一次性写入新文件。
+     */
+    private static void writeFully(Path file, ByteBuffer content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            // 重命名之前落盘，避免崩溃后出现内容为空的新文件
+            channel.force(false);
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path folder) {
+        if (!Files.exists(folder, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(folder)) {
+            List<Path> sorted = new ArrayList<>();
+            paths.forEach(sorted::add);
+            Collections.reverse(sorted);
+            for (Path path : sorted) {
+                Files.deleteIfExists(path);
+            }
+        }
+        catch (IOException e) {
+            logger.warn("autoAPI failed to clean up staging folder: {}", folder, e);
+        }
+    }
+
+    /**
+     * 一批待发布的文件。{@link #stage} 可以被多个线程同时调用。
+     */
+    public static class Batch {
+
+        private final Path outputFolder;
+
+        private final Path stagingFolder;
+
+        /**
+         * 输出路径为符号链接时，链接当前指向的目录，否则为 null
+         */
+        private final Path linkedFolder;
+
+        private final Set<String> stagedFiles = Collections.synchronizedSet(new TreeSet<String>());
+
+        private final AtomicLong stagedBytes = new AtomicLong();
+
+        private boolean published;
+
+        private Batch(Path outputFolder, Path stagingFolder, Path linkedFolder) {
+            this.outputFolder = outputFolder;
+            this.stagingFolder = stagingFolder;
+            this.linkedFolder = linkedFolder;
+        }
+
+        /**
+         * 将文件写入暂存目录，发布前对读取方不可见。
+         *
+         * @param fileName 文件名
+         * @param content  文件内容
+         * @throws IOException 文件操作异常
+         */
+        public void stage(String fileName, ByteBuffer content) throws IOException {
+            Object event = ApiFlightRecorder.beginWrite();
+            long bytes = content.remaining();
+            writeFully(stagingFolder.resolve(fileName + TEMP_SUFFIX), content);
+            stagedFiles.add(fileName);
+            stagedBytes.addAndGet(bytes);
+            ApiFlightRecorder.commitWrite(event, fileName, bytes);
+        }
+
+        /**
+         * 已写入暂存目录的字节数。
+         */
+        public long getStagedBytes() {
+            return stagedBytes.get();
+        }
+
+        /**
+         * 发布暂存的全部文件。
+         *
+         * @throws IOException 文件操作异常
+         */
+        public void publish() throws IOException {
+            if (published) {
+                return;
+            }
+            published = true;
+
+            // 没有任何变化时不切换目录，也不产生任何写入
+            if (stagedFiles.isEmpty()) {
+                deleteRecursively(stagingFolder);
+                return;
+            }
+
+            if (linkedFolder != null) {
+                swapFolder();
+                return;
+            }
+
+            List<String> files;
+            synchronized (stagedFiles) {
+                files = new ArrayList<>(stagedFiles);
+            }
+            for (String file : files) {
+                moveAtomically(stagingFolder.resolve(file + TEMP_SUFFIX), outputFolder.resolve(file));
+            }
+            deleteRecursively(stagingFolder);
+        }
+
+        /**
+         * 放弃未发布的文件。已发布时不做任何事情。
+         */
+        public void discard() {
+            if (!published) {
+                deleteRecursively(stagingFolder);
+            }
+        }
+
+        /**
+         * 在新目录中补齐未变化的文件，然后原子地将符号链接切换到新目录。
+         */
+        private void swapFolder() throws IOException {
+            synchronized (stagedFiles) {
+                for (String file : stagedFiles) {
+                    Files.move(stagingFolder.resolve(file + TEMP_SUFFIX), stagingFolder.resolve(file));
+                }
+            }
+
+            // 未重新生成的文件从旧目录硬链接过来，不支持硬链接时复制
+            try (DirectoryStream<Path> oldFiles = Files.newDirectoryStream(linkedFolder)) {
+                for (Path oldFile : oldFiles) {
+                    Path newFile = stagingFolder.resolve(oldFile.getFileName().toString());
+                    if (!Files.isRegularFile(oldFile) || Files.exists(newFile)) {
+                        continue;
+                    }
+                    try {
+                        Files.createLink(newFile, oldFile);
+                    }
+                    catch (IOException | UnsupportedOperationException e) {
+                        Files.copy(oldFile, newFile, StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                }
+            }
+
+            Path temporaryLink = outputFolder.resolveSibling(outputFolder.getFileName() + TEMP_SUFFIX);
+            Files.deleteIfExists(temporaryLink);
+            Files.createSymbolicLink(temporaryLink, stagingFolder);
+            moveAtomically(temporaryLink, outputFolder);
+
+            // 只删除由本类创建的旧目录，用户手动指定的链接目标保持不变
+            if (linkedFolder.getFileName().toString().startsWith(generationPrefix(outputFolder))) {
+                deleteRecursively(linkedFolder);
+            }
+        }
+    }
+}
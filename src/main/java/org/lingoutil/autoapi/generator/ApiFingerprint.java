@@ -0,0 +1,108 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+import org.lingoutil.autoapi.util.DigestUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 计算 API 模块的指纹。
+ * 指纹覆盖接口方法的签名、已解析的路径和请求方法，以及参数引用到的全部 DTO 的字段结构，
+ * 指纹不变时生成的文件内容也不会变化。
+ */
+public class ApiFingerprint {
+
+    /**
+     * 输出格式版本，渲染逻辑发生变化时递增，使旧指纹全部失效
+     */
+    private static final String FORMAT_VERSION = "11";
+
+    private ApiFingerprint() {
+    }
+
+    /**
+     * 计算 API 模块的指纹。
+     *
+     * @param module   API 模块
+     * @param settings 影响生成结果的配置
+     * @return 十六进制的 SHA-256 摘要
+     */
+    public static String of(ApiModule module, String settings) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(FORMAT_VERSION).append('\n');
+        builder.append(settings).append('\n');
+        builder.append(module.getName()).append('\n');
+
+        // 收集参数引用到的 DTO，稍后逐个写入其字段结构
+        Deque<TypeSchema> pending = new ArrayDeque<>();
+        for (ApiEndpoint endpoint : module.getEndpoints()) {
+            builder.append(endpoint.getName()).append(' ')
+                    .append(endpoint.getHttpMethod()).append(' ')
+                    .append(endpoint.getPath()).append(' ')
+                    .append(endpoint.getDescription()).append(' ')
+                    .append(endpoint.getCallOptions()).append('\n');
+            for (ApiParameter parameter : endpoint.getParameters()) {
+                builder.append('\t').append(parameter.getName()).append(' ')
+                        .append(parameter.getTypeName()).append(' ')
+                        .append(parameter.isIgnored()).append(' ')
+                        .append(schemaName(parameter.getSchema())).append(' ')
+                        .append(parameter.getType()).append('\n');
+                if (parameter.getSchema() != null) {
+                    pending.add(parameter.getSchema());
+                }
+                addSchemas(parameter.getType(), pending);
+            }
+        }
+
+        // 每个 DTO 只写入一次，递归类型也能正常结束
+        Set<TypeSchema> visitedSchemas = new HashSet<>();
+        while (!pending.isEmpty()) {
+            TypeSchema schema = pending.poll();
+            if (!visitedSchemas.add(schema)) {
+                continue;
+            }
+            builder.append(schema.getQualifiedName()).append(' ')
+                    .append(schema.isEnumType()).append(' ')
+                    .append(schema.getTypeParameters()).append(' ')
+                    .append(schema.getEnumConstants()).append('\n');
+            for (FieldSchema field : schema.getFields()) {
+                builder.append('\t').append(field.getName()).append(' ')
+                        .append(field.getTypeName()).append(' ')
+                        .append(schemaName(field.getSchema())).append(' ')
+                        .append(field.getType()).append('\n');
+                if (field.getSchema() != null) {
+                    pending.add(field.getSchema());
+                }
+                addSchemas(field.getType(), pending);
+            }
+        }
+        return DigestUtils.sha256Hex(builder.toString());
+    }
+
+    /**
+     * 收集泛型实参中引用到的 DTO。
+     */
+    private static void addSchemas(TypeRef typeRef, Deque<TypeSchema> pending) {
+        if (typeRef == null) {
+            return;
+        }
+        if (typeRef.getSchema() != null) {
+            pending.add(typeRef.getSchema());
+        }
+        for (TypeRef typeArgument : typeRef.getTypeArguments()) {
+            addSchemas(typeArgument, pending);
+        }
+    }
+
+    private static String schemaName(TypeSchema schema) {
+        return schema == null ? "-" : schema.getQualifiedName();
+    }
+}
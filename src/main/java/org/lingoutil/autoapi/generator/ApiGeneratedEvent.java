@@ -0,0 +1,30 @@
+package org.lingoutil.autoapi.generator;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * API 代码生成结束后发布的事件，测试和工具可以监听该事件等待生成完成。
+ * 未开启生成或容器层级已由其他容器生成时同样发布，此时视为成功。
+ */
+public class ApiGeneratedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 生成失败时的异常，成功时为 null
+     */
+    private final Throwable failure;
+
+    public ApiGeneratedEvent(Object source, Throwable failure) {
+        super(source);
+        this.failure = failure;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
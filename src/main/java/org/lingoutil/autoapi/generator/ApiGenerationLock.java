@@ -0,0 +1,179 @@
+package org.lingoutil.autoapi.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个实例共享同一个输出目录时的生成锁。
+ * <p>
+ * 锁是输出目录下 {@code .auto-api.lock} 文件上的 {@link FileLock}，进程退出时由操作系统释放，不会留下死锁；
+ * 同一个 JVM 中的其他生成器持有锁时视为被占用。持有锁的实例生成完成后写入生成戳 {@code .auto-api-stamp}，
+ * 记录本次生成的整体指纹，之后获得锁的实例发现指纹一致时不再重复生成。
+ * 共享卷需要支持文件锁，如 NFSv4。
+ */
+public class ApiGenerationLock implements Closeable {
+
+    public static final String LOCK_FILE_NAME = ".auto-api.lock";
+    public static final String STAMP_FILE_NAME = ".auto-api-stamp";
+
+    private static final String STAMP_FINGERPRINT = "fingerprint";
+    private static final String STAMP_GENERATED_BY = "generatedBy";
+    private static final String STAMP_GENERATED_AT = "generatedAt";
+
+    /**
+     * 等待锁时重试的间隔
+     */
+    private static final long RETRY_MILLIS = 100;
+
+    private final Path outputFolder;
+
+    private final FileChannel channel;
+
+    private final FileLock lock;
+
+    private ApiGenerationLock(Path outputFolder, FileChannel channel, FileLock lock) {
+        this.outputFolder = outputFolder;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * 获取输出目录的生成锁。
+     *
+     * @param outputFolder  输出目录，不存在时创建
+     * @param timeoutMillis 等待锁的最长时间，0 表示锁被占用时立即返回
+     * @return 生成锁，超时或等待被中断时返回 null
+     * @throws IOException 无法创建或锁定锁文件
+     */
+    public static ApiGenerationLock acquire(Path outputFolder, long timeoutMillis) throws IOException {
+        Files.createDirectories(outputFolder);
+        FileChannel channel = FileChannel.open(outputFolder.resolve(LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            while (true) {
+                FileLock lock = tryLock(channel);
+                if (lock != null) {
+                    return new ApiGenerationLock(outputFolder, channel, lock);
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    channel.close();
+                    return null;
+                }
+                Thread.sleep(Math.min(RETRY_MILLIS, remainingMillis));
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            channel.close();
+            return null;
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        }
+        catch (OverlappingFileLockException e) {
+            // 同一个 JVM 中已经有其他通道持有该文件的锁
+            return null;
+        }
+    }
+
+    /**
+     * 读取上次完整生成时写入的生成戳。
+     *
+     * @return 生成戳，不存在或无法读取时返回空的 Properties
+     */
+    public Properties readStamp() {
+        Properties stamp = new Properties();
+        try (InputStream inputStream = Files.newInputStream(outputFolder.resolve(STAMP_FILE_NAME))) {
+            stamp.load(inputStream);
+        }
+        catch (NoSuchFileException e) {
+            return stamp;
+        }
+        catch (IOException | IllegalArgumentException e) {
+            stamp.clear();
+        }
+        return stamp;
+    }
+
+    /**
+     * 判断输出目录是否已经是给定指纹的生成结果。
+     *
+     * @param fingerprint 本次生成的整体指纹
+     * @return 生成戳中的指纹一致时返回 true
+     */
+    public boolean isGenerated(String fingerprint) {
+        return fingerprint.equals(readStamp().getProperty(STAMP_FINGERPRINT));
+    }
+
+    /**
+     * 获取生成戳的描述，用于日志。
+     *
+     * @return 如 {@code 1234@host at 2024-01-01T00:00:00Z}
+     */
+    public String describeStamp() {
+        Properties stamp = readStamp();
+        return stamp.getProperty(STAMP_GENERATED_BY) + " at " + stamp.getProperty(STAMP_GENERATED_AT);
+    }
+
+    /**
+     * 写入生成戳，先写临时文件再原子替换。
+     *
+     * @param fingerprint 本次生成的整体指纹
+     * @throws IOException 文件操作异常
+     */
+    public void writeStamp(String fingerprint) throws IOException {
+        Properties stamp = new Properties();
+        stamp.setProperty(STAMP_FINGERPRINT, fingerprint);
+        stamp.setProperty(STAMP_GENERATED_BY, ManagementFactory.getRuntimeMXBean().getName());
+        stamp.setProperty(STAMP_GENERATED_AT, Instant.now().toString());
+
+        Path stampFile = outputFolder.resolve(STAMP_FILE_NAME);
+        Path temporaryFile = outputFolder.resolve(STAMP_FILE_NAME + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+            stamp.store(outputStream, "auto-api generation stamp, do not edit");
+        }
+        try {
+            Files.move(temporaryFile, stampFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, stampFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 释放锁。
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            lock.release();
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
@@ -1,24 +1,717 @@
 package org.lingoutil.autoapi.generator;
 
 import jakarta.annotation.Resource;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.emitter.LoadDriverEmitter;
+import org.lingoutil.autoapi.metrics.ApiFlightRecorder;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.metrics.ApiGenerationReport;
+import org.lingoutil.autoapi.metrics.ControllerMetrics;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.util.DigestUtils;
+import org.lingoutil.autoapi.util.ExecutorUtils;
+import org.lingoutil.autoapi.util.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Component
 public class ApiGenerator {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApiGenerator.class);
+
+    /**
+     * hashed 输出方式下逻辑文件名到实际文件名的清单
+     */
+    public static final String ASSET_MANIFEST_FILE_NAME = "auto-api-manifest.json";
+
+    /**
+     * 压测驱动的预估大小，用于预分配缓冲区
+     */
+    private static final int LOAD_DRIVER_BUFFER_SIZE = 32768;
+
     @Resource
     private ApiMethodBuilder apiMethodBuilder;
 
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    @Resource
+    private ApiFileWriter apiFileWriter;
+
+    @Resource
+    private ApiModuleCache apiModuleCache;
+
+    @Resource
+    private ApiGenerationMetrics apiGenerationMetrics;
+
+    /**
+     * 上次生成的各 Controller 的结果，按类名索引，局部重新生成时用于补全共享文件和清单
+     */
+    private final Map<String, GenerationResult> lastResults = new LinkedHashMap<>();
+
     /**
      * 根据类文件生成该类的接口的API包
      *
      * @param classes 含有{@link org.lingoutil.autoapi.annotation.GenerateApi}注解的Controller类
      */
-    public void generateApiCode(List<Class<?>> classes) {
+    public synchronized void generateApiCode(List<Class<?>> classes) {
+        generate(classes, false);
+    }
+
+    /**
+     * 只重新生成给定的 Controller，其余模块沿用上次生成的结果，也不会删除其他模块的文件。
+     * 共享文件和 hashed 方式的清单仍按全部模块输出。
+     *
+     * @param classes 需要重新生成的 Controller 类，可以来自新的类加载器
+     */
+    public synchronized void regenerateApiCode(List<Class<?>> classes) {
+        generate(classes, true);
+    }
+
+    /**
+     * 上次生成的各 Controller 的 API 模块，每次生成结束后整体替换，读取时不需要等待正在进行的生成
+     */
+    private volatile Map<String, ApiModule> modules = Collections.emptyMap();
+
+    /**
+     * 获取上次生成的各 Controller 的 API 模块。
+     *
+     * @return Controller 类名到 API 模块，构建失败的 Controller 不包含在内
+     */
+    public Map<String, ApiModule> getModules() {
+        return modules;
+    }
+
+    private void generate(List<Class<?>> classes, boolean partial) {
+        long startNanos = System.nanoTime();
+        Object event = ApiFlightRecorder.beginGeneration();
+        boolean writeFiles = apiConfiguration.getWriteFiles();
+
+        // 本次生成共享的类型结构缓存，每个 DTO 只反射一次
+        TypeSchemaResolver resolver = new TypeSchemaResolver();
+        List<GenerationResult> results = new ArrayList<>(classes.size());
         for (Class<?> clazz : classes) {
-            apiMethodBuilder.execute(clazz);
+            results.add(new GenerationResult(clazz));
+        }
+
+        // 渲染需要参考全部模块（如 TypeScript 中简单类名相同的 DTO 的类型名），先并行构建全部模块再渲染
+        forEach(results, result -> buildQuietly(result, resolver));
+        ApiRenderOptions options = prepare(results, partial);
+
+        // 多个实例共享输出目录时，只有获得锁且输出不是最新的实例写文件，局部重新生成只用于本地开发，不加锁
+        ApiGenerationLock lock = null;
+        String generationFingerprint = null;
+        if (writeFiles && !partial && !ApiConfiguration.LOCK_MODE_NONE.equals(apiConfiguration.getLockMode())) {
+            generationFingerprint = fingerprint(results, options);
+            lock = acquireLock(generationFingerprint);
+            writeFiles = lock != null;
+            if (!writeFiles) {
+                // 由其他实例负责写文件，本实例的结果记为跳过，内存中的文件仍然照常渲染
+                for (GenerationResult result : results) {
+                    result.skipped = result.exception == null;
+                }
+            }
+        }
+
+        try {
+            generate(results, partial, writeFiles, resolver, options, startNanos, event);
+            if (lock != null && isComplete(results)) {
+                lock.writeStamp(generationFingerprint);
+            }
+        }
+        catch (IOException e) {
+            logger.error("Failed to write autoAPI generation stamp", e);
+        }
+        finally {
+            if (lock != null) {
+                closeQuietly(lock);
+            }
+        }
+    }
+
+    private void generate(List<GenerationResult> results, boolean partial, boolean writeFiles, TypeSchemaResolver resolver,
+                          ApiRenderOptions options, long startNanos, Object event) {
+        // 增量生成时读取上次的清单，清单只在当前线程读写，生成任务中只读。
+        // 带哈希的文件名随内容变化，不增量生成时也需要根据清单删除旧文件
+        ApiManifest manifest = writeFiles && (apiConfiguration.getIncremental() || apiConfiguration.isHashedOutput())
+                ? ApiManifest.load(new File(apiConfiguration.getOutputPath()))
+                : null;
+
+        // 不写文件时不触碰输出目录，只读文件系统中也可以使用
+        ApiFileWriter.Batch batch = null;
+        if (writeFiles) {
+            try {
+                batch = apiFileWriter.begin();
+            }
+            catch (IOException e) {
+                logger.error("Failed to prepare autoAPI output folder", e);
+                // 标记为失败，不写入生成戳
+                for (GenerationResult result : results) {
+                    result.exception = e;
+                }
+                return;
+            }
+        }
+
+        long publishNanos = 0;
+        try {
+            generateAll(results, manifest, batch, resolver, options);
+            // 共享文件和清单需要全部模块
+            List<GenerationResult> allResults = partial ? mergeWithLastResults(results) : results;
+            writeSharedFiles(batch, allResults, options);
+            if (batch != null) {
+                if (apiConfiguration.isHashedOutput()) {
+                    stageAssetManifest(batch, allResults, manifest);
+                }
+                // 全部渲染完成后再统一发布
+                long publishStartNanos = System.nanoTime();
+                publish(batch, results);
+                publishNanos = System.nanoTime() - publishStartNanos;
+            }
+        }
+        finally {
+            if (batch != null) {
+                batch.discard();
+            }
+        }
+
+        Set<String> moduleNames = new HashSet<>();
+        boolean complete = true;
+        for (GenerationResult result : results) {
+            logResult(result);
+            if (result.moduleName != null) {
+                moduleNames.add(result.moduleName);
+            }
+            else {
+                complete = false;
+            }
+        }
+
+        if (!partial) {
+            lastResults.clear();
+        }
+        for (GenerationResult result : results) {
+            lastResults.put(result.clazz.getName(), result);
+        }
+        Map<String, ApiModule> lastModules = new LinkedHashMap<>();
+        for (Map.Entry<String, GenerationResult> entry : lastResults.entrySet()) {
+            if (entry.getValue().module != null) {
+                lastModules.put(entry.getKey(), entry.getValue().module);
+            }
+        }
+        modules = Collections.unmodifiableMap(lastModules);
+
+        if (apiConfiguration.getServe() && complete && !partial) {
+            // 移除已删除的 Controller 对应的内存文件
+            List<String> fileNames = new ArrayList<>();
+            for (String moduleName : moduleNames) {
+                fileNames.add(apiMethodBuilder.fileName(moduleName));
+            }
+            if (apiMethodBuilder.sharedFileName() != null) {
+                fileNames.add(apiMethodBuilder.sharedFileName());
+            }
+            if (apiMethodBuilder.runtimeFileName() != null) {
+                fileNames.add(apiMethodBuilder.runtimeFileName());
+            }
+            apiModuleCache.retain(fileNames);
+        }
+
+        if (manifest != null) {
+            // 局部生成时其余模块不在本次结果中，不能当作已删除
+            updateManifest(manifest, results, moduleNames, complete && !partial);
+        }
+
+        ApiGenerationReport report = report(results, resolver, publishNanos,
+                batch == null ? 0 : batch.getStagedBytes(), System.nanoTime() - startNanos);
+        apiGenerationMetrics.record(report);
+        ApiFlightRecorder.commitGeneration(event, report);
+        logReport(report);
+    }
+
+    /**
+     * 构建 Controller 的 API 模块，异常记入结果，与生成时一致，单个 Controller 缺少依赖的类不影响其他 Controller。
+     */
+    private void buildQuietly(GenerationResult result, TypeSchemaResolver resolver) {
+        try {
+            build(result, resolver);
+        }
+        catch (Exception | LinkageError e) {
+            result.exception = e;
+        }
+    }
+
+    /**
+     * 根据全部模块补充渲染选项，局部重新生成时包含上次生成的其余模块。
+     */
+    private ApiRenderOptions prepare(List<GenerationResult> results, boolean partial) {
+        List<ApiModule> allModules = new ArrayList<>();
+        for (GenerationResult result : partial ? mergeWithLastResults(results) : results) {
+            if (result.module != null) {
+                allModules.add(result.module);
+            }
+        }
+        return ApiModuleRenderer.prepare(allModules, apiConfiguration.getRenderOptions());
+    }
+
+    /**
+     * 加锁前计算本次生成的整体指纹。
+     *
+     * @return 各模块指纹的摘要，构建失败的 Controller 也计入其中
+     */
+    private String fingerprint(List<GenerationResult> results, ApiRenderOptions options) {
+        String settings = apiConfiguration.getFingerprintSettings(options);
+        List<String> fingerprints = new ArrayList<>(results.size());
+        for (GenerationResult result : results) {
+            fingerprints.add(result.clazz.getName() + ' '
+                    + (result.module == null ? "failed" : ApiFingerprint.of(result.module, settings)));
+        }
+        Collections.sort(fingerprints);
+        return DigestUtils.sha256Hex(String.join("\n", fingerprints));
+    }
+
+    /**
+     * 获取输出目录的生成锁。
+     *
+     * @return 需要由本实例写文件时返回持有的锁，否则返回 null
+     */
+    private ApiGenerationLock acquireLock(String generationFingerprint) {
+        boolean wait = ApiConfiguration.LOCK_MODE_WAIT.equals(apiConfiguration.getLockMode());
+        ApiGenerationLock lock;
+        try {
+            lock = ApiGenerationLock.acquire(Paths.get(apiConfiguration.getOutputPath()), wait ? apiConfiguration.getLockTimeout() : 0);
+        }
+        catch (IOException e) {
+            logger.error("Failed to lock autoAPI output folder, skip writing files", e);
+            return null;
+        }
+        if (lock == null) {
+            logger.info("autoAPI output folder is locked by another instance, skip writing files");
+            return null;
+        }
+        if (lock.isGenerated(generationFingerprint)) {
+            logger.info("autoAPI output is up to date (generated by {}), skip writing files", lock.describeStamp());
+            closeQuietly(lock);
+            return null;
+        }
+        return lock;
+    }
+
+    private static void closeQuietly(ApiGenerationLock lock) {
+        try {
+            lock.close();
+        }
+        catch (IOException e) {
+            logger.warn("autoAPI failed to release output folder lock", e);
+        }
+    }
+
+    private static boolean isComplete(List<GenerationResult> results) {
+        for (GenerationResult result : results) {
+            if (result.exception != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateAll(List<GenerationResult> results, ApiManifest manifest, ApiFileWriter.Batch batch,
+                             TypeSchemaResolver resolver, ApiRenderOptions options) {
+        forEach(results, result -> generate(result, manifest, batch, resolver, options));
+    }
+
+    /**
+     * 对每个 Controller 执行任务，任务的异常记入对应的结果。
+     */
+    private void forEach(List<GenerationResult> results, Consumer<GenerationResult> task) {
+        int parallelism = apiConfiguration.getParallelism();
+        if (parallelism <= 1 || results.size() <= 1) {
+            for (GenerationResult result : results) {
+                task.accept(result);
+            }
+            return;
+        }
+
+        // 各 Controller 互不依赖，并行执行，结果按传入顺序收集
+        ExecutorService executor = ExecutorUtils.newExecutor("auto-api-generator", parallelism, apiConfiguration.getVirtualThreads());
+        // 虚拟线程执行器不限制线程数，用信号量限制并发
+        Semaphore permits = new Semaphore(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>(results.size());
+            for (GenerationResult result : results) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        task.accept(result);
+                    }
+                    finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                await(results.get(i), futures.get(i));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 生成单个 Controller 的 API 文件，异常不影响其他 Controller。
+     *
+     * @param result   生成结果，加锁时已经构建好模块
+     * @param manifest 上次生成的清单，不增量生成且不输出带哈希的文件名时为 null
+     * @param batch    写出批次，不写文件时为 null
+     * @param resolver 类型结构缓存
+     * @param options  根据全部模块补充后的渲染选项
+     */
+    private void generate(GenerationResult result, ApiManifest manifest, ApiFileWriter.Batch batch, TypeSchemaResolver resolver,
+                          ApiRenderOptions options) {
+        if (result.exception != null) {
+            return;
+        }
+        try {
+            build(result, resolver);
+            ApiModule module = result.module;
+
+            // 内存中的文件每次启动都需要重新渲染，不受增量生成影响
+            ByteBuffer content = null;
+            if (apiConfiguration.getServe()) {
+                content = render(module, result, options);
+                apiModuleCache.put(apiMethodBuilder.fileName(module), content);
+            }
+            if (batch == null) {
+                return;
+            }
+
+            if (manifest != null) {
+                result.fingerprint = ApiFingerprint.of(module, apiConfiguration.getFingerprintSettings(options));
+                if (apiConfiguration.getIncremental() && manifest.isUnchanged(module.getName(), result.fingerprint)) {
+                    result.skipped = true;
+                    result.files = manifest.getFiles(module.getName());
+                    return;
+                }
+            }
+            if (content == null) {
+                content = render(module, result, options);
+            }
+            long stageStartNanos = System.nanoTime();
+            result.files = apiMethodBuilder.stage(module, content, batch);
+            result.writeNanos = System.nanoTime() - stageStartNanos;
+        }
+        catch (Exception | LinkageError e) {
+            // NoClassDefFoundError 等只影响该 Controller，顺序和并行生成时都记为该 Controller 失败
+            result.exception = e;
+        }
+    }
+
+    /**
+     * 构建 Controller 的 API 模块，已经构建过时不重复构建。
+     */
+    private void build(GenerationResult result, TypeSchemaResolver resolver) {
+        if (result.module != null) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        result.module = apiMethodBuilder.buildModule(result.clazz, resolver);
+        result.buildNanos = System.nanoTime() - startNanos;
+        result.moduleName = result.module.getName();
+    }
+
+    /**
+     * 渲染模块，并记录耗时和大小。
+     */
+    private ByteBuffer render(ApiModule module, GenerationResult result, ApiRenderOptions options) {
+        long startNanos = System.nanoTime();
+        ByteBuffer content = apiMethodBuilder.render(module, options);
+        result.renderNanos = System.nanoTime() - startNanos;
+        result.bytes = content.remaining();
+        return content;
+    }
+
+    /**
+     * 写出逻辑文件名到带哈希文件名的清单，如 {@code {"UserApi.js":"UserApi.1a2b3c4d.js"}}，供前端构建或页面引用。
+     * 生成失败的模块沿用上次的文件，清单内容不变时不重写。
+     */
+    private void stageAssetManifest(ApiFileWriter.Batch batch, List<GenerationResult> results, ApiManifest manifest) {
+        Map<String, String> assets = new TreeMap<>();
+        for (GenerationResult result : results) {
+            if (result.moduleName == null) {
+                continue;
+            }
+            List<String> files = result.exception == null || manifest == null
+                    ? result.files
+                    : manifest.getFiles(result.moduleName);
+            if (!files.isEmpty()) {
+                assets.put(apiMethodBuilder.fileName(result.moduleName), files.get(0));
+            }
+        }
+
+        byte[] content = (JsonUtils.toJson(assets) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            stageIfChanged(batch, ASSET_MANIFEST_FILE_NAME, content);
+        }
+        catch (IOException e) {
+            logger.error("Failed to write autoAPI asset manifest", e);
+        }
+    }
+
+    /**
+     * 根据全部模块生成共享文件（如 TypeScript 的 types.ts）和运行时模块。
+     * 有模块构建失败时保留上次的文件，避免已有的模块引用到的类型被删除。
+     */
+    private void writeSharedFiles(ApiFileWriter.Batch batch, List<GenerationResult> results, ApiRenderOptions options) {
+        List<ApiModule> modules = new ArrayList<>(results.size());
+        for (GenerationResult result : results) {
+            if (result.module == null) {
+                logger.warn("autoAPI keeps the previous shared file because controller {} failed", result.clazz.getSimpleName());
+                return;
+            }
+            modules.add(result.module);
+        }
+
+        writeSharedFile(batch, apiMethodBuilder.sharedFileName(), apiMethodBuilder.renderShared(modules, options));
+        writeSharedFile(batch, apiMethodBuilder.runtimeFileName(), apiMethodBuilder.renderRuntime(modules));
+        writeLoadDriver(batch, modules);
+    }
+
+    /**
+     * 配置了 load-driver-path 时，按全部模块生成压测驱动，写入该源码目录下 load-driver-package 对应的目录。
+     * 驱动不属于前端文件，不经过暂存目录，内容不变时不重写，避免触发测试源码的重新编译。
+     */
+    private void writeLoadDriver(ApiFileWriter.Batch batch, List<ApiModule> modules) {
+        String loadDriverPath = apiConfiguration.getLoadDriverPath();
+        if (batch == null || loadDriverPath.isEmpty()) {
+            return;
+        }
+        String packageName = apiConfiguration.getLoadDriverPackage();
+        StringBuilder content = new StringBuilder(LOAD_DRIVER_BUFFER_SIZE);
+        LoadDriverEmitter.render(modules, packageName, content);
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+
+        Path file = Paths.get(loadDriverPath, packageName.split("\\.")).resolve(LoadDriverEmitter.FILE_NAME);
+        try {
+            if (Files.isRegularFile(file) && Arrays.equals(Files.readAllBytes(file), bytes)) {
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytes);
+            logger.info("autoAPI generates load driver: {}", file);
+        }
+        catch (IOException e) {
+            logger.error("Failed to write autoAPI load driver: {}", file, e);
+        }
+    }
+
+    /**
+     * 写出单个共享文件，内容为 null 表示不需要该文件。
+     */
+    private void writeSharedFile(ApiFileWriter.Batch batch, String sharedFileName, ByteBuffer content) {
+        if (content == null) {
+            return;
+        }
+        if (apiConfiguration.getServe()) {
+            apiModuleCache.put(sharedFileName, content);
+        }
+        if (batch == null) {
+            return;
+        }
+
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        try {
+            stageIfChanged(batch, sharedFileName, bytes);
+        }
+        catch (IOException e) {
+            logger.error("Failed to write autoAPI shared file: {}", sharedFileName, e);
+        }
+    }
+
+    /**
+     * 内容与输出目录中的文件不同时才写入暂存目录，避免无谓地触发前端的重新构建。
+     */
+    private void stageIfChanged(ApiFileWriter.Batch batch, String fileName, byte[] content) throws IOException {
+        Path existingFile = Paths.get(apiConfiguration.getOutputPath(), fileName);
+        if (Files.isRegularFile(existingFile) && Arrays.equals(Files.readAllBytes(existingFile), content)) {
+            return;
+        }
+        batch.stage(fileName, ByteBuffer.wrap(content));
+    }
+
+    /**
+     * 发布暂存的文件，发布失败时本次生成的文件都视为失败。
+     */
+    private static void publish(ApiFileWriter.Batch batch, List<GenerationResult> results) {
+        try {
+            batch.publish();
+        }
+        catch (IOException e) {
+            for (GenerationResult result : results) {
+                if (!result.skipped && result.exception == null) {
+                    result.exception = e;
+                }
+            }
+        }
+    }
+
+    private static void await(GenerationResult result, Future<?> future) {
+        try {
+            future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.exception = e;
+        }
+        catch (ExecutionException e) {
+            result.exception = e;
+        }
+    }
+
+    private List<GenerationResult> mergeWithLastResults(List<GenerationResult> results) {
+        Map<String, GenerationResult> merged = new LinkedHashMap<>(lastResults);
+        for (GenerationResult result : results) {
+            merged.put(result.clazz.getName(), result);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * 更新增量生成的清单。
+     *
+     * @param removeOrphans 是否删除不在本次结果中的模块的文件，只有完整生成且所有模块名都已解析时才能删除
+     */
+    private void updateManifest(ApiManifest manifest, List<GenerationResult> results, Set<String> moduleNames, boolean removeOrphans) {
+        for (GenerationResult result : results) {
+            if (result.moduleName == null) {
+                // 连模块名都没能解析出来，无法判断哪些文件已失效
+                continue;
+            }
+            if (result.exception != null) {
+                // 生成失败时清空指纹，下次启动重新生成
+                manifest.put(result.moduleName, "", manifest.getFiles(result.moduleName));
+            }
+            else {
+                if (!result.skipped) {
+                    // 带哈希的文件名随内容变化，旧文件需要删除
+                    for (String staleFile : manifest.removeStaleFiles(result.moduleName, result.files)) {
+                        logger.info("autoAPI deletes stale api file: {}", staleFile);
+                    }
+                }
+                manifest.put(result.moduleName, result.fingerprint, result.files);
+            }
+        }
+
+        if (removeOrphans) {
+            for (String deletedFile : manifest.removeOrphans(moduleNames)) {
+                logger.info("autoAPI deletes api file of removed controller: {}", deletedFile);
+            }
+        }
+
+        try {
+            manifest.store();
+        }
+        catch (IOException e) {
+            logger.error("Failed to write autoAPI manifest", e);
+        }
+    }
+
+    private ApiGenerationReport report(List<GenerationResult> results, TypeSchemaResolver resolver,
+                                       long publishNanos, long bytesWritten, long totalNanos) {
+        List<ControllerMetrics> controllers = new ArrayList<>(results.size());
+        for (GenerationResult result : results) {
+            ControllerMetrics.Status status = result.exception != null ? ControllerMetrics.Status.FAILED
+                    : result.skipped ? ControllerMetrics.Status.SKIPPED
+                    : ControllerMetrics.Status.GENERATED;
+            int endpoints = result.module == null ? 0 : result.module.getEndpoints().size();
+            int schemas = result.module == null ? 0 : result.module.collectSchemas().size();
+            controllers.add(new ControllerMetrics(result.clazz.getSimpleName(), status, endpoints, schemas,
+                    result.buildNanos, result.renderNanos, result.writeNanos, result.bytes));
+        }
+        return new ApiGenerationReport(apiGenerationMetrics.takeDiscoveryNanos(), controllers, resolver.size(),
+                publishNanos, bytesWritten, totalNanos);
+    }
+
+    private static void logReport(ApiGenerationReport report) {
+        if (logger.isDebugEnabled()) {
+            for (ControllerMetrics controller : report.getControllers()) {
+                logger.debug("autoAPI controller metrics: {}", controller);
+            }
+        }
+        logger.info("autoAPI finished {} controllers ({} generated, {} skipped, {} failed), {} endpoints, {} types resolved, "
+                        + "{} bytes written in {} ms (discovery {} ms, schema {} ms, render {} ms, write {} ms)",
+                report.getControllers().size(), report.getGeneratedCount(), report.getSkippedCount(), report.getFailedCount(),
+                report.getEndpointCount(), report.getResolvedSchemas(), report.getBytesWritten(),
+                millis(report.getTotalNanos()),
+                report.getDiscoveryNanos() < 0 ? "-" : millis(report.getDiscoveryNanos()),
+                millis(report.getBuildNanos()), millis(report.getRenderNanos()), millis(report.getWriteNanos()));
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void logResult(GenerationResult result) {
+        if (result.skipped) {
+            logger.info("autoAPI skips unchanged api file for controller: {}", result.clazz.getSimpleName());
+            return;
+        }
+        logger.info("autoAPI generates api file for controller: {}", result.clazz.getSimpleName());
+        if (result.exception != null) {
+            logger.error("Failed to generate API method for JavaScript", result.exception);
+        }
+    }
+
+    /**
+     * 单个 Controller 的生成结果
+     */
+    private static class GenerationResult {
+
+        private final Class<?> clazz;
+
+        private ApiModule module;
+
+        private String moduleName;
+
+        private String fingerprint;
+
+        private List<String> files = Collections.emptyList();
+
+        private boolean skipped;
+
+        private Throwable exception;
+
+        private long buildNanos;
+
+        private long renderNanos;
+
+        private long writeNanos;
+
+        /**
+         * 渲染出的文件大小
+         */
+        private long bytes;
+
+        private GenerationResult(Class<?> clazz) {
+            this.clazz = clazz;
         }
     }
 }
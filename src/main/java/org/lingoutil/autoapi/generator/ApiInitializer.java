@@ -3,22 +3,65 @@ package org.lingoutil.autoapi.generator;
 import jakarta.annotation.Resource;
 import org.lingoutil.autoapi.annotation.GenerateApi;
 import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiFlightRecorder;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.util.ExecutorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationListener;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * 在应用启动后触发 API 代码生成。
+ * <p>
+ * 默认在后台线程中生成，不占用启动和就绪探针的时间：存在 Spring Boot 时在 ApplicationReadyEvent 之后开始，
+ * 否则在 ContextRefreshedEvent 之后开始。关闭 {@code lingo-util.auto-api.async} 后在容器刷新时同步生成。
+ * 无论哪种方式，同一个容器层级（以根容器区分）只生成一次，子容器刷新和配置刷新不会重复生成。
+ * 生成结束后可以通过 {@link #getCompletion()} 或监听 {@link ApiGeneratedEvent} 得知结果；未开启生成、
+ * 或所在的容器层级已由其他容器生成时不做任何事，同样完成并发布事件。
+ * <p>
+ * 默认只根据 Bean 定义推断 Controller 的类型，不会为了读取注解而创建 Bean。
+ * <p>
+ * 使用 AOT 产物运行时（GraalVM 原生镜像或 {@code -Dspring.aot.enabled=true}）不做任何事，
+ * 生成已经在 AOT 构建时由 {@link ApiAotProcessor} 完成，{@link #getCompletion()} 直接完成。
+ */
 @Component
-public class ApiInitializer implements ApplicationListener<ContextRefreshedEvent> {
+public class ApiInitializer implements SmartApplicationListener, DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiInitializer.class);
 
+    private static final String APPLICATION_READY_EVENT = "org.springframework.boot.context.event.ApplicationReadyEvent";
+
+    /**
+     * 已生成过的容器层级，以根容器标识。容器 id 可能重复（如 Spring Boot 默认均为 application），因此按实例区分，
+     * 弱引用保证关闭的容器可以被回收
+     */
+    private static final Set<ApplicationContext> generatedHierarchies = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<ApplicationContext, Boolean>()));
+
     @Resource
     private ApplicationContext context;
 
@@ -28,33 +71,229 @@ public class ApiInitializer implements ApplicationListener<ContextRefreshedEvent
     @Resource
     private ApiConfiguration apiConfiguration;
 
+    @Resource
+    private ApiGenerationMetrics apiGenerationMetrics;
+
+    @Resource
+    private ApiWatcher apiWatcher;
+
+    /**
+     * 本容器的生成结果，生成结束（无论成功与否）后完成
+     */
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    /**
+     * 本容器是否已开始生成，开始后由生成结束时完成，子容器的刷新事件不会提前完成
+     */
+    private volatile boolean started;
+
+    private volatile ExecutorService executor;
+
     public void initialize() {
         Boolean enable = apiConfiguration.getEnable();
         if (!enable) {
             return;
         }
 
+        long startNanos = System.nanoTime();
+        Object event = ApiFlightRecorder.beginDiscovery();
+        String discovery = apiConfiguration.getDiscovery();
+        List<Class<?>> controllerClasses = ApiConfiguration.DISCOVERY_BEAN.equals(discovery)
+                ? findControllersByBean()
+                : findControllersByMetadata();
+        apiGenerationMetrics.recordDiscovery(System.nanoTime() - startNanos);
+        ApiFlightRecorder.commitDiscovery(event, discovery, controllerClasses.size());
+
+        apiGenerator.generateApiCode(controllerClasses);
+        apiWatcher.start(controllerClasses);
+    }
+
+    private List<Class<?>> findControllersByMetadata() {
+        return findControllers(context);
+    }
+
+    /**
+     * 根据 Bean 定义和类元数据查找需要生成的 Controller，不创建任何 Bean。
+     * 懒加载的 Controller 保持懒加载，也不会接触到运行中的代理对象。AOT 构建时也使用该方式。
+     *
+     * @param beanFactory 容器或 Bean 工厂
+     * @return 含有启用的 GenerateApi 注解的 Controller 类
+     */
+    static List<Class<?>> findControllers(ListableBeanFactory beanFactory) {
+        ConfigurableListableBeanFactory configurableBeanFactory = null;
+        if (beanFactory instanceof ConfigurableListableBeanFactory) {
+            configurableBeanFactory = (ConfigurableListableBeanFactory) beanFactory;
+        }
+        else if (beanFactory instanceof ConfigurableApplicationContext) {
+            configurableBeanFactory = ((ConfigurableApplicationContext) beanFactory).getBeanFactory();
+        }
+
+        Set<Class<?>> controllerClasses = new LinkedHashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            // 与 getBeanNamesForAnnotation 一致，跳过抽象的父定义
+            if (configurableBeanFactory != null && configurableBeanFactory.getMergedBeanDefinition(beanName).isAbstract()) {
+                continue;
+            }
+
+            // 只根据定义推断类型，不初始化 Bean 和 FactoryBean
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null || Proxy.isProxyClass(beanType)) {
+                continue;
+            }
+            // CGLIB 代理类取回原始类
+            Class<?> targetClass = ClassUtils.getUserClass(beanType);
+            if (!AnnotatedElementUtils.hasAnnotation(targetClass, Controller.class)) {
+                continue;
+            }
+            logger.info("autoAPI found controller: {} ", beanName);
+
+            if (isGenerateApiEnabled(targetClass)) {
+                controllerClasses.add(targetClass);
+            }
+        }
+        return new ArrayList<>(controllerClasses);
+    }
+
+    /**
+     * 通过获取 Bean 实例查找需要生成的 Controller，会创建懒加载的 Controller，仅为兼容保留。
+     *
+     * @return 含有启用的 GenerateApi 注解的 Controller 类
+     */
+    private List<Class<?>> findControllersByBean() {
         String[] controllerBeanNames = context.getBeanNamesForAnnotation(Controller.class);
 
-        ArrayList<Class<?>> classArrayList = new ArrayList<>();
+        Set<Class<?>> controllerClasses = new LinkedHashSet<>();
         for (String controllerBeanName : controllerBeanNames) {
             logger.info("autoAPI found controller: {} ", controllerBeanName);
-            Class<?> beanClass = context.getBean(controllerBeanName).getClass();
 
             // 获取目标类（即原始类，不论是否被代理）
             Class<?> targetClass = AopUtils.getTargetClass(context.getBean(controllerBeanName));
 
-            // 判断该类是否有GenerateApi注解且enable属性为true，是则加入list
-            if (targetClass.isAnnotationPresent(GenerateApi.class) && targetClass.getAnnotation(GenerateApi.class).enabled()) {
-                classArrayList.add(targetClass);
+            if (isGenerateApiEnabled(targetClass)) {
+                controllerClasses.add(targetClass);
             }
         }
+        return new ArrayList<>(controllerClasses);
+    }
+
+    /**
+     * 判断该类是否有GenerateApi注解且enable属性为true
+     */
+    static boolean isGenerateApiEnabled(Class<?> targetClass) {
+        GenerateApi generateApi = targetClass.getAnnotation(GenerateApi.class);
+        return generateApi != null && generateApi.enabled();
+    }
+
+    /**
+     * 获取本容器的生成结果，测试和工具可以通过它等待生成完成。
+     * 未开启生成、容器层级已生成过或使用 AOT 产物运行时，在触发事件到来时直接正常完成。
+     *
+     * @return 生成结束或跳过后完成的 Future，生成失败时以异常完成
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return isTriggerEvent(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            skip();
+            return;
+        }
+        if (!isTriggerEvent(event.getClass())) {
+            return;
+        }
+        if (!apiConfiguration.getEnable()) {
+            skip();
+            return;
+        }
 
-        apiGenerator.generateApiCode(classArrayList);
+        ApplicationContext eventContext = event instanceof ContextRefreshedEvent
+                ? ((ContextRefreshedEvent) event).getApplicationContext()
+                : context;
+        ApplicationContext rootContext = rootOf(eventContext);
+        if (!generatedHierarchies.add(rootContext)) {
+            logger.debug("autoAPI has already generated for context hierarchy: {}", rootContext.getId());
+            skip();
+            return;
+        }
+        started = true;
+
+        if (apiConfiguration.getAsync()) {
+            executor().execute(this::initializeAndPublish);
+        }
+        else {
+            initializeAndPublish();
+        }
     }
 
     @Override
-    public void onApplicationEvent(ContextRefreshedEvent event) {
-        initialize();
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 不生成时完成本容器的结果并发布事件。本容器已开始生成时（如子容器的刷新事件传播到父容器）由生成结束时完成，
+     * 已完成时不再重复发布。
+     */
+    private void skip() {
+        if (!started && completion.complete(null)) {
+            context.publishEvent(new ApiGeneratedEvent(this, null));
+        }
+    }
+
+    private void initializeAndPublish() {
+        Throwable failure = null;
+        try {
+            initialize();
+        }
+        catch (Throwable e) {
+            failure = e;
+            logger.error("autoAPI failed to generate api files", e);
+        }
+
+        if (failure == null) {
+            completion.complete(null);
+        }
+        else {
+            completion.completeExceptionally(failure);
+        }
+        context.publishEvent(new ApiGeneratedEvent(this, failure));
+    }
+
+    /**
+     * 判断事件是否应当触发生成：后台生成且存在 Spring Boot 时等待 ApplicationReadyEvent，否则使用 ContextRefreshedEvent。
+     */
+    private boolean isTriggerEvent(Class<?> eventType) {
+        if (apiConfiguration.getAsync() && ClassUtils.isPresent(APPLICATION_READY_EVENT, getClass().getClassLoader())) {
+            return APPLICATION_READY_EVENT.equals(eventType.getName());
+        }
+        return ContextRefreshedEvent.class.isAssignableFrom(eventType);
+    }
+
+    private static ApplicationContext rootOf(ApplicationContext applicationContext) {
+        ApplicationContext root = applicationContext;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    private ExecutorService executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = Executors.newSingleThreadExecutor(ExecutorUtils.newDaemonThreadFactory("auto-api-initializer"));
+                }
+            }
+        }
+        return executor;
     }
 }
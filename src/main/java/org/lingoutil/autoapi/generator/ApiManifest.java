@@ -0,0 +1,203 @@
+package org.lingoutil.autoapi.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 输出目录下记录各模块指纹和文件的清单，用于增量生成。
+ * 每个模块记录两项：{@code 模块名.fingerprint} 和逗号分隔的 {@code 模块名.files}。
+ */
+public class ApiManifest {
+
+    public static final String MANIFEST_FILE_NAME = ".auto-api-manifest.properties";
+
+    private static final String FINGERPRINT_SUFFIX = ".fingerprint";
+    private static final String FILES_SUFFIX = ".files";
+
+    private final File manifestFile;
+
+    private final Properties properties = new Properties();
+
+    private boolean modified;
+
+    private ApiManifest(File manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * 读取输出目录下的清单，清单不存在或无法读取时返回空清单。
+     *
+     * @param outputFolder 输出目录
+     * @return 清单
+     */
+    public static ApiManifest load(File outputFolder) {
+        ApiManifest manifest = new ApiManifest(new File(outputFolder, MANIFEST_FILE_NAME));
+        if (manifest.manifestFile.isFile()) {
+            try (InputStream inputStream = new FileInputStream(manifest.manifestFile)) {
+                manifest.properties.load(inputStream);
+            }
+            catch (IOException | IllegalArgumentException e) {
+                // 清单损坏时视为空清单，全部重新生成
+                manifest.properties.clear();
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 判断模块是否未发生变化：指纹一致且记录的文件都还存在。
+     *
+     * @param moduleName  模块名
+     * @param fingerprint 当前指纹
+     * @return 未发生变化时返回 true
+     */
+    public boolean isUnchanged(String moduleName, String fingerprint) {
+        if (!fingerprint.equals(properties.getProperty(moduleName + FINGERPRINT_SUFFIX))) {
+            return false;
+        }
+        List<String> files = getFiles(moduleName);
+        if (files.isEmpty()) {
+            return false;
+        }
+        for (String file : files) {
+            if (!new File(manifestFile.getParentFile(), file).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取模块记录的文件名。
+     *
+     * @param moduleName 模块名
+     * @return 文件名列表
+     */
+    public List<String> getFiles(String moduleName) {
+        String files = properties.getProperty(moduleName + FILES_SUFFIX);
+        if (files == null || files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(files.split(","));
+    }
+
+    /**
+     * 记录模块的指纹和文件。
+     *
+     * @param moduleName  模块名
+     * @param fingerprint 指纹，生成失败时传入空字符串使下次重新生成
+     * @param files       模块对应的文件名
+     */
+    public void put(String moduleName, String fingerprint, List<String> files) {
+        String joinedFiles = String.join(",", files);
+        Object oldFingerprint = properties.setProperty(moduleName + FINGERPRINT_SUFFIX, fingerprint);
+        Object oldFiles = properties.setProperty(moduleName + FILES_SUFFIX, joinedFiles);
+        if (!fingerprint.equals(oldFingerprint) || !joinedFiles.equals(oldFiles)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * 删除模块上次记录、但本次不再生成的文件，如内容变化后带旧哈希的文件。
+     *
+     * @param moduleName   模块名
+     * @param currentFiles 本次生成的文件名
+     * @return 被删除的文件名
+     */
+    public List<String> removeStaleFiles(String moduleName, List<String> currentFiles) {
+        List<String> deletedFiles = new ArrayList<>();
+        for (String file : getFiles(moduleName)) {
+            if (!currentFiles.contains(file) && new File(manifestFile.getParentFile(), file).delete()) {
+                deletedFiles.add(file);
+            }
+        }
+        return deletedFiles;
+    }
+
+    /**
+     * 移除模块的记录。
+     *
+     * @param moduleName 模块名
+     */
+    public void remove(String moduleName) {
+        properties.remove(moduleName + FINGERPRINT_SUFFIX);
+        properties.remove(moduleName + FILES_SUFFIX);
+        modified = true;
+    }
+
+    /**
+     * 获取清单中记录的全部模块名。
+     *
+     * @return 模块名
+     */
+    public Set<String> getModuleNames() {
+        Set<String> moduleNames = new TreeSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(FINGERPRINT_SUFFIX)) {
+                moduleNames.add(key.substring(0, key.length() - FINGERPRINT_SUFFIX.length()));
+            }
+        }
+        return moduleNames;
+    }
+
+    /**
+     * 删除已不存在的模块对应的文件，并从清单中移除。
+     *
+     * @param currentModuleNames 本次生成的全部模块名
+     * @return 被删除的文件名
+     */
+    public List<String> removeOrphans(Set<String> currentModuleNames) {
+        List<String> deletedFiles = new ArrayList<>();
+        for (String moduleName : getModuleNames()) {
+            if (currentModuleNames.contains(moduleName)) {
+                continue;
+            }
+            for (String file : getFiles(moduleName)) {
+                File orphan = new File(manifestFile.getParentFile(), file);
+                if (orphan.delete()) {
+                    deletedFiles.add(file);
+                }
+            }
+            remove(moduleName);
+        }
+        return deletedFiles;
+    }
+
+    /**
+     * 清单有变化时写回输出目录。
+     *
+     * @throws IOException 文件操作异常
+     */
+    public void store() throws IOException {
+        if (!modified) {
+            return;
+        }
+        manifestFile.getParentFile().mkdirs();
+        // 先写临时文件再原子替换，崩溃时不会留下残缺的清单
+        File temporaryFile = new File(manifestFile.getPath() + ".tmp");
+        try (OutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            properties.store(outputStream, "auto-api manifest, do not edit");
+        }
+        try {
+            Files.move(temporaryFile.toPath(), manifestFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        modified = false;
+    }
+}
@@ -5,7 +5,18 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
 import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.emitter.ApiEmitters;
+import org.lingoutil.autoapi.metrics.ApiFlightRecorder;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+import org.lingoutil.autoapi.util.CompressionUtils;
+import org.lingoutil.autoapi.util.DigestUtils;
 import org.lingoutil.autoapi.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,12 +24,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.io.*;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * 生成 API 方法的前端 JavaScript 代码的类。
@@ -32,83 +46,281 @@ public class ApiMethodBuilder {
     @Resource
     private ApiConfiguration apiConfiguration;
 
-    private static final String GET = "get";
-    private static final String POST = "post";
+    @Resource
+    private ApiFileWriter apiFileWriter;
+
+    private static final String GET = ApiModuleRenderer.GET;
+    private static final String POST = ApiModuleRenderer.POST;
+
+    public static final String GZIP_SUFFIX = ".gz";
 
     /**
-     * 执行 API 方法生成过程。
+     * 文件名中内容哈希的长度
+     */
+    private static final int HASH_LENGTH = 8;
+
+    /**
+     * 共享文件的初始缓冲区大小
+     */
+    private static final int SHARED_BUFFER_SIZE = 8192;
+
+    /**
+     * 方法的输出顺序：先按方法名，再按参数个数。
+     * {@link Class#getDeclaredMethods()} 不保证顺序，排序后输出才能稳定且与注解处理器一致。
+     */
+    private static final Comparator<Method> METHOD_ORDER =
+            Comparator.comparing(Method::getName).thenComparingInt(Method::getParameterCount);
+
+    /**
+     * 执行 API 方法生成过程，异常只记录日志。
      *
      * @param clazz 要处理的 Controller 类
      */
     public void execute(Class<?> clazz) {
         logger.info("autoAPI generates api file for controller: {}", clazz.getSimpleName());
-
-        // 获取 API 文件的名称和路径
-        int beginIndex = clazz.getName().lastIndexOf('.') + 1;
-        String apiFileName = clazz.getName().substring(beginIndex).replace("Controller", "Api");
-        String apiFolderPath = apiConfiguration.getOutputPath();
-        File apiFolder = new File(apiFolderPath);
-
-        // 如果目录不存在，则创建目录
-        if (!apiFolder.exists()) {
-            apiFolder.mkdirs();
-        }
-
-        OutputStream outputStream = null;
-        OutputStreamWriter outputStreamWriter = null;
-        BufferedWriter bufferedWriter = null;
-
-        File apiFile = new File(apiFolder, apiFileName + ".js");
         try {
-            // 创建 API 方法文件
-            apiFile.createNewFile();
-            // 初始化文件输出流
-            outputStream = new FileOutputStream(apiFile);
-            // 初始化输出流写入器，设置编码为 UTF-8
-            outputStreamWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-            // 初始化缓冲写入器
-            bufferedWriter = new BufferedWriter(outputStreamWriter);
-
-            bufferedWriter.write("import request from '@/utils/request'");
-            bufferedWriter.newLine();
-            bufferedWriter.newLine();
-
-            // 生成 API 方法
-            generateApiMethod(clazz, bufferedWriter);
+            generate(clazz);
         }
         catch (Exception e) {
             logger.error("Failed to generate API method for JavaScript", e);
         }
+    }
+
+    /**
+     * 生成 Controller 对应的 API 文件，异常由调用方处理。
+     *
+     * @param clazz 要处理的 Controller 类
+     * @throws IOException 文件操作异常
+     */
+    public void generate(Class<?> clazz) throws IOException {
+        write(buildModule(clazz));
+    }
+
+    /**
+     * 将 API 模块原子地写入输出目录。
+     *
+     * @param module API 模块
+     * @return 写入的 JavaScript 文件名
+     * @throws IOException 文件操作异常
+     */
+    public String write(ApiModule module) throws IOException {
+        ApiFileWriter.Batch batch = apiFileWriter.begin();
+        try {
+            List<String> files = stage(module, batch);
+            batch.publish();
+            return files.get(0);
+        }
         finally {
-            // 关闭文件流
-            FileUtils.closeQuietly(bufferedWriter);
-            FileUtils.closeQuietly(outputStreamWriter);
-            FileUtils.closeQuietly(outputStream);
+            batch.discard();
         }
     }
 
     /**
-     * 生成 API 方法的 JavaScript 代码。
+     * 按输出方式渲染 API 模块并写入暂存目录。
+     * hashed 方式下文件名带有内容哈希，并额外生成 gzip 预压缩文件，内容不变时文件名也不变。
+     *
+     * @param module API 模块
+     * @param batch  写出批次
+     * @return 写入的文件名，第一个为 JavaScript 文件
+     * @throws IOException 文件操作异常
+     */
+    public List<String> stage(ApiModule module, ApiFileWriter.Batch batch) throws IOException {
+        return stage(module, render(module), batch);
+    }
+
+    /**
+     * 按输出方式将已渲染的内容写入暂存目录。
      *
-     * @param clazz          Controller 类
-     * @param bufferedWriter 缓存字符流
+     * @param module  API 模块
+     * @param content 渲染后的文件内容
+     * @param batch   写出批次
+     * @return 写入的文件名，第一个为 JavaScript 文件
      * @throws IOException 文件操作异常
      */
-    private static void generateApiMethod(Class<?> clazz, BufferedWriter bufferedWriter) throws IOException {
+    public List<String> stage(ApiModule module, ByteBuffer content, ApiFileWriter.Batch batch) throws IOException {
+        if (!apiConfiguration.isHashedOutput()) {
+            String apiFileName = fileName(module);
+            batch.stage(apiFileName, content);
+            return Collections.singletonList(apiFileName);
+        }
+
+        String hashedFileName = hashedFileName(module, content);
+        String gzipFileName = hashedFileName + GZIP_SUFFIX;
+        // 先压缩再写出，写出会消耗缓冲区
+        ByteBuffer compressed = CompressionUtils.gzip(content);
+        batch.stage(hashedFileName, content);
+        batch.stage(gzipFileName, compressed);
+        return Arrays.asList(hashedFileName, gzipFileName);
+    }
+
+    /**
+     * 获取 API 模块对应的文件名。
+     *
+     * @param module API 模块
+     * @return 文件名
+     */
+    public String fileName(ApiModule module) {
+        return ApiModuleRenderer.fileName(module, apiConfiguration.getRenderOptions());
+    }
+
+    /**
+     * 获取模块名对应的文件名。
+     *
+     * @param moduleName 模块名
+     * @return 文件名
+     */
+    public String fileName(String moduleName) {
+        return moduleName + ApiEmitters.get(apiConfiguration.getRenderOptions().getEmitter()).getFileExtension();
+    }
+
+    /**
+     * 获取带内容哈希的文件名，哈希位于扩展名之前，如 {@code UserApi.1a2b3c4d.js}。
+     *
+     * @param module  API 模块
+     * @param content 文件内容
+     * @return 文件名
+     */
+    public String hashedFileName(ApiModule module, ByteBuffer content) {
+        String fileName = fileName(module);
+        int extensionIndex = fileName.lastIndexOf('.');
+        return fileName.substring(0, extensionIndex) + "." + DigestUtils.sha256Hex(content).substring(0, HASH_LENGTH)
+                + fileName.substring(extensionIndex);
+    }
+
+    /**
+     * 将 API 模块渲染到预分配的缓冲区中，并编码为 UTF-8。
+     *
+     * @param module API 模块
+     * @return 文件内容
+     */
+    public ByteBuffer render(ApiModule module) {
+        return render(module, apiConfiguration.getRenderOptions());
+    }
+
+    /**
+     * 按指定选项将 API 模块渲染到预分配的缓冲区中，并编码为 UTF-8。
+     *
+     * @param module  API 模块
+     * @param options 渲染选项，见 {@link ApiModuleRenderer#prepare}
+     * @return 文件内容
+     */
+    public ByteBuffer render(ApiModule module, ApiRenderOptions options) {
+        Object event = ApiFlightRecorder.beginRender();
+        StringBuilder content = ApiModuleRenderer.newBuffer(module);
+        ApiRenderTimings timings = new ApiRenderTimings();
+        ApiModuleRenderer.render(module, content, options, timings);
+        if (logger.isDebugEnabled()) {
+            for (Map.Entry<String, Long> entry : timings.getEndpointNanos().entrySet()) {
+                logger.debug("autoAPI renders endpoint {}.{} in {} us", module.getName(), entry.getKey(), entry.getValue() / 1000);
+            }
+            logger.debug("autoAPI renders module {} in {} us", module.getName(), timings.getTotalNanos() / 1000);
+        }
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(content));
+        ApiFlightRecorder.commitRender(event, module.getName(), options.getEmitter(), encoded.remaining());
+        return encoded;
+    }
+
+    /**
+     * 渲染所有模块共享的文件，如 TypeScript 的类型声明。
+     *
+     * @param modules 全部 API 模块
+     * @param options 渲染模块文件时使用的选项，见 {@link ApiModuleRenderer#prepare}
+     * @return 文件内容，输出器没有共享文件时返回 null
+     */
+    public ByteBuffer renderShared(List<ApiModule> modules, ApiRenderOptions options) {
+        Object event = ApiFlightRecorder.beginRender();
+        StringBuilder content = new StringBuilder(SHARED_BUFFER_SIZE);
+        String sharedFileName = ApiModuleRenderer.renderShared(modules, content, options);
+        if (sharedFileName == null) {
+            return null;
+        }
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(content));
+        ApiFlightRecorder.commitRender(event, sharedFileName, options.getEmitter(), encoded.remaining());
+        return encoded;
+    }
+
+    /**
+     * 获取所有模块共享的文件名。
+     *
+     * @return 文件名，输出器没有共享文件时返回 null
+     */
+    public String sharedFileName() {
+        return ApiEmitters.get(apiConfiguration.getRenderOptions().getEmitter()).getSharedFileName();
+    }
+
+    /**
+     * 渲染运行时模块，只有存在调用方式不是默认值的接口方法时才需要。
+     *
+     * @param modules 全部 API 模块
+     * @return 文件内容，不需要运行时模块时返回 null
+     */
+    public ByteBuffer renderRuntime(List<ApiModule> modules) {
+        Object event = ApiFlightRecorder.beginRender();
+        StringBuilder content = new StringBuilder(SHARED_BUFFER_SIZE);
+        ApiRenderOptions options = apiConfiguration.getRenderOptions();
+        String runtimeFileName = ApiModuleRenderer.renderRuntime(modules, content, options);
+        if (runtimeFileName == null) {
+            return null;
+        }
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(content));
+        ApiFlightRecorder.commitRender(event, runtimeFileName, options.getEmitter(), encoded.remaining());
+        return encoded;
+    }
+
+    /**
+     * 获取运行时模块的文件名。
+     *
+     * @return 文件名，输出器不支持运行时模块时返回 null
+     */
+    public String runtimeFileName() {
+        return ApiEmitters.get(apiConfiguration.getRenderOptions().getEmitter()).getRuntimeFileName();
+    }
+
+    /**
+     * 通过反射构建 Controller 对应的 API 模块。
+     *
+     * @param clazz Controller 类
+     * @return API 模块
+     */
+    public ApiModule buildModule(Class<?> clazz) {
+        return buildModule(clazz, new TypeSchemaResolver());
+    }
+
+    /**
+     * 通过反射构建 Controller 对应的 API 模块，DTO 的类型结构从传入的缓存中获取。
+     *
+     * @param clazz    Controller 类
+     * @param resolver 本次生成共享的类型结构缓存
+     * @return API 模块
+     */
+    public ApiModule buildModule(Class<?> clazz, TypeSchemaResolver resolver) {
+        Object event = ApiFlightRecorder.beginSchemaResolution();
+
+        // 获取 API 文件的名称
+        int beginIndex = clazz.getName().lastIndexOf('.') + 1;
+        String controllerName = clazz.getName().substring(beginIndex);
+        String apiFileName = controllerName.replace("Controller", "Api");
+
         // 获取类上的 RequestMapping 注解
         RequestMapping requestMappingAnnotation = clazz.getAnnotation(RequestMapping.class);
-        String[] requestPathArray = requestMappingAnnotation == null ? new String[]{""} : requestMappingAnnotation.value();
-        String controllerPath = FileUtils.guaranteeStartWithSlash(requestPathArray[0]);
+        String controllerPath = FileUtils.guaranteeStartWithSlash(firstPath(requestMappingAnnotation));
 
-        // 获取类中的所有声明的方法
+        // 开启合并请求的 Controller 中，GET 接口以批量请求发送
+        GenerateApi generateApi = clazz.getAnnotation(GenerateApi.class);
+        boolean batching = generateApi != null && generateApi.batching();
+        boolean telemetry = apiConfiguration.getTelemetry();
+
+        // 获取类中的所有声明的方法，按方法名排序以保证输出顺序稳定
         Method[] methods = clazz.getDeclaredMethods();
+        Arrays.sort(methods, METHOD_ORDER);
+
+        List<ApiEndpoint> endpoints = new ArrayList<>();
         for (Method method : methods) {
             // 检查方法是否标注了 AutoApi 注解
             if (method.isAnnotationPresent(AutoApi.class)) {
                 // 获取方法上的 RequestMapping 注解
                 RequestMapping methodRequestMappingAnnotation = method.getAnnotation(RequestMapping.class);
-                String[] value = methodRequestMappingAnnotation == null ? new String[]{""} : methodRequestMappingAnnotation.value();
-                String methodPath = FileUtils.guaranteeStartWithSlash(value[0]);
+                String methodPath = FileUtils.guaranteeStartWithSlash(firstPath(methodRequestMappingAnnotation));
 
                 // 获取 AutoApi 注解，并处理未指定的属性
                 AutoApi autoApiAnnotation = method.getAnnotation(AutoApi.class);
@@ -116,117 +328,113 @@ public class ApiMethodBuilder {
                 String httpMethod = autoApiAnnotation.method().isEmpty() ? autoSelectHttpMethod(method) : autoApiAnnotation.method();
                 String description = autoApiAnnotation.description();
 
-                // 写入方法的描述注释
-                if (description != null && !description.isEmpty()) {
-                    createMethodComment(description, bufferedWriter);
-                }
-
-                // 根据请求方法类型生成对应的 API 方法
-                if (httpMethod.equals(GET)) {
-                    bufferedWriter.write(String.format("export const %s = (query) => {", method.getName() + "Api"));
-                    bufferedWriter.newLine();
-
-                    // 写入请求参数的结构注释
-                    createDataComment(method, bufferedWriter, GET);
-
-                    bufferedWriter.write("\treturn request({");
-                    bufferedWriter.newLine();
-                    bufferedWriter.write(String.format("\t\turl: '%s',", path));
-                    bufferedWriter.newLine();
-                    bufferedWriter.write(String.format("\t\tmethod: '%s',", httpMethod));
-                    bufferedWriter.newLine();
-                    bufferedWriter.write("\t\tparams: query");
-                    bufferedWriter.newLine();
-                    bufferedWriter.write("\t})");
-                    bufferedWriter.newLine();
-
-                    bufferedWriter.write("}");
-                    bufferedWriter.newLine();
+                ApiCallOptions callOptions = ApiCallPolicies.of(apiFileName, httpMethod, batching, autoApiAnnotation);
+                // 方法上没有声明 produces 时沿用类上的声明，与 Spring MVC 一致
+                List<String> produces = produces(methodRequestMappingAnnotation);
+                String stream = StreamingTypes.streamOf(method.getGenericReturnType(),
+                        produces.isEmpty() ? produces(requestMappingAnnotation) : produces);
+                callOptions = ApiCallPolicies.transfer(callOptions, httpMethod, hasMultipartParameter(method),
+                        autoApiAnnotation.chunkedUpload(), bodyParameterName(method), StreamingTypes.isDownload(method.getGenericReturnType()),
+                        stream);
+                if (telemetry) {
+                    callOptions = callOptions.withEndpointId(ApiCallPolicies.endpointId(controllerName, method.getName(), httpMethod, path));
                 }
-                else {
-                    bufferedWriter.write(String.format("export const %s = (data) => {", method.getName() + "Api"));
-                    bufferedWriter.newLine();
-
-                    // 写入请求参数的结构注释
-                    createDataComment(method, bufferedWriter, POST);
-
-                    bufferedWriter.write("\treturn request({");
-                    bufferedWriter.newLine();
-                    bufferedWriter.write(String.format("\t\turl: '%s',", path));
-                    bufferedWriter.newLine();
-                    bufferedWriter.write(String.format("\t\tmethod: '%s',", httpMethod));
-                    bufferedWriter.newLine();
-                    bufferedWriter.write("\t\tdata");
-                    bufferedWriter.newLine();
-                    bufferedWriter.write("\t})");
-                    bufferedWriter.newLine();
-
-                    bufferedWriter.write("}");
-                    bufferedWriter.newLine();
-                }
-                bufferedWriter.newLine();
+                endpoints.add(new ApiEndpoint(method.getName(), path, httpMethod, description,
+                        buildParameters(method, resolver), callOptions));
             }
         }
+        ApiModule module = new ApiModule(apiFileName, ApiCallPolicies.linkInvalidation(apiFileName, endpoints));
+        ApiFlightRecorder.commitSchemaResolution(event, clazz.getSimpleName(), module);
+        return module;
     }
 
     /**
-     * 生成方法的描述注释。
-     *
-     * @param comment        注释内容
-     * @param bufferedWriter 缓存字符流
-     * @throws IOException 文件操作异常
+     * 获取 RequestMapping 注解声明的 produces，未声明时返回空列表。
      */
-    private static void createMethodComment(String comment, BufferedWriter bufferedWriter) throws IOException {
-        bufferedWriter.write("/**");
-        bufferedWriter.newLine();
-        bufferedWriter.write(String.format(" * %s", comment));
-        bufferedWriter.newLine();
-        bufferedWriter.write(" */");
-        bufferedWriter.newLine();
+    private static List<String> produces(RequestMapping requestMapping) {
+        return requestMapping == null ? Collections.<String>emptyList() : Arrays.asList(requestMapping.produces());
     }
 
     /**
-     * 根据方法参数判断请求方法类型。
-     * 如果参数中包含自定义对象或 @RequestBody 注解，则返回 POST，否则返回 GET。
+     * 获取 RequestMapping 注解声明的第一个路径，未声明时返回空字符串。
      *
-     * @param method 方法
-     * @return 请求方法类型（POST 或 GET）
+     * @param requestMapping RequestMapping 注解，可以为 null
+     * @return 路径
      */
-    private static String autoSelectHttpMethod(Method method) {
-        return hasCustomObject(method) || hasRequestBodyAnnotation(method) ? POST : GET;
+    private static String firstPath(RequestMapping requestMapping) {
+        if (requestMapping == null || requestMapping.value().length == 0) {
+            return "";
+        }
+        return requestMapping.value()[0];
     }
 
     /**
-     * 判断方法参数中是否存在 @RequestBody 注解。
+     * 构建方法的参数列表。
      *
-     * @param method 方法
-     * @return 如果存在 @RequestBody 注解，返回 true；否则返回 false。
+     * @param method   方法
+     * @param resolver 类型结构缓存
+     * @return 参数列表
      */
-    private static boolean hasRequestBodyAnnotation(Method method) {
-        Class<?>[] parameterTypes = method.getParameterTypes();
+    private static List<ApiParameter> buildParameters(Method method, TypeSchemaResolver resolver) {
         Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Type[] genericParameterTypes = method.getGenericParameterTypes();
+        Parameter[] parameters = method.getParameters();
 
+        List<ApiParameter> apiParameters = new ArrayList<>(parameterTypes.length);
         for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+
+            // Response, Session, Request 类型的参数不需要前端传递
+            boolean ignored = HttpServletRequest.class.isAssignableFrom(parameterType)
+                    || HttpServletResponse.class.isAssignableFrom(parameterType)
+                    || HttpSession.class.isAssignableFrom(parameterType);
+
+            boolean isRequestBody = false;
             for (Annotation annotation : parameterAnnotations[i]) {
                 if (annotation.annotationType().equals(RequestBody.class)) {
-                    return true;
+                    isRequestBody = true;
+                    break;
                 }
             }
+
+            if (ignored) {
+                apiParameters.add(new ApiParameter(parameters[i].getName(), parameterType.getSimpleName(), true, null, null));
+                continue;
+            }
+
+            // 文件参数不是 DTO，不展开其字段
+            boolean streaming = StreamingTypes.isMultipart(genericParameterTypes[i]) || StreamingTypes.isBody(parameterType);
+            TypeSchema schema = !streaming && (isRequestBody || TypeSchemaResolver.isCustomObject(parameterType))
+                    ? resolver.resolve(parameterType)
+                    : null;
+            TypeRef typeRef = resolver.resolveRef(genericParameterTypes[i]);
+            apiParameters.add(new ApiParameter(parameters[i].getName(), parameterType.getSimpleName(), false, schema, typeRef));
         }
-        return false;
+        return apiParameters;
     }
 
     /**
-     * 判断方法参数中是否包含自定义对象。
+     * 根据方法参数判断请求方法类型。
+     * 如果参数中包含自定义对象、文件或 @RequestBody 注解，则返回 POST，否则返回 GET。
      *
      * @param method 方法
-     * @return 如果参数中包含自定义对象，返回 true；否则返回 false。
+     * @return 请求方法类型（POST 或 GET）
      */
-    private static boolean hasCustomObject(Method method) {
-        Class<?>[] parameterTypes = method.getParameterTypes();
+    private static String autoSelectHttpMethod(Method method) {
+        return hasCustomObject(method) || hasRequestBodyAnnotation(method) || hasMultipartParameter(method)
+                || bodyParameterName(method) != null ? POST : GET;
+    }
 
-        for (Class<?> parameterType : parameterTypes) {
-            if (isCustomObject(parameterType)) {
+    /**
+     * 判断方法参数中是否有以 multipart 表单上传的文件。
+     *
+     * @param method 方法
+     * @return 有文件参数时返回 true
+     */
+    private static boolean hasMultipartParameter(Method method) {
+        for (Type parameterType : method.getGenericParameterTypes()) {
+            if (StreamingTypes.isMultipart(parameterType)) {
                 return true;
             }
         }
@@ -234,179 +442,54 @@ public class ApiMethodBuilder {
     }
 
     /**
-     * 判断给定的类是否为自定义对象。
-     * 自定义对象定义为非基本数据类型、非包装类、非字符串、非日期类以及非数组类。
+     * 获取作为原始请求体读取的参数名，如 InputStream、Resource 类型的参数。
      *
-     * @param clazz 类文件
-     * @return 如果是自定义对象，返回 true；否则返回 false。
+     * @param method 方法
+     * @return 第一个这样的参数名，没有时返回 null
      */
-    private static boolean isCustomObject(Class<?> clazz) {
-        // 判断是否为基本数据类型（如 int, double, boolean 等）
-        if (clazz.isPrimitive()) {
-            return false;
-        }
-
-        // 判断是否为包装类（如 Integer, Double, Boolean 等）
-        if (clazz.equals(Boolean.class) ||
-                clazz.equals(Character.class) ||
-                clazz.equals(Byte.class) ||
-                clazz.equals(Short.class) ||
-                clazz.equals(Integer.class) ||
-                clazz.equals(Long.class) ||
-                clazz.equals(Float.class) ||
-                clazz.equals(Double.class)) {
-            return false;
-        }
-
-        // 判断是否为 String 类型
-        if (clazz.equals(String.class)) {
-            return false;
-        }
-
-        // 判断是否为常见的日期类型（如 Date, LocalDate, LocalDateTime 等）
-        if (clazz.equals(java.util.Date.class) ||
-                clazz.equals(java.time.LocalDate.class) ||
-                clazz.equals(java.time.LocalDateTime.class) ||
-                clazz.equals(java.time.LocalTime.class) ||
-                clazz.equals(java.time.ZonedDateTime.class)) {
-            return false;
-        }
-
-        // 如果类是数组，也返回 false
-        if (clazz.isArray()) {
-            return false;
+    private static String bodyParameterName(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            if (StreamingTypes.isBody(parameter.getType())) {
+                return parameter.getName();
+            }
         }
-
-        // 其他情况，认为是自定义对象
-        return true;
+        return null;
     }
 
     /**
-     * 生成请求参数的 JSON 格式的数据注释。
-     * 根据方法的参数类型生成对应的 JSON 格式数据注释，支持 GET 和 POST 请求。
+     * 判断方法参数中是否存在 @RequestBody 注解。
      *
-     * @param method         方法
-     * @param bufferedWriter 缓存字符流
-     * @param httpMethod     HTTP 请求方法（GET 或 POST）
-     * @throws IOException 文件操作异常
+     * @param method 方法
+     * @return 如果存在 @RequestBody 注解，返回 true；否则返回 false。
      */
-    private static void createDataComment(Method method, BufferedWriter bufferedWriter, String httpMethod) throws IOException {
-        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    private static boolean hasRequestBodyAnnotation(Method method) {
         Class<?>[] parameterTypes = method.getParameterTypes();
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
 
-        // 如果没有参数，直接返回，不产生注释
-        if (parameterTypes.length == 0) {
-            return;
-        }
-
-        bufferedWriter.write("\t/*");
-        bufferedWriter.newLine();
-
-        // 根据 HTTP 请求方法写入不同的参数注释
-        if (httpMethod.equals(GET)) {
-            bufferedWriter.write("\t\tquery: {");
-        }
-        else {
-            bufferedWriter.write("\t\tdata: {");
-        }
-        bufferedWriter.newLine();
-
-        // 写入参数列表
         for (int i = 0; i < parameterTypes.length; i++) {
-            Class<?> parameterType = parameterTypes[i];
-
-            // 跳过 Response, Session, Request 类型的参数
-            if (HttpServletRequest.class.isAssignableFrom(parameterType)
-                    || HttpServletResponse.class.isAssignableFrom(parameterType)
-                    || HttpSession.class.isAssignableFrom(parameterType)) {
-                continue;
-            }
-
-            boolean isRequestBody = false;
             for (Annotation annotation : parameterAnnotations[i]) {
                 if (annotation.annotationType().equals(RequestBody.class)) {
-                    isRequestBody = true;
-                    break;
-                }
-            }
-
-            if (isRequestBody || isCustomObject(parameterType)) {
-                // 处理 @RequestBody 参数
-                writeObjectFields(bufferedWriter, parameterType, "\t\t\t");
-                bufferedWriter.write("\t\t}");
-                bufferedWriter.newLine();
-            }
-            else {
-                // 处理普通参数
-                String parameterName = method.getParameters()[i].getName(); // 使用实际的参数名称
-                bufferedWriter.write(String.format("\t\t\t%s: %s,", parameterName, parameterType.getSimpleName()));
-                bufferedWriter.newLine();
-                if (i == parameterTypes.length - 1) {
-                    bufferedWriter.write("\t\t}");
-                    bufferedWriter.newLine();
+                    return true;
                 }
             }
         }
-
-        bufferedWriter.write("\t*/");
-        bufferedWriter.newLine();
+        return false;
     }
 
     /**
-     * 递归写入对象字段的 JSON 格式数据注释。
+     * 判断方法参数中是否包含自定义对象。
      *
-     * @param bufferedWriter 缓存字符流
-     * @param clazz          对象类
-     * @param indent         缩进字符
-     * @throws IOException 文件操作异常
+     * @param method 方法
+     * @return 如果参数中包含自定义对象，返回 true；否则返回 false。
      */
-    // 递归写入对象字段的 JSON 格式数据注释。
-    private static void writeObjectFields(BufferedWriter bufferedWriter, Class<?> clazz, String indent) throws IOException {
-        Set<Class<?>> visitedClasses = new HashSet<>();
-        writeObjectFields(bufferedWriter, clazz, indent, visitedClasses);
-    }
-
-    private static void writeObjectFields(BufferedWriter bufferedWriter, Class<?> clazz, String indent, Set<Class<?>> visitedClasses) throws IOException {
-        // 如果该类是枚举，直接跳过
-        if (clazz.isEnum()) {
-            bufferedWriter.write(indent + "\" 枚举类已跳过 \"");
-            bufferedWriter.newLine();
-            return;
-        }
-
-        // 如果该类已经处理过，直接返回，防止无限递归
-        if (visitedClasses.contains(clazz)) {
-            bufferedWriter.write(indent + "\" 检测到递归 \"*/");
-            bufferedWriter.newLine();
-            return;
-        }
-
-        // 将当前类标记为已处理
-        visitedClasses.add(clazz);
-
-        // 获取所有的字段
-        java.lang.reflect.Field[] fields = clazz.getDeclaredFields();
-
-        for (java.lang.reflect.Field field : fields) {
-            Class<?> fieldType = field.getType();
-            String fieldName = field.getName();
+    private static boolean hasCustomObject(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
 
-            // 判断字段类型
-            if (isCustomObject(fieldType)) {
-                // 如果是自定义对象则递归调用解析写入
-                bufferedWriter.write(String.format("%s%s: {", indent, fieldName));
-                bufferedWriter.newLine();
-                writeObjectFields(bufferedWriter, fieldType, indent + "\t", visitedClasses);
-                bufferedWriter.write(indent + "},");
-            }
-            else {
-                // 如果是非自定义对象，则直接写入
-                bufferedWriter.write(String.format("%s%s: %s,", indent, fieldName, fieldType.getSimpleName()));
+        for (Class<?> parameterType : parameterTypes) {
+            if (TypeSchemaResolver.isCustomObject(parameterType)) {
+                return true;
             }
-            bufferedWriter.newLine();
         }
-
-        // 递归处理完当前类后，从已处理集合中移除
-        visitedClasses.remove(clazz);
+        return false;
     }
 }
@@ -0,0 +1,96 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.util.CompressionUtils;
+import org.lingoutil.autoapi.util.DigestUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在内存中保存生成的文件，供 {@link org.lingoutil.autoapi.web.ApiModuleFilter} 直接提供，不经过磁盘。
+ * 每个文件在放入时计算一次 ETag 和 gzip 压缩结果，之后的请求只读取现成的字节。
+ */
+@Component
+public class ApiModuleCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 放入或替换文件。
+     *
+     * @param fileName 文件名，如 UserApi.js
+     * @param content  文件内容，不改变缓冲区的位置
+     */
+    public void put(String fileName, ByteBuffer content) {
+        ByteBuffer source = content.duplicate();
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+
+        ByteBuffer compressed = CompressionUtils.gzip(ByteBuffer.wrap(bytes));
+        byte[] gzipBytes = new byte[compressed.remaining()];
+        compressed.get(gzipBytes);
+
+        // 不同编码是不同的表示，强 ETag 需要区分
+        String hash = DigestUtils.sha256Hex(ByteBuffer.wrap(bytes)).substring(0, 32);
+        entries.put(fileName, new Entry(bytes, gzipBytes, "\"" + hash + "\"", "\"" + hash + "-gzip\""));
+    }
+
+    /**
+     * 获取文件。
+     *
+     * @param fileName 文件名
+     * @return 文件，不存在时返回 null
+     */
+    public Entry get(String fileName) {
+        return entries.get(fileName);
+    }
+
+    /**
+     * 只保留给定的文件，移除已删除的 Controller 对应的文件。
+     *
+     * @param fileNames 需要保留的文件名
+     */
+    public void retain(Collection<String> fileNames) {
+        entries.keySet().retainAll(fileNames);
+    }
+
+    /**
+     * 内存中的一个文件
+     */
+    public static class Entry {
+
+        private final byte[] content;
+
+        private final byte[] gzipContent;
+
+        private final String etag;
+
+        private final String gzipEtag;
+
+        private Entry(byte[] content, byte[] gzipContent, String etag, String gzipEtag) {
+            this.content = content;
+            this.gzipContent = gzipContent;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public byte[] getGzipContent() {
+            return gzipContent;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+    }
+}
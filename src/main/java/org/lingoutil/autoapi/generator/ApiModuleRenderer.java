@@ -0,0 +1,146 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.emitter.ApiEmitter;
+import org.lingoutil.autoapi.emitter.ApiEmitters;
+import org.lingoutil.autoapi.emitter.ApiRuntime;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+
+import java.util.List;
+
+/**
+ * 将 {@link ApiModule} 渲染为前端代码，具体的代码风格由渲染选项指定的 {@link ApiEmitter} 决定。
+ * 运行时反射和编译期注解处理器共用该类，保证两条路径的输出逐字节一致。
+ */
+public class ApiModuleRenderer {
+
+    public static final String GET = "get";
+    public static final String POST = "post";
+
+    /**
+     * 换行符，与原先 BufferedWriter#newLine 的行为一致
+     */
+    public static final String NEW_LINE = System.lineSeparator();
+
+    /**
+     * 预估的文件开头和单个接口方法生成的字符数，用于预分配缓冲区
+     */
+    private static final int ESTIMATED_HEADER_LENGTH = 1024;
+    private static final int ESTIMATED_ENDPOINT_LENGTH = 512;
+
+    private ApiModuleRenderer() {
+    }
+
+    /**
+     * 创建大小足以容纳整个模块的缓冲区，避免渲染过程中反复扩容。
+     *
+     * @param module API 模块
+     * @return 缓冲区
+     */
+    public static StringBuilder newBuffer(ApiModule module) {
+        return new StringBuilder(ESTIMATED_HEADER_LENGTH + module.getEndpoints().size() * ESTIMATED_ENDPOINT_LENGTH);
+    }
+
+    /**
+     * 根据全部模块补充渲染选项，见 {@link ApiEmitter#prepare}。
+     * 模块文件和共享文件需要使用同一份补充后的选项渲染。
+     *
+     * @param modules        全部 API 模块
+     * @param options        渲染选项
+     * @return 补充后的渲染选项
+     */
+    public static ApiRenderOptions prepare(List<ApiModule> modules, ApiRenderOptions options) {
+        return ApiEmitters.get(options.getEmitter()).prepare(modules, options);
+    }
+
+    /**
+     * 渲染整个 API 模块。
+     *
+     * @param module         API 模块
+     * @param out            输出缓冲区
+     */
+    public static void render(ApiModule module, StringBuilder out) {
+        render(module, out, ApiRenderOptions.DEFAULT);
+    }
+
+    /**
+     * 按指定选项渲染整个 API 模块。
+     *
+     * @param module         API 模块
+     * @param out            输出缓冲区
+     * @param options        渲染选项
+     */
+    public static void render(ApiModule module, StringBuilder out, ApiRenderOptions options) {
+        render(module, out, options, null);
+    }
+
+    /**
+     * 按指定选项渲染整个 API 模块，并记录每个接口方法的渲染耗时。
+     *
+     * @param module         API 模块
+     * @param out            输出缓冲区
+     * @param options        渲染选项
+     * @param timings        耗时记录，为 null 时不记录
+     */
+    public static void render(ApiModule module, StringBuilder out, ApiRenderOptions options, ApiRenderTimings timings) {
+        ApiEmitter emitter = ApiEmitters.get(options.getEmitter());
+        options = options.forModule();
+        emitter.emitHeader(module, out, options);
+
+        for (ApiEndpoint endpoint : module.getEndpoints()) {
+            if (timings == null) {
+                emitter.emitEndpoint(endpoint, out, options);
+                continue;
+            }
+            long start = System.nanoTime();
+            emitter.emitEndpoint(endpoint, out, options);
+            timings.record(endpoint.getName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 渲染所有模块共享的文件。
+     *
+     * @param modules        全部 API 模块
+     * @param out            输出缓冲区
+     * @param options        渲染选项
+     * @return 共享文件的文件名，输出器没有共享文件时返回 null 且不输出任何内容
+     */
+    public static String renderShared(List<ApiModule> modules, StringBuilder out, ApiRenderOptions options) {
+        ApiEmitter emitter = ApiEmitters.get(options.getEmitter());
+        String sharedFileName = emitter.getSharedFileName();
+        if (sharedFileName != null) {
+            emitter.emitShared(modules, out, options);
+        }
+        return sharedFileName;
+    }
+
+    /**
+     * 渲染运行时模块，见 {@link org.lingoutil.autoapi.emitter.ApiRuntime}。
+     *
+     * @param modules        全部 API 模块
+     * @param out            输出缓冲区
+     * @param options        渲染选项
+     * @return 运行时模块的文件名，输出器不支持或没有接口方法需要时返回 null 且不输出任何内容
+     */
+    public static String renderRuntime(List<ApiModule> modules, StringBuilder out, ApiRenderOptions options) {
+        ApiEmitter emitter = ApiEmitters.get(options.getEmitter());
+        String runtimeFileName = emitter.getRuntimeFileName();
+        if (runtimeFileName == null || !ApiRuntime.isRequired(modules)) {
+            return null;
+        }
+        emitter.emitRuntime(out, options);
+        return runtimeFileName;
+    }
+
+    /**
+     * 获取 API 模块对应的文件名，扩展名由输出器决定。
+     *
+     * @param module         API 模块
+     * @param options        渲染选项
+     * @return 文件名
+     */
+    public static String fileName(ApiModule module, ApiRenderOptions options) {
+        return module.getName() + ApiEmitters.get(options.getEmitter()).getFileExtension();
+    }
+}
@@ -0,0 +1,139 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.emitter.ApiEmitter;
+import org.lingoutil.autoapi.emitter.ApiEmitters;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 影响生成内容的渲染选项。
+ */
+public class ApiRenderOptions {
+
+    /**
+     * 默认选项：使用默认输出器并完整展开所有 DTO，与未引入渲染选项时的输出一致
+     */
+    public static final ApiRenderOptions DEFAULT = new ApiRenderOptions(false, 0);
+
+    /**
+     * 同一个模块文件中重复出现的 DTO 是否只展开一次，之后以引用表示
+     */
+    private final boolean schemaReferences;
+
+    /**
+     * DTO 嵌套字段的最大展开深度，小于 1 表示不限制
+     */
+    private final int maxDepth;
+
+    /**
+     * 输出器名称，见 {@link ApiEmitters}
+     */
+    private final String emitter;
+
+    /**
+     * 运行时模块的选项
+     */
+    private final ApiRuntimeOptions runtime;
+
+    /**
+     * 根据全部模块确定的类型名，全限定名到类型名，见 {@link ApiEmitter#prepare}
+     */
+    private final Map<String, String> typeNames;
+
+    /**
+     * 当前模块文件中已展开过的 DTO，仅在渲染单个模块时存在，见 {@link #forModule()}
+     */
+    private final Set<TypeSchema> expandedSchemas;
+
+    public ApiRenderOptions(boolean schemaReferences, int maxDepth) {
+        this(schemaReferences, maxDepth, ApiEmitters.DEFAULT);
+    }
+
+    public ApiRenderOptions(boolean schemaReferences, int maxDepth, String emitter) {
+        this(schemaReferences, maxDepth, emitter, ApiRuntimeOptions.DEFAULT);
+    }
+
+    public ApiRenderOptions(boolean schemaReferences, int maxDepth, String emitter, ApiRuntimeOptions runtime) {
+        this(schemaReferences, maxDepth, emitter, runtime, Collections.<String, String>emptyMap());
+    }
+
+    private ApiRenderOptions(boolean schemaReferences, int maxDepth, String emitter, ApiRuntimeOptions runtime,
+                             Map<String, String> typeNames) {
+        this(schemaReferences, maxDepth, emitter, runtime, typeNames, null);
+    }
+
+    private ApiRenderOptions(boolean schemaReferences, int maxDepth, String emitter, ApiRuntimeOptions runtime,
+                             Map<String, String> typeNames, Set<TypeSchema> expandedSchemas) {
+        this.schemaReferences = schemaReferences;
+        this.maxDepth = maxDepth;
+        this.emitter = emitter;
+        this.runtime = runtime;
+        this.typeNames = typeNames;
+        this.expandedSchemas = expandedSchemas;
+    }
+
+    /**
+     * 返回指定了类型名的新选项。
+     *
+     * @param typeNames 全限定名到类型名，未包含的类型使用简单类名
+     * @return 新的渲染选项
+     */
+    public ApiRenderOptions withTypeNames(Map<String, String> typeNames) {
+        return new ApiRenderOptions(schemaReferences, maxDepth, emitter, runtime,
+                Collections.unmodifiableMap(new TreeMap<>(typeNames)));
+    }
+
+    /**
+     * 返回渲染单个模块文件使用的选项，开启引用时各接口方法的数据注释共用已展开的 DTO，
+     * 同一个 DTO 在整个文件中只展开一次。
+     *
+     * @return 新的渲染选项，未开启引用时返回自身
+     */
+    public ApiRenderOptions forModule() {
+        if (!schemaReferences) {
+            return this;
+        }
+        return new ApiRenderOptions(schemaReferences, maxDepth, emitter, runtime, typeNames, new HashSet<TypeSchema>());
+    }
+
+    public boolean isSchemaReferences() {
+        return schemaReferences;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public String getEmitter() {
+        return emitter;
+    }
+
+    public ApiRuntimeOptions getRuntime() {
+        return runtime;
+    }
+
+    public Map<String, String> getTypeNames() {
+        return typeNames;
+    }
+
+    /**
+     * 当前模块文件中已展开过的 DTO，不是通过 {@link #forModule()} 得到的选项返回 null
+     */
+    public Set<TypeSchema> getExpandedSchemas() {
+        return expandedSchemas;
+    }
+
+    /**
+     * 选项的文本形式，参与指纹计算，选项变化时全部重新生成
+     */
+    @Override
+    public String toString() {
+        return "schemaReferences=" + schemaReferences + ",maxDepth=" + maxDepth + ",emitter=" + emitter + "," + runtime
+                + (typeNames.isEmpty() ? "" : ",typeNames=" + typeNames);
+    }
+}
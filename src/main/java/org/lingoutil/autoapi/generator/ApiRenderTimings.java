@@ -0,0 +1,37 @@
+package org.lingoutil.autoapi.generator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一个模块渲染过程中各接口方法的耗时，按渲染顺序记录。不是线程安全的，每次渲染使用一个实例。
+ */
+public class ApiRenderTimings {
+
+    /**
+     * 接口方法名到渲染耗时（纳秒），重载的方法合并计算
+     */
+    private final Map<String, Long> endpointNanos = new LinkedHashMap<>();
+
+    private long totalNanos;
+
+    /**
+     * 记录一个接口方法的渲染耗时。
+     *
+     * @param endpointName 接口方法名
+     * @param nanos        耗时，单位纳秒
+     */
+    public void record(String endpointName, long nanos) {
+        endpointNanos.merge(endpointName, nanos, Long::sum);
+        totalNanos += nanos;
+    }
+
+    public Map<String, Long> getEndpointNanos() {
+        return Collections.unmodifiableMap(endpointNanos);
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
@@ -0,0 +1,100 @@
+package org.lingoutil.autoapi.generator;
+
+/**
+ * 生成的运行时模块的选项，如合并请求的地址和时间窗口、缓存的大小、耗时记录的上报地址、分片上传的大小。
+ */
+public class ApiRuntimeOptions {
+
+    public static final String DEFAULT_BATCH_PATH = "/auto-api-batch";
+    public static final int DEFAULT_BATCH_WINDOW = 10;
+    public static final int DEFAULT_BATCH_MAX_SIZE = 20;
+    public static final int DEFAULT_CACHE_MAX_ENTRIES = 200;
+    public static final String DEFAULT_TELEMETRY_PATH = "/auto-api-telemetry";
+    public static final double DEFAULT_TELEMETRY_SAMPLE_RATE = 1.0;
+    public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    public static final ApiRuntimeOptions DEFAULT = new ApiRuntimeOptions(DEFAULT_BATCH_PATH, DEFAULT_BATCH_WINDOW,
+            DEFAULT_BATCH_MAX_SIZE, DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_TELEMETRY_PATH, DEFAULT_TELEMETRY_SAMPLE_RATE,
+            DEFAULT_UPLOAD_CHUNK_SIZE);
+
+    /**
+     * 批量请求的地址，与其他接口一样相对于请求的基础路径
+     */
+    private final String batchPath;
+
+    /**
+     * 合并调用的时间窗口，单位毫秒，0 表示只合并同一个微任务中的调用
+     */
+    private final int batchWindow;
+
+    /**
+     * 单个批量请求最多包含的调用数，达到后立即发送
+     */
+    private final int batchMaxSize;
+
+    /**
+     * GET 结果缓存的最大条目数，超出后淘汰最久未使用的条目
+     */
+    private final int cacheMaxEntries;
+
+    /**
+     * 耗时记录的上报地址
+     */
+    private final String telemetryPath;
+
+    /**
+     * 记录耗时的采样比例，0 到 1 之间
+     */
+    private final double telemetrySampleRate;
+
+    /**
+     * 分片上传的分片大小，单位字节，超过该大小的单个文件分片上传
+     */
+    private final int uploadChunkSize;
+
+    public ApiRuntimeOptions(String batchPath, int batchWindow, int batchMaxSize, int cacheMaxEntries,
+                             String telemetryPath, double telemetrySampleRate, int uploadChunkSize) {
+        this.batchPath = batchPath;
+        this.batchWindow = batchWindow;
+        this.batchMaxSize = batchMaxSize;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.telemetryPath = telemetryPath;
+        this.telemetrySampleRate = telemetrySampleRate;
+        this.uploadChunkSize = uploadChunkSize;
+    }
+
+    public String getBatchPath() {
+        return batchPath;
+    }
+
+    public int getBatchWindow() {
+        return batchWindow;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public String getTelemetryPath() {
+        return telemetryPath;
+    }
+
+    public double getTelemetrySampleRate() {
+        return telemetrySampleRate;
+    }
+
+    public int getUploadChunkSize() {
+        return uploadChunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return "batchPath=" + batchPath + ",batchWindow=" + batchWindow + ",batchMaxSize=" + batchMaxSize
+                + ",cacheMaxEntries=" + cacheMaxEntries + ",telemetryPath=" + telemetryPath
+                + ",telemetrySampleRate=" + telemetrySampleRate + ",uploadChunkSize=" + uploadChunkSize;
+    }
+}
@@ -0,0 +1,352 @@
+package org.lingoutil.autoapi.generator;
+
+import jakarta.annotation.Resource;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.TypeSchema;
+import org.lingoutil.autoapi.util.ExecutorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 开发环境的监视模式：监视编译输出目录，类文件变化后只重新生成受影响的 Controller，不需要重启应用。
+ * <p>
+ * IDE 和编译器会连续写出多个类文件，收到变化后等待 {@code lingo-util.auto-api.watch-debounce} 毫秒内没有新的变化再统一处理。
+ * 受影响的 Controller 包括：类文件本身或其内部类发生变化的 Controller，以及接口参数中可达的 DTO 发生变化的 Controller。
+ * 这些类在新的 {@link ReloadingClassLoader} 中加载，只重新输出对应的模块，其余模块保持不变。
+ * <p>
+ * 新增的 Controller 也会生成，但只有重启后才会注册为 Bean；删除的 Controller 的文件在下次完整生成时清理。
+ * DTO 的父类发生变化时，需要重新编译子类或重启后才能反映到生成结果中。
+ */
+@Component
+public class ApiWatcher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiWatcher.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    @Resource
+    private ApiGenerator apiGenerator;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private List<Path> roots;
+
+    private ClassLoader parentClassLoader;
+
+    private volatile WatchService watchService;
+
+    private volatile ExecutorService executor;
+
+    /**
+     * 开始监视，未开启监视模式或已经开始时不做任何事情。
+     *
+     * @param controllerClasses 首次生成的 Controller 类，用于确定监视的目录和父类加载器
+     */
+    public void start(List<Class<?>> controllerClasses) {
+        if (!apiConfiguration.getWatch() || !started.compareAndSet(false, true)) {
+            return;
+        }
+
+        roots = findRoots(controllerClasses);
+        if (roots.isEmpty()) {
+            logger.warn("autoAPI watch mode found no class folder to watch");
+            return;
+        }
+        parentClassLoader = controllerClasses.isEmpty()
+                ? Thread.currentThread().getContextClassLoader()
+                : controllerClasses.get(0).getClassLoader();
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path root : roots) {
+                register(root, null);
+            }
+        }
+        catch (IOException e) {
+            logger.error("autoAPI failed to start watch mode", e);
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor(ExecutorUtils.newDaemonThreadFactory("auto-api-watcher"));
+        executor.execute(this::watch);
+        logger.info("autoAPI watches class folders: {}", roots);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            }
+            catch (IOException e) {
+                logger.debug("autoAPI failed to close watch service", e);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changedFiles = new LinkedHashSet<>();
+                boolean overflow = collect(watchService.take(), changedFiles);
+
+                // 合并连续的变化，直到一段时间内没有新的变化
+                WatchKey key;
+                while ((key = watchService.poll(apiConfiguration.getWatchDebounce(), TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changedFiles);
+                }
+
+                try {
+                    regenerate(changedFiles, overflow);
+                }
+                catch (RuntimeException | LinkageError e) {
+                    logger.error("autoAPI failed to regenerate api files", e);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException e) {
+            // 容器关闭
+        }
+    }
+
+    /**
+     * 收集一个目录中变化的类文件。
+     *
+     * @return 是否丢失了事件
+     */
+    private boolean collect(WatchKey key, Set<Path> changedFiles) {
+        Path folder = (Path) key.watchable();
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path path = folder.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // 新的包目录需要注册，注册前已经写入的类文件也算作变化
+                register(path, changedFiles);
+            }
+            else if (path.toString().endsWith(CLASS_SUFFIX)) {
+                changedFiles.add(path);
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    private void regenerate(Set<Path> changedFiles, boolean overflow) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        Set<String> changed = new LinkedHashSet<>();
+        for (Path file : changedFiles) {
+            String className = className(file);
+            if (className != null) {
+                changed.add(className);
+            }
+        }
+        if (changed.isEmpty() && !overflow) {
+            return;
+        }
+
+        Map<String, ApiModule> modules = apiGenerator.getModules();
+        Set<String> candidates = new LinkedHashSet<>();
+        for (Map.Entry<String, ApiModule> entry : modules.entrySet()) {
+            // 丢失了事件时无法判断哪些类变化了，重新生成全部 Controller
+            if (overflow || isAffected(entry.getKey(), entry.getValue(), changed)) {
+                candidates.add(entry.getKey());
+            }
+        }
+        // 新增的或上次构建失败的 Controller，加载后再判断
+        for (String className : changed) {
+            if (className.indexOf('$') < 0 && !modules.containsKey(className)) {
+                candidates.add(className);
+            }
+        }
+        if (candidates.isEmpty()) {
+            logger.debug("autoAPI ignores changed classes: {}", changed);
+            return;
+        }
+
+        try (ReloadingClassLoader classLoader = new ReloadingClassLoader(urls(), parentClassLoader)) {
+            List<Class<?>> controllerClasses = new ArrayList<>();
+            for (String className : candidates) {
+                Class<?> clazz;
+                try {
+                    clazz = Class.forName(className, false, classLoader);
+                }
+                catch (ClassNotFoundException | LinkageError e) {
+                    logger.debug("autoAPI skips class that cannot be loaded: {}", className, e);
+                    continue;
+                }
+                if (AnnotatedElementUtils.hasAnnotation(clazz, Controller.class) && ApiInitializer.isGenerateApiEnabled(clazz)) {
+                    controllerClasses.add(clazz);
+                }
+            }
+            if (controllerClasses.isEmpty()) {
+                return;
+            }
+
+            apiGenerator.regenerateApiCode(controllerClasses);
+            logger.info("autoAPI regenerates {} controllers for {} changed classes in {} ms",
+                    controllerClasses.size(), changed.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+        catch (IOException e) {
+            logger.debug("autoAPI failed to close class loader", e);
+        }
+    }
+
+    /**
+     * 判断已生成的 Controller 是否受类文件变化的影响。
+     */
+    private static boolean isAffected(String controllerName, ApiModule module, Set<String> changed) {
+        if (changed.contains(controllerName)) {
+            return true;
+        }
+        for (String className : changed) {
+            // 内部类和匿名类变化时外部类通常也会重新编译，但不能依赖这一点
+            if (className.startsWith(controllerName + "$")) {
+                return true;
+            }
+        }
+        for (TypeSchema schema : module.collectSchemas()) {
+            if (changed.contains(schema.getQualifiedName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 注册目录及其全部子目录。
+     *
+     * @param folder       目录
+     * @param changedFiles 不为 null 时收集其中已有的类文件
+     */
+    private void register(Path folder, Set<Path> changedFiles) {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+                else if (changedFiles != null && path.toString().endsWith(CLASS_SUFFIX)) {
+                    changedFiles.add(path);
+                }
+            }
+        }
+        catch (IOException e) {
+            logger.warn("autoAPI failed to watch folder: {}", folder, e);
+        }
+    }
+
+    /**
+     * 根据类文件的路径得到类名，不在监视目录下或不是类时返回 null。
+     */
+    private String className(Path file) {
+        for (Path root : roots) {
+            if (!file.startsWith(root)) {
+                continue;
+            }
+            String relativePath = root.relativize(file).toString();
+            String className = relativePath.substring(0, relativePath.length() - CLASS_SUFFIX.length())
+                    .replace(File.separatorChar, '.');
+            return className.endsWith("package-info") || className.endsWith("module-info") ? null : className;
+        }
+        return null;
+    }
+
+    private URL[] urls() throws IOException {
+        URL[] urls = new URL[roots.size()];
+        for (int i = 0; i < roots.size(); i++) {
+            try {
+                urls[i] = roots.get(i).toUri().toURL();
+            }
+            catch (MalformedURLException e) {
+                throw new IOException(e);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * 获取需要监视的类文件目录：配置的目录，或 Controller 所在的目录和类路径中的全部目录。
+     */
+    private List<Path> findRoots(List<Class<?>> controllerClasses) {
+        Set<Path> folders = new LinkedHashSet<>();
+        List<String> watchPaths = apiConfiguration.getWatchPaths();
+        if (!watchPaths.isEmpty()) {
+            for (String watchPath : watchPaths) {
+                folders.add(Paths.get(watchPath));
+            }
+        }
+        else {
+            for (Class<?> controllerClass : controllerClasses) {
+                CodeSource codeSource = controllerClass.getProtectionDomain().getCodeSource();
+                if (codeSource != null && codeSource.getLocation() != null && "file".equals(codeSource.getLocation().getProtocol())) {
+                    try {
+                        folders.add(Paths.get(codeSource.getLocation().toURI()));
+                    }
+                    catch (URISyntaxException e) {
+                        logger.debug("autoAPI skips class location: {}", codeSource.getLocation(), e);
+                    }
+                }
+            }
+            for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                if (!entry.isEmpty()) {
+                    folders.add(Paths.get(entry));
+                }
+            }
+        }
+
+        List<Path> roots = new ArrayList<>();
+        for (Path folder : folders) {
+            Path root = folder.toAbsolutePath().normalize();
+            // jar 包不会在运行中变化
+            if (Files.isDirectory(root) && !roots.contains(root)) {
+                roots.add(root);
+            }
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,51 @@
+package org.lingoutil.autoapi.generator;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * 监视模式下重新加载类文件的类加载器，每次重新生成使用一个新的实例。
+ * <p>
+ * 监视目录中的类优先从目录加载，得到最新的定义。只重新加载发生变化的类是不够的：
+ * 未变化的 Controller 或 DTO 如果由父加载器加载，会继续链接到父加载器中旧版本的 DTO。
+ * 目录中找不到的类（注解、Spring 等 jar 包中的类）交给父加载器，与应用保持同一份，{@code getAnnotation} 等调用才能正常工作。
+ */
+class ReloadingClassLoader extends URLClassLoader {
+
+    /**
+     * 始终交给父加载器的包，autoAPI 自身的注解必须与生成器使用同一份
+     */
+    private static final String[] PARENT_FIRST_PACKAGES = {"java.", "javax.", "jakarta.", "org.springframework.", "org.lingoutil.autoapi."};
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    ReloadingClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        for (String parentFirstPackage : PARENT_FIRST_PACKAGES) {
+            if (name.startsWith(parentFirstPackage)) {
+                return super.loadClass(name, resolve);
+            }
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                try {
+                    clazz = findClass(name);
+                }
+                catch (ClassNotFoundException e) {
+                    return super.loadClass(name, resolve);
+                }
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.model.ApiCallOptions;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 文件流相关的类型：以 multipart 表单上传的文件参数、作为原始请求体读取的参数、以文件下载的返回值以及流式响应。
+ * 这些类型不是自定义对象，不展开其字段。按全限定名匹配父类和接口，不依赖 spring-webmvc 等可选的类，
+ * 注解处理器使用同一组类名，保证两条路径的判断一致。
+ */
+public final class StreamingTypes {
+
+    /**
+     * 以 multipart 表单上传的文件参数类型，参数也可以是它们的数组或集合
+     */
+    public static final Set<String> MULTIPART_TYPES = names(
+            "org.springframework.web.multipart.MultipartFile",
+            "jakarta.servlet.http.Part");
+
+    /**
+     * 作为原始请求体读取的参数类型
+     */
+    public static final Set<String> BODY_TYPES = names(
+            "java.io.InputStream",
+            "org.springframework.core.io.Resource");
+
+    /**
+     * 以文件下载的返回值类型，字节数组也以文件下载
+     */
+    public static final Set<String> DOWNLOAD_TYPES = names(
+            "java.io.InputStream",
+            "org.springframework.core.io.Resource",
+            "org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody");
+
+    /**
+     * 以 Server-Sent Events 推送的返回值类型，Flux 等的类型实参为 ServerSentEvent 时也是
+     */
+    public static final Set<String> SSE_TYPES = names(
+            "org.springframework.web.servlet.mvc.method.annotation.SseEmitter",
+            "org.springframework.http.codec.ServerSentEvent");
+
+    public static final String SSE_MEDIA_TYPE = "text/event-stream";
+
+    public static final Set<String> NDJSON_MEDIA_TYPES = names(
+            "application/x-ndjson",
+            "application/ndjson",
+            "application/stream+json");
+
+    /**
+     * 包装返回值的类型，按其类型实参判断是否下载
+     */
+    public static final Set<String> RESPONSE_WRAPPERS = names(
+            "org.springframework.http.ResponseEntity",
+            "org.springframework.http.HttpEntity");
+
+    private StreamingTypes() {
+    }
+
+    private static Set<String> names(String... names) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    }
+
+    /**
+     * 判断类是否为文件流类型，这样的类不是自定义对象。
+     *
+     * @param clazz 类
+     * @return 是上传、请求体或下载使用的类型时返回 true
+     */
+    public static boolean isStreaming(Class<?> clazz) {
+        return isSubtype(clazz, MULTIPART_TYPES) || isSubtype(clazz, BODY_TYPES) || isSubtype(clazz, DOWNLOAD_TYPES);
+    }
+
+    /**
+     * 判断参数是否为以 multipart 表单上传的文件，包括文件的数组和集合。
+     *
+     * @param type 参数声明的类型
+     * @return 是文件参数时返回 true
+     */
+    public static boolean isMultipart(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            return clazz.isArray() ? isMultipart(clazz.getComponentType()) : isSubtype(clazz, MULTIPART_TYPES);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            return Collection.class.isAssignableFrom((Class<?>) parameterizedType.getRawType())
+                    && typeArguments.length == 1 && isMultipart(typeArguments[0]);
+        }
+        return false;
+    }
+
+    /**
+     * 判断参数是否作为原始请求体读取，如 InputStream、Resource。
+     *
+     * @param clazz 参数类型
+     * @return 是请求体参数时返回 true
+     */
+    public static boolean isBody(Class<?> clazz) {
+        return isSubtype(clazz, BODY_TYPES);
+    }
+
+    /**
+     * 判断返回值是否以文件下载，ResponseEntity 等包装类型按其类型实参判断。
+     *
+     * @param type 方法声明的返回类型
+     * @return 以文件下载时返回 true
+     */
+    public static boolean isDownload(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            if (RESPONSE_WRAPPERS.contains(rawType.getName())) {
+                return isDownload(parameterizedType.getActualTypeArguments()[0]);
+            }
+            return isDownload(rawType);
+        }
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            return clazz.equals(byte[].class) || isSubtype(clazz, DOWNLOAD_TYPES);
+        }
+        return false;
+    }
+
+    /**
+     * 判断接口的流式响应方式。先按 RequestMapping 声明的 produces 判断，未声明流式的媒体类型时按返回值类型判断：
+     * SseEmitter 或 ServerSentEvent 的序列为 SSE。其他 ResponseBodyEmitter 不一定按行发送，
+     * 只有声明了 NDJSON 的 produces 时才按行读取；StreamingResponseBody 同样需要声明 produces，否则以文件下载。
+     *
+     * @param type     方法声明的返回类型
+     * @param produces RequestMapping 声明的 produces
+     * @return {@link ApiCallOptions#STREAM_SSE}、{@link ApiCallOptions#STREAM_NDJSON}，不是流式响应时返回 null
+     */
+    public static String streamOf(Type type, Collection<String> produces) {
+        String stream = streamOf(produces);
+        if (stream != null) {
+            return stream;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            if (RESPONSE_WRAPPERS.contains(rawType.getName())) {
+                return streamOf(typeArguments[0], Collections.<String>emptyList());
+            }
+            if (typeArguments.length == 1 && isSseElement(typeArguments[0])) {
+                return ApiCallOptions.STREAM_SSE;
+            }
+            type = rawType;
+        }
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (isSubtype(clazz, SSE_TYPES)) {
+                return ApiCallOptions.STREAM_SSE;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSseElement(Type type) {
+        Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+        return rawType instanceof Class && SSE_TYPES.contains(((Class<?>) rawType).getName());
+    }
+
+    /**
+     * 按 produces 声明的媒体类型判断流式响应方式，注解处理器共用。
+     *
+     * @param produces RequestMapping 声明的 produces，如 {@code text/event-stream;charset=UTF-8}
+     * @return 流式响应方式，没有流式的媒体类型时返回 null
+     */
+    public static String streamOf(Collection<String> produces) {
+        for (String mediaType : produces) {
+            int parameters = mediaType.indexOf(';');
+            String name = (parameters < 0 ? mediaType : mediaType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+            if (SSE_MEDIA_TYPE.equals(name)) {
+                return ApiCallOptions.STREAM_SSE;
+            }
+            if (NDJSON_MEDIA_TYPES.contains(name)) {
+                return ApiCallOptions.STREAM_NDJSON;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断类本身或其任一父类、接口的全限定名是否在给定的集合中。
+     */
+    private static boolean isSubtype(Class<?> clazz, Set<String> names) {
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(clazz);
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.poll();
+            if (names.contains(current.getName())) {
+                return true;
+            }
+            if (current.getSuperclass() != null) {
+                pending.add(current.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,216 @@
+package org.lingoutil.autoapi.generator;
+
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 通过反射解析自定义对象的类型结构，并在一次生成中缓存。
+ * 每个类只反射一次，所有方法和 Controller 共享同一份结果，生成耗时只与不同类型的数量有关。
+ * 可以被并行生成的多个线程同时使用。
+ */
+public class TypeSchemaResolver {
+
+    /**
+     * 已解析完成的类型结构，只有字段全部填充后才会放入
+     */
+    private final Map<Class<?>, TypeSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * 解析类的类型结构。
+     *
+     * @param clazz 自定义对象类
+     * @return 类型结构
+     */
+    public TypeSchema resolve(Class<?> clazz) {
+        TypeSchema schema = schemas.get(clazz);
+        if (schema != null) {
+            return schema;
+        }
+
+        // 解析过程中的类型结构可能还未填充完整，解析完成后再统一发布给其他线程
+        synchronized (this) {
+            Map<Class<?>, TypeSchema> resolving = new HashMap<>();
+            schema = resolve(clazz, resolving);
+            schemas.putAll(resolving);
+            return schema;
+        }
+    }
+
+    /**
+     * 解析类型的一次使用，包含泛型实参。
+     *
+     * @param type 反射得到的类型
+     * @return 类型引用
+     */
+    public TypeRef resolveRef(Type type) {
+        TypeRef typeRef = null;
+        if (type instanceof Class && !((Class<?>) type).isArray()) {
+            typeRef = simpleRef((Class<?>) type);
+        }
+        if (typeRef != null) {
+            return typeRef;
+        }
+
+        synchronized (this) {
+            Map<Class<?>, TypeSchema> resolving = new HashMap<>();
+            typeRef = resolveRef(type, resolving);
+            schemas.putAll(resolving);
+            return typeRef;
+        }
+    }
+
+    /**
+     * 已缓存的类型数量
+     */
+    public int size() {
+        return schemas.size();
+    }
+
+    /**
+     * 非自定义对象或已缓存的类型可以不加锁直接得到引用。
+     */
+    private TypeRef simpleRef(Class<?> clazz) {
+        if (!isCustomObject(clazz)) {
+            return TypeRef.of(clazz.getSimpleName(), null);
+        }
+        TypeSchema schema = schemas.get(clazz);
+        return schema == null ? null : TypeRef.of(clazz.getSimpleName(), schema);
+    }
+
+    private TypeSchema resolve(Class<?> clazz, Map<Class<?>, TypeSchema> resolving) {
+        TypeSchema schema = schemas.get(clazz);
+        if (schema == null) {
+            schema = resolving.get(clazz);
+        }
+        if (schema != null) {
+            return schema;
+        }
+
+        schema = new TypeSchema(clazz.getName(), clazz.getSimpleName(), clazz.isEnum());
+        // 先登记再解析字段，递归类型会直接引用到当前实例
+        resolving.put(clazz, schema);
+
+        // 枚举只记录常量名，不触发枚举类的初始化
+        if (clazz.isEnum()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isEnumConstant()) {
+                    schema.getEnumConstants().add(field.getName());
+                }
+            }
+            return schema;
+        }
+
+        for (TypeVariable<?> typeParameter : clazz.getTypeParameters()) {
+            schema.getTypeParameters().add(typeParameter.getName());
+        }
+
+        for (Field field : clazz.getDeclaredFields()) {
+            // 常量、serialVersionUID 以及编译器生成的字段（如内部类的 this$0）不会被序列化
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            Class<?> fieldType = field.getType();
+            TypeSchema fieldSchema = isCustomObject(fieldType) ? resolve(fieldType, resolving) : null;
+            TypeRef typeRef = resolveRef(field.getGenericType(), resolving);
+            schema.getFields().add(new FieldSchema(field.getName(), fieldType.getSimpleName(), fieldSchema, typeRef));
+        }
+        return schema;
+    }
+
+    private TypeRef resolveRef(Type type, Map<Class<?>, TypeSchema> resolving) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                return arrayRef(resolveRef(clazz.getComponentType(), resolving));
+            }
+            return TypeRef.of(clazz.getSimpleName(), isCustomObject(clazz) ? resolve(clazz, resolving) : null);
+        }
+
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            List<TypeRef> typeArguments = new ArrayList<>();
+            for (Type typeArgument : parameterizedType.getActualTypeArguments()) {
+                typeArguments.add(resolveRef(typeArgument, resolving));
+            }
+            TypeSchema schema = isCustomObject(rawType) ? resolve(rawType, resolving) : null;
+            return new TypeRef(rawType.getSimpleName(), schema, typeArguments, false, false);
+        }
+
+        if (type instanceof GenericArrayType) {
+            return arrayRef(resolveRef(((GenericArrayType) type).getGenericComponentType(), resolving));
+        }
+
+        if (type instanceof TypeVariable) {
+            return new TypeRef(((TypeVariable<?>) type).getName(), null, Collections.<TypeRef>emptyList(), false, true);
+        }
+
+        if (type instanceof WildcardType) {
+            return resolveRef(((WildcardType) type).getUpperBounds()[0], resolving);
+        }
+
+        return TypeRef.of(type.getTypeName(), null);
+    }
+
+    private static TypeRef arrayRef(TypeRef componentType) {
+        return new TypeRef(componentType + "[]", null, Collections.singletonList(componentType), true, false);
+    }
+
+    /**
+     * 判断给定的类是否为自定义对象。
+     * 自定义对象定义为非基本数据类型、非包装类、非字符串、非日期类、非数组类以及非文件流类型（见 {@link StreamingTypes}）。
+     *
+     * @param clazz 类文件
+     * @return 如果是自定义对象，返回 true；否则返回 false。
+     */
+    public static boolean isCustomObject(Class<?> clazz) {
+        // 判断是否为基本数据类型（如 int, double, boolean 等）
+        if (clazz.isPrimitive()) {
+            return false;
+        }
+
+        // 判断是否为包装类（如 Integer, Double, Boolean 等）
+        if (clazz.equals(Boolean.class) ||
+                clazz.equals(Character.class) ||
+                clazz.equals(Byte.class) ||
+                clazz.equals(Short.class) ||
+                clazz.equals(Integer.class) ||
+                clazz.equals(Long.class) ||
+                clazz.equals(Float.class) ||
+                clazz.equals(Double.class)) {
+            return false;
+        }
+
+        // 判断是否为 String 类型
+        if (clazz.equals(String.class)) {
+            return false;
+        }
+
+        // 判断是否为常见的日期类型（如 Date, LocalDate, LocalDateTime 等）
+        if (clazz.equals(java.util.Date.class) ||
+                clazz.equals(java.time.LocalDate.class) ||
+                clazz.equals(java.time.LocalDateTime.class) ||
+                clazz.equals(java.time.LocalTime.class) ||
+                clazz.equals(java.time.ZonedDateTime.class)) {
+            return false;
+        }
+
+        // 如果类是数组，也返回 false
+        if (clazz.isArray()) {
+            return false;
+        }
+
+        // MultipartFile、InputStream、Resource 等文件流不展开其内部字段
+        if (StreamingTypes.isStreaming(clazz)) {
+            return false;
+        }
+
+        // 其他情况，认为是自定义对象
+        return true;
+    }
+}
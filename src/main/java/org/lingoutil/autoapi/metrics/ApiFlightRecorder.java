@@ -0,0 +1,96 @@
+package org.lingoutil.autoapi.metrics;
+
+import org.lingoutil.autoapi.model.ApiModule;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 记录 autoAPI 各阶段的 JFR 事件，开启 JFR 录制即可看到生成过程中每个阶段的耗时，如
+ * {@code -XX:StartFlightRecording} 或 {@code jcmd <pid> JFR.start}。
+ * <p>
+ * 用法为先调用 {@code beginXxx} 开始计时，阶段结束后调用对应的 {@code commitXxx}。
+ * 运行环境没有 JFR（如较早的 JDK 8）时 {@code beginXxx} 返回 null，{@code commitXxx} 什么也不做，
+ * 调用方不需要区分。未录制时事件不会写出，开销只有一次对象分配。
+ */
+public final class ApiFlightRecorder {
+
+    private static final boolean AVAILABLE = ClassUtils.isPresent("jdk.jfr.Event", ApiFlightRecorder.class.getClassLoader());
+
+    private ApiFlightRecorder() {
+    }
+
+    public static Object beginDiscovery() {
+        return AVAILABLE ? ApiJfrEvents.beginDiscovery() : null;
+    }
+
+    public static void commitDiscovery(Object event, String mode, int controllers) {
+        if (event != null) {
+            ApiJfrEvents.DiscoveryEvent discoveryEvent = (ApiJfrEvents.DiscoveryEvent) event;
+            discoveryEvent.mode = mode;
+            discoveryEvent.controllers = controllers;
+            discoveryEvent.commit();
+        }
+    }
+
+    public static Object beginSchemaResolution() {
+        return AVAILABLE ? ApiJfrEvents.beginSchemaResolution() : null;
+    }
+
+    public static void commitSchemaResolution(Object event, String controller, ApiModule module) {
+        if (event != null) {
+            ApiJfrEvents.SchemaResolutionEvent schemaEvent = (ApiJfrEvents.SchemaResolutionEvent) event;
+            schemaEvent.end();
+            // 统计类型数需要遍历模块，只在录制时进行
+            if (schemaEvent.shouldCommit()) {
+                schemaEvent.controller = controller;
+                schemaEvent.endpoints = module.getEndpoints().size();
+                schemaEvent.schemas = module.collectSchemas().size();
+                schemaEvent.commit();
+            }
+        }
+    }
+
+    public static Object beginRender() {
+        return AVAILABLE ? ApiJfrEvents.beginRender() : null;
+    }
+
+    public static void commitRender(Object event, String module, String emitter, long bytes) {
+        if (event != null) {
+            ApiJfrEvents.RenderEvent renderEvent = (ApiJfrEvents.RenderEvent) event;
+            renderEvent.module = module;
+            renderEvent.emitter = emitter;
+            renderEvent.bytes = bytes;
+            renderEvent.commit();
+        }
+    }
+
+    public static Object beginWrite() {
+        return AVAILABLE ? ApiJfrEvents.beginWrite() : null;
+    }
+
+    public static void commitWrite(Object event, String file, long bytes) {
+        if (event != null) {
+            ApiJfrEvents.WriteEvent writeEvent = (ApiJfrEvents.WriteEvent) event;
+            writeEvent.file = file;
+            writeEvent.bytes = bytes;
+            writeEvent.commit();
+        }
+    }
+
+    public static Object beginGeneration() {
+        return AVAILABLE ? ApiJfrEvents.beginGeneration() : null;
+    }
+
+    public static void commitGeneration(Object event, ApiGenerationReport report) {
+        if (event != null) {
+            ApiJfrEvents.GenerationEvent generationEvent = (ApiJfrEvents.GenerationEvent) event;
+            generationEvent.controllers = report.getControllers().size();
+            generationEvent.generated = report.getGeneratedCount();
+            generationEvent.skipped = report.getSkippedCount();
+            generationEvent.failed = report.getFailedCount();
+            generationEvent.endpoints = report.getEndpointCount();
+            generationEvent.resolvedSchemas = report.getResolvedSchemas();
+            generationEvent.bytesWritten = report.getBytesWritten();
+            generationEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.lingoutil.autoapi.metrics;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 进程内的生成指标，保存最近一次生成的 {@link ApiGenerationReport}，可以注入后暴露给健康检查或监控系统。
+ * 与 JFR 事件（见 {@link ApiFlightRecorder}）记录的是同一组阶段。
+ */
+@Component
+public class ApiGenerationMetrics {
+
+    private volatile ApiGenerationReport lastReport;
+
+    /**
+     * 最近一次查找的耗时，被下一次生成的报告取走后重置
+     */
+    private volatile long pendingDiscoveryNanos = -1;
+
+    /**
+     * 记录一次查找的耗时，计入随后一次生成的报告。
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public void recordDiscovery(long nanos) {
+        pendingDiscoveryNanos = nanos;
+    }
+
+    /**
+     * 取走尚未计入报告的查找耗时。
+     *
+     * @return 耗时，没有时返回 -1
+     */
+    public long takeDiscoveryNanos() {
+        long nanos = pendingDiscoveryNanos;
+        pendingDiscoveryNanos = -1;
+        return nanos;
+    }
+
+    public void record(ApiGenerationReport report) {
+        lastReport = report;
+    }
+
+    /**
+     * 获取最近一次生成的报告。
+     *
+     * @return 报告，尚未生成过时返回 null
+     */
+    public ApiGenerationReport getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,126 @@
+package org.lingoutil.autoapi.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次生成的指标汇总。耗时单位均为纳秒。
+ * 并行生成时各 Controller 的阶段耗时是各线程耗时之和，可能大于总耗时。
+ */
+public class ApiGenerationReport {
+
+    /**
+     * 查找 Controller 的耗时，直接调用生成而没有经过查找时为 -1
+     */
+    private final long discoveryNanos;
+
+    private final List<ControllerMetrics> controllers;
+
+    /**
+     * 本次生成共反射解析的类型数量
+     */
+    private final int resolvedSchemas;
+
+    /**
+     * 发布暂存文件的耗时
+     */
+    private final long publishNanos;
+
+    /**
+     * 实际写入的字节数，包括预压缩文件、清单和共享文件
+     */
+    private final long bytesWritten;
+
+    /**
+     * 生成的总耗时，不含查找
+     */
+    private final long totalNanos;
+
+    public ApiGenerationReport(long discoveryNanos, List<ControllerMetrics> controllers, int resolvedSchemas,
+                               long publishNanos, long bytesWritten, long totalNanos) {
+        this.discoveryNanos = discoveryNanos;
+        this.controllers = Collections.unmodifiableList(controllers);
+        this.resolvedSchemas = resolvedSchemas;
+        this.publishNanos = publishNanos;
+        this.bytesWritten = bytesWritten;
+        this.totalNanos = totalNanos;
+    }
+
+    public long getDiscoveryNanos() {
+        return discoveryNanos;
+    }
+
+    public List<ControllerMetrics> getControllers() {
+        return controllers;
+    }
+
+    public int getResolvedSchemas() {
+        return resolvedSchemas;
+    }
+
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public int getGeneratedCount() {
+        return count(ControllerMetrics.Status.GENERATED);
+    }
+
+    public int getSkippedCount() {
+        return count(ControllerMetrics.Status.SKIPPED);
+    }
+
+    public int getFailedCount() {
+        return count(ControllerMetrics.Status.FAILED);
+    }
+
+    public int getEndpointCount() {
+        int endpoints = 0;
+        for (ControllerMetrics controller : controllers) {
+            endpoints += controller.getEndpoints();
+        }
+        return endpoints;
+    }
+
+    public long getBuildNanos() {
+        long nanos = 0;
+        for (ControllerMetrics controller : controllers) {
+            nanos += controller.getBuildNanos();
+        }
+        return nanos;
+    }
+
+    public long getRenderNanos() {
+        long nanos = 0;
+        for (ControllerMetrics controller : controllers) {
+            nanos += controller.getRenderNanos();
+        }
+        return nanos;
+    }
+
+    public long getWriteNanos() {
+        long nanos = publishNanos;
+        for (ControllerMetrics controller : controllers) {
+            nanos += controller.getWriteNanos();
+        }
+        return nanos;
+    }
+
+    private int count(ControllerMetrics.Status status) {
+        int count = 0;
+        for (ControllerMetrics controller : controllers) {
+            if (controller.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
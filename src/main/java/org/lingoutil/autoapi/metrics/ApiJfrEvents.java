@@ -0,0 +1,145 @@
+package org.lingoutil.autoapi.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * autoAPI 的 JFR 事件定义。只能通过 {@link ApiFlightRecorder} 访问，没有 JFR 的运行环境不会加载该类。
+ */
+final class ApiJfrEvents {
+
+    private static final String CATEGORY = "autoAPI";
+
+    private ApiJfrEvents() {
+    }
+
+    static DiscoveryEvent beginDiscovery() {
+        DiscoveryEvent event = new DiscoveryEvent();
+        event.begin();
+        return event;
+    }
+
+    static SchemaResolutionEvent beginSchemaResolution() {
+        SchemaResolutionEvent event = new SchemaResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static RenderEvent beginRender() {
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        return event;
+    }
+
+    static WriteEvent beginWrite() {
+        WriteEvent event = new WriteEvent();
+        event.begin();
+        return event;
+    }
+
+    static GenerationEvent beginGeneration() {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        return event;
+    }
+
+    @Name("org.lingoutil.autoapi.Discovery")
+    @Label("autoAPI Discovery")
+    @Description("查找需要生成的 Controller")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class DiscoveryEvent extends Event {
+
+        @Label("Mode")
+        String mode;
+
+        @Label("Controllers")
+        int controllers;
+    }
+
+    @Name("org.lingoutil.autoapi.SchemaResolution")
+    @Label("autoAPI Schema Resolution")
+    @Description("反射读取一个 Controller 的接口并解析 DTO 的类型结构")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class SchemaResolutionEvent extends Event {
+
+        @Label("Controller")
+        String controller;
+
+        @Label("Endpoints")
+        int endpoints;
+
+        @Label("DTO Types")
+        @Description("接口参数中可达的不同类型结构的数量")
+        int schemas;
+    }
+
+    @Name("org.lingoutil.autoapi.Render")
+    @Label("autoAPI Render")
+    @Description("渲染一个模块或共享文件")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class RenderEvent extends Event {
+
+        @Label("Module")
+        String module;
+
+        @Label("Emitter")
+        String emitter;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("org.lingoutil.autoapi.Write")
+    @Label("autoAPI Write")
+    @Description("将一个文件写入暂存目录")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class WriteEvent extends Event {
+
+        @Label("File")
+        String file;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("org.lingoutil.autoapi.Generation")
+    @Label("autoAPI Generation")
+    @Description("一次完整的生成")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class GenerationEvent extends Event {
+
+        @Label("Controllers")
+        int controllers;
+
+        @Label("Generated")
+        int generated;
+
+        @Label("Skipped")
+        int skipped;
+
+        @Label("Failed")
+        int failed;
+
+        @Label("Endpoints")
+        int endpoints;
+
+        @Label("Resolved DTO Types")
+        int resolvedSchemas;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytesWritten;
+    }
+}
@@ -0,0 +1,93 @@
+package org.lingoutil.autoapi.metrics;
+
+/**
+ * 单个 Controller 在一次生成中的指标。耗时单位均为纳秒，未执行的阶段为 0。
+ */
+public class ControllerMetrics {
+
+    public enum Status {
+        GENERATED, SKIPPED, FAILED
+    }
+
+    /**
+     * Controller 的简单类名
+     */
+    private final String controller;
+
+    private final Status status;
+
+    private final int endpoints;
+
+    /**
+     * 接口参数中可达的不同类型结构（DTO、枚举等）的数量，即渲染时需要展开的类型数
+     */
+    private final int schemas;
+
+    /**
+     * 反射和类型结构解析的耗时
+     */
+    private final long buildNanos;
+
+    private final long renderNanos;
+
+    /**
+     * 写入暂存目录的耗时，不含统一发布的耗时
+     */
+    private final long writeNanos;
+
+    /**
+     * 渲染出的文件大小，单位字节
+     */
+    private final long bytes;
+
+    public ControllerMetrics(String controller, Status status, int endpoints, int schemas,
+                             long buildNanos, long renderNanos, long writeNanos, long bytes) {
+        this.controller = controller;
+        this.status = status;
+        this.endpoints = endpoints;
+        this.schemas = schemas;
+        this.buildNanos = buildNanos;
+        this.renderNanos = renderNanos;
+        this.writeNanos = writeNanos;
+        this.bytes = bytes;
+    }
+
+    public String getController() {
+        return controller;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getEndpoints() {
+        return endpoints;
+    }
+
+    public int getSchemas() {
+        return schemas;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return controller + "{status=" + status + ",endpoints=" + endpoints + ",schemas=" + schemas
+                + ",buildNanos=" + buildNanos + ",renderNanos=" + renderNanos + ",writeNanos=" + writeNanos
+                + ",bytes=" + bytes + "}";
+    }
+}
@@ -0,0 +1,252 @@
+package org.lingoutil.autoapi.model;
+
+/**
+ * 接口方法在前端的调用方式，如是否合并为批量请求、是否缓存结果、是否记录耗时、超时和对冲请求、文件上传和下载、压缩请求体、流式响应。
+ * 默认的调用方式直接发起请求，只有非默认的接口方法才需要生成的运行时模块。实例不可变。
+ */
+public class ApiCallOptions {
+
+    public static final ApiCallOptions DEFAULT = new ApiCallOptions(false, 0, null, null, null, 0, 0, null, null, false, false, 0, null);
+
+    /**
+     * 以 multipart 表单上传文件
+     */
+    public static final String UPLOAD_MULTIPART = "multipart";
+
+    /**
+     * 以 multipart 表单上传文件，超过分片大小的单个文件分片上传，由服务端的
+     * {@code org.lingoutil.autoapi.web.ApiChunkAssembler} 组装
+     */
+    public static final String UPLOAD_CHUNKED = "chunked";
+
+    /**
+     * 以原始请求体上传单个文件
+     */
+    public static final String UPLOAD_BINARY = "binary";
+
+    /**
+     * 以 Server-Sent Events 读取流式响应
+     */
+    public static final String STREAM_SSE = "sse";
+
+    /**
+     * 以每行一个 JSON 读取流式响应
+     */
+    public static final String STREAM_NDJSON = "ndjson";
+
+    /**
+     * 是否与同一时间窗口内的其他调用合并为一个批量请求，只对 GET 生效
+     */
+    private final boolean batched;
+
+    /**
+     * 结果的缓存时间，单位毫秒，0 表示不缓存
+     */
+    private final long cacheTtlMs;
+
+    /**
+     * 缓存所属的分组，同一分组的缓存一起清除
+     */
+    private final String cacheGroup;
+
+    /**
+     * 调用完成后清除的缓存分组，为 null 表示不清除
+     */
+    private final String invalidatedGroup;
+
+    /**
+     * 记录耗时使用的接口标识，为 null 表示不记录
+     */
+    private final String endpointId;
+
+    /**
+     * 等待响应的最长时间，单位毫秒，0 表示不限制
+     */
+    private final long timeoutMs;
+
+    /**
+     * 发送对冲请求前等待的时间，单位毫秒，0 表示不发送，只对 GET 生效
+     */
+    private final long hedgeAfterMs;
+
+    /**
+     * 文件的上传方式，{@link #UPLOAD_MULTIPART}、{@link #UPLOAD_CHUNKED} 或 {@link #UPLOAD_BINARY}，为 null 表示不是上传接口
+     */
+    private final String upload;
+
+    /**
+     * 以原始请求体上传时作为请求体的参数名，其余参数作为查询参数
+     */
+    private final String uploadField;
+
+    /**
+     * 响应是否为文件，以 Blob 或流读取而不是解析为 JSON
+     */
+    private final boolean download;
+
+    /**
+     * 是否以 gzip 压缩请求体，只对 GET 以外的请求方法生效
+     */
+    private final boolean compressRequest;
+
+    /**
+     * 压缩请求体的最小字节数，JSON 文本小于该大小时不压缩
+     */
+    private final long compressMinBytes;
+
+    /**
+     * 流式响应的读取方式，{@link #STREAM_SSE} 或 {@link #STREAM_NDJSON}，为 null 表示响应一次性读取
+     */
+    private final String stream;
+
+    private ApiCallOptions(boolean batched, long cacheTtlMs, String cacheGroup, String invalidatedGroup, String endpointId,
+                           long timeoutMs, long hedgeAfterMs, String upload, String uploadField, boolean download,
+                           boolean compressRequest, long compressMinBytes, String stream) {
+        this.batched = batched;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheGroup = cacheGroup;
+        this.invalidatedGroup = invalidatedGroup;
+        this.endpointId = endpointId;
+        this.timeoutMs = timeoutMs;
+        this.hedgeAfterMs = hedgeAfterMs;
+        this.upload = upload;
+        this.uploadField = uploadField;
+        this.download = download;
+        this.compressRequest = compressRequest;
+        this.compressMinBytes = compressMinBytes;
+        this.stream = stream;
+    }
+
+    public ApiCallOptions withBatched(boolean batched) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withCache(long cacheTtlMs, String cacheGroup) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withInvalidatedGroup(String invalidatedGroup) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withEndpointId(String endpointId) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withTimeout(long timeoutMs) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withHedgeAfter(long hedgeAfterMs) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withUpload(String upload, String uploadField) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withDownload(boolean download) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withCompressRequest(boolean compressRequest, long compressMinBytes) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public ApiCallOptions withStream(String stream) {
+        return new ApiCallOptions(batched, cacheTtlMs, cacheGroup, invalidatedGroup, endpointId, timeoutMs, hedgeAfterMs,
+                upload, uploadField, download, compressRequest, compressMinBytes, stream);
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    public String getCacheGroup() {
+        return cacheGroup;
+    }
+
+    public String getInvalidatedGroup() {
+        return invalidatedGroup;
+    }
+
+    public String getEndpointId() {
+        return endpointId;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public long getHedgeAfterMs() {
+        return hedgeAfterMs;
+    }
+
+    public String getUpload() {
+        return upload;
+    }
+
+    public String getUploadField() {
+        return uploadField;
+    }
+
+    public boolean isDownload() {
+        return download;
+    }
+
+    public boolean isCompressRequest() {
+        return compressRequest;
+    }
+
+    public long getCompressMinBytes() {
+        return compressMinBytes;
+    }
+
+    public String getStream() {
+        return stream;
+    }
+
+    /**
+     * 是否为文件上传、下载或流式响应，这样的接口方法接受包含 signal 和进度回调的 options 参数
+     */
+    public boolean isTransfer() {
+        return upload != null || download || stream != null;
+    }
+
+    public boolean isCached() {
+        return cacheTtlMs > 0;
+    }
+
+    /**
+     * 是否为默认的调用方式，默认时不需要运行时模块
+     */
+    public boolean isDefault() {
+        return !batched && !isCached() && invalidatedGroup == null && endpointId == null && timeoutMs <= 0 && hedgeAfterMs <= 0
+                && !isTransfer() && !compressRequest;
+    }
+
+    /**
+     * 调用方式的文本形式，参与指纹计算
+     */
+    @Override
+    public String toString() {
+        return "batched=" + batched + ",cacheTtlMs=" + cacheTtlMs + ",cacheGroup=" + cacheGroup
+                + ",invalidatedGroup=" + invalidatedGroup + ",endpointId=" + endpointId
+                + ",timeoutMs=" + timeoutMs + ",hedgeAfterMs=" + hedgeAfterMs
+                + ",upload=" + upload + ",uploadField=" + uploadField + ",download=" + download
+                + ",compressRequest=" + compressRequest + ",compressMinBytes=" + compressMinBytes + ",stream=" + stream;
+    }
+}
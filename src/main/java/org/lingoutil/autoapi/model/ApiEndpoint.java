@@ -0,0 +1,74 @@
+package org.lingoutil.autoapi.model;
+
+import java.util.List;
+
+/**
+ * 标注了 {@link org.lingoutil.autoapi.annotation.AutoApi} 的接口方法。
+ */
+public class ApiEndpoint {
+
+    /**
+     * Controller 中的方法名
+     */
+    private final String name;
+
+    /**
+     * 已解析的完整请求路径
+     */
+    private final String path;
+
+    /**
+     * 已解析的请求方法，如 get、post
+     */
+    private final String httpMethod;
+
+    private final String description;
+
+    /**
+     * 方法的全部参数（包括需要跳过的 Servlet 参数），顺序与声明一致
+     */
+    private final List<ApiParameter> parameters;
+
+    /**
+     * 前端的调用方式
+     */
+    private final ApiCallOptions callOptions;
+
+    public ApiEndpoint(String name, String path, String httpMethod, String description, List<ApiParameter> parameters) {
+        this(name, path, httpMethod, description, parameters, ApiCallOptions.DEFAULT);
+    }
+
+    public ApiEndpoint(String name, String path, String httpMethod, String description, List<ApiParameter> parameters,
+                       ApiCallOptions callOptions) {
+        this.name = name;
+        this.path = path;
+        this.httpMethod = httpMethod;
+        this.description = description;
+        this.parameters = parameters;
+        this.callOptions = callOptions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<ApiParameter> getParameters() {
+        return parameters;
+    }
+
+    public ApiCallOptions getCallOptions() {
+        return callOptions;
+    }
+}
@@ -0,0 +1,63 @@
+package org.lingoutil.autoapi.model;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 一个 Controller 对应的前端 API 模块。
+ * 由反射或注解处理器构建，交给渲染器输出为 JavaScript 文件。
+ */
+public class ApiModule {
+
+    /**
+     * 模块名称，即生成的文件名（不含后缀），如 UserApi
+     */
+    private final String name;
+
+    private final List<ApiEndpoint> endpoints;
+
+    public ApiModule(String name, List<ApiEndpoint> endpoints) {
+        this.name = name;
+        this.endpoints = endpoints;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<ApiEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 收集接口参数中可达的全部类型结构，包括字段和泛型实参中的类型，即渲染时需要展开的 DTO 和枚举。
+     *
+     * @return 类型结构，按实例去重
+     */
+    public Set<TypeSchema> collectSchemas() {
+        Set<TypeSchema> schemas = Collections.newSetFromMap(new IdentityHashMap<TypeSchema, Boolean>());
+        Deque<TypeRef> pending = new ArrayDeque<>();
+        for (ApiEndpoint endpoint : endpoints) {
+            for (ApiParameter parameter : endpoint.getParameters()) {
+                if (!parameter.isIgnored()) {
+                    pending.add(parameter.getType());
+                }
+            }
+        }
+        while (!pending.isEmpty()) {
+            TypeRef type = pending.poll();
+            pending.addAll(type.getTypeArguments());
+            TypeSchema schema = type.getSchema();
+            if (schema != null && schemas.add(schema)) {
+                for (FieldSchema field : schema.getFields()) {
+                    pending.add(field.getType());
+                }
+            }
+        }
+        return schemas;
+    }
+}
@@ -0,0 +1,57 @@
+package org.lingoutil.autoapi.model;
+
+/**
+ * 接口方法的参数。
+ */
+public class ApiParameter {
+
+    private final String name;
+
+    /**
+     * 参数类型的简单类名
+     */
+    private final String typeName;
+
+    /**
+     * 是否为 Request、Response、Session 等不需要前端传递的参数
+     */
+    private final boolean ignored;
+
+    /**
+     * 参数为 @RequestBody 或自定义对象时的类型结构，否则为 null
+     */
+    private final TypeSchema schema;
+
+    /**
+     * 参数声明的类型，包含泛型实参
+     */
+    private final TypeRef type;
+
+    public ApiParameter(String name, String typeName, boolean ignored, TypeSchema schema, TypeRef type) {
+        this.name = name;
+        this.typeName = typeName;
+        this.ignored = ignored;
+        this.schema = schema;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    public TypeSchema getSchema() {
+        return schema;
+    }
+
+    public TypeRef getType() {
+        return type;
+    }
+}
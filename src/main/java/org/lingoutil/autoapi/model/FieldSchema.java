@@ -0,0 +1,47 @@
+package org.lingoutil.autoapi.model;
+
+/**
+ * 自定义对象中的字段。
+ */
+public class FieldSchema {
+
+    private final String name;
+
+    /**
+     * 字段擦除后类型的简单类名
+     */
+    private final String typeName;
+
+    /**
+     * 字段擦除后的类型为自定义对象时的类型结构，否则为 null
+     */
+    private final TypeSchema schema;
+
+    /**
+     * 字段声明的类型，包含泛型实参
+     */
+    private final TypeRef type;
+
+    public FieldSchema(String name, String typeName, TypeSchema schema, TypeRef type) {
+        this.name = name;
+        this.typeName = typeName;
+        this.schema = schema;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public TypeSchema getSchema() {
+        return schema;
+    }
+
+    public TypeRef getType() {
+        return type;
+    }
+}
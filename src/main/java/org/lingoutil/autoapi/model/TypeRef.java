@@ -0,0 +1,82 @@
+package org.lingoutil.autoapi.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 字段上对类型的一次使用，带有泛型实参，如 {@code List<UserDto>}、{@code Map<String, Long>}、{@code T}。
+ */
+public class TypeRef {
+
+    /**
+     * 原始类型的简单类名，数组为 {@code 元素类型[]}，类型变量为变量名
+     */
+    private final String typeName;
+
+    /**
+     * 原始类型为自定义对象时的类型结构，否则为 null
+     */
+    private final TypeSchema schema;
+
+    /**
+     * 泛型实参；数组时为其元素类型
+     */
+    private final List<TypeRef> typeArguments;
+
+    private final boolean array;
+
+    private final boolean typeVariable;
+
+    public TypeRef(String typeName, TypeSchema schema, List<TypeRef> typeArguments, boolean array, boolean typeVariable) {
+        this.typeName = typeName;
+        this.schema = schema;
+        this.typeArguments = typeArguments;
+        this.array = array;
+        this.typeVariable = typeVariable;
+    }
+
+    /**
+     * 不带泛型实参的普通类型
+     */
+    public static TypeRef of(String typeName, TypeSchema schema) {
+        return new TypeRef(typeName, schema, Collections.<TypeRef>emptyList(), false, false);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public TypeSchema getSchema() {
+        return schema;
+    }
+
+    public List<TypeRef> getTypeArguments() {
+        return typeArguments;
+    }
+
+    public boolean isArray() {
+        return array;
+    }
+
+    public boolean isTypeVariable() {
+        return typeVariable;
+    }
+
+    /**
+     * 以 Java 源码形式描述该类型，如 {@code List<UserDto>}、{@code int[]}
+     */
+    @Override
+    public String toString() {
+        if (array || typeArguments.isEmpty()) {
+            return typeName;
+        }
+        StringBuilder builder = new StringBuilder(typeName).append('<');
+        for (int i = 0; i < typeArguments.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(typeArguments.get(i));
+        }
+        return builder.append('>').toString();
+    }
+}
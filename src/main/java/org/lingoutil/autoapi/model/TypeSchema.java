@@ -0,0 +1,62 @@
+package org.lingoutil.autoapi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自定义对象（DTO）的类型结构。
+ * 同一类型在一次生成中只解析一次，所有方法和 Controller 引用同一个实例，因此递归类型会形成环，由渲染时检测。
+ */
+public class TypeSchema {
+
+    /**
+     * 全限定类名，作为类型的唯一标识
+     */
+    private final String qualifiedName;
+
+    private final String simpleName;
+
+    private final boolean enumType;
+
+    /**
+     * 泛型类型的类型参数名，如 {@code PageResult<T>} 中的 T
+     */
+    private final List<String> typeParameters = new ArrayList<>();
+
+    private final List<FieldSchema> fields = new ArrayList<>();
+
+    /**
+     * 枚举类型的枚举常量名
+     */
+    private final List<String> enumConstants = new ArrayList<>();
+
+    public TypeSchema(String qualifiedName, String simpleName, boolean enumType) {
+        this.qualifiedName = qualifiedName;
+        this.simpleName = simpleName;
+        this.enumType = enumType;
+    }
+
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    public boolean isEnumType() {
+        return enumType;
+    }
+
+    public List<String> getTypeParameters() {
+        return typeParameters;
+    }
+
+    public List<FieldSchema> getFields() {
+        return fields;
+    }
+
+    public List<String> getEnumConstants() {
+        return enumConstants;
+    }
+}
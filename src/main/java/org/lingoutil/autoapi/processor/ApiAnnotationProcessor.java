@@ -0,0 +1,383 @@
+package org.lingoutil.autoapi.processor;
+
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.emitter.ApiEmitters;
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.generator.ApiRuntimeOptions;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.util.FileUtils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期生成前端 API 代码的注解处理器。
+ * 在 javac 编译时读取 {@link GenerateApi}、{@link org.lingoutil.autoapi.annotation.AutoApi} 和 RequestMapping 注解，
+ * 通过 {@link javax.annotation.processing.Filer} 写出与运行时反射生成逐字节一致的 JavaScript 文件，
+ * 配合 {@code lingo-util.auto-api.enable=false} 关闭运行时生成后，应用启动时不再有任何生成开销。
+ * <p>
+ * 参数名取自源码，运行时需使用 {@code -parameters} 编译才能得到一致的参数名。
+ * <p>
+ * 输出目录中的 {@value #INDEX_FILE} 记录上次生成的全部 Controller。增量编译只编译部分 Controller 时，
+ * 从已编译的类中读取其余 Controller，共享文件（如 TypeScript 的 types.ts）和运行时模块仍包含全部模块。
+ * <p>
+ * 支持的编译参数：
+ * <ul>
+ *     <li>{@code -Aautoapi.outputDir=auto-api}：输出目录，相对于 {@code autoapi.location}</li>
+ *     <li>{@code -Aautoapi.location=SOURCE_OUTPUT}：输出位置，可选 SOURCE_OUTPUT、CLASS_OUTPUT</li>
+ *     <li>{@code -Aautoapi.schemaReferences=false}：对应 {@code lingo-util.auto-api.schema-references}</li>
+ *     <li>{@code -Aautoapi.maxDepth=0}：对应 {@code lingo-util.auto-api.max-depth}</li>
+ *     <li>{@code -Aautoapi.emitter=request}：对应 {@code lingo-util.auto-api.emitter}</li>
+ *     <li>{@code -Aautoapi.batchPath=/auto-api-batch}：对应 {@code lingo-util.auto-api.batch-path}</li>
+ *     <li>{@code -Aautoapi.batchWindow=10}：对应 {@code lingo-util.auto-api.batch-window}</li>
+ *     <li>{@code -Aautoapi.batchMaxSize=20}：对应 {@code lingo-util.auto-api.batch-max-size}</li>
+ *     <li>{@code -Aautoapi.cacheMaxEntries=200}：对应 {@code lingo-util.auto-api.cache-max-entries}</li>
+ *     <li>{@code -Aautoapi.telemetry=true}：对应 {@code lingo-util.auto-api.telemetry}</li>
+ *     <li>{@code -Aautoapi.telemetryPath=/auto-api-telemetry}：对应 {@code lingo-util.auto-api.telemetry-path}</li>
+ *     <li>{@code -Aautoapi.telemetrySampleRate=1.0}：对应 {@code lingo-util.auto-api.telemetry-sample-rate}</li>
+ *     <li>{@code -Aautoapi.uploadChunkSize=8388608}：对应 {@code lingo-util.auto-api.upload-chunk-size}</li>
+ * </ul>
+ */
+@SupportedAnnotationTypes("org.lingoutil.autoapi.annotation.GenerateApi")
+@SupportedOptions({
+        ApiAnnotationProcessor.OPTION_OUTPUT_DIR,
+        ApiAnnotationProcessor.OPTION_LOCATION,
+        ApiAnnotationProcessor.OPTION_SCHEMA_REFERENCES,
+        ApiAnnotationProcessor.OPTION_MAX_DEPTH,
+        ApiAnnotationProcessor.OPTION_EMITTER,
+        ApiAnnotationProcessor.OPTION_BATCH_PATH,
+        ApiAnnotationProcessor.OPTION_BATCH_WINDOW,
+        ApiAnnotationProcessor.OPTION_BATCH_MAX_SIZE,
+        ApiAnnotationProcessor.OPTION_CACHE_MAX_ENTRIES,
+        ApiAnnotationProcessor.OPTION_TELEMETRY,
+        ApiAnnotationProcessor.OPTION_TELEMETRY_PATH,
+        ApiAnnotationProcessor.OPTION_TELEMETRY_SAMPLE_RATE,
+        ApiAnnotationProcessor.OPTION_UPLOAD_CHUNK_SIZE
+})
+public class ApiAnnotationProcessor extends AbstractProcessor {
+
+    public static final String OPTION_OUTPUT_DIR = "autoapi.outputDir";
+    public static final String OPTION_LOCATION = "autoapi.location";
+    public static final String OPTION_SCHEMA_REFERENCES = "autoapi.schemaReferences";
+    public static final String OPTION_MAX_DEPTH = "autoapi.maxDepth";
+    public static final String OPTION_EMITTER = "autoapi.emitter";
+    public static final String OPTION_BATCH_PATH = "autoapi.batchPath";
+    public static final String OPTION_BATCH_WINDOW = "autoapi.batchWindow";
+    public static final String OPTION_BATCH_MAX_SIZE = "autoapi.batchMaxSize";
+    public static final String OPTION_CACHE_MAX_ENTRIES = "autoapi.cacheMaxEntries";
+    public static final String OPTION_TELEMETRY = "autoapi.telemetry";
+    public static final String OPTION_TELEMETRY_PATH = "autoapi.telemetryPath";
+    public static final String OPTION_TELEMETRY_SAMPLE_RATE = "autoapi.telemetrySampleRate";
+    public static final String OPTION_UPLOAD_CHUNK_SIZE = "autoapi.uploadChunkSize";
+
+    private static final String DEFAULT_OUTPUT_DIR = "auto-api";
+
+    /**
+     * 记录已生成的 Controller 全限定名的文件，每行一个
+     */
+    static final String INDEX_FILE = "auto-api.index";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * 所有轮次中构建的模块及其 Controller。模块文件的类型名可能与其他模块有关（如 TypeScript 中简单类名相同的 DTO），
+     * 因此在最后一轮与共享文件一起统一输出
+     */
+    private final Map<ApiModule, TypeElement> modules = new LinkedHashMap<>();
+
+    /**
+     * 已输出的模块文件名到对应的 Controller，用于检查不同包中同名的 Controller
+     */
+    private final Map<String, TypeElement> moduleFiles = new HashMap<>();
+
+    /**
+     * 由编译参数解析出的渲染选项，只解析一次，参数无效时只报告一次
+     */
+    private ApiRenderOptions renderOptions;
+
+    /**
+     * 由编译参数解析出的输出位置，只解析一次
+     */
+    private StandardLocation location;
+
+    private ElementModelBuilder modelBuilder;
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeFiles();
+            return false;
+        }
+        if (annotations.isEmpty()) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateApi.class)) {
+            addModule(element);
+        }
+        return false;
+    }
+
+    private void addModule(Element element) {
+        if (element.getKind() != ElementKind.CLASS || !element.getAnnotation(GenerateApi.class).enabled()) {
+            return;
+        }
+        if (modelBuilder == null) {
+            modelBuilder = new ElementModelBuilder(processingEnv, Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_TELEMETRY)));
+        }
+        TypeElement controller = (TypeElement) element;
+        ApiModule module = modelBuilder.buildModule(controller);
+        if (!isDuplicate(module, controller)) {
+            modules.put(module, controller);
+        }
+    }
+
+    /**
+     * 加入上次生成过、本次编译中没有的 Controller，这些 Controller 从已编译的类中读取；已删除或不再标注的跳过。
+     */
+    private void addPreviousModules() {
+        Set<String> seen = new HashSet<>();
+        for (TypeElement controller : modules.values()) {
+            seen.add(controller.getQualifiedName().toString());
+        }
+        for (String name : readIndex()) {
+            if (seen.contains(name)) {
+                continue;
+            }
+            TypeElement controller = processingEnv.getElementUtils().getTypeElement(name);
+            if (controller != null && controller.getAnnotation(GenerateApi.class) != null) {
+                addModule(controller);
+            }
+        }
+    }
+
+    private List<String> readIndex() {
+        List<String> names = new ArrayList<>();
+        try {
+            FileObject index = processingEnv.getFiler().getResource(location(), "", relativeName(INDEX_FILE));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        names.add(line.trim());
+                    }
+                }
+            }
+        }
+        catch (IOException | IllegalArgumentException e) {
+            // 首次生成或输出目录已清空，本次编译即全部 Controller
+        }
+        return names;
+    }
+
+    /**
+     * 检查模块文件名是否已由其他 Controller 输出，不同包中的同名 Controller 会生成同名的文件，
+     * 此时在两个 Controller 上都报告错误，不再输出后者，避免 Filer 抛出含义不明的 FilerException。
+     */
+    private boolean isDuplicate(ApiModule module, TypeElement controller) {
+        String fileName = ApiModuleRenderer.fileName(module, renderOptions());
+        TypeElement existing = moduleFiles.putIfAbsent(fileName, controller);
+        if (existing == null || existing.equals(controller)) {
+            return false;
+        }
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, "autoAPI api file " + fileName + " of controller "
+                + controller.getQualifiedName() + " clashes with controller " + existing.getQualifiedName()
+                + ", rename one of them or disable @GenerateApi", controller);
+        messager.printMessage(Diagnostic.Kind.ERROR, "autoAPI api file " + fileName + " of controller "
+                + existing.getQualifiedName() + " clashes with controller " + controller.getQualifiedName()
+                + ", rename one of them or disable @GenerateApi", existing);
+        return true;
+    }
+
+    private void writeModule(ApiModule module, TypeElement controller, ApiRenderOptions options) throws IOException {
+        StringBuilder content = ApiModuleRenderer.newBuffer(module);
+        ApiModuleRenderer.render(module, content, options);
+        writeFile(ApiModuleRenderer.fileName(module, options), content, controller);
+    }
+
+    /**
+     * 根据全部模块生成各模块文件、共享文件（如 TypeScript 的 types.ts）、运行时模块和 Controller 记录。
+     */
+    private void writeFiles() {
+        if (modules.isEmpty()) {
+            return;
+        }
+        addPreviousModules();
+        List<ApiModule> allModules = new ArrayList<>(modules.keySet());
+        ApiRenderOptions options = ApiModuleRenderer.prepare(allModules, renderOptions());
+        for (Map.Entry<ApiModule, TypeElement> entry : modules.entrySet()) {
+            try {
+                writeModule(entry.getKey(), entry.getValue(), options);
+            }
+            catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "autoAPI failed to generate api file: " + e.getMessage(), entry.getValue());
+            }
+        }
+
+        StringBuilder sharedContent = new StringBuilder();
+        writeSharedFile(ApiModuleRenderer.renderShared(allModules, sharedContent, options), sharedContent);
+        StringBuilder runtimeContent = new StringBuilder();
+        writeSharedFile(ApiModuleRenderer.renderRuntime(allModules, runtimeContent, options), runtimeContent);
+
+        Set<String> names = new TreeSet<>();
+        for (TypeElement controller : modules.values()) {
+            names.add(controller.getQualifiedName().toString());
+        }
+        StringBuilder index = new StringBuilder();
+        for (String name : names) {
+            index.append(name).append('\n');
+        }
+        writeSharedFile(INDEX_FILE, index);
+    }
+
+    private void writeSharedFile(String fileName, CharSequence content) {
+        if (fileName == null) {
+            return;
+        }
+        try {
+            writeFile(fileName, content);
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "autoAPI failed to generate shared file: " + e.getMessage());
+        }
+    }
+
+    private void writeFile(String fileName, CharSequence content, Element... originatingElements) throws IOException {
+        FileObject fileObject = processingEnv.getFiler().createResource(location(), "", relativeName(fileName), originatingElements);
+
+        // 与运行时一致，固定使用 UTF-8 编码，不受编译参数 -encoding 影响
+        try (Writer writer = new OutputStreamWriter(fileObject.openOutputStream(), StandardCharsets.UTF_8)) {
+            writer.append(content);
+        }
+    }
+
+    private String relativeName(String fileName) {
+        String outputDir = processingEnv.getOptions().get(OPTION_OUTPUT_DIR);
+        if (outputDir == null) {
+            outputDir = DEFAULT_OUTPUT_DIR;
+        }
+        return outputDir.isEmpty() ? fileName : FileUtils.guaranteeEndWithSlash(outputDir) + fileName;
+    }
+
+    /**
+     * 读取输出位置，参数无效时报告错误并使用 SOURCE_OUTPUT，而不是让 javac 因异常中止。
+     */
+    private StandardLocation location() {
+        if (location == null) {
+            String value = processingEnv.getOptions().get(OPTION_LOCATION);
+            location = StandardLocation.SOURCE_OUTPUT;
+            if (value != null) {
+                String name = value.trim();
+                if (StandardLocation.CLASS_OUTPUT.name().equals(name)) {
+                    location = StandardLocation.CLASS_OUTPUT;
+                }
+                else if (!StandardLocation.SOURCE_OUTPUT.name().equals(name)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "autoAPI option -A" + OPTION_LOCATION
+                            + " must be SOURCE_OUTPUT or CLASS_OUTPUT, got '" + value + "'");
+                }
+            }
+        }
+        return location;
+    }
+
+    private ApiRenderOptions renderOptions() {
+        if (renderOptions == null) {
+            String schemaReferences = processingEnv.getOptions().get(OPTION_SCHEMA_REFERENCES);
+            renderOptions = new ApiRenderOptions(Boolean.parseBoolean(schemaReferences), intOption(OPTION_MAX_DEPTH, 0),
+                    emitter(), runtimeOptions());
+        }
+        return renderOptions;
+    }
+
+    /**
+     * 读取输出器名称，没有该输出器时报告错误并使用默认的输出器，而不是让 javac 因异常中止。
+     */
+    private String emitter() {
+        String value = processingEnv.getOptions().get(OPTION_EMITTER);
+        if (value == null || value.trim().isEmpty()) {
+            return ApiEmitters.DEFAULT;
+        }
+        if (!ApiEmitters.names().contains(value.trim())) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "autoAPI option -A" + OPTION_EMITTER
+                    + " must be one of " + ApiEmitters.names() + ", got '" + value + "'");
+            return ApiEmitters.DEFAULT;
+        }
+        return value.trim();
+    }
+
+    private ApiRuntimeOptions runtimeOptions() {
+        String batchPath = processingEnv.getOptions().get(OPTION_BATCH_PATH);
+        String telemetryPath = processingEnv.getOptions().get(OPTION_TELEMETRY_PATH);
+        String telemetrySampleRate = processingEnv.getOptions().get(OPTION_TELEMETRY_SAMPLE_RATE);
+        return new ApiRuntimeOptions(batchPath == null ? ApiRuntimeOptions.DEFAULT_BATCH_PATH : batchPath,
+                intOption(OPTION_BATCH_WINDOW, ApiRuntimeOptions.DEFAULT_BATCH_WINDOW),
+                intOption(OPTION_BATCH_MAX_SIZE, ApiRuntimeOptions.DEFAULT_BATCH_MAX_SIZE),
+                intOption(OPTION_CACHE_MAX_ENTRIES, ApiRuntimeOptions.DEFAULT_CACHE_MAX_ENTRIES),
+                telemetryPath == null ? ApiRuntimeOptions.DEFAULT_TELEMETRY_PATH : telemetryPath,
+                telemetrySampleRate(telemetrySampleRate),
+                Math.max(1, intOption(OPTION_UPLOAD_CHUNK_SIZE, ApiRuntimeOptions.DEFAULT_UPLOAD_CHUNK_SIZE)));
+    }
+
+    /**
+     * 读取整数编译参数，参数不是整数时报告错误并使用默认值，而不是让 javac 因异常中止。
+     */
+    private int intOption(String name, int defaultValue) {
+        String value = processingEnv.getOptions().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "autoAPI option -A" + name + " must be an integer, got '" + value + "'");
+            return defaultValue;
+        }
+    }
+
+    private double telemetrySampleRate(String value) {
+        if (value == null) {
+            return ApiRuntimeOptions.DEFAULT_TELEMETRY_SAMPLE_RATE;
+        }
+        try {
+            return Math.max(0, Math.min(1, Double.parseDouble(value.trim())));
+        }
+        catch (NumberFormatException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "autoAPI option -A" + OPTION_TELEMETRY_SAMPLE_RATE + " must be a number, got '" + value + "'");
+            return ApiRuntimeOptions.DEFAULT_TELEMETRY_SAMPLE_RATE;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package org.lingoutil.autoapi.processor;
+
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.generator.ApiCallPolicies;
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.StreamingTypes;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.ApiParameter;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeRef;
+import org.lingoutil.autoapi.model.TypeSchema;
+import org.lingoutil.autoapi.util.FileUtils;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.*;
+
+/**
+ * 在编译期根据源码模型构建 {@link ApiModule}。
+ * 判断规则与 {@link org.lingoutil.autoapi.generator.ApiMethodBuilder} 的反射实现一一对应。
+ */
+class ElementModelBuilder {
+
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+    private static final String REQUEST_BODY = "org.springframework.web.bind.annotation.RequestBody";
+
+    /**
+     * 不需要前端传递的 Servlet 参数类型
+     */
+    private static final String[] IGNORED_TYPES = {
+            "jakarta.servlet.http.HttpServletRequest",
+            "jakarta.servlet.http.HttpServletResponse",
+            "jakarta.servlet.http.HttpSession"
+    };
+
+    /**
+     * 非自定义对象的类型，与 TypeSchemaResolver#isCustomObject 保持一致
+     */
+    private static final Set<String> SIMPLE_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.Boolean",
+            "java.lang.Character",
+            "java.lang.Byte",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.lang.String",
+            "java.util.Date",
+            "java.time.LocalDate",
+            "java.time.LocalDateTime",
+            "java.time.LocalTime",
+            "java.time.ZonedDateTime"
+    ));
+
+    private static final Set<String> COLLECTION_TYPES = Collections.singleton("java.util.Collection");
+
+    /**
+     * 方法的输出顺序：先按方法名，再按参数个数，与 ApiMethodBuilder 一致
+     */
+    private static final Comparator<ExecutableElement> METHOD_ORDER =
+            Comparator.comparing((ExecutableElement method) -> method.getSimpleName().toString())
+                    .thenComparingInt(method -> method.getParameters().size());
+
+    private final Elements elements;
+
+    private final Types types;
+
+    /**
+     * 是否为接口方法生成记录耗时使用的接口标识
+     */
+    private final boolean telemetry;
+
+    private final List<TypeMirror> ignoredTypes = new ArrayList<>();
+
+    /**
+     * 本轮处理中已解析的类型结构，按二进制类名缓存，所有 Controller 共享
+     */
+    private final Map<String, TypeSchema> schemas = new HashMap<>();
+
+    ElementModelBuilder(ProcessingEnvironment processingEnv, boolean telemetry) {
+        this.telemetry = telemetry;
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        for (String ignoredType : IGNORED_TYPES) {
+            TypeElement typeElement = elements.getTypeElement(ignoredType);
+            if (typeElement != null) {
+                ignoredTypes.add(types.erasure(typeElement.asType()));
+            }
+        }
+    }
+
+    /**
+     * 构建 Controller 对应的 API 模块。
+     *
+     * @param controller Controller 类元素
+     * @return API 模块
+     */
+    ApiModule buildModule(TypeElement controller) {
+        // 与 Class#getName 一致，使用二进制名称计算文件名
+        String binaryName = elements.getBinaryName(controller).toString();
+        String controllerName = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+        String apiFileName = controllerName.replace("Controller", "Api");
+
+        String controllerPath = FileUtils.guaranteeStartWithSlash(firstPath(controller));
+
+        GenerateApi generateApi = controller.getAnnotation(GenerateApi.class);
+        boolean batching = generateApi != null && generateApi.batching();
+
+        List<ExecutableElement> methods = new ArrayList<>(ElementFilter.methodsIn(controller.getEnclosedElements()));
+        methods.sort(METHOD_ORDER);
+
+        List<ApiEndpoint> endpoints = new ArrayList<>();
+        for (ExecutableElement method : methods) {
+            AutoApi autoApiAnnotation = method.getAnnotation(AutoApi.class);
+            if (autoApiAnnotation == null) {
+                continue;
+            }
+
+            String methodPath = FileUtils.guaranteeStartWithSlash(firstPath(method));
+            String path = autoApiAnnotation.path().isEmpty() ? controllerPath + methodPath : autoApiAnnotation.path();
+            String httpMethod = autoApiAnnotation.method().isEmpty() ? autoSelectHttpMethod(method) : autoApiAnnotation.method();
+            String description = autoApiAnnotation.description();
+
+            ApiCallOptions callOptions = ApiCallPolicies.of(apiFileName, httpMethod, batching, autoApiAnnotation);
+            List<String> produces = produces(method);
+            callOptions = ApiCallPolicies.transfer(callOptions, httpMethod, hasMultipartParameter(method),
+                    autoApiAnnotation.chunkedUpload(), bodyParameterName(method), isDownload(method.getReturnType()),
+                    streamOf(method.getReturnType(), produces.isEmpty() ? produces(controller) : produces));
+            if (telemetry) {
+                callOptions = callOptions.withEndpointId(ApiCallPolicies.endpointId(controllerName,
+                        method.getSimpleName().toString(), httpMethod, path));
+            }
+            endpoints.add(new ApiEndpoint(method.getSimpleName().toString(), path, httpMethod, description,
+                    buildParameters(method), callOptions));
+        }
+        return new ApiModule(apiFileName, ApiCallPolicies.linkInvalidation(apiFileName, endpoints));
+    }
+
+    /**
+     * 获取元素上直接声明的 RequestMapping 注解的第一个路径，未声明时返回空字符串。
+     */
+    private String firstPath(Element element) {
+        AnnotationMirror requestMapping = findAnnotation(element, REQUEST_MAPPING);
+        if (requestMapping == null) {
+            return "";
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : requestMapping.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List && !((List<?>) value).isEmpty()) {
+                    return String.valueOf(((AnnotationValue) ((List<?>) value).get(0)).getValue());
+                }
+                if (value instanceof String) {
+                    return (String) value;
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 获取元素上直接声明的 RequestMapping 注解的 produces，未声明时返回空列表。
+     */
+    private List<String> produces(Element element) {
+        AnnotationMirror requestMapping = findAnnotation(element, REQUEST_MAPPING);
+        List<String> produces = new ArrayList<>();
+        if (requestMapping == null) {
+            return produces;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : requestMapping.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("produces")) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List) {
+                    for (Object item : (List<?>) value) {
+                        produces.add(String.valueOf(((AnnotationValue) item).getValue()));
+                    }
+                }
+                else if (value instanceof String) {
+                    produces.add((String) value);
+                }
+            }
+        }
+        return produces;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return annotationMirror;
+            }
+        }
+        return null;
+    }
+
+    private List<ApiParameter> buildParameters(ExecutableElement method) {
+        List<ApiParameter> apiParameters = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String parameterName = parameter.getSimpleName().toString();
+            TypeMirror parameterType = types.erasure(parameter.asType());
+            if (isIgnored(parameterType)) {
+                apiParameters.add(new ApiParameter(parameterName, simpleName(parameterType), true, null, null));
+                continue;
+            }
+
+            boolean isRequestBody = findAnnotation(parameter, REQUEST_BODY) != null;
+            // 文件参数不是 DTO，不展开其字段
+            boolean streaming = isMultipart(parameter.asType()) || isSubtype(parameterType, StreamingTypes.BODY_TYPES);
+            TypeSchema schema = !streaming && (isRequestBody || isCustomObject(parameterType)) ? resolveSchema(parameterType) : null;
+            apiParameters.add(new ApiParameter(parameterName, simpleName(parameterType), false, schema, resolveRef(parameter.asType())));
+        }
+        return apiParameters;
+    }
+
+    private String autoSelectHttpMethod(ExecutableElement method) {
+        for (VariableElement parameter : method.getParameters()) {
+            if (isCustomObject(types.erasure(parameter.asType())) || findAnnotation(parameter, REQUEST_BODY) != null) {
+                return ApiModuleRenderer.POST;
+            }
+        }
+        return hasMultipartParameter(method) || bodyParameterName(method) != null ? ApiModuleRenderer.POST : ApiModuleRenderer.GET;
+    }
+
+    private boolean hasMultipartParameter(ExecutableElement method) {
+        for (VariableElement parameter : method.getParameters()) {
+            if (isMultipart(parameter.asType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String bodyParameterName(ExecutableElement method) {
+        for (VariableElement parameter : method.getParameters()) {
+            if (isSubtype(parameter.asType(), StreamingTypes.BODY_TYPES)) {
+                return parameter.getSimpleName().toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断参数是否为以 multipart 表单上传的文件，包括文件的数组和集合，与 StreamingTypes#isMultipart 一致。
+     */
+    private boolean isMultipart(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isMultipart(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        if (isSubtype(type, StreamingTypes.MULTIPART_TYPES)) {
+            return true;
+        }
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        return typeArguments.size() == 1 && isSubtype(type, COLLECTION_TYPES) && isMultipart(typeArguments.get(0));
+    }
+
+    /**
+     * 判断返回值是否以文件下载，与 StreamingTypes#isDownload 一致。
+     */
+    private boolean isDownload(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        if (StreamingTypes.RESPONSE_WRAPPERS.contains(typeElement.getQualifiedName().toString())) {
+            List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+            return !typeArguments.isEmpty() && isDownload(typeArguments.get(0));
+        }
+        return isSubtype(type, StreamingTypes.DOWNLOAD_TYPES);
+    }
+
+    /**
+     * 判断接口的流式响应方式，与 StreamingTypes#streamOf 一致。
+     */
+    private String streamOf(TypeMirror type, List<String> produces) {
+        String stream = StreamingTypes.streamOf(produces);
+        if (stream != null || type.getKind() != TypeKind.DECLARED) {
+            return stream;
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        if (StreamingTypes.RESPONSE_WRAPPERS.contains(typeElement.getQualifiedName().toString())) {
+            return typeArguments.isEmpty() ? null : streamOf(typeArguments.get(0), Collections.<String>emptyList());
+        }
+        if (typeArguments.size() == 1 && typeArguments.get(0).getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) typeArguments.get(0)).asElement();
+            if (StreamingTypes.SSE_TYPES.contains(element.getQualifiedName().toString())) {
+                return ApiCallOptions.STREAM_SSE;
+            }
+        }
+        return isSubtype(type, StreamingTypes.SSE_TYPES) ? ApiCallOptions.STREAM_SSE : null;
+    }
+
+    private boolean isStreaming(TypeMirror type) {
+        return isSubtype(type, StreamingTypes.MULTIPART_TYPES) || isSubtype(type, StreamingTypes.BODY_TYPES)
+                || isSubtype(type, StreamingTypes.DOWNLOAD_TYPES);
+    }
+
+    /**
+     * 判断类型本身或其任一父类型的全限定名是否在给定的集合中。
+     */
+    private boolean isSubtype(TypeMirror type, Set<String> names) {
+        Deque<TypeMirror> pending = new ArrayDeque<>();
+        pending.add(types.erasure(type));
+        while (!pending.isEmpty()) {
+            TypeMirror current = pending.poll();
+            if (current.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) ((DeclaredType) current).asElement();
+            if (names.contains(typeElement.getQualifiedName().toString())) {
+                return true;
+            }
+            for (TypeMirror supertype : types.directSupertypes(current)) {
+                pending.add(types.erasure(supertype));
+            }
+        }
+        return false;
+    }
+
+    private boolean isIgnored(TypeMirror type) {
+        for (TypeMirror ignoredType : ignoredTypes) {
+            if (types.isAssignable(type, ignoredType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断给定类型是否为自定义对象，规则与 TypeSchemaResolver#isCustomObject 一致。
+     */
+    private boolean isCustomObject(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.ARRAY) {
+            return false;
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+            return !SIMPLE_TYPES.contains(typeElement.getQualifiedName().toString()) && !isStreaming(type);
+        }
+        return true;
+    }
+
+    /**
+     * 获取与 Class#getSimpleName 一致的简单类名。
+     */
+    private String simpleName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return simpleName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((DeclaredType) type).asElement().getSimpleName().toString();
+        }
+        return type.toString();
+    }
+
+    private TypeSchema resolveSchema(TypeMirror type) {
+        TypeElement typeElement = (TypeElement) types.asElement(type);
+        if (typeElement == null) {
+            // @RequestBody 标注的基本类型或数组，与反射一致，没有字段
+            return schemas.computeIfAbsent(type.toString(), name -> new TypeSchema(name, simpleName(type), false));
+        }
+        String qualifiedName = elements.getBinaryName(typeElement).toString();
+        TypeSchema schema = schemas.get(qualifiedName);
+        if (schema != null) {
+            return schema;
+        }
+
+        boolean enumType = typeElement.getKind() == ElementKind.ENUM;
+        schema = new TypeSchema(qualifiedName, typeElement.getSimpleName().toString(), enumType);
+        // 先登记再解析字段，递归类型会直接引用到当前实例
+        schemas.put(qualifiedName, schema);
+        if (enumType) {
+            for (Element enclosedElement : typeElement.getEnclosedElements()) {
+                if (enclosedElement.getKind() == ElementKind.ENUM_CONSTANT) {
+                    schema.getEnumConstants().add(enclosedElement.getSimpleName().toString());
+                }
+            }
+            return schema;
+        }
+
+        for (TypeParameterElement typeParameter : typeElement.getTypeParameters()) {
+            schema.getTypeParameters().add(typeParameter.getSimpleName().toString());
+        }
+
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            // 与 TypeSchemaResolver 一致跳过静态字段，编译器生成的字段不会作为元素出现
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            TypeMirror fieldType = types.erasure(field.asType());
+            TypeSchema fieldSchema = isCustomObject(fieldType) ? resolveSchema(fieldType) : null;
+            schema.getFields().add(new FieldSchema(field.getSimpleName().toString(), simpleName(fieldType), fieldSchema, resolveRef(field.asType())));
+        }
+        return schema;
+    }
+
+    /**
+     * 解析类型的一次使用，包含泛型实参，与 TypeSchemaResolver#resolveRef 一致。
+     */
+    private TypeRef resolveRef(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                TypeRef componentType = resolveRef(((ArrayType) type).getComponentType());
+                return new TypeRef(componentType + "[]", null, Collections.singletonList(componentType), true, false);
+            case DECLARED:
+                DeclaredType declaredType = (DeclaredType) type;
+                TypeMirror rawType = types.erasure(type);
+                List<TypeRef> typeArguments = new ArrayList<>();
+                for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+                    typeArguments.add(resolveRef(typeArgument));
+                }
+                TypeSchema schema = isCustomObject(rawType) ? resolveSchema(rawType) : null;
+                return new TypeRef(simpleName(rawType), schema, typeArguments, false, false);
+            case TYPEVAR:
+                return new TypeRef(((TypeVariable) type).asElement().getSimpleName().toString(), null, Collections.<TypeRef>emptyList(), false, true);
+            case WILDCARD:
+                TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+                return resolveRef(extendsBound != null ? extendsBound : elements.getTypeElement("java.lang.Object").asType());
+            default:
+                return TypeRef.of(simpleName(type), null);
+        }
+    }
+}
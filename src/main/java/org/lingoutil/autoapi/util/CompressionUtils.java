@@ -0,0 +1,43 @@
+package org.lingoutil.autoapi.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 提供压缩相关的实用工具方法。
+ */
+public class CompressionUtils {
+
+    private CompressionUtils() {
+    }
+
+    /**
+     * 以最高压缩率进行 gzip 压缩，不改变缓冲区的位置。
+     * 压缩结果中不包含时间戳，相同内容的压缩结果相同。
+     *
+     * @param content 内容
+     * @return 压缩后的内容
+     */
+    public static ByteBuffer gzip(ByteBuffer content) {
+        ByteBuffer source = content.duplicate();
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzipOutputStream.write(bytes);
+        }
+        catch (IOException e) {
+            // 内存中的流不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return ByteBuffer.wrap(outputStream.toByteArray());
+    }
+}
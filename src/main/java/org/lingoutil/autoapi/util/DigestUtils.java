@@ -0,0 +1,48 @@
+package org.lingoutil.autoapi.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 提供摘要相关的实用工具方法。
+ */
+public class DigestUtils {
+
+    private DigestUtils() {
+    }
+
+    /**
+     * 计算字符串 UTF-8 编码后的 SHA-256 摘要。
+     *
+     * @param content 内容
+     * @return 十六进制摘要
+     */
+    public static String sha256Hex(String content) {
+        return sha256Hex(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 计算字节内容的 SHA-256 摘要，不改变缓冲区的位置。
+     *
+     * @param content 内容
+     * @return 十六进制摘要
+     */
+    public static String sha256Hex(ByteBuffer content) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        messageDigest.update(content.duplicate());
+        byte[] digest = messageDigest.digest();
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
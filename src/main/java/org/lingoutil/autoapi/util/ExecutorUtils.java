@@ -0,0 +1,65 @@
+package org.lingoutil.autoapi.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 提供线程池相关的实用工具方法。
+ */
+public class ExecutorUtils {
+
+    private ExecutorUtils() {
+    }
+
+    /**
+     * 创建执行器。
+     * 启用虚拟线程且运行环境支持（JDK 21 及以上）时，每个任务使用一个虚拟线程，否则使用固定大小的守护线程池。
+     *
+     * @param namePrefix     线程名前缀
+     * @param parallelism    线程池大小
+     * @param virtualThreads 是否优先使用虚拟线程
+     * @return 执行器
+     */
+    public static ExecutorService newExecutor(String namePrefix, int parallelism, boolean virtualThreads) {
+        if (virtualThreads) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return Executors.newFixedThreadPool(parallelism, newDaemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * 创建守护线程工厂，线程名为 前缀-序号。
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程工厂
+     */
+    public static ThreadFactory newDaemonThreadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，以便在低版本 JDK 上编译和运行。
+     *
+     * @return 虚拟线程执行器，运行环境不支持时返回 null
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        }
+        catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package org.lingoutil.autoapi.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 提供 JSON 序列化相关的实用工具方法，避免为少量 JSON 输入输出引入额外依赖。
+ */
+public class JsonUtils {
+
+    /**
+     * 解析时允许的最大嵌套层数，避免恶意构造的输入导致栈溢出
+     */
+    private static final int MAX_PARSE_DEPTH = 64;
+
+    private JsonUtils() {
+    }
+
+    /**
+     * 将对象序列化为 JSON。
+     * 支持 Map、Collection、数组以外的 CharSequence、Number、Boolean 和 null，Map 的键按迭代顺序输出。
+     *
+     * @param value 对象
+     * @return JSON 字符串
+     */
+    public static String toJson(Object value) {
+        StringBuilder builder = new StringBuilder();
+        writeValue(builder, value);
+        return builder.toString();
+    }
+
+    private static void writeValue(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+        }
+        else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        }
+        else if (value instanceof Map) {
+            builder.append('{');
+            Iterator<? extends Map.Entry<?, ?>> iterator = ((Map<?, ?>) value).entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<?, ?> entry = iterator.next();
+                writeString(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                writeValue(builder, entry.getValue());
+                if (iterator.hasNext()) {
+                    builder.append(',');
+                }
+            }
+            builder.append('}');
+        }
+        else if (value instanceof Collection) {
+            builder.append('[');
+            Iterator<?> iterator = ((Collection<?>) value).iterator();
+            while (iterator.hasNext()) {
+                writeValue(builder, iterator.next());
+                if (iterator.hasNext()) {
+                    builder.append(',');
+                }
+            }
+            builder.append(']');
+        }
+        else {
+            writeString(builder, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+
+    /**
+     * 解析 JSON。
+     * 对象解析为 LinkedHashMap，数组解析为 ArrayList，整数解析为 Long（超出范围时为 Double），其余数字解析为 Double。
+     *
+     * @param json JSON 字符串
+     * @return 解析结果，JSON 为 null 时返回 null
+     * @throws IllegalArgumentException JSON 格式错误或嵌套过深
+     */
+    public static Object parse(String json) {
+        Parser parser = new Parser(json);
+        Object value = parser.readValue(0);
+        parser.skipWhitespace();
+        if (parser.position < json.length()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    private static class Parser {
+
+        private final String json;
+
+        private int position;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private Object readValue(int depth) {
+            if (depth > MAX_PARSE_DEPTH) {
+                throw error("Nesting too deep");
+            }
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw error("Unexpected end of input");
+            }
+            char c = json.charAt(position);
+            switch (c) {
+                case '{':
+                    return readObject(depth);
+                case '[':
+                    return readArray(depth);
+                case '"':
+                    return readString();
+                case 't':
+                    return readLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return readLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return readLiteral("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> readObject(int depth) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected string key");
+                }
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                    continue;
+                }
+                expect('}');
+                return object;
+            }
+        }
+
+        private List<Object> readArray(int depth) {
+            List<Object> array = new ArrayList<>();
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                    continue;
+                }
+                expect(']');
+                return array;
+            }
+        }
+
+        private String readString() {
+            StringBuilder builder = new StringBuilder();
+            position++;
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                if (position >= json.length()) {
+                    break;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > json.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        try {
+                            builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        }
+                        catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        builder.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Object readNumber() {
+            int start = position;
+            boolean integral = true;
+            while (position < json.length()) {
+                char c = json.charAt(position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    integral = false;
+                }
+                else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                position++;
+            }
+            String number = json.substring(start, position);
+            try {
+                if (integral) {
+                    try {
+                        return Long.parseLong(number);
+                    }
+                    catch (NumberFormatException e) {
+                        // 超出 long 的范围
+                        return Double.parseDouble(number);
+                    }
+                }
+                return Double.parseDouble(number);
+            }
+            catch (NumberFormatException e) {
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!json.startsWith(literal, position)) {
+                throw error("Unexpected token");
+            }
+            position += literal.length();
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private char peek() {
+            if (position >= json.length()) {
+                throw error("Unexpected end of input");
+            }
+            return json.charAt(position);
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position);
+        }
+    }
+}
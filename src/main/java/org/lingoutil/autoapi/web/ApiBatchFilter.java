@@ -0,0 +1,395 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiAotProcessor;
+import org.lingoutil.autoapi.generator.ApiGenerator;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.util.ExecutorUtils;
+import org.lingoutil.autoapi.util.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 分发前端合并发送的批量请求，如 {@code POST /auto-api-batch}。
+ * <p>
+ * 请求体为 {@code [{"method":"get","url":"/user/list","params":{...}}]}，每个子请求通过 RequestDispatcher
+ * 转发到原有的处理器（如 DispatcherServlet），在虚拟线程（JDK 21 以下为线程池）中并行执行，
+ * 响应为按请求顺序排列的 {@code [{"status":200,"body":...}]}。JSON 响应体原样嵌入，其他响应体作为字符串。
+ * <p>
+ * 只分发 {@code @GenerateApi(batching = true)} 的 Controller 中生成的 GET 接口，其他地址返回 403；
+ * 没有这样的接口时直接交给后续的过滤器。子请求沿用外层请求的请求头、会话和请求属性，
+ * 只经过注册了 FORWARD 的过滤器，认证等过滤器应当在本过滤器之前执行。子请求设置的 Cookie 按请求顺序写入外层响应。
+ * 超过 {@code batch-timeout} 仍未完成的子请求被取消（中断执行线程）并返回 504，所有子请求的线程结束后才返回响应，
+ * 外层请求对象被容器回收后不会再被子请求访问。
+ * 容器中有 {@link TaskDecorator} 时用它包装每个子请求，以便传递 SecurityContext、MDC 等线程上下文。
+ */
+@Component
+public class ApiBatchFilter implements Filter, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiBatchFilter.class);
+
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    /**
+     * 批量请求体的最大字节数
+     */
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    @Resource
+    private ApiGenerator apiGenerator;
+
+    @Resource
+    private ApplicationContext context;
+
+    private ExecutorService executor;
+
+    /**
+     * AOT 构建时记录的允许合并的接口路径，首次使用时读取
+     */
+    private Set<String> aotBatchedPaths;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        if (!"POST".equals(httpRequest.getMethod()) || !apiConfiguration.getBatchPath().equals(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Set<String> batchedPaths = batchedPaths();
+        if (batchedPaths.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        List<Map<?, ?>> calls;
+        try {
+            calls = parseCalls(httpRequest);
+        }
+        catch (IllegalArgumentException e) {
+            httpResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (calls.size() > apiConfiguration.getBatchMaxSize()) {
+            httpResponse.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Batch size exceeds " + apiConfiguration.getBatchMaxSize());
+            return;
+        }
+        for (Map<?, ?> call : calls) {
+            if (!batchedPaths.contains(String.valueOf(call.get("url")))) {
+                httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN, "Endpoint is not batchable: " + call.get("url"));
+                return;
+            }
+        }
+
+        List<FutureTask<BatchSubResponse>> tasks = new ArrayList<>(calls.size());
+        CountDownLatch finished = new CountDownLatch(calls.size());
+        for (Map<?, ?> call : calls) {
+            tasks.add(dispatch(httpRequest, httpResponse, call, finished));
+        }
+
+        StringBuilder body = new StringBuilder("[");
+        try {
+            long timeout = apiConfiguration.getBatchTimeout();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            for (int i = 0; i < tasks.size(); i++) {
+                body.append(i == 0 ? "" : ",");
+                FutureTask<BatchSubResponse> task = tasks.get(i);
+                try {
+                    BatchSubResponse subResponse = timeout < 1 ? task.get() : task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    subResponse.copyCookiesTo(httpResponse);
+                    writeResult(body, subResponse);
+                }
+                catch (TimeoutException e) {
+                    task.cancel(true);
+                    logger.warn("autoAPI batched request timed out after {} ms: {}", timeout, calls.get(i).get("url"));
+                    body.append("{\"status\":504,\"body\":null}");
+                }
+                catch (ExecutionException e) {
+                    logger.error("autoAPI failed to dispatch batched request: {}", calls.get(i).get("url"), e.getCause());
+                    body.append("{\"status\":500,\"body\":null}");
+                }
+                catch (CancellationException e) {
+                    // 应用关闭时未执行的子请求
+                    body.append("{\"status\":503,\"body\":null}");
+                }
+            }
+            // 被取消的子请求可能仍在使用外层请求，等待所有线程结束后再返回
+            finished.await();
+        }
+        catch (InterruptedException e) {
+            for (FutureTask<BatchSubResponse> task : tasks) {
+                task.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        body.append(']');
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        httpResponse.setStatus(HttpServletResponse.SC_OK);
+        httpResponse.setContentType(CONTENT_TYPE);
+        httpResponse.setHeader("Cache-Control", "no-store");
+        httpResponse.setContentLength(bytes.length);
+        httpResponse.getOutputStream().write(bytes);
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            if (executor != null) {
+                // 排队中未执行的子请求直接取消，等待它们的批量请求随之结束
+                for (Runnable runnable : executor.shutdownNow()) {
+                    if (runnable instanceof BatchCall) {
+                        ((BatchCall) runnable).skip();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取允许合并的接口路径，来自上次生成的模块；使用 AOT 产物运行时来自 AOT 构建时写出的资源文件。
+     */
+    private Set<String> batchedPaths() throws IOException {
+        if (AotDetector.useGeneratedArtifacts()) {
+            return aotBatchedPaths();
+        }
+        Set<String> paths = new HashSet<>();
+        for (ApiModule module : apiGenerator.getModules().values()) {
+            for (ApiEndpoint endpoint : module.getEndpoints()) {
+                if (endpoint.getCallOptions().isBatched()) {
+                    paths.add(endpoint.getPath());
+                }
+            }
+        }
+        return paths;
+    }
+
+    private synchronized Set<String> aotBatchedPaths() throws IOException {
+        if (aotBatchedPaths == null) {
+            Set<String> paths = new HashSet<>();
+            ClassLoader classLoader = ApiBatchFilter.class.getClassLoader();
+            try (InputStream input = classLoader.getResourceAsStream(ApiAotProcessor.BATCHED_PATHS_RESOURCE)) {
+                if (input != null) {
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = input.read(buffer)) >= 0) {
+                        content.write(buffer, 0, read);
+                    }
+                    for (String line : new String(content.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+                        if (!line.trim().isEmpty()) {
+                            paths.add(line.trim());
+                        }
+                    }
+                }
+            }
+            aotBatchedPaths = Collections.unmodifiableSet(paths);
+        }
+        return aotBatchedPaths;
+    }
+
+    /**
+     * 读取并校验请求体，每个子请求必须是带有 url 的 GET 请求。
+     */
+    private static List<Map<?, ?>> parseCalls(HttpServletRequest request) throws IOException {
+        Object json = JsonUtils.parse(readBody(request));
+        if (!(json instanceof List)) {
+            throw new IllegalArgumentException("Batch body must be an array");
+        }
+        List<Map<?, ?>> calls = new ArrayList<>();
+        for (Object item : (List<?>) json) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException("Batched call must be an object");
+            }
+            Map<?, ?> call = (Map<?, ?>) item;
+            Object method = call.get("method");
+            if (method != null && !"get".equalsIgnoreCase(String.valueOf(method))) {
+                throw new IllegalArgumentException("Only GET requests can be batched");
+            }
+            Object url = call.get("url");
+            if (!(url instanceof String) || !((String) url).startsWith("/")) {
+                throw new IllegalArgumentException("Batched call must have an absolute url");
+            }
+            Object params = call.get("params");
+            if (params != null && !(params instanceof Map)) {
+                throw new IllegalArgumentException("Batched call params must be an object");
+            }
+            calls.add(call);
+        }
+        return calls;
+    }
+
+    private static String readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Batch body is too large");
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream input = request.getInputStream()) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Batch body is too large");
+                }
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 在执行器中转发单个子请求。子请求对象在当前线程中创建，复制外层请求的属性。
+     *
+     * @param finished 子请求的线程结束（包括被取消而未执行）时计数
+     */
+    private FutureTask<BatchSubResponse> dispatch(HttpServletRequest request, HttpServletResponse response, Map<?, ?> call,
+                                                  CountDownLatch finished) throws IOException {
+        String target = call.get("url") + queryString((Map<?, ?>) call.get("params"));
+        RequestDispatcher dispatcher = request.getServletContext().getRequestDispatcher(target);
+        BatchSubRequest subRequest = new BatchSubRequest(request);
+        BatchSubResponse subResponse = new BatchSubResponse(response);
+        FutureTask<BatchSubResponse> task = new FutureTask<>(() -> {
+            dispatcher.forward(subRequest, subResponse);
+            return subResponse;
+        });
+
+        TaskDecorator decorator = context.getBeanProvider(TaskDecorator.class).getIfUnique();
+        BatchCall batchCall = new BatchCall(task, decorator == null ? task : decorator.decorate(task), finished);
+        try {
+            executor().execute(batchCall);
+        }
+        catch (RejectedExecutionException e) {
+            // 应用关闭时执行器已停止
+            batchCall.skip();
+        }
+        return task;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = ExecutorUtils.newExecutor("auto-api-batch", apiConfiguration.getBatchMaxSize(), true);
+        }
+        return executor;
+    }
+
+    /**
+     * 将参数编码为查询字符串，数组展开为同名的多个参数，与前端的 URLSearchParams 一致。
+     */
+    private static String queryString(Map<?, ?> params) throws UnsupportedEncodingException {
+        if (params == null || params.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<?, ?> entry : params.entrySet()) {
+            Object value = entry.getValue();
+            Collection<?> values = value instanceof Collection ? (Collection<?>) value : Collections.singletonList(value);
+            for (Object item : values) {
+                if (item == null) {
+                    continue;
+                }
+                String text = item instanceof Map ? JsonUtils.toJson(item) : String.valueOf(item);
+                query.append(query.length() == 0 ? '?' : '&')
+                        .append(URLEncoder.encode(String.valueOf(entry.getKey()), "UTF-8"))
+                        .append('=')
+                        .append(URLEncoder.encode(text, "UTF-8"));
+            }
+        }
+        return query.toString();
+    }
+
+    private static void writeResult(StringBuilder out, BatchSubResponse response) {
+        out.append("{\"status\":").append(response.getStatus()).append(",\"body\":");
+        String body = response.getBodyAsString();
+        String contentType = response.getContentType();
+        if (body.trim().isEmpty()) {
+            out.append("null");
+        }
+        else if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+            // 处理器输出的 JSON 原样嵌入，不重新解析
+            out.append(body);
+        }
+        else {
+            out.append(JsonUtils.toJson(body));
+        }
+        out.append('}');
+    }
+
+    /**
+     * 在执行器中运行的单个子请求，执行结束或被跳过时计数，批量请求据此等待所有子请求的线程结束。
+     */
+    private static class BatchCall implements Runnable {
+
+        private final FutureTask<BatchSubResponse> task;
+
+        private final Runnable runnable;
+
+        private final CountDownLatch finished;
+
+        BatchCall(FutureTask<BatchSubResponse> task, Runnable runnable, CountDownLatch finished) {
+            this.task = task;
+            this.runnable = runnable;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            }
+            finally {
+                finished.countDown();
+            }
+        }
+
+        /**
+         * 不执行子请求，直接取消。
+         */
+        void skip() {
+            task.cancel(false);
+            finished.countDown();
+        }
+    }
+}
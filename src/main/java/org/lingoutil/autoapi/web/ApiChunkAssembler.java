@@ -0,0 +1,415 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * 组装生成的客户端分片上传的大文件，对应 {@code @AutoApi(chunkedUpload = true)}。
+ * <p>
+ * 客户端把超过分片大小的文件拆成多个 multipart 请求依次发送到同一个接口，请求头
+ * {@value #UPLOAD_ID_HEADER}、{@value #UPLOAD_OFFSET_HEADER}、{@value #UPLOAD_LENGTH_HEADER}
+ * 分别为上传标识、分片在文件中的位置和文件大小。每个分片通过 FileChannel 直接写入临时文件的对应位置，
+ * 分片可以乱序或重复到达；已收到的区间记录在临时文件旁，服务重启后也能从中断的位置继续。
+ * 响应头 {@value #UPLOAD_OFFSET_HEADER} 返回从文件开头连续收到的字节数，客户端从该位置继续上传。
+ * <p>
+ * 接口方法中的用法：
+ * <pre>{@code
+ * if (ApiChunkAssembler.isChunk(request)) {
+ *     Path path = apiChunkAssembler.accept(request, response, file);
+ *     if (path == null) {
+ *         return null; // 还有分片未收到
+ *     }
+ *     // 处理完整的文件，处理完后移走或删除
+ * }
+ * }</pre>
+ * 临时文件保存在 {@code lingo-util.auto-api.upload-path} 下，超过 {@code lingo-util.auto-api.upload-expire}
+ * 未更新的文件会被清除，包括组装完成后没有移走的文件。组装完成后在有效期内到达的重复分片不再写入，直接返回文件大小。
+ * 文件大小超过 {@code lingo-util.auto-api.upload-max-size}
+ * 的上传返回 413，不会创建临时文件。
+ */
+@Component
+public class ApiChunkAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiChunkAssembler.class);
+
+    public static final String UPLOAD_ID_HEADER = "X-Upload-Id";
+
+    public static final String UPLOAD_OFFSET_HEADER = "X-Upload-Offset";
+
+    public static final String UPLOAD_LENGTH_HEADER = "X-Upload-Length";
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final String RANGES_SUFFIX = ".ranges";
+
+    private static final String UPLOAD_SUFFIX = ".upload";
+
+    /**
+     * 保存区间记录时先写入的临时文件后缀
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 两次清除过期文件的最小间隔，单位毫秒
+     */
+    private static final long PURGE_INTERVAL = 60000;
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    /**
+     * 进行中和已组装的上传，键为上传标识。已组装的上传保留到过期，用于识别重复到达的分片
+     */
+    private final ConcurrentMap<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    /**
+     * 判断请求是否为分片上传的一个分片，不是分片的请求按普通的上传处理。
+     *
+     * @param request 请求
+     * @return 带有上传标识时返回 true
+     */
+    public static boolean isChunk(HttpServletRequest request) {
+        return request.getHeader(UPLOAD_ID_HEADER) != null;
+    }
+
+    /**
+     * 写入 multipart 请求中的一个分片。
+     *
+     * @param request  请求
+     * @param response 响应，设置已连续收到的字节数
+     * @param file     分片，为 null 或空时只返回已收到的位置
+     * @return 文件已完整收到时返回组装好的文件，否则返回 null
+     * @throws IOException 读取分片或写入文件失败
+     */
+    public Path accept(HttpServletRequest request, HttpServletResponse response, MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return accept(request, response, (InputStream) null);
+        }
+        try (InputStream chunk = file.getInputStream()) {
+            return accept(request, response, chunk);
+        }
+    }
+
+    /**
+     * 写入一个分片，分片写入请求头指定的位置。
+     *
+     * @param request  请求
+     * @param response 响应，设置已连续收到的字节数
+     * @param chunk    分片的内容，为 null 时只返回已收到的位置
+     * @return 文件已完整收到时返回组装好的文件，否则返回 null
+     * @throws IOException 读取分片或写入文件失败
+     */
+    public Path accept(HttpServletRequest request, HttpServletResponse response, InputStream chunk) throws IOException {
+        String id = request.getHeader(UPLOAD_ID_HEADER);
+        if (id == null || !UPLOAD_ID.matcher(id).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid " + UPLOAD_ID_HEADER);
+        }
+        long offset = parseHeader(request, UPLOAD_OFFSET_HEADER);
+        long length = parseHeader(request, UPLOAD_LENGTH_HEADER);
+        if (offset > length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_OFFSET_HEADER + " exceeds " + UPLOAD_LENGTH_HEADER);
+        }
+        long maxSize = apiConfiguration.getUploadMaxSize();
+        if (maxSize > 0 && length > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, UPLOAD_LENGTH_HEADER + " exceeds " + maxSize);
+        }
+
+        Path directory = Paths.get(apiConfiguration.getUploadPath());
+        Files.createDirectories(directory);
+        purgeExpired(directory);
+
+        Upload upload = open(directory, id, length);
+        long written = 0;
+        if (chunk != null) {
+            // 分片之间可以并发写入，组装时等待写入中的分片完成；已组装的上传不再写入，重复的分片直接忽略
+            upload.lock.readLock().lock();
+            try {
+                if (!upload.completed) {
+                    written = write(upload.part, chunk, offset, length);
+                }
+            }
+            finally {
+                upload.lock.readLock().unlock();
+            }
+        }
+
+        Path completed = null;
+        long received;
+        synchronized (upload) {
+            upload.touched = System.currentTimeMillis();
+            if (upload.completed) {
+                response.setHeader(UPLOAD_OFFSET_HEADER, String.valueOf(upload.length));
+                return null;
+            }
+            if (written > 0) {
+                upload.add(offset, offset + written);
+                upload.save();
+            }
+            received = upload.received();
+            if (received == length) {
+                completed = complete(directory, id, upload);
+            }
+        }
+        response.setHeader(UPLOAD_OFFSET_HEADER, String.valueOf(received));
+        return completed;
+    }
+
+    private static long parseHeader(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        try {
+            long number = value == null ? -1 : Long.parseLong(value.trim());
+            if (number >= 0) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            // 按无效的请求头处理
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid " + name);
+    }
+
+    /**
+     * 获取上传，不在内存中时从临时文件旁的区间记录恢复，已有组装好的文件时视为已完成。
+     */
+    private Upload open(Path directory, String id, long length) throws IOException {
+        Upload upload = uploads.get(id);
+        if (upload == null) {
+            Upload loaded = Upload.load(directory, id, length);
+            upload = uploads.putIfAbsent(id, loaded);
+            if (upload == null) {
+                upload = loaded;
+            }
+        }
+        if (upload.length != length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_LENGTH_HEADER + " does not match upload " + id);
+        }
+        return upload;
+    }
+
+    /**
+     * 把分片写入临时文件的指定位置，写入后刷新到磁盘，保证记录的区间都已落盘。
+     *
+     * @return 写入的字节数
+     */
+    private static long write(Path part, InputStream chunk, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = offset;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = chunk.read(buffer.array())) >= 0) {
+                if (position + read > length) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "chunk exceeds " + UPLOAD_LENGTH_HEADER);
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                buffer.clear();
+            }
+            channel.force(false);
+        }
+        return position - offset;
+    }
+
+    /**
+     * 把完整的临时文件改名为组装好的文件，并清除区间记录。改名失败时上传保持未完成，下一个分片请求会再次尝试；
+     * 成功后上传留在内存中作为已完成的标记，直到过期清除。
+     */
+    private Path complete(Path directory, String id, Upload upload) throws IOException {
+        Path target = directory.resolve(id + UPLOAD_SUFFIX);
+        upload.lock.writeLock().lock();
+        try {
+            if (upload.length == 0) {
+                Files.write(upload.part, new byte[0]);
+            }
+            try {
+                Files.move(upload.part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(upload.part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            upload.completed = true;
+        }
+        finally {
+            upload.lock.writeLock().unlock();
+        }
+        Files.deleteIfExists(upload.ranges);
+        logger.info("autoAPI assembled chunked upload {} ({} bytes)", id, upload.length);
+        return target;
+    }
+
+    /**
+     * 清除超过有效期未更新的上传，最多每分钟执行一次。
+     */
+    private void purgeExpired(Path directory) {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        long deadline = now - apiConfiguration.getUploadExpire();
+        for (Map.Entry<String, Upload> entry : uploads.entrySet()) {
+            if (entry.getValue().touched < deadline) {
+                uploads.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean managed = name.endsWith(PART_SUFFIX) || name.endsWith(RANGES_SUFFIX) || name.endsWith(UPLOAD_SUFFIX)
+                        || name.endsWith(RANGES_SUFFIX + TEMP_SUFFIX);
+                if (managed && Files.getLastModifiedTime(file).toMillis() < deadline) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        catch (IOException e) {
+            logger.warn("autoAPI failed to purge expired uploads in {}", directory, e);
+        }
+    }
+
+    /**
+     * 一个进行中的上传，记录已收到的字节区间。修改区间时需要持有该对象的锁，
+     * 写入临时文件时持有 {@link #lock} 的读锁，改名为组装好的文件时持有写锁
+     */
+    private static final class Upload {
+
+        private final long length;
+
+        private final Path part;
+
+        private final Path ranges;
+
+        /**
+         * 已收到的区间，键为起始位置，值为结束位置（不含），区间互不重叠也不相邻
+         */
+        private final TreeMap<Long, Long> received = new TreeMap<>();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private volatile long touched = System.currentTimeMillis();
+
+        /**
+         * 临时文件已改名为组装好的文件，在写锁内修改
+         */
+        private volatile boolean completed;
+
+        private Upload(long length, Path part, Path ranges) {
+            this.length = length;
+            this.part = part;
+            this.ranges = ranges;
+        }
+
+        /**
+         * 从区间记录恢复上传，记录不存在、损坏或文件大小不同时重新开始。组装好的文件还在时视为已完成，
+         * 如服务重启后到达的重复分片。
+         */
+        static Upload load(Path directory, String id, long length) throws IOException {
+            Upload upload = new Upload(length, directory.resolve(id + PART_SUFFIX), directory.resolve(id + RANGES_SUFFIX));
+            if (Files.exists(directory.resolve(id + UPLOAD_SUFFIX))) {
+                upload.completed = true;
+                return upload;
+            }
+            if (!Files.exists(upload.ranges) || !Files.exists(upload.part)) {
+                return upload;
+            }
+            List<String> lines = Files.readAllLines(upload.ranges, StandardCharsets.UTF_8);
+            try {
+                if (lines.isEmpty() || Long.parseLong(lines.get(0)) != length) {
+                    return upload;
+                }
+                for (String line : lines.subList(1, lines.size())) {
+                    int separator = line.indexOf('-');
+                    upload.add(Long.parseLong(line.substring(0, separator)), Long.parseLong(line.substring(separator + 1)));
+                }
+            }
+            catch (RuntimeException e) {
+                logger.warn("autoAPI ignores corrupted upload ranges {}", upload.ranges);
+                upload.received.clear();
+            }
+            return upload;
+        }
+
+        /**
+         * 加入区间 [start, end)，与重叠或相邻的区间合并。
+         */
+        void add(long start, long end) {
+            Map.Entry<Long, Long> before = received.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                start = before.getKey();
+                end = Math.max(end, before.getValue());
+            }
+            Map.Entry<Long, Long> after = received.ceilingEntry(start);
+            while (after != null && after.getKey() <= end) {
+                end = Math.max(end, after.getValue());
+                received.remove(after.getKey());
+                after = received.ceilingEntry(start);
+            }
+            received.put(start, end);
+        }
+
+        /**
+         * 从文件开头连续收到的字节数
+         */
+        long received() {
+            Long end = received.get(0L);
+            return end == null ? 0 : end;
+        }
+
+        /**
+         * 先写入临时文件再改名，保证区间记录始终完整。
+         */
+        void save() throws IOException {
+            List<String> lines = new ArrayList<>(received.size() + 1);
+            lines.add(String.valueOf(length));
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                lines.add(range.getKey() + "-" + range.getValue());
+            }
+            Path temp = ranges.resolveSibling(ranges.getFileName() + TEMP_SUFFIX);
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, ranges, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, ranges, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
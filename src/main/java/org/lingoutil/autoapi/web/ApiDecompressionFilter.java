@@ -0,0 +1,317 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 解压前端以 gzip 压缩的请求体，对应 {@code @AutoApi(compressRequest = true)}。
+ * <p>
+ * 只处理 {@code Content-Encoding: gzip} 的请求，请求体在读取时边读边解压，不会整体读入内存。
+ * 解压后的字节数超过已读取的压缩字节数的 {@code decompress-max-ratio} 倍（另有 64KB 余量）或超过
+ * {@code decompress-max-size} 时中止读取，防止压缩炸弹。读取失败的异常抛出到过滤器时，超过限制响应 413，
+ * 请求体不是有效的 gzip 响应 400；已由后续处理器处理的异常保持不变，如 Spring MVC 读取 {@code @RequestBody}
+ * 失败时统一响应 400，超过限制时也是 400。
+ * 解压后的请求不再带有 Content-Encoding 和 Content-Length。
+ * <p>
+ * 只支持通过 {@code getInputStream}、{@code getReader} 读取的请求体（如 {@code @RequestBody}），
+ * 表单参数由容器直接从原始请求体解析，不能压缩。默认不解压，通过 {@code lingo-util.auto-api.decompress-request} 开启。
+ */
+@Component
+public class ApiDecompressionFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiDecompressionFilter.class);
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    /**
+     * 比例检查的余量，gzip 头和最初的几个块解压比例可能很高
+     */
+    private static final long RATIO_ALLOWANCE = 64 * 1024;
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!apiConfiguration.getDecompressRequest()
+                || !(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)
+                || !isGzip(((HttpServletRequest) request).getHeader(CONTENT_ENCODING))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        DecompressedRequest decompressed = new DecompressedRequest((HttpServletRequest) request,
+                apiConfiguration.getDecompressMaxRatio(), apiConfiguration.getDecompressMaxSize());
+        try {
+            chain.doFilter(decompressed, response);
+        }
+        catch (IOException | ServletException | RuntimeException e) {
+            int status = decompressed.rejectedStatus;
+            if (status == 0 || httpResponse.isCommitted()) {
+                throw e;
+            }
+            logger.warn("autoAPI rejected gzip request body of {}: {}", decompressed.getRequestURI(), e.getMessage());
+            httpResponse.sendError(status, status == HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE
+                    ? "Decompressed request body is too large" : "Malformed gzip request body");
+        }
+    }
+
+    private static boolean isGzip(String contentEncoding) {
+        if (contentEncoding == null) {
+            return false;
+        }
+        String encoding = contentEncoding.trim();
+        return "gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding);
+    }
+
+    /**
+     * 解压后超过限制时抛出，由 Spring MVC 等作为读取请求体失败处理
+     */
+    static class InflationLimitException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        InflationLimitException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 请求体解压后的请求，去掉了 Content-Encoding 和 Content-Length 请求头
+     */
+    private static class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private final int maxRatio;
+
+        private final long maxSize;
+
+        private ServletInputStream inputStream;
+
+        private BufferedReader reader;
+
+        /**
+         * 读取请求体失败时应当响应的状态码，0 表示没有失败
+         */
+        private volatile int rejectedStatus;
+
+        DecompressedRequest(HttpServletRequest request, int maxRatio, long maxSize) {
+            super(request);
+            this.maxRatio = maxRatio;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called for this request");
+            }
+            if (inputStream == null) {
+                inputStream = new BoundedGzipInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                if (inputStream != null) {
+                    throw new IllegalStateException("getInputStream() has already been called for this request");
+                }
+                String encoding = getCharacterEncoding();
+                inputStream = new BoundedGzipInputStream(super.getInputStream());
+                reader = new BufferedReader(new InputStreamReader(inputStream,
+                        encoding == null ? StandardCharsets.UTF_8.name() : encoding));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isRemoved(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isRemoved(name) ? Collections.<String>emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<String> headerNames = super.getHeaderNames(); headerNames.hasMoreElements(); ) {
+                String name = headerNames.nextElement();
+                if (!isRemoved(name)) {
+                    names.add(name);
+                }
+            }
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isRemoved(String name) {
+            return CONTENT_ENCODING.equalsIgnoreCase(name) || CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        /**
+         * 边读边解压的请求体，统计读取的压缩字节数和解压后的字节数
+         */
+        private class BoundedGzipInputStream extends ServletInputStream {
+
+            private final ServletInputStream source;
+
+            private final CountingInputStream compressed;
+
+            private GZIPInputStream inflater;
+
+            private long inflated;
+
+            private boolean finished;
+
+            BoundedGzipInputStream(ServletInputStream source) {
+                this.source = source;
+                this.compressed = new CountingInputStream(source);
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                int read = read(single, 0, 1);
+                return read < 0 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (finished) {
+                    return -1;
+                }
+                int read;
+                try {
+                    if (inflater == null) {
+                        // GZIPInputStream 的构造方法会读取 gzip 头，延迟到第一次读取时创建
+                        inflater = new GZIPInputStream(compressed, 8192);
+                    }
+                    read = inflater.read(buffer, offset, length);
+                }
+                catch (ZipException | EOFException e) {
+                    rejectedStatus = HttpServletResponse.SC_BAD_REQUEST;
+                    throw e;
+                }
+                if (read < 0) {
+                    finished = true;
+                    return -1;
+                }
+                inflated += read;
+                if (inflated > maxSize) {
+                    rejectedStatus = HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE;
+                    throw new InflationLimitException("Decompressed request body exceeds " + maxSize + " bytes");
+                }
+                if (inflated > compressed.count * maxRatio + RATIO_ALLOWANCE) {
+                    rejectedStatus = HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE;
+                    throw new InflationLimitException("Decompression ratio exceeds " + maxRatio);
+                }
+                return read;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return finished || inflater == null ? 0 : inflater.available();
+            }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Non-blocking read is not supported for gzip request bodies");
+            }
+        }
+    }
+
+    /**
+     * 统计已读取字节数的输入流
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiModuleCache;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 从内存直接提供生成的文件，如 {@code GET /auto-api/UserApi.js}。
+ * <p>
+ * 响应带有强 ETag，请求的 If-None-Match 匹配时返回 304；客户端接受 gzip 时返回预先压缩好的内容。
+ * 需要开启 {@code lingo-util.auto-api.serve}，未开启或路径不匹配时直接交给后续的过滤器。
+ * Spring Boot 会自动注册该过滤器，其他环境可以通过 DelegatingFilterProxy 注册。
+ */
+@Component
+public class ApiModuleFilter implements Filter {
+
+    private static final String CONTENT_TYPE = "text/javascript;charset=UTF-8";
+
+    @Resource
+    private ApiConfiguration apiConfiguration;
+
+    @Resource
+    private ApiModuleCache apiModuleCache;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!apiConfiguration.getServe()
+                || !(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String fileName = fileName(httpRequest);
+        String method = httpRequest.getMethod();
+        if (fileName == null || !("GET".equals(method) || "HEAD".equals(method))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ApiModuleCache.Entry entry = apiModuleCache.get(fileName);
+        if (entry == null) {
+            httpResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        boolean gzip = acceptsGzip(httpRequest.getHeader("Accept-Encoding"));
+        String etag = gzip ? entry.getGzipEtag() : entry.getEtag();
+        // 内容随每次生成变化，每次使用前都要重新验证
+        httpResponse.setHeader("Cache-Control", "no-cache");
+        httpResponse.setHeader("Vary", "Accept-Encoding");
+        httpResponse.setHeader("ETag", etag);
+
+        if (matches(httpRequest.getHeader("If-None-Match"), etag)) {
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = gzip ? entry.getGzipContent() : entry.getContent();
+        httpResponse.setStatus(HttpServletResponse.SC_OK);
+        httpResponse.setContentType(CONTENT_TYPE);
+        if (gzip) {
+            httpResponse.setHeader("Content-Encoding", "gzip");
+        }
+        httpResponse.setContentLength(body.length);
+        if ("GET".equals(method)) {
+            httpResponse.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * 获取请求对应的文件名，不在访问路径下时返回 null。
+     */
+    private String fileName(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String prefix = apiConfiguration.getServePath() + "/";
+        if (!path.startsWith(prefix)) {
+            return null;
+        }
+        String fileName = path.substring(prefix.length());
+        // 只提供访问路径下一层的文件
+        return fileName.isEmpty() || fileName.indexOf('/') >= 0 ? null : fileName;
+    }
+
+    /**
+     * 判断客户端是否接受 gzip，q=0 表示明确拒绝。
+     * 明确列出的 gzip 优先于 {@code *}，如 {@code *, gzip;q=0} 表示不接受 gzip。
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean gzip = "gzip".equalsIgnoreCase(name);
+            if (!gzip && !"*".equals(name)) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    }
+                    catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (gzip) {
+                gzipQuality = quality;
+            }
+            else {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    /**
+     * 判断 If-None-Match 是否匹配，按规范使用弱比较。
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.*;
+
+/**
+ * 批量请求中的单个 GET 子请求。
+ * <p>
+ * 请求头、Cookie、会话和认证信息沿用外层请求，请求体相关的请求头被去掉；
+ * 可以读取外层请求的属性，设置和移除的属性只在子请求中可见，各子请求互不影响，可以在不同线程中同时分发。
+ * 请求地址和查询参数由 RequestDispatcher 在转发时设置，不支持异步处理。
+ */
+class BatchSubRequest extends HttpServletRequestWrapper {
+
+    /**
+     * 描述外层请求体的请求头，子请求没有请求体
+     */
+    private static final Set<String> BODY_HEADERS = new HashSet<>(Arrays.asList(
+            "content-type", "content-length", "content-encoding", "transfer-encoding"));
+
+    private static final ServletInputStream EMPTY_INPUT = new ServletInputStream() {
+
+        @Override
+        public boolean isFinished() {
+            return true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException("Batched requests do not support non-blocking IO");
+        }
+
+        @Override
+        public int read() {
+            return -1;
+        }
+    };
+
+    /**
+     * 子请求自己设置的属性
+     */
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    /**
+     * 子请求移除的外层请求属性
+     */
+    private final Set<String> removedAttributes = new HashSet<>();
+
+    BatchSubRequest(HttpServletRequest request) {
+        super(request);
+    }
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    /**
+     * 子请求未设置的属性从被包装的请求中读取，包括容器内部使用的不可枚举的属性
+     */
+    @Override
+    public Object getAttribute(String name) {
+        if (attributes.containsKey(name)) {
+            return attributes.get(name);
+        }
+        return removedAttributes.contains(name) ? null : super.getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>(Collections.list(super.getAttributeNames()));
+        names.removeAll(removedAttributes);
+        names.addAll(attributes.keySet());
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            removeAttribute(name);
+            return;
+        }
+        attributes.put(name, value);
+        removedAttributes.remove(name);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+        removedAttributes.add(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT)) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT))
+                ? Collections.<String>emptyEnumeration()
+                : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = new ArrayList<>();
+        for (String name : Collections.list(super.getHeaderNames())) {
+            if (!BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                names.add(name);
+            }
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return getHeader(name) == null ? -1 : super.getDateHeader(name);
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return EMPTY_INPUT;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new StringReader(""));
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Batched requests do not support async processing");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException("Batched requests do not support async processing");
+    }
+}
@@ -0,0 +1,133 @@
+package org.lingoutil.autoapi.emitter;
+
+import org.junit.jupiter.api.Test;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiFileWriter;
+import org.lingoutil.autoapi.generator.ApiGenerator;
+import org.lingoutil.autoapi.generator.ApiMethodBuilder;
+import org.lingoutil.autoapi.generator.ApiModuleCache;
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 开启引用后同一个 DTO 在整个模块文件中只展开一次，文件大小不随使用它的方法数线性增长。
+ */
+class SchemaCommentWriterTest {
+
+    static class AddressDto {
+        public String province;
+        public String city;
+        public String street;
+    }
+
+    static class OrderDto {
+        public Long orderId;
+        public AddressDto billingAddress;
+        public AddressDto shippingAddress;
+    }
+
+    @GenerateApi
+    @RequestMapping("/order")
+    static class FewController {
+
+        @AutoApi
+        @RequestMapping("create")
+        public String create(@RequestBody OrderDto order) {
+            return null;
+        }
+    }
+
+    @GenerateApi
+    @RequestMapping("/order")
+    static class ManyController {
+
+        @AutoApi
+        @RequestMapping("create")
+        public String create(@RequestBody OrderDto order) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("update")
+        public String update(@RequestBody OrderDto order) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("check")
+        public String check(@RequestBody OrderDto order) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("submit")
+        public String submit(@RequestBody OrderDto order) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("cancel")
+        public String cancel(@RequestBody OrderDto order) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("archive")
+        public String archive(@RequestBody OrderDto order) {
+            return null;
+        }
+    }
+
+    @Test
+    void referencesExpandEachDtoOncePerFile() {
+        ApiRenderOptions options = new ApiRenderOptions(true, 0);
+        String few = render(FewController.class, options);
+        String many = render(ManyController.class, options);
+
+        assertEquals(1, count(many, "orderId:"));
+        assertEquals(1, count(many, "province:"));
+        assertEquals(5, count(many, "\" 结构同上文 OrderDto \""));
+
+        // 之后的每个方法只增加方法本身和一行引用，不再包含展开的 OrderDto
+        int expanded = few.indexOf("\t\t}") - few.indexOf("orderId:");
+        int growth = (many.length() - few.length()) / 5;
+        int growthWithoutReferences = (render(ManyController.class, ApiRenderOptions.DEFAULT).length()
+                - render(FewController.class, ApiRenderOptions.DEFAULT).length()) / 5;
+        assertTrue(growth < growthWithoutReferences - expanded / 2, growth + " / " + growthWithoutReferences);
+    }
+
+    @Test
+    void withoutReferencesEveryMethodExpands() {
+        String many = render(ManyController.class, ApiRenderOptions.DEFAULT);
+        assertEquals(6, count(many, "orderId:"));
+        assertEquals(12, count(many, "province:"));
+        assertFalse(many.contains("结构同上文"));
+    }
+
+    private static String render(Class<?> controller, ApiRenderOptions options) {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ApiConfiguration.class,
+                ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class, ApiModuleCache.class, ApiGenerationMetrics.class)) {
+            ApiModule module = context.getBean(ApiMethodBuilder.class).buildModule(controller);
+            StringBuilder out = new StringBuilder();
+            ApiModuleRenderer.render(module, out, options);
+            return out.toString();
+        }
+    }
+
+    private static int count(String content, String part) {
+        int count = 0;
+        for (int index = content.indexOf(part); index >= 0; index = content.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
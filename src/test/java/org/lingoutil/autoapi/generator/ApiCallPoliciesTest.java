@@ -0,0 +1,123 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.Test;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiParameter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存和对冲请求只对 GET 生效，超时对所有请求方法生效；其他请求方法完成后清除模块的缓存，流式响应使用默认的调用方式。
+ */
+class ApiCallPoliciesTest {
+
+    private static final String MODULE = "UserApi";
+
+    static class Annotated {
+
+        @AutoApi(cacheTtlMs = 3000)
+        public void cached() {
+        }
+
+        @AutoApi
+        public void plain() {
+        }
+
+        @AutoApi(timeoutMs = 5000, hedgeAfterMs = 200)
+        public void hedged() {
+        }
+
+        @AutoApi(timeoutMs = -1, hedgeAfterMs = -1)
+        public void negative() {
+        }
+    }
+
+    @Test
+    void cachesGetInModuleGroup() throws Exception {
+        ApiCallOptions callOptions = ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, true, autoApi("cached"));
+        assertTrue(callOptions.isCached());
+        assertEquals(3000, callOptions.getCacheTtlMs());
+        assertEquals(MODULE, callOptions.getCacheGroup());
+        assertTrue(callOptions.isBatched());
+    }
+
+    @Test
+    void neverCachesOtherMethods() throws Exception {
+        for (String httpMethod : new String[]{ApiModuleRenderer.POST, "put", "delete"}) {
+            ApiCallOptions callOptions = ApiCallPolicies.of(MODULE, httpMethod, true, autoApi("cached"));
+            assertFalse(callOptions.isCached(), httpMethod);
+            assertNull(callOptions.getCacheGroup(), httpMethod);
+            assertFalse(callOptions.isBatched(), httpMethod);
+        }
+    }
+
+    @Test
+    void hedgesOnlyGet() throws Exception {
+        ApiCallOptions get = ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, false, autoApi("hedged"));
+        assertEquals(200, get.getHedgeAfterMs());
+        assertEquals(5000, get.getTimeoutMs());
+
+        // 非幂等的请求不能重复发送，但仍然有超时
+        for (String httpMethod : new String[]{ApiModuleRenderer.POST, "put", "delete"}) {
+            ApiCallOptions callOptions = ApiCallPolicies.of(MODULE, httpMethod, false, autoApi("hedged"));
+            assertEquals(0, callOptions.getHedgeAfterMs(), httpMethod);
+            assertEquals(5000, callOptions.getTimeoutMs(), httpMethod);
+        }
+    }
+
+    @Test
+    void negativeTimeoutsAreIgnored() throws Exception {
+        ApiCallOptions callOptions = ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, false, autoApi("negative"));
+        assertEquals(0, callOptions.getTimeoutMs());
+        assertEquals(0, callOptions.getHedgeAfterMs());
+        assertTrue(callOptions.isDefault());
+    }
+
+    @Test
+    void streamUsesDefaultPolicies() throws Exception {
+        ApiCallOptions cached = ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, true, autoApi("cached"));
+        ApiCallOptions stream = ApiCallPolicies.transfer(cached, ApiModuleRenderer.GET, false, false, null, false,
+                ApiCallOptions.STREAM_SSE);
+        assertFalse(stream.isCached());
+        assertFalse(stream.isBatched());
+        assertEquals(ApiCallOptions.STREAM_SSE, stream.getStream());
+        assertEquals(ApiCallOptions.DEFAULT.withStream(ApiCallOptions.STREAM_SSE).toString(), stream.toString());
+
+        // 流式响应持续时间不定，不使用超时和对冲请求
+        ApiCallOptions hedged = ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, false, autoApi("hedged"));
+        stream = ApiCallPolicies.transfer(hedged, ApiModuleRenderer.GET, false, false, null, false, ApiCallOptions.STREAM_NDJSON);
+        assertEquals(0, stream.getTimeoutMs());
+        assertEquals(0, stream.getHedgeAfterMs());
+    }
+
+    @Test
+    void otherMethodsInvalidateCachedModule() throws Exception {
+        ApiEndpoint get = endpoint("get", ApiModuleRenderer.GET, ApiCallPolicies.of(MODULE, ApiModuleRenderer.GET, false, autoApi("cached")));
+        ApiEndpoint save = endpoint("save", ApiModuleRenderer.POST, ApiCallPolicies.of(MODULE, ApiModuleRenderer.POST, false, autoApi("plain")));
+        ApiEndpoint events = endpoint("events", ApiModuleRenderer.POST,
+                ApiCallOptions.DEFAULT.withStream(ApiCallOptions.STREAM_NDJSON));
+
+        List<ApiEndpoint> linked = ApiCallPolicies.linkInvalidation(MODULE, Arrays.asList(get, save, events));
+        assertSame(get, linked.get(0));
+        assertEquals(MODULE, linked.get(1).getCallOptions().getInvalidatedGroup());
+        assertSame(events, linked.get(2));
+
+        // 模块中没有缓存的接口时不需要清除
+        List<ApiEndpoint> uncached = Collections.singletonList(save);
+        assertSame(uncached, ApiCallPolicies.linkInvalidation(MODULE, uncached));
+    }
+
+    private static AutoApi autoApi(String methodName) throws NoSuchMethodException {
+        return Annotated.class.getMethod(methodName).getAnnotation(AutoApi.class);
+    }
+
+    private static ApiEndpoint endpoint(String name, String httpMethod, ApiCallOptions callOptions) {
+        return new ApiEndpoint(name, "/user/" + name, httpMethod, "", Collections.<ApiParameter>emptyList(), callOptions);
+    }
+}
@@ -0,0 +1,132 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 检查符号链接切换、未变化文件的硬链接和遗留暂存目录的清理。
+ */
+class ApiFileWriterTest {
+
+    @TempDir
+    Path baseDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void symlinkKeepsOldGenerationUntilPublish() throws Exception {
+        Path oldFolder = Files.createDirectory(baseDir.resolve("v1"));
+        write(oldFolder.resolve("UserApi.js"), "old user");
+        write(oldFolder.resolve("OrderApi.js"), "old order");
+        Path link = Files.createSymbolicLink(baseDir.resolve("api"), oldFolder);
+        ApiFileWriter writer = newWriter(link);
+
+        ApiFileWriter.Batch batch = writer.begin();
+        batch.stage("UserApi.js", content("new user"));
+        // 发布前读取方看到的仍是完整的旧目录
+        assertEquals(oldFolder, link.toRealPath());
+        assertEquals("old user", read(link.resolve("UserApi.js")));
+        batch.publish();
+        batch.discard();
+
+        Path newFolder = link.toRealPath();
+        assertNotEquals(oldFolder, newFolder);
+        assertEquals(baseDir.toRealPath(), newFolder.getParent());
+        assertEquals("new user", read(link.resolve("UserApi.js")));
+        assertEquals("old order", read(link.resolve("OrderApi.js")));
+        // 未变化的文件从旧目录硬链接，不复制内容
+        assertTrue(Files.isSameFile(oldFolder.resolve("OrderApi.js"), newFolder.resolve("OrderApi.js")));
+        assertFalse(Files.exists(newFolder.resolve("UserApi.js.tmp")));
+        // 用户指定的链接目标保持不变
+        assertEquals("old user", read(oldFolder.resolve("UserApi.js")));
+
+        // 再次生成后，上次生成的目录被删除
+        writer.write("OrderApi.js", content("new order"));
+        assertFalse(Files.exists(newFolder));
+        assertEquals("new user", read(link.resolve("UserApi.js")));
+        assertEquals("new order", read(link.resolve("OrderApi.js")));
+    }
+
+    @Test
+    void deletesStaleStagingFolders() throws Exception {
+        Path outputFolder = Files.createDirectory(baseDir.resolve("api"));
+        // 崩溃的进程留下写了一半的文件
+        Path stale = Files.createDirectory(outputFolder.resolve(".auto-api-staging-1"));
+        write(stale.resolve("UserApi.js.tmp"), "half");
+        age(stale, 11);
+        Path fresh = age(Files.createDirectory(outputFolder.resolve(".auto-api-staging-2")), 1);
+
+        newWriter(outputFolder).write("UserApi.js", content("user"));
+        assertFalse(Files.exists(stale));
+        // 未过期的可能属于正在运行的其他进程
+        assertTrue(Files.exists(fresh));
+        assertEquals("user", read(outputFolder.resolve("UserApi.js")));
+    }
+
+    @Test
+    void deletesStaleGenerationFoldersExceptLinkTarget() throws Exception {
+        Path current = Files.createDirectory(baseDir.resolve(".api-current"));
+        write(current.resolve("UserApi.js"), "user");
+        age(current, 60);
+        Path stale = age(Files.createDirectory(baseDir.resolve(".api-stale")), 11);
+        Path link = Files.createSymbolicLink(baseDir.resolve("api"), current);
+
+        newWriter(link).write("OrderApi.js", content("order"));
+        assertFalse(Files.exists(stale));
+        assertEquals("user", read(link.resolve("UserApi.js")));
+        assertEquals("order", read(link.resolve("OrderApi.js")));
+    }
+
+    private ApiFileWriter newWriter(Path outputPath) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.output-path", outputPath.toString());
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiFileWriter.class);
+        context.refresh();
+        return context.getBean(ApiFileWriter.class);
+    }
+
+    /**
+     * 将目录的修改时间设为若干分钟之前。
+     */
+    private static Path age(Path folder, long minutesAgo) throws IOException {
+        Files.setLastModifiedTime(folder, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(minutesAgo)));
+        return folder;
+    }
+
+    private static ByteBuffer content(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
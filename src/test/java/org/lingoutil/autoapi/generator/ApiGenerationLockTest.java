@@ -0,0 +1,164 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多个生成器实例共享输出目录时的加锁行为。每个实例是一个独立的 Spring 容器，与多个应用实例的情况一致。
+ */
+class ApiGenerationLockTest {
+
+    private static final int INSTANCES = 4;
+
+    @TempDir
+    Path outputFolder;
+
+    @GenerateApi
+    @RequestMapping("/lock")
+    static class LockController {
+
+        @AutoApi
+        @RequestMapping("get")
+        public String get(Long id) {
+            return null;
+        }
+    }
+
+    @Test
+    void onlyOneInstanceWritesSharedOutput() throws Exception {
+        List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(INSTANCES);
+        try {
+            for (int i = 0; i < INSTANCES; i++) {
+                contexts.add(newInstance(ApiConfiguration.LOCK_MODE_SKIP, 30000));
+            }
+            CyclicBarrier barrier = new CyclicBarrier(INSTANCES);
+            List<Future<?>> futures = new ArrayList<>();
+            for (AnnotationConfigApplicationContext context : contexts) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    generate(context);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            int writers = 0;
+            for (AnnotationConfigApplicationContext context : contexts) {
+                if (context.getBean(ApiGenerationMetrics.class).getLastReport().getBytesWritten() > 0) {
+                    writers++;
+                }
+            }
+            assertEquals(1, writers);
+            assertEquals(1, countApiFiles());
+
+            try (ApiGenerationLock lock = ApiGenerationLock.acquire(outputFolder, 0)) {
+                assertNotNull(lock);
+                assertFalse(lock.readStamp().getProperty("fingerprint", "").isEmpty());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            contexts.forEach(AnnotationConfigApplicationContext::close);
+        }
+    }
+
+    @Test
+    void laterInstanceSkipsUpToDateOutput() throws Exception {
+        try (AnnotationConfigApplicationContext first = newInstance(ApiConfiguration.LOCK_MODE_WAIT, 30000);
+             AnnotationConfigApplicationContext second = newInstance(ApiConfiguration.LOCK_MODE_WAIT, 30000)) {
+            generate(first);
+            generate(second);
+            assertTrue(first.getBean(ApiGenerationMetrics.class).getLastReport().getBytesWritten() > 0);
+            assertEquals(0, second.getBean(ApiGenerationMetrics.class).getLastReport().getBytesWritten());
+            assertEquals(1, second.getBean(ApiGenerationMetrics.class).getLastReport().getSkippedCount());
+        }
+    }
+
+    @Test
+    void skipModeReturnsImmediatelyWhileLocked() throws Exception {
+        try (ApiGenerationLock held = ApiGenerationLock.acquire(outputFolder, 0);
+             AnnotationConfigApplicationContext context = newInstance(ApiConfiguration.LOCK_MODE_SKIP, 30000)) {
+            assertNotNull(held);
+            long startNanos = System.nanoTime();
+            generate(context);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 10000);
+            assertEquals(0, context.getBean(ApiGenerationMetrics.class).getLastReport().getBytesWritten());
+            assertEquals(0, countApiFiles());
+        }
+    }
+
+    @Test
+    void waitModeGivesUpAfterLockTimeout() throws Exception {
+        try (ApiGenerationLock held = ApiGenerationLock.acquire(outputFolder, 0);
+             AnnotationConfigApplicationContext context = newInstance(ApiConfiguration.LOCK_MODE_WAIT, 500)) {
+            assertNotNull(held);
+            long startNanos = System.nanoTime();
+            generate(context);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) >= 500);
+            assertEquals(0, context.getBean(ApiGenerationMetrics.class).getLastReport().getBytesWritten());
+            assertEquals(0, countApiFiles());
+        }
+    }
+
+    @Test
+    void lockIsExclusiveWithinOneJvm() throws Exception {
+        try (ApiGenerationLock first = ApiGenerationLock.acquire(outputFolder, 0)) {
+            assertNotNull(first);
+            assertNull(ApiGenerationLock.acquire(outputFolder, 0));
+        }
+        try (ApiGenerationLock second = ApiGenerationLock.acquire(outputFolder, 0)) {
+            assertNotNull(second);
+        }
+    }
+
+    private AnnotationConfigApplicationContext newInstance(String lockMode, long lockTimeout) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.output-path", outputFolder.toString());
+        properties.put("lingo-util.auto-api.lock-mode", lockMode);
+        properties.put("lingo-util.auto-api.lock-timeout", lockTimeout);
+        properties.put("lingo-util.auto-api.serve", false);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void generate(AnnotationConfigApplicationContext context) {
+        context.getBean(ApiGenerator.class).generateApiCode(Collections.<Class<?>>singletonList(LockController.class));
+    }
+
+    private long countApiFiles() throws IOException {
+        try (Stream<Path> files = Files.list(outputFolder)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".js")).count();
+        }
+    }
+}
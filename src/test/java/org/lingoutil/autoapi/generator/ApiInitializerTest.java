@@ -0,0 +1,143 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 同一个容器层级只生成一次，未生成的容器（子容器、未开启生成）同样完成结果并发布事件。
+ */
+class ApiInitializerTest {
+
+    private static final String MODULE_FILE = "ApiInitializerTest$UserApi.js";
+
+    @TempDir
+    Path outputDir;
+
+    private final List<AnnotationConfigApplicationContext> contexts = new CopyOnWriteArrayList<>();
+
+    @Controller
+    @GenerateApi
+    @RequestMapping("/user")
+    static class UserController {
+
+        @AutoApi
+        @RequestMapping("get")
+        public String get(Long id) {
+            return null;
+        }
+    }
+
+    /**
+     * 记录收到的 ApiGeneratedEvent，子容器发布的事件也会传播到父容器
+     */
+    static class EventRecorder implements ApplicationListener<ApiGeneratedEvent> {
+
+        final List<ApiGeneratedEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onApplicationEvent(ApiGeneratedEvent event) {
+            events.add(event);
+        }
+    }
+
+    @AfterEach
+    void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+    }
+
+    @Test
+    void childContextCompletesWithoutGenerating() throws Exception {
+        AnnotationConfigApplicationContext parent = newParent(new HashMap<>());
+        ApiInitializer parentInitializer = parent.getBean(ApiInitializer.class);
+        parentInitializer.getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(MODULE_FILE), listOutputDir());
+        EventRecorder parentRecorder = parent.getBean(EventRecorder.class);
+        assertEquals(1, parentRecorder.events.size());
+        assertSame(parentInitializer, parentRecorder.events.get(0).getSource());
+
+        AnnotationConfigApplicationContext child = new AnnotationConfigApplicationContext();
+        contexts.add(child);
+        child.setParent(parent);
+        child.register(ApiInitializer.class, EventRecorder.class);
+        child.refresh();
+
+        ApiInitializer childInitializer = child.getBean(ApiInitializer.class);
+        assertTrue(childInitializer.getCompletion().isDone());
+        assertFalse(childInitializer.getCompletion().isCompletedExceptionally());
+        EventRecorder childRecorder = child.getBean(EventRecorder.class);
+        assertEquals(1, childRecorder.events.size());
+        assertSame(childInitializer, childRecorder.events.get(0).getSource());
+        assertTrue(childRecorder.events.get(0).isSuccess());
+
+        // 子容器的刷新事件传播到父容器，父容器不会重复生成或重复发布
+        assertEquals(2, parentRecorder.events.size());
+        assertSame(childInitializer, parentRecorder.events.get(1).getSource());
+    }
+
+    @Test
+    void disabledGenerationCompletes() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.enable", false);
+        AnnotationConfigApplicationContext parent = newParent(properties);
+
+        ApiInitializer initializer = parent.getBean(ApiInitializer.class);
+        assertTrue(initializer.getCompletion().isDone());
+        assertFalse(initializer.getCompletion().isCompletedExceptionally());
+        EventRecorder recorder = parent.getBean(EventRecorder.class);
+        assertEquals(1, recorder.events.size());
+        assertTrue(recorder.events.get(0).isSuccess());
+        assertEquals(Collections.emptyList(), listOutputDir());
+    }
+
+    private AnnotationConfigApplicationContext newParent(Map<String, Object> properties) {
+        properties.put("lingo-util.auto-api.output-path", outputDir.toString());
+        properties.put("lingo-util.auto-api.async", false);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        contexts.add(context);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class, ApiWatcher.class, ApiInitializer.class,
+                EventRecorder.class, UserController.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * 输出目录中的 API 文件，不含清单等隐藏文件
+     */
+    private List<String> listOutputDir() throws IOException {
+        try (Stream<Path> files = Files.list(outputDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> !name.startsWith("."))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 增量生成：指纹不变的模块跳过，已删除的 Controller 和旧的带哈希文件被清理。
+ */
+class ApiManifestTest {
+
+    private static final String USER_FILE = "ApiManifestTest$UserApi.js";
+
+    private static final String ORDER_FILE = "ApiManifestTest$OrderApi.js";
+
+    @TempDir
+    Path outputDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    static class OrderQuery {
+        public String keyword;
+        public Integer pageNo;
+    }
+
+    @GenerateApi
+    @RequestMapping("/user")
+    static class UserController {
+
+        @AutoApi
+        @RequestMapping("get")
+        public String get(Long id) {
+            return null;
+        }
+    }
+
+    @GenerateApi
+    @RequestMapping("/order")
+    static class OrderController {
+
+        @AutoApi
+        @RequestMapping("search")
+        public String search(@RequestBody OrderQuery query) {
+            return null;
+        }
+    }
+
+    @AfterEach
+    void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void unchangedModuleIsNotRewritten() throws Exception {
+        ApiGenerator apiGenerator = newGenerator();
+        apiGenerator.generateApiCode(Arrays.<Class<?>>asList(UserController.class, OrderController.class));
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(outputDir.resolve(USER_FILE), old);
+        Files.setLastModifiedTime(outputDir.resolve(ORDER_FILE), old);
+
+        apiGenerator.generateApiCode(Arrays.<Class<?>>asList(UserController.class, OrderController.class));
+        assertEquals(old, Files.getLastModifiedTime(outputDir.resolve(USER_FILE)));
+        assertEquals(old, Files.getLastModifiedTime(outputDir.resolve(ORDER_FILE)));
+
+        // 文件被删除后即使指纹不变也重新生成
+        Files.delete(outputDir.resolve(ORDER_FILE));
+        apiGenerator.generateApiCode(Arrays.<Class<?>>asList(UserController.class, OrderController.class));
+        assertTrue(Files.exists(outputDir.resolve(ORDER_FILE)));
+        assertEquals(old, Files.getLastModifiedTime(outputDir.resolve(USER_FILE)));
+    }
+
+    @Test
+    void removedControllerFilesAreDeleted() throws Exception {
+        ApiGenerator apiGenerator = newGenerator();
+        apiGenerator.generateApiCode(Arrays.<Class<?>>asList(UserController.class, OrderController.class));
+        assertTrue(Files.exists(outputDir.resolve(ORDER_FILE)));
+
+        apiGenerator.generateApiCode(Collections.<Class<?>>singletonList(UserController.class));
+        assertFalse(Files.exists(outputDir.resolve(ORDER_FILE)));
+        assertTrue(Files.exists(outputDir.resolve(USER_FILE)));
+        assertEquals(Collections.singleton("ApiManifestTest$UserApi"),
+                ApiManifest.load(outputDir.toFile()).getModuleNames());
+    }
+
+    @Test
+    void manifestDetectsChangedFingerprintAndMissingFiles() throws Exception {
+        write("UserApi.js");
+        ApiManifest manifest = ApiManifest.load(outputDir.toFile());
+        manifest.put("UserController", "abc", Collections.singletonList("UserApi.js"));
+        manifest.store();
+
+        ApiManifest loaded = ApiManifest.load(outputDir.toFile());
+        assertTrue(loaded.isUnchanged("UserController", "abc"));
+        assertFalse(loaded.isUnchanged("UserController", "abd"));
+        assertFalse(loaded.isUnchanged("OrderController", "abc"));
+        Files.delete(outputDir.resolve("UserApi.js"));
+        assertFalse(loaded.isUnchanged("UserController", "abc"));
+    }
+
+    @Test
+    void removesStaleAndOrphanFiles() throws Exception {
+        write("UserApi.1111.js");
+        write("UserApi.2222.js");
+        write("OrderApi.3333.js");
+        ApiManifest manifest = ApiManifest.load(outputDir.toFile());
+        manifest.put("UserController", "a", Collections.singletonList("UserApi.1111.js"));
+        manifest.put("OrderController", "b", Collections.singletonList("OrderApi.3333.js"));
+
+        // 内容变化后带旧哈希的文件被删除，新文件保留
+        List<String> current = Collections.singletonList("UserApi.2222.js");
+        assertEquals(Collections.singletonList("UserApi.1111.js"), manifest.removeStaleFiles("UserController", current));
+        manifest.put("UserController", "c", current);
+
+        assertEquals(Collections.singletonList("OrderApi.3333.js"),
+                manifest.removeOrphans(Collections.singleton("UserController")));
+        assertEquals(Collections.singleton("UserController"), manifest.getModuleNames());
+        assertTrue(Files.exists(outputDir.resolve("UserApi.2222.js")));
+        assertFalse(Files.exists(outputDir.resolve("UserApi.1111.js")));
+        assertFalse(Files.exists(outputDir.resolve("OrderApi.3333.js")));
+    }
+
+    @Test
+    void fingerprintIsStableAcrossResolvers() {
+        ApiMethodBuilder apiMethodBuilder = newContext().getBean(ApiMethodBuilder.class);
+        // 不同的解析缓存得到相同的指纹
+        String first = ApiFingerprint.of(apiMethodBuilder.buildModule(OrderController.class, new TypeSchemaResolver()), "s");
+        String second = ApiFingerprint.of(apiMethodBuilder.buildModule(OrderController.class, new TypeSchemaResolver()), "s");
+        assertEquals(first, second);
+        assertNotEquals(first, ApiFingerprint.of(apiMethodBuilder.buildModule(OrderController.class), "t"));
+        assertNotEquals(first, ApiFingerprint.of(apiMethodBuilder.buildModule(UserController.class), "s"));
+    }
+
+    private ApiGenerator newGenerator() {
+        return newContext().getBean(ApiGenerator.class);
+    }
+
+    private AnnotationConfigApplicationContext newContext() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.output-path", outputDir.toString());
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class);
+        context.refresh();
+        return context;
+    }
+
+    private void write(String fileName) throws IOException {
+        Files.write(outputDir.resolve(fileName), fileName.getBytes(StandardCharsets.UTF_8));
+    }
+}
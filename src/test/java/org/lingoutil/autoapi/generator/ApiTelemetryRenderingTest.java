@@ -0,0 +1,150 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.Test;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.emitter.TypeScriptApiEmitter;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.model.ApiEndpoint;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 开启耗时记录时每个接口方法都通过运行时模块调用并带有接口标识，关闭时输出保持不变。
+ */
+class ApiTelemetryRenderingTest {
+
+    /**
+     * 未开启耗时记录时 {@link OrderController} 的渲染结果，与引入耗时记录之前的输出一致
+     */
+    private static final String BASELINE = "OrderApi.js";
+
+    /**
+     * 接口标识中的 Controller 名，嵌套类带有外部类名
+     */
+    private static final String CONTROLLER_NAME = "ApiTelemetryRenderingTest$OrderController";
+
+    static class OrderQuery {
+        public String keyword;
+        public Integer pageNo;
+    }
+
+    @GenerateApi
+    @RequestMapping("/order")
+    static class OrderController {
+
+        @AutoApi
+        @RequestMapping("get")
+        public String get(Long id) {
+            return null;
+        }
+
+        @AutoApi(cacheTtlMs = 3000)
+        @RequestMapping("search")
+        public String search(String keyword, Integer pageNo) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("save")
+        public String save(@RequestBody OrderQuery query) {
+            return null;
+        }
+    }
+
+    @Test
+    void telemetryRoutesEveryEndpointThroughCall() {
+        String content = render(true, null);
+        List<ApiEndpoint> endpoints = buildModule(true, null).getEndpoints();
+        assertEquals(3, endpoints.size());
+        for (ApiEndpoint endpoint : endpoints) {
+            String endpointId = CONTROLLER_NAME + "#" + endpoint.getName() + " " + endpoint.getHttpMethod().toUpperCase()
+                    + " " + endpoint.getPath();
+            assertEquals(endpointId, endpoint.getCallOptions().getEndpointId());
+            assertTrue(content.contains("endpoint: '" + endpointId + "'"), endpointId);
+        }
+        assertFalse(content.contains("return request("));
+        assertEquals(3, count(content, "return call(request, {"));
+    }
+
+    @Test
+    void telemetryAppliesToTypeScript() {
+        String content = render(true, TypeScriptApiEmitter.NAME);
+        assertFalse(content.contains("return request("));
+        assertTrue(content.contains("endpoint: '" + CONTROLLER_NAME + "#get GET /order/get'"));
+        assertTrue(content.contains("endpoint: '" + CONTROLLER_NAME + "#save POST /order/save'"));
+    }
+
+    @Test
+    void outputWithoutTelemetryIsUnchanged() throws IOException {
+        assertEquals(readBaseline(), render(false, null));
+        for (ApiEndpoint endpoint : buildModule(false, null).getEndpoints()) {
+            assertNull(endpoint.getCallOptions().getEndpointId());
+        }
+    }
+
+    private static String render(boolean telemetry, String emitter) {
+        try (AnnotationConfigApplicationContext context = newContext(telemetry, emitter)) {
+            ApiMethodBuilder apiMethodBuilder = context.getBean(ApiMethodBuilder.class);
+            ApiModule module = apiMethodBuilder.buildModule(OrderController.class);
+            // 基准文件以 \n 换行
+            return StandardCharsets.UTF_8.decode(apiMethodBuilder.render(module)).toString()
+                    .replace(ApiModuleRenderer.NEW_LINE, "\n");
+        }
+    }
+
+    private static ApiModule buildModule(boolean telemetry, String emitter) {
+        try (AnnotationConfigApplicationContext context = newContext(telemetry, emitter)) {
+            return context.getBean(ApiMethodBuilder.class).buildModule(OrderController.class);
+        }
+    }
+
+    private static AnnotationConfigApplicationContext newContext(boolean telemetry, String emitter) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.telemetry", telemetry);
+        if (emitter != null) {
+            properties.put("lingo-util.auto-api.emitter", emitter);
+        }
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class);
+        context.refresh();
+        return context;
+    }
+
+    private static String readBaseline() throws IOException {
+        try (InputStream input = ApiTelemetryRenderingTest.class.getResourceAsStream(BASELINE)) {
+            assertNotNull(input, BASELINE);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int count(String content, String part) {
+        int count = 0;
+        for (int index = content.indexOf(part); index >= 0; index = content.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
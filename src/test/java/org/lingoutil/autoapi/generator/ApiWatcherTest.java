@@ -0,0 +1,214 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.lingoutil.autoapi.model.FieldSchema;
+import org.lingoutil.autoapi.model.TypeSchema;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在临时目录中编译 Controller 和 DTO，修改后重新编译，检查监视模式只重新生成受影响的 Controller。
+ */
+class ApiWatcherTest {
+
+    private static final String USER_CONTROLLER = "watched.UserController";
+
+    private static final String ORDER_CONTROLLER = "watched.OrderController";
+
+    @TempDir
+    Path workDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    private URLClassLoader classLoader;
+
+    @AfterEach
+    void close() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (classLoader != null) {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    void changedDtoRegeneratesOnlyControllersThatReachIt() throws Exception {
+        Path classes = workDir.resolve("classes");
+        compile(classes, "watched/UserDto.java", dto("UserDto", "name"));
+        compile(classes, "watched/UserController.java", controller("UserController", "/user", "UserDto"));
+        compile(classes, "watched/OrderDto.java", dto("OrderDto", "orderNo"));
+        compile(classes, "watched/OrderController.java", controller("OrderController", "/order", "OrderDto"));
+        ApiGenerator apiGenerator = startWatching(classes);
+        ApiModule userModule = apiGenerator.getModules().get(USER_CONTROLLER);
+        ApiModule orderModule = apiGenerator.getModules().get(ORDER_CONTROLLER);
+        assertEquals(new TreeSet<>(Arrays.asList("orderNo")), fieldNames(orderModule));
+
+        compile(classes, "watched/OrderDto.java", dto("OrderDto", "orderNo", "remark"));
+        ApiModule regenerated = awaitRegenerated(apiGenerator, ORDER_CONTROLLER, orderModule);
+        assertEquals(new TreeSet<>(Arrays.asList("orderNo", "remark")), fieldNames(regenerated));
+        assertSame(userModule, apiGenerator.getModules().get(USER_CONTROLLER));
+        assertTrue(read("OrderApi.js").contains("remark"), read("OrderApi.js"));
+    }
+
+    @Test
+    void changedInnerClassRegeneratesOuterController() throws Exception {
+        Path classes = workDir.resolve("classes");
+        compile(classes, "watched/UserDto.java", dto("UserDto", "name"));
+        compile(classes, "watched/UserController.java", controller("UserController", "/user", "UserDto"));
+        compile(classes, "watched/OrderDto.java", dto("OrderDto", "orderNo"));
+        compile(classes, "watched/OrderController.java", controller("OrderController", "/order", "OrderDto"));
+        ApiGenerator apiGenerator = startWatching(classes);
+        ApiModule userModule = apiGenerator.getModules().get(USER_CONTROLLER);
+        ApiModule orderModule = apiGenerator.getModules().get(ORDER_CONTROLLER);
+
+        // 只有内部类的类文件变化，外部类不变
+        Files.write(classes.resolve("watched/UserController$Helper.class"),
+                Files.readAllBytes(classes.resolve("watched/UserController$Helper.class")));
+        assertNotSame(userModule, awaitRegenerated(apiGenerator, USER_CONTROLLER, userModule));
+        assertSame(orderModule, apiGenerator.getModules().get(ORDER_CONTROLLER));
+    }
+
+    @Test
+    void reloadingClassLoaderPrefersWatchedFolder() throws Exception {
+        Path classes = workDir.resolve("classes");
+        compile(classes, "watched/OrderDto.java", dto("OrderDto", "orderNo"));
+        compile(classes, "watched/OrderController.java", controller("OrderController", "/order", "OrderDto"));
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+        Class<?> oldController = classLoader.loadClass(ORDER_CONTROLLER);
+
+        try (ReloadingClassLoader reloading = new ReloadingClassLoader(new URL[]{classes.toUri().toURL()}, classLoader)) {
+            Class<?> controller = Class.forName(ORDER_CONTROLLER, false, reloading);
+            assertNotSame(oldController, controller);
+            assertSame(reloading, controller.getMethod("save", controller.getClassLoader().loadClass("watched.OrderDto"))
+                    .getParameterTypes()[0].getClassLoader());
+            assertTrue(ApiInitializer.isGenerateApiEnabled(controller));
+            assertSame(GenerateApi.class, reloading.loadClass(GenerateApi.class.getName()));
+        }
+    }
+
+    private ApiGenerator startWatching(Path classes) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.output-path", workDir.resolve("api").toString());
+        properties.put("lingo-util.auto-api.watch", true);
+        properties.put("lingo-util.auto-api.watch-paths", classes.toString());
+        properties.put("lingo-util.auto-api.watch-debounce", 100);
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class, ApiWatcher.class);
+        context.refresh();
+
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+        List<Class<?>> controllers = new ArrayList<>();
+        controllers.add(classLoader.loadClass(USER_CONTROLLER));
+        controllers.add(classLoader.loadClass(ORDER_CONTROLLER));
+        ApiGenerator apiGenerator = context.getBean(ApiGenerator.class);
+        apiGenerator.generateApiCode(controllers);
+        context.getBean(ApiWatcher.class).start(controllers);
+        return apiGenerator;
+    }
+
+    /**
+     * 等待监视线程重新生成指定的 Controller。
+     */
+    private static ApiModule awaitRegenerated(ApiGenerator apiGenerator, String controller, ApiModule previous)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20000;
+        while (System.currentTimeMillis() < deadline) {
+            ApiModule module = apiGenerator.getModules().get(controller);
+            if (module != previous) {
+                return module;
+            }
+            Thread.sleep(50);
+        }
+        return fail(controller + " was not regenerated");
+    }
+
+    private static Set<String> fieldNames(ApiModule module) {
+        Set<String> names = new TreeSet<>();
+        for (TypeSchema schema : module.collectSchemas()) {
+            for (FieldSchema field : schema.getFields()) {
+                names.add(field.getName());
+            }
+        }
+        return names;
+    }
+
+    private String read(String fileName) throws IOException {
+        return new String(Files.readAllBytes(workDir.resolve("api").resolve(fileName)), StandardCharsets.UTF_8);
+    }
+
+    private static String dto(String name, String... fields) {
+        StringBuilder source = new StringBuilder("package watched;\npublic class " + name + " {\n");
+        for (String field : fields) {
+            source.append("    public String ").append(field).append(";\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String controller(String name, String path, String dto) {
+        return String.join("\n",
+                "package watched;",
+                "import org.lingoutil.autoapi.annotation.AutoApi;",
+                "import org.lingoutil.autoapi.annotation.GenerateApi;",
+                "import org.springframework.stereotype.Controller;",
+                "import org.springframework.web.bind.annotation.RequestBody;",
+                "import org.springframework.web.bind.annotation.RequestMapping;",
+                "@Controller",
+                "@GenerateApi",
+                "@RequestMapping(\"" + path + "\")",
+                "public class " + name + " {",
+                "    static class Helper {",
+                "    }",
+                "    @AutoApi",
+                "    @RequestMapping(\"save\")",
+                "    public String save(@RequestBody " + dto + " body) { return null; }",
+                "}");
+    }
+
+    /**
+     * 编译单个源文件到类目录，类目录同时作为类路径，未修改的类不会重新编译。
+     */
+    private void compile(Path classes, String fileName, String source) throws IOException {
+        Path sourceFile = workDir.resolve("src").resolve(fileName);
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(classes);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-proc:none", "-parameters",
+                    "-classpath", classes + File.pathSeparator + System.getProperty("java.class.path"),
+                    "-d", classes.toString());
+            assertTrue(compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjects(sourceFile.toFile())).call(), fileName);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.lingoutil.autoapi.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.model.ApiCallOptions;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式响应的判断：SseEmitter 和 ServerSentEvent 按类型即为 SSE，其他 ResponseBodyEmitter 只有声明了 NDJSON 的 produces 时才按行读取。
+ * 测试的类路径中没有 spring-webmvc，在临时目录中编译同名的 Emitter 类，StreamingTypes 按全限定名匹配。
+ */
+class StreamingTypesTest {
+
+    private static final String EMITTER_PACKAGE = "org.springframework.web.servlet.mvc.method.annotation";
+
+    private static final List<String> NONE = Collections.emptyList();
+
+    @TempDir
+    Path workDir;
+
+    private URLClassLoader classLoader;
+
+    private Class<?> responseBodyEmitter;
+
+    private Class<?> sseEmitter;
+
+    static class Events {
+
+        public Stream<ServerSentEvent<String>> events() {
+            return null;
+        }
+
+        public ResponseEntity<ServerSentEvent<String>> wrapped() {
+            return null;
+        }
+
+        public List<String> list() {
+            return null;
+        }
+    }
+
+    @BeforeEach
+    void compileEmitters() throws Exception {
+        Path classes = workDir.resolve("classes");
+        compile(classes, "ResponseBodyEmitter", "public class ResponseBodyEmitter {\n}\n");
+        compile(classes, "SseEmitter", "public class SseEmitter extends ResponseBodyEmitter {\n}\n");
+        compile(classes, "ProgressEmitter", "public class ProgressEmitter extends ResponseBodyEmitter {\n}\n");
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+        responseBodyEmitter = classLoader.loadClass(EMITTER_PACKAGE + ".ResponseBodyEmitter");
+        sseEmitter = classLoader.loadClass(EMITTER_PACKAGE + ".SseEmitter");
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void plainEmitterIsNotStreamWithoutProduces() throws Exception {
+        assertNull(StreamingTypes.streamOf(responseBodyEmitter, NONE));
+        assertNull(StreamingTypes.streamOf(classLoader.loadClass(EMITTER_PACKAGE + ".ProgressEmitter"), NONE));
+        assertNull(StreamingTypes.streamOf(responseBodyEmitter, Collections.singletonList("application/json")));
+    }
+
+    @Test
+    void plainEmitterIsNdjsonWithMatchingProduces() {
+        for (String produces : new String[]{"application/x-ndjson", "application/ndjson", "application/stream+json",
+                " Application/X-NDJSON ; charset=UTF-8"}) {
+            assertEquals(ApiCallOptions.STREAM_NDJSON, StreamingTypes.streamOf(responseBodyEmitter,
+                    Arrays.asList("application/json", produces)), produces);
+        }
+    }
+
+    @Test
+    void sseEmitterIsSseByType() {
+        assertEquals(ApiCallOptions.STREAM_SSE, StreamingTypes.streamOf(sseEmitter, NONE));
+        assertEquals(ApiCallOptions.STREAM_SSE, StreamingTypes.streamOf(responseBodyEmitter,
+                Collections.singletonList("text/event-stream;charset=UTF-8")));
+    }
+
+    @Test
+    void serverSentEventSequenceIsSse() throws Exception {
+        assertEquals(ApiCallOptions.STREAM_SSE, streamOf("events", NONE));
+        assertEquals(ApiCallOptions.STREAM_SSE, streamOf("wrapped", NONE));
+        assertNull(streamOf("list", NONE));
+        assertEquals(ApiCallOptions.STREAM_NDJSON, streamOf("list", Collections.singletonList("application/x-ndjson")));
+    }
+
+    private static String streamOf(String methodName, Collection<String> produces) throws NoSuchMethodException {
+        return StreamingTypes.streamOf(Events.class.getMethod(methodName).getGenericReturnType(), produces);
+    }
+
+    /**
+     * 编译 spring-webmvc 中同名的 Emitter 类到类目录，类目录同时作为类路径。
+     */
+    private void compile(Path classes, String name, String body) throws IOException {
+        Path sourceFile = workDir.resolve("src").resolve(EMITTER_PACKAGE.replace('.', '/')).resolve(name + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, ("package " + EMITTER_PACKAGE + ";\n" + body).getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(classes);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-proc:none", "-classpath", classes.toString(), "-d", classes.toString());
+            assertTrue(compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjects(sourceFile.toFile())).call(), name);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.lingoutil.autoapi.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.emitter.TypeScriptApiEmitter;
+import org.lingoutil.autoapi.generator.ApiFileWriter;
+import org.lingoutil.autoapi.generator.ApiGenerator;
+import org.lingoutil.autoapi.generator.ApiMethodBuilder;
+import org.lingoutil.autoapi.generator.ApiModuleCache;
+import org.lingoutil.autoapi.generator.ApiModuleRenderer;
+import org.lingoutil.autoapi.generator.ApiRenderOptions;
+import org.lingoutil.autoapi.generator.TypeSchemaResolver;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.lingoutil.autoapi.model.ApiModule;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用 javac 编译作为夹具的 Controller 并运行注解处理器，输出应与运行时通过反射生成的逐字节一致。
+ */
+class ApiAnnotationProcessorTest {
+
+    /**
+     * 夹具的源码，两个 Controller 各有一个简单类名相同的 DTO，覆盖 TypeScript 类型名冲突
+     */
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("fixture/user/UserDto.java", String.join("\n",
+                "package fixture.user;",
+                "public class UserDto {",
+                "    public static final String TABLE = \"user\";",
+                "    private Long id;",
+                "    private String name;",
+                "    private java.util.List<fixture.user.RoleDto> roles;",
+                "}"));
+        SOURCES.put("fixture/user/RoleDto.java", String.join("\n",
+                "package fixture.user;",
+                "public class RoleDto {",
+                "    private String code;",
+                "}"));
+        SOURCES.put("fixture/user/UserController.java", String.join("\n",
+                "package fixture.user;",
+                "import org.lingoutil.autoapi.annotation.AutoApi;",
+                "import org.lingoutil.autoapi.annotation.GenerateApi;",
+                "import org.springframework.web.bind.annotation.RequestBody;",
+                "import org.springframework.web.bind.annotation.RequestMapping;",
+                "@GenerateApi",
+                "@RequestMapping(\"/user\")",
+                "public class UserController {",
+                "    @AutoApi(description = \"查询用户\", cacheTtlMs = 5000)",
+                "    @RequestMapping(\"get\")",
+                "    public UserDto get(Long id) { return null; }",
+                "    @AutoApi(description = \"保存用户\")",
+                "    @RequestMapping(\"save\")",
+                "    public Long save(@RequestBody UserDto user) { return null; }",
+                "}"));
+        SOURCES.put("fixture/order/UserDto.java", String.join("\n",
+                "package fixture.order;",
+                "public class UserDto {",
+                "    private String nickname;",
+                "}"));
+        SOURCES.put("fixture/order/OrderController.java", String.join("\n",
+                "package fixture.order;",
+                "import org.lingoutil.autoapi.annotation.AutoApi;",
+                "import org.lingoutil.autoapi.annotation.GenerateApi;",
+                "import org.springframework.web.bind.annotation.RequestMapping;",
+                "@GenerateApi",
+                "@RequestMapping(\"/order\")",
+                "public class OrderController {",
+                "    @AutoApi(description = \"下单用户\")",
+                "    @RequestMapping(\"buyer\")",
+                "    public String buyer(UserDto buyer, Integer count) { return null; }",
+                "}"));
+    }
+
+    private static final List<String> CONTROLLERS = Arrays.asList("fixture.user.UserController", "fixture.order.OrderController");
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void requestEmitterMatchesReflection() throws Exception {
+        assertMatchesReflection(null);
+    }
+
+    @Test
+    void typeScriptEmitterMatchesReflection() throws Exception {
+        assertMatchesReflection(TypeScriptApiEmitter.NAME);
+    }
+
+    @Test
+    void incrementalCompileKeepsOtherModules() throws Exception {
+        Path classes = workDir.resolve("classes");
+        List<String> options = options(classes, TypeScriptApiEmitter.NAME);
+        assertTrue(compile(SOURCES, classes, options).isEmpty());
+        byte[] fullTypes = Files.readAllBytes(classes.resolve("auto-api/types.ts"));
+        byte[] fullOrderApi = Files.readAllBytes(classes.resolve("auto-api/OrderApi.ts"));
+
+        // 只重新编译 UserController，OrderController 及其 DTO 从已编译的类中读取
+        Map<String, String> changed = new LinkedHashMap<>();
+        changed.put("fixture/user/UserController.java", SOURCES.get("fixture/user/UserController.java"));
+        assertTrue(compile(changed, classes, options).isEmpty());
+        assertArrayEquals(fullTypes, Files.readAllBytes(classes.resolve("auto-api/types.ts")));
+        assertArrayEquals(fullOrderApi, Files.readAllBytes(classes.resolve("auto-api/OrderApi.ts")));
+        assertEquals("fixture.order.OrderController\nfixture.user.UserController\n",
+                new String(Files.readAllBytes(classes.resolve("auto-api/" + ApiAnnotationProcessor.INDEX_FILE)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reportsInvalidLocation() throws Exception {
+        Path classes = workDir.resolve("classes");
+        List<String> options = options(classes, null);
+        options.add("-Aautoapi.location=NOWHERE");
+        List<String> errors = compile(SOURCES, classes, options);
+        assertTrue(errors.stream().anyMatch(error -> error.contains("-Aautoapi.location")), errors.toString());
+    }
+
+    @Test
+    void reportsUnknownEmitter() throws Exception {
+        Path classes = workDir.resolve("classes");
+        List<String> errors = compile(SOURCES, classes, options(classes, "nope"));
+        assertTrue(errors.stream().anyMatch(error -> error.contains("-Aautoapi.emitter")), errors.toString());
+    }
+
+    private void assertMatchesReflection(String emitter) throws Exception {
+        Path classes = workDir.resolve("classes");
+        assertTrue(compile(SOURCES, classes, options(classes, emitter)).isEmpty());
+        Path outputDir = classes.resolve("auto-api");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+             AnnotationConfigApplicationContext context = newContext(emitter)) {
+            ApiMethodBuilder apiMethodBuilder = context.getBean(ApiMethodBuilder.class);
+            TypeSchemaResolver resolver = new TypeSchemaResolver();
+            List<ApiModule> modules = new ArrayList<>();
+            for (String controller : CONTROLLERS) {
+                modules.add(apiMethodBuilder.buildModule(classLoader.loadClass(controller), resolver));
+            }
+            ApiRenderOptions options = ApiModuleRenderer.prepare(modules, context.getBean(ApiConfiguration.class).getRenderOptions());
+            for (ApiModule module : modules) {
+                assertFileEquals(apiMethodBuilder.render(module, options), outputDir.resolve(apiMethodBuilder.fileName(module)));
+            }
+            if (apiMethodBuilder.sharedFileName() != null) {
+                assertFileEquals(apiMethodBuilder.renderShared(modules, options), outputDir.resolve(apiMethodBuilder.sharedFileName()));
+            }
+            assertFileEquals(apiMethodBuilder.renderRuntime(modules), outputDir.resolve(apiMethodBuilder.runtimeFileName()));
+        }
+    }
+
+    private static void assertFileEquals(ByteBuffer expected, Path file) throws IOException {
+        byte[] bytes = new byte[expected.remaining()];
+        expected.get(bytes);
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+                file.getFileName().toString());
+    }
+
+    private static List<String> options(Path classes, String emitter) {
+        List<String> options = new ArrayList<>(Arrays.asList(
+                "-processor", ApiAnnotationProcessor.class.getName(),
+                "-parameters",
+                "-Aautoapi.location=CLASS_OUTPUT",
+                "-classpath", classes + File.pathSeparator + System.getProperty("java.class.path"),
+                "-d", classes.toString()));
+        if (emitter != null) {
+            options.add("-Aautoapi.emitter=" + emitter);
+        }
+        return options;
+    }
+
+    /**
+     * 编译源码，返回编译错误。
+     */
+    private List<String> compile(Map<String, String> sources, Path classes, List<String> options) throws IOException {
+        Path sourceDir = Files.createTempDirectory(workDir, "src");
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+        Files.createDirectories(classes);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private static AnnotationConfigApplicationContext newContext(String emitter) {
+        Map<String, Object> properties = new HashMap<>();
+        if (emitter != null) {
+            properties.put("lingo-util.auto-api.emitter", emitter);
+        }
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,138 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.annotation.AutoApi;
+import org.lingoutil.autoapi.annotation.GenerateApi;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiFileWriter;
+import org.lingoutil.autoapi.generator.ApiGenerator;
+import org.lingoutil.autoapi.generator.ApiMethodBuilder;
+import org.lingoutil.autoapi.generator.ApiModuleCache;
+import org.lingoutil.autoapi.metrics.ApiGenerationMetrics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在内嵌的 Tomcat 中发送批量请求，子请求转发给模拟处理器的 Servlet，检查分发、白名单和超时。
+ */
+class ApiBatchFilterTest {
+
+    @TempDir
+    Path baseDir;
+
+    @TempDir
+    Path outputDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    private EmbeddedServer server;
+
+    @GenerateApi(batching = true)
+    @RequestMapping("/user")
+    static class UserController {
+
+        @AutoApi
+        @RequestMapping("get")
+        public String get(Long id) {
+            return null;
+        }
+
+        @AutoApi
+        @RequestMapping("slow")
+        public String slow() {
+            return null;
+        }
+    }
+
+    /**
+     * 代替 DispatcherServlet 处理转发的子请求，/user/slow 在被中断前一直等待
+     */
+    static class BackendServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (request.getRequestURI().endsWith("/slow")) {
+                try {
+                    Thread.sleep(60000);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + request.getParameter("id") + "}");
+        }
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void dispatchesBatchedCallsInOrder() throws Exception {
+        start(new HashMap<>());
+        EmbeddedServer.Response response = batch("[{\"method\":\"get\",\"url\":\"/user/get\",\"params\":{\"id\":1}},"
+                + "{\"url\":\"/user/get\",\"params\":{\"id\":2}}]");
+        assertEquals(200, response.status);
+        assertEquals("[{\"status\":200,\"body\":{\"id\":1}},{\"status\":200,\"body\":{\"id\":2}}]", response.text());
+    }
+
+    @Test
+    void rejectsPathNotInAllowlistWith403() throws Exception {
+        start(new HashMap<>());
+        EmbeddedServer.Response response = batch("[{\"url\":\"/user/get\",\"params\":{\"id\":1}},{\"url\":\"/admin/delete\"}]");
+        assertEquals(403, response.status);
+    }
+
+    @Test
+    void answersTimedOutCallWith504() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.batch-timeout", 300);
+        start(properties);
+        long start = System.nanoTime();
+        EmbeddedServer.Response response = batch("[{\"url\":\"/user/get\",\"params\":{\"id\":1}},{\"url\":\"/user/slow\"}]");
+        assertEquals(200, response.status);
+        assertEquals("[{\"status\":200,\"body\":{\"id\":1}},{\"status\":504,\"body\":null}]", response.text());
+        // 超时的子请求被中断，不必等待其自然结束
+        assertTrue(System.nanoTime() - start < 30_000_000_000L);
+    }
+
+    private void start(Map<String, Object> properties) throws Exception {
+        properties.put("lingo-util.auto-api.output-path", outputDir.toString());
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiGenerator.class, ApiMethodBuilder.class, ApiFileWriter.class,
+                ApiModuleCache.class, ApiGenerationMetrics.class, ApiBatchFilter.class);
+        context.refresh();
+        context.getBean(ApiGenerator.class).generateApiCode(Collections.<Class<?>>singletonList(UserController.class));
+        server = EmbeddedServer.start(baseDir, new BackendServlet(), context.getBean(ApiBatchFilter.class));
+    }
+
+    private EmbeddedServer.Response batch(String body) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        return server.post("/auto-api-batch", headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
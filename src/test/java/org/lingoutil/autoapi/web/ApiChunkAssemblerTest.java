@@ -0,0 +1,165 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在内嵌的 Tomcat 中按客户端的方式发送分片，检查组装、重复分片和大小限制。
+ */
+class ApiChunkAssemblerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path baseDir;
+
+    @TempDir
+    Path uploadDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    private EmbeddedServer server;
+
+    /**
+     * 把请求体作为分片交给 ApiChunkAssembler，组装完成时在响应头返回文件名。
+     * 与 Spring MVC 一致，ResponseStatusException 按其状态码响应
+     */
+    static class UploadServlet extends HttpServlet {
+
+        private final ApiChunkAssembler apiChunkAssembler;
+
+        UploadServlet(ApiChunkAssembler apiChunkAssembler) {
+            this.apiChunkAssembler = apiChunkAssembler;
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                Path path = apiChunkAssembler.accept(request, response, request.getInputStream());
+                if (path != null) {
+                    response.setHeader("X-Assembled", path.getFileName().toString());
+                }
+            }
+            catch (ResponseStatusException e) {
+                response.sendError(e.getStatusCode().value());
+            }
+        }
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void assemblesChunksInAnyOrder() throws Exception {
+        start(new HashMap<>());
+        EmbeddedServer.Response second = send("a1", 10, 20);
+        assertEquals("0", second.header(ApiChunkAssembler.UPLOAD_OFFSET_HEADER));
+        assertNull(second.header("X-Assembled"));
+
+        EmbeddedServer.Response first = send("a1", 0, 10);
+        assertEquals(200, first.status);
+        assertEquals("20", first.header(ApiChunkAssembler.UPLOAD_OFFSET_HEADER));
+        assertEquals("a1.upload", first.header("X-Assembled"));
+        assertArrayEquals(CONTENT, Files.readAllBytes(uploadDir.resolve("a1.upload")));
+        assertArrayEquals(new String[]{"a1.upload"}, listUploadDir());
+    }
+
+    @Test
+    void ignoresDuplicateChunkAfterCompletion() throws Exception {
+        start(new HashMap<>());
+        send("a2", 0, 10);
+        assertEquals("a2.upload", send("a2", 10, 20).header("X-Assembled"));
+
+        // 应用已处理并移走组装好的文件后，重复的分片和整个文件重发都不再写入
+        Files.delete(uploadDir.resolve("a2.upload"));
+        EmbeddedServer.Response duplicate = send("a2", 10, 20);
+        assertEquals(200, duplicate.status);
+        assertEquals("20", duplicate.header(ApiChunkAssembler.UPLOAD_OFFSET_HEADER));
+        assertNull(duplicate.header("X-Assembled"));
+        EmbeddedServer.Response resent = send("a2", 0, 20);
+        assertEquals("20", resent.header(ApiChunkAssembler.UPLOAD_OFFSET_HEADER));
+        assertNull(resent.header("X-Assembled"));
+        assertArrayEquals(new String[0], listUploadDir());
+    }
+
+    @Test
+    void ignoresDuplicateChunkAfterRestart() throws Exception {
+        start(new HashMap<>());
+        send("a3", 0, 10);
+        send("a3", 10, 20);
+        Path assembled = uploadDir.resolve("a3.upload");
+        Files.write(assembled, "consumed".getBytes(StandardCharsets.UTF_8));
+
+        // 新的容器没有内存中的状态，按已有的组装好的文件识别
+        stop();
+        start(new HashMap<>());
+        EmbeddedServer.Response duplicate = send("a3", 0, 20);
+        assertEquals("20", duplicate.header(ApiChunkAssembler.UPLOAD_OFFSET_HEADER));
+        assertNull(duplicate.header("X-Assembled"));
+        assertEquals("consumed", new String(Files.readAllBytes(assembled), StandardCharsets.UTF_8));
+        assertArrayEquals(new String[]{"a3.upload"}, listUploadDir());
+    }
+
+    @Test
+    void rejectsUploadOverMaxSizeWith413() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.upload-max-size", 10);
+        start(properties);
+        EmbeddedServer.Response response = send("a4", 0, 10);
+        assertEquals(413, response.status);
+        assertArrayEquals(new String[0], listUploadDir());
+    }
+
+    private void start(Map<String, Object> properties) throws Exception {
+        properties.put("lingo-util.auto-api.upload-path", uploadDir.toString());
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiChunkAssembler.class);
+        context.refresh();
+        server = EmbeddedServer.start(baseDir, new UploadServlet(context.getBean(ApiChunkAssembler.class)));
+    }
+
+    /**
+     * 发送 CONTENT 的 [from, to) 作为一个分片。
+     */
+    private EmbeddedServer.Response send(String id, int from, int to) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(ApiChunkAssembler.UPLOAD_ID_HEADER, id);
+        headers.put(ApiChunkAssembler.UPLOAD_OFFSET_HEADER, String.valueOf(from));
+        headers.put(ApiChunkAssembler.UPLOAD_LENGTH_HEADER, String.valueOf(CONTENT.length));
+        headers.put("Content-Type", "application/octet-stream");
+        return server.post("/upload", headers, Arrays.copyOfRange(CONTENT, from, to));
+    }
+
+    private String[] listUploadDir() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toArray(String[]::new);
+        }
+    }
+}
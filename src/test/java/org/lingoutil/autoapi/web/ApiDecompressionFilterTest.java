@@ -0,0 +1,145 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在内嵌的 Tomcat 中通过真实的 HTTP 请求检查请求体的解压和压缩炸弹的拦截。
+ */
+class ApiDecompressionFilterTest {
+
+    private static final String JSON = "[{\"id\":1,\"name\":\"张三\"},{\"id\":2,\"name\":\"李四\"}]";
+
+    @TempDir
+    Path baseDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    private EmbeddedServer server;
+
+    /**
+     * 读取完整的请求体并原样返回，响应头带上 Servlet 看到的 Content-Encoding
+     */
+    static class EchoServlet extends HttpServlet {
+
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            byte[] body = EmbeddedServer.readAll(request.getInputStream());
+            response.setHeader("X-Seen-Encoding", String.valueOf(request.getHeader("Content-Encoding")));
+            response.setContentType("application/octet-stream");
+            response.getOutputStream().write(body);
+        }
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void decompressesGzipBody() throws Exception {
+        start(true);
+        EmbeddedServer.Response response = post(gzip(JSON.getBytes(StandardCharsets.UTF_8)), "gzip");
+        assertEquals(200, response.status);
+        assertEquals(JSON, response.text());
+        assertEquals("null", response.header("X-Seen-Encoding"));
+    }
+
+    @Test
+    void rejectsZipBombWith413() throws Exception {
+        start(true);
+        // 32MB 的 0 压缩后约 32KB，比例远超默认的 100 倍
+        byte[] bomb = gzip(new byte[32 * 1024 * 1024]);
+        assertEquals(413, post(bomb, "gzip").status);
+    }
+
+    @Test
+    void rejectsBodyOverMaxSizeWith413() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.decompress-max-size", 1024);
+        start(true, properties);
+        byte[] body = new byte[4096];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i * 31 + i / 7);
+        }
+        assertEquals(413, post(gzip(body), "gzip").status);
+    }
+
+    @Test
+    void rejectsMalformedGzipWith400() throws Exception {
+        start(true);
+        assertEquals(400, post("not gzip at all".getBytes(StandardCharsets.UTF_8), "gzip").status);
+    }
+
+    @Test
+    void passesUncompressedBodyThrough() throws Exception {
+        start(true);
+        EmbeddedServer.Response response = post(JSON.getBytes(StandardCharsets.UTF_8), null);
+        assertEquals(200, response.status);
+        assertEquals(JSON, response.text());
+    }
+
+    @Test
+    void leavesGzipBodyAloneByDefault() throws Exception {
+        start(null, new HashMap<>());
+        byte[] compressed = gzip(JSON.getBytes(StandardCharsets.UTF_8));
+        EmbeddedServer.Response response = post(compressed, "gzip");
+        assertEquals(200, response.status);
+        assertArrayEquals(compressed, response.body);
+        assertEquals("gzip", response.header("X-Seen-Encoding"));
+    }
+
+    private void start(boolean decompress) throws Exception {
+        start(decompress, new HashMap<>());
+    }
+
+    private void start(Boolean decompress, Map<String, Object> properties) throws Exception {
+        if (decompress != null) {
+            properties.put("lingo-util.auto-api.decompress-request", decompress);
+        }
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiDecompressionFilter.class);
+        context.refresh();
+        server = EmbeddedServer.start(baseDir, new EchoServlet(), context.getBean(ApiDecompressionFilter.class));
+    }
+
+    private EmbeddedServer.Response post(byte[] body, String contentEncoding) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (contentEncoding != null) {
+            headers.put("Content-Encoding", contentEncoding);
+        }
+        return server.post("/import", headers, body);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
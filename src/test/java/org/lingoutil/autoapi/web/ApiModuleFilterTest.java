@@ -0,0 +1,137 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lingoutil.autoapi.config.ApiConfiguration;
+import org.lingoutil.autoapi.generator.ApiModuleCache;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在内嵌的 Tomcat 中请求生成的文件，检查 ETag 验证和按 Accept-Encoding 协商压缩。
+ */
+class ApiModuleFilterTest {
+
+    private static final String CONTENT = "export function get(id) {\n\treturn request({ url: '/user/get' })\n}\n";
+
+    private static final String PATH = "/auto-api/UserApi.js";
+
+    @TempDir
+    Path baseDir;
+
+    private AnnotationConfigApplicationContext context;
+
+    private EmbeddedServer server;
+
+    /**
+     * 不由过滤器处理的请求到达这里
+     */
+    static class NextServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.getWriter().write("next");
+        }
+    }
+
+    @BeforeEach
+    void start() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("lingo-util.auto-api.serve", true);
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ApiConfiguration.class, ApiModuleCache.class, ApiModuleFilter.class);
+        context.refresh();
+        context.getBean(ApiModuleCache.class).put("UserApi.js", ByteBuffer.wrap(CONTENT.getBytes(StandardCharsets.UTF_8)));
+        server = EmbeddedServer.start(baseDir, new NextServlet(), context.getBean(ApiModuleFilter.class));
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        server.close();
+        context.close();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWith304() throws Exception {
+        EmbeddedServer.Response first = get("gzip");
+        assertEquals(200, first.status);
+        String etag = first.header("ETag");
+        assertNotNull(etag);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", "gzip");
+        headers.put("If-None-Match", "\"other\", W/" + etag);
+        EmbeddedServer.Response revalidated = server.get(PATH, headers);
+        assertEquals(304, revalidated.status);
+        assertEquals(0, revalidated.body.length);
+        assertEquals(etag, revalidated.header("ETag"));
+
+        // 压缩与未压缩的内容使用不同的 ETag
+        headers.put("Accept-Encoding", "identity");
+        EmbeddedServer.Response identity = server.get(PATH, headers);
+        assertEquals(200, identity.status);
+        assertNotEquals(etag, identity.header("ETag"));
+    }
+
+    @Test
+    void servesGzipWhenAccepted() throws Exception {
+        EmbeddedServer.Response response = get("br;q=1, gzip;q=0.5");
+        assertEquals(200, response.status);
+        assertEquals("gzip", response.header("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.header("Vary"));
+        assertEquals(CONTENT, gunzip(response.body));
+    }
+
+    @Test
+    void explicitGzipRefusalOverridesWildcard() throws Exception {
+        EmbeddedServer.Response response = get("gzip;q=0, *");
+        assertEquals(200, response.status);
+        assertNull(response.header("Content-Encoding"));
+        assertEquals(CONTENT, response.text());
+
+        assertEquals("gzip", get("*").header("Content-Encoding"));
+    }
+
+    @Test
+    void fallsBackToIdentity() throws Exception {
+        for (String acceptEncoding : new String[]{"identity", "br, deflate", "*;q=0"}) {
+            EmbeddedServer.Response response = get(acceptEncoding);
+            assertEquals(200, response.status, acceptEncoding);
+            assertNull(response.header("Content-Encoding"), acceptEncoding);
+            assertEquals(CONTENT, response.text(), acceptEncoding);
+        }
+    }
+
+    @Test
+    void passesOtherPathsToNextFilter() throws Exception {
+        assertEquals(404, server.get("/auto-api/OrderApi.js", new HashMap<String, String>()).status);
+        assertEquals("next", server.get("/user/get", new HashMap<String, String>()).text());
+    }
+
+    private EmbeddedServer.Response get(String acceptEncoding) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", acceptEncoding);
+        return server.get(PATH, headers);
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        return new String(EmbeddedServer.readAll(new GZIPInputStream(new ByteArrayInputStream(content))), StandardCharsets.UTF_8);
+    }
+}
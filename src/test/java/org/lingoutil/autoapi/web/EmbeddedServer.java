@@ -0,0 +1,149 @@
+package org.lingoutil.autoapi.web;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试使用的内嵌 Tomcat：请求依次经过给定的过滤器，最后由给定的 Servlet 处理，通过真实的 HTTP 请求访问。
+ */
+final class EmbeddedServer implements AutoCloseable {
+
+    private final Tomcat tomcat;
+
+    private final int port;
+
+    private EmbeddedServer(Tomcat tomcat) {
+        this.tomcat = tomcat;
+        this.port = tomcat.getConnector().getLocalPort();
+    }
+
+    /**
+     * 在随机端口启动，所有路径都由过滤器和 Servlet 处理。
+     *
+     * @param baseDir Tomcat 的工作目录
+     * @param servlet 处理请求的 Servlet
+     * @param filters 按顺序经过的过滤器
+     * @return 已启动的服务
+     */
+    static EmbeddedServer start(Path baseDir, HttpServlet servlet, Filter... filters) throws LifecycleException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        for (int i = 0; i < filters.length; i++) {
+            FilterDef filterDef = new FilterDef();
+            filterDef.setFilterName("filter" + i);
+            filterDef.setFilter(filters[i]);
+            context.addFilterDef(filterDef);
+            FilterMap filterMap = new FilterMap();
+            filterMap.setFilterName("filter" + i);
+            filterMap.addURLPattern("/*");
+            context.addFilterMap(filterMap);
+        }
+        Tomcat.addServlet(context, "servlet", servlet);
+        context.addServletMappingDecoded("/", "servlet");
+        tomcat.getConnector();
+        tomcat.start();
+        return new EmbeddedServer(tomcat);
+    }
+
+    Response get(String path, Map<String, String> headers) throws IOException {
+        return send("GET", path, headers, null);
+    }
+
+    Response post(String path, Map<String, String> headers, byte[] body) throws IOException {
+        return send("POST", path, headers, body);
+    }
+
+    private Response send(String method, String path, Map<String, String> headers, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            return new Response(status, connection.getHeaderFields(), input == null ? new byte[0] : readAll(input));
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+    static byte[] readAll(InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    static final class Response {
+
+        final int status;
+
+        private final Map<String, List<String>> headers;
+
+        final byte[] body;
+
+        private Response(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers == null ? Collections.<String, List<String>>emptyMap() : headers;
+            this.body = body;
+        }
+
+        /**
+         * 响应头的第一个值，名称不区分大小写。
+         */
+        String header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import request from '@/utils/request'
+import { call } from './auto-api-runtime'
+
+export const getApi = (query) => {
+	/*
+		query: {
+			id: Long,
+		}
+	*/
+	return request({
+		url: '/order/get',
+		method: 'get',
+		params: query
+	})
+}
+
+export const saveApi = (data, signal) => {
+	/*
+		data: {
+			keyword: String,
+			pageNo: Integer,
+		}
+	*/
+	return call(request, {
+		url: '/order/save',
+		method: 'post',
+		data,
+		signal
+	}, { invalidate: 'ApiTelemetryRenderingTest$OrderApi' })
+}
+
+export const searchApi = (query, signal) => {
+	/*
+		query: {
+			keyword: String,
+			pageNo: Integer,
+		}
+	*/
+	return call(request, {
+		url: '/order/search',
+		method: 'get',
+		params: query,
+		signal
+	}, { cacheTtlMs: 3000, cacheGroup: 'ApiTelemetryRenderingTest$OrderApi' })
+}
+